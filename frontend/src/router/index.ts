@@ -12,6 +12,18 @@ const router = createRouter({
       component: Login,
       meta: { requiresAuth: false }
     },
+    {
+      path: '/verify-email',
+      name: 'verify-email',
+      component: () => import('@/views/auth/VerifyEmailView.vue'),
+      meta: { requiresAuth: false }
+    },
+    {
+      path: '/reset-password',
+      name: 'reset-password',
+      component: () => import('@/views/auth/ResetPasswordView.vue'),
+      meta: { requiresAuth: false }
+    },
     {
       path: '/',
       name: 'projects',
@@ -67,6 +79,12 @@ const router = createRouter({
       component: () => import('@/views/RequirementDetail.vue'),
       meta: { requiresAuth: true }
     },
+    {
+      path: '/teams/:teamId/invitations/:invitationId',
+      name: 'team-invitation',
+      component: () => import('@/views/AcceptTeamInvitationView.vue'),
+      meta: { requiresAuth: true }
+    },
     {
       path: '/:pathMatch(.*)*',
       redirect: '/'
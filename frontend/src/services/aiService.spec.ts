@@ -124,6 +124,32 @@ describe('AIService', () => {
     })
   })
 
+  describe('getChatMessages', () => {
+    it('should get chat messages successfully', async () => {
+      const mockMessages = [
+        { role: 'user', content: 'Hello' },
+        { role: 'assistant', content: 'Hi there' }
+      ]
+      fetchMock.mockResolvedValue({
+        ok: true,
+        json: async () => mockMessages
+      })
+
+      const result = await service.getChatMessages('chat-123')
+
+      expect(fetchMock).toHaveBeenCalledWith(
+        expect.stringContaining('/api/ai/chat/chat-123/messages'),
+        expect.objectContaining({
+          method: 'GET',
+          headers: {
+            'Authorization': 'Bearer test-token'
+          }
+        })
+      )
+      expect(result).toEqual(mockMessages)
+    })
+  })
+
   describe('deleteConversation', () => {
     it('should delete conversation successfully', async () => {
       fetchMock.mockResolvedValue({
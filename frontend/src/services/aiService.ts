@@ -88,6 +88,24 @@ export class AIService {
     return await response.json()
   }
 
+  /**
+   * Get the messages of a single chat (loaded only when the chat is opened)
+   */
+  async getChatMessages(chatId: string): Promise<Message[]> {
+    const response = await fetch(`${this.apiUrl}/api/ai/chat/${chatId}/messages`, {
+      method: 'GET',
+      headers: {
+        'Authorization': `Bearer ${localStorage.getItem('auth_token')}`
+      }
+    })
+
+    if (!response.ok) {
+      throw new Error(`API error: ${response.statusText}`)
+    }
+
+    return await response.json()
+  }
+
   /**
    * Delete conversation
    */
@@ -10,9 +10,13 @@ const api: AxiosInstance = axios.create({
 let csrfToken: string | null = null
 let csrfTokenId: string | null = null
 
-// Track when the current CSRF token was last refreshed so we can
-// proactively renew it based on user activity.
-let lastCsrfRefreshAt = 0
+// CSRF tokens are reusable until they expire unless the backend reports
+// single-use mode, so track the expiry to renew them shortly before.
+let csrfExpiresAt = 0
+let csrfSingleUse = false
+// Tokens are bound to the signed-in user, so remember which auth token
+// the current one was issued under.
+let csrfAuthToken: string | null = null
 
 // Basic inactivity/session tracking for UX warnings. This is a
 // frontend-only heuristic and does not change backend session TTL,
@@ -20,7 +24,7 @@ let lastCsrfRefreshAt = 0
 // expire and lets us opportunistically refresh CSRF tokens.
 const INACTIVITY_TIMEOUT_MS = 30 * 60 * 1000 // 30 minutes
 const WARNING_BEFORE_EXPIRY_MS = 2 * 60 * 1000 // warn 2 minutes before
-const CSRF_PROACTIVE_REFRESH_INTERVAL_MS = 5 * 60 * 1000 // refresh every 5 minutes of activity
+const CSRF_REFRESH_MARGIN_MS = 60 * 1000 // renew 1 minute before the token expires
 
 let lastUserActivityAt = Date.now()
 let warningTimer: number | null = null
@@ -29,18 +33,33 @@ let expiryTimer: number | null = null
 // Function to get a fresh CSRF token
 async function getCsrfToken(): Promise<void> {
     try {
-        const response = await axios.get('/api/csrf/token')
+        const authToken = localStorage.getItem('auth_token')
+        const response = await axios.get('/api/csrf/token', {
+            headers: authToken ? { Authorization: `Bearer ${authToken}` } : {}
+        })
+        csrfAuthToken = authToken
         csrfToken = response.data.token
         csrfTokenId = response.data.tokenId || generateTokenId()
+        csrfExpiresAt = response.data.expiresAt ? Date.parse(response.data.expiresAt) : 0
+        csrfSingleUse = String(response.data.singleUse) === 'true'
         console.log('CSRF token refreshed:', csrfToken ? 'SUCCESS' : 'FAILED')
-        lastCsrfRefreshAt = Date.now()
     } catch (error) {
         console.error('Failed to get CSRF token:', error)
         csrfToken = null
         csrfTokenId = null
+        csrfExpiresAt = 0
     }
 }
 
+// A token needs renewing when missing, issued under another login, or about
+// to expire. Tokens from a backend that does not report an expiry are
+// renewed on a CSRF 403 only.
+function csrfNeedsRefresh(): boolean {
+    return !csrfToken
+        || csrfAuthToken !== localStorage.getItem('auth_token')
+        || (csrfExpiresAt > 0 && Date.now() > csrfExpiresAt - CSRF_REFRESH_MARGIN_MS)
+}
+
 // Generate a simple token ID for client-side tracking
 function generateTokenId(): string {
     return Math.random().toString(36).substring(2, 15) + 
@@ -67,7 +86,7 @@ api.interceptors.request.use(
         // Ensure we have a CSRF token for state-changing requests
         const method = config.method?.toLowerCase()
         if (method && ['post', 'put', 'patch', 'delete'].includes(method)) {
-            if (!csrfToken) {
+            if (csrfNeedsRefresh()) {
                 await getCsrfToken()
             }
             
@@ -87,12 +106,12 @@ api.interceptors.request.use(
 // post-interaction CSRF/session management.
 api.interceptors.response.use(
     (response) => {
-        // After a successful state-changing request, drop the cached
-        // CSRF token so that the next modifying call fetches a fresh
-        // token. This aligns with the backend's single-use semantics
-        // and avoids 403s on subsequent interactions.
+        // In single-use mode the backend consumes the token on every
+        // state-changing request, so drop it and fetch a fresh one for
+        // the next modifying call. Otherwise keep reusing it until it
+        // expires.
         const method = response.config?.method?.toLowerCase()
-        if (method && ['post', 'put', 'patch', 'delete'].includes(method)) {
+        if (csrfSingleUse && method && ['post', 'put', 'patch', 'delete'].includes(method)) {
             csrfToken = null
             csrfTokenId = null
         }
@@ -179,9 +198,8 @@ function scheduleSessionTimers() {
             // Treat this as activity and proactively refresh CSRF
             lastUserActivityAt = Date.now()
 
-            // If the CSRF token is old or missing, refresh it
-            const csrfAge = Date.now() - lastCsrfRefreshAt
-            if (!csrfToken || csrfAge > CSRF_PROACTIVE_REFRESH_INTERVAL_MS) {
+            // If the CSRF token is about to expire or missing, refresh it
+            if (csrfNeedsRefresh()) {
                 await getCsrfToken()
             }
 
@@ -206,11 +224,10 @@ function scheduleSessionTimers() {
 function handleUserActivity() {
     lastUserActivityAt = Date.now()
 
-    // Proactively refresh CSRF token during active usage if it has
-    // become stale, so that the next mutating request does not fail
+    // Proactively refresh CSRF token during active usage if it is
+    // about to expire, so that the next mutating request does not fail
     // with a CSRF 403.
-    const csrfAge = Date.now() - lastCsrfRefreshAt
-    if (!csrfToken || csrfAge > CSRF_PROACTIVE_REFRESH_INTERVAL_MS) {
+    if (csrfNeedsRefresh()) {
         void getCsrfToken()
     }
 
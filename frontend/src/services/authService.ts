@@ -78,6 +78,16 @@ export const authService = {
     return response.data.user
   },
 
+  // Token links from account emails land on the verify-email and
+  // reset-password views, which hand the token back here.
+  async verifyEmail(token: string): Promise<void> {
+    await api.post('/auth/verify-email', { token })
+  },
+
+  async resetPassword(token: string, newPassword: string): Promise<void> {
+    await api.post('/auth/reset-password', { token, newPassword })
+  },
+
   logout() {
     localStorage.removeItem('auth_token')
   }
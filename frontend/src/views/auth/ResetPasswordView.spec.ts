@@ -0,0 +1,46 @@
+import { describe, it, expect, beforeEach, vi } from 'vitest'
+import { mount, flushPromises } from '@vue/test-utils'
+import ResetPasswordView from './ResetPasswordView.vue'
+import { authService } from '@/services/authService'
+
+vi.mock('vue-router', () => ({
+  useRoute: () => ({
+    params: {},
+    query: { token: 'reset-token' }
+  })
+}))
+
+vi.mock('@/services/authService', () => ({
+  authService: {
+    resetPassword: vi.fn().mockResolvedValue(undefined)
+  }
+}))
+
+describe('ResetPasswordView.vue', () => {
+  beforeEach(() => {
+    vi.clearAllMocks()
+  })
+
+  it('should not submit when the passwords differ', async () => {
+    const wrapper = mount(ResetPasswordView, { global: { stubs: ['router-link'] } })
+
+    await wrapper.find('#new-password').setValue('correct horse battery')
+    await wrapper.find('#confirm-password').setValue('correct horse battery staple')
+    await wrapper.find('form').trigger('submit.prevent')
+
+    expect(authService.resetPassword).not.toHaveBeenCalled()
+    expect(wrapper.text()).toContain('The passwords do not match.')
+  })
+
+  it('should send the token from the link with the new password', async () => {
+    const wrapper = mount(ResetPasswordView, { global: { stubs: ['router-link'] } })
+
+    await wrapper.find('#new-password').setValue('correct horse battery')
+    await wrapper.find('#confirm-password').setValue('correct horse battery')
+    await wrapper.find('form').trigger('submit.prevent')
+    await flushPromises()
+
+    expect(authService.resetPassword).toHaveBeenCalledWith('reset-token', 'correct horse battery')
+    expect(wrapper.text()).toContain('Your password has been reset.')
+  })
+})
@@ -0,0 +1,127 @@
+package com.annapolislabs.lineage.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * RFC 6902 JSON Patch over JSON objects held as maps, the way JSONB columns are mapped.
+ *
+ * <p>{@link #diff} descends into nested objects and replaces any other changed value as a whole,
+ * so it emits only {@code add}, {@code remove} and {@code replace} operations, which are the ones
+ * {@link #apply} understands. Paths are RFC 6901 pointers.</p>
+ */
+public final class JsonPatch {
+
+    public static final String OP = "op";
+    public static final String PATH = "path";
+    public static final String VALUE = "value";
+
+    private JsonPatch() {
+    }
+
+    /**
+     * Operations turning {@code source} into {@code target}; empty when they are equal
+     */
+    public static List<Map<String, Object>> diff(Map<String, ?> source, Map<String, ?> target) {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        diff("", source != null ? source : Map.of(), target != null ? target : Map.of(), operations);
+        return operations;
+    }
+
+    /**
+     * Applies {@code patch} to a copy of {@code source}, which is left unchanged
+     *
+     * @throws IllegalArgumentException for operations other than {@code add}, {@code remove} and {@code replace}
+     */
+    public static Map<String, Object> apply(Map<String, ?> source, List<Map<String, Object>> patch) {
+        Map<String, Object> result = source != null ? new LinkedHashMap<>(source) : new LinkedHashMap<>();
+        // Nested objects copied so far, which can be changed in place by later operations
+        Set<Object> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+        copies.add(result);
+
+        for (Map<String, Object> operation : patch) {
+            List<String> tokens = parsePointer((String) operation.get(PATH));
+            Map<String, Object> parent = result;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                parent = childForWrite(parent, token, copies);
+            }
+            String key = tokens.get(tokens.size() - 1);
+            String op = (String) operation.get(OP);
+            switch (op) {
+                case "add", "replace" -> parent.put(key, operation.get(VALUE));
+                case "remove" -> parent.remove(key);
+                default -> throw new IllegalArgumentException("Unsupported JSON Patch operation: " + op);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void diff(String path, Map<String, ?> source, Map<String, ?> target,
+                             List<Map<String, Object>> operations) {
+        for (String key : source.keySet()) {
+            if (!target.containsKey(key)) {
+                operations.add(operation("remove", path + "/" + escape(key), null));
+            }
+        }
+        for (Map.Entry<String, ?> entry : target.entrySet()) {
+            String childPath = path + "/" + escape(entry.getKey());
+            Object value = entry.getValue();
+            if (!source.containsKey(entry.getKey())) {
+                operations.add(operation("add", childPath, value));
+                continue;
+            }
+            Object previous = source.get(entry.getKey());
+            if (previous instanceof Map<?, ?> previousObject && value instanceof Map<?, ?> object) {
+                diff(childPath, (Map<String, ?>) previousObject, (Map<String, ?>) object, operations);
+            } else if (!Objects.equals(previous, value)) {
+                operations.add(operation("replace", childPath, value));
+            }
+        }
+    }
+
+    private static Map<String, Object> operation(String op, String path, Object value) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put(OP, op);
+        operation.put(PATH, path);
+        if (!op.equals("remove")) {
+            operation.put(VALUE, value);
+        }
+        return operation;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> childForWrite(Map<String, Object> parent, String key, Set<Object> copies) {
+        Object child = parent.get(key);
+        if (child != null && copies.contains(child)) {
+            return (Map<String, Object>) child;
+        }
+        Map<String, Object> copy = child instanceof Map<?, ?> object
+                ? new LinkedHashMap<>((Map<String, Object>) object)
+                : new LinkedHashMap<>();
+        copies.add(copy);
+        parent.put(key, copy);
+        return copy;
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        if (pointer == null || !pointer.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+}
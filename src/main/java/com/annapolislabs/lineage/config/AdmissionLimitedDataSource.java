@@ -0,0 +1,202 @@
+package com.annapolislabs.lineage.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission limiter in front of the connection pool.
+ *
+ * <p>Each thread must take a permit before it may borrow its first connection; the permit is
+ * returned when that connection is closed. With virtual threads, thousands of requests can ask for
+ * a connection at once. The fair semaphore queues them cheaply and fails fast after
+ * {@code timeoutMs}, instead of piling them onto the pool's own wait queue. Connections a thread
+ * borrows while it already holds one (nested transactions, advisory locks) skip admission, so they
+ * cannot deadlock against the thread's own permit.</p>
+ *
+ * <p>Publishes {@code lineage.db.admission.active}, {@code lineage.db.admission.waiting},
+ * the {@code lineage.db.admission.wait} timer and the {@code lineage.db.admission.rejected}
+ * counter once bound to a registry.</p>
+ */
+public class AdmissionLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private static final ThreadLocal<int[]> OPEN_CONNECTIONS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final int maxConcurrent;
+    private final long timeoutMs;
+    private final Semaphore permits;
+    private volatile Timer waitTimer;
+    private volatile Counter rejectedCounter;
+
+    /**
+     * @param targetDataSource pooled data source to guard.
+     * @param maxConcurrent number of threads that may hold connections at the same time.
+     * @param timeoutMs how long a thread waits for admission before the borrow fails.
+     */
+    public AdmissionLimitedDataSource(DataSource targetDataSource, int maxConcurrent, long timeoutMs) {
+        super(targetDataSource);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMs = timeoutMs;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        boolean admitted = admit();
+        try {
+            return track(obtainTargetDataSource().getConnection(), admitted);
+        } catch (SQLException | RuntimeException e) {
+            if (admitted) {
+                permits.release();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        boolean admitted = admit();
+        try {
+            return track(obtainTargetDataSource().getConnection(username, password), admitted);
+        } catch (SQLException | RuntimeException e) {
+            if (admitted) {
+                permits.release();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("lineage.db.admission.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Threads holding a database admission permit")
+                .register(registry);
+        Gauge.builder("lineage.db.admission.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database admission permit")
+                .register(registry);
+        waitTimer = Timer.builder("lineage.db.admission.wait")
+                .description("Time spent waiting for a database admission permit")
+                .register(registry);
+        rejectedCounter = Counter.builder("lineage.db.admission.rejected")
+                .description("Connection requests that timed out waiting for admission")
+                .register(registry);
+    }
+
+    int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Takes a permit unless the current thread already holds a connection.
+     *
+     * @return whether a permit was taken and must be released with the connection.
+     */
+    private boolean admit() throws SQLException {
+        if (OPEN_CONNECTIONS.get()[0] > 0) {
+            return false;
+        }
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for database admission", e);
+        }
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            Counter counter = rejectedCounter;
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new SQLTransientConnectionException(
+                    "Timed out after " + timeoutMs + "ms waiting for database admission (" + maxConcurrent
+                            + " concurrent, " + permits.getQueueLength() + " waiting)");
+        }
+        return true;
+    }
+
+    private Connection track(Connection target, boolean admitted) {
+        OPEN_CONNECTIONS.get()[0]++;
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new AdmittedConnection(target, admitted));
+    }
+
+    /**
+     * Returns the permit when the connection is closed, once
+     */
+    private final class AdmittedConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final boolean admitted;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private AdmittedConnection(Connection target, boolean admitted) {
+            this.target = target;
+            this.admitted = admitted;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Admission-limited connection [" + target + "]";
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        release();
+                    }
+                    return null;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                int[] open = OPEN_CONNECTIONS.get();
+                if (open[0] > 0) {
+                    open[0]--;
+                }
+                if (admitted) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
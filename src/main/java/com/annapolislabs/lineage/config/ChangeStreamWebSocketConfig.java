@@ -0,0 +1,134 @@
+package com.annapolislabs.lineage.config;
+
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.entity.UserStatus;
+import com.annapolislabs.lineage.realtime.ProjectChangeHub;
+import com.annapolislabs.lineage.repository.UserRepository;
+import com.annapolislabs.lineage.security.JwtTokenProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * WebSocket endpoint pushing project change notifications, see {@link ProjectChangeHub}.
+ *
+ * <p>Browsers cannot set headers on a WebSocket handshake other than the requested subprotocols,
+ * so the endpoint is public to the security filter chain and the access token is checked here.
+ * Browsers offer the subprotocols {@value #PROTOCOL} and the token
+ * ({@code new WebSocket(url, ["lineage.bearer", token])}); the server selects {@value #PROTOCOL}.
+ * Other clients may send a Bearer header instead. The token is never read from the query string,
+ * which access logs and proxies record.</p>
+ *
+ * <p>The handshake also rejects users who are not active or whose account is locked, the same
+ * status rule permission evaluation applies to HTTP requests.</p>
+ */
+@Configuration
+public class ChangeStreamWebSocketConfig implements WebSocketConfigurer {
+
+    public static final String PATH = "/ws/changes";
+
+    /**
+     * Subprotocol marking the other offered subprotocol as the access token
+     */
+    public static final String PROTOCOL = "lineage.bearer";
+
+    private final ProjectChangeHub projectChangeHub;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserRepository userRepository;
+
+    @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
+    private String[] allowedOrigins;
+
+    public ChangeStreamWebSocketConfig(ProjectChangeHub projectChangeHub,
+                                       JwtTokenProvider jwtTokenProvider,
+                                       UserRepository userRepository) {
+        this.projectChangeHub = projectChangeHub;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        DefaultHandshakeHandler handshakeHandler = new DefaultHandshakeHandler();
+        handshakeHandler.setSupportedProtocols(PROTOCOL);
+        registry.addHandler(projectChangeHub, PATH)
+                .setHandshakeHandler(handshakeHandler)
+                .setAllowedOriginPatterns(allowedOrigins)
+                .addInterceptors(new AccessTokenInterceptor(jwtTokenProvider, userRepository));
+    }
+
+    /**
+     * Accepts the handshake only with a valid access token of an active user, storing the user id
+     * for the handler
+     */
+    @Slf4j
+    static class AccessTokenInterceptor implements HandshakeInterceptor {
+        private final JwtTokenProvider jwtTokenProvider;
+        private final UserRepository userRepository;
+
+        AccessTokenInterceptor(JwtTokenProvider jwtTokenProvider, UserRepository userRepository) {
+            this.jwtTokenProvider = jwtTokenProvider;
+            this.userRepository = userRepository;
+        }
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            String token = extractToken(request);
+            if (token == null || !jwtTokenProvider.validateToken(token)) {
+                return false;
+            }
+            try {
+                if (jwtTokenProvider.getTokenType(token) != JwtTokenProvider.TokenType.ACCESS) {
+                    return false;
+                }
+                UUID userId = UUID.fromString(jwtTokenProvider.getUserIdFromToken(token));
+                User user = userRepository.findById(userId).orElse(null);
+                if (user == null || user.getStatus() != UserStatus.ACTIVE || user.isAccountLocked()) {
+                    log.warn("Change stream handshake rejected for inactive or locked user {}", userId);
+                    return false;
+                }
+                attributes.put(ProjectChangeHub.USER_ID, userId);
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Change stream handshake rejected: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Exception exception) {
+            // Nothing to do after handshake
+        }
+
+        static String extractToken(ServerHttpRequest request) {
+            List<String> protocols = new WebSocketHttpHeaders(request.getHeaders()).getSecWebSocketProtocol();
+            if (protocols.contains(PROTOCOL)) {
+                for (String protocol : protocols) {
+                    if (!protocol.equals(PROTOCOL) && !protocol.isBlank()) {
+                        return protocol;
+                    }
+                }
+            }
+            String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                return authHeader.substring(7);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.annapolislabs.lineage.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts an {@link AdmissionLimitedDataSource} in front of the connection pool.
+ *
+ * <p>Enabled with {@code lineage.db.admission.enabled=true}, and by default whenever
+ * {@code spring.threads.virtual.enabled=true}, since that is when request threads stop being
+ * bounded by the Tomcat pool. {@code lineage.db.admission.max-concurrent} defaults to the Hikari
+ * {@code maximum-pool-size}.</p>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("${lineage.db.admission.enabled:${spring.threads.virtual.enabled:false}}")
+public class DatabaseAdmissionConfig {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("lineage.db.admission.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : DEFAULT_MAX_CONCURRENT;
+                }
+                long timeoutMs = environment.getProperty("lineage.db.admission.timeout-ms", Long.class, 10000L);
+                log.info("Database admission limit for {}: {} concurrent, {}ms timeout", beanName, maxConcurrent, timeoutMs);
+                return new AdmissionLimitedDataSource(pool, maxConcurrent, timeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(AdmissionLimitedDataSource.class::isInstance)
+                .forEach(dataSource -> ((AdmissionLimitedDataSource) dataSource).bindTo(registry));
+    }
+}
@@ -1,7 +1,8 @@
 package com.annapolislabs.lineage.config;
 
 import com.annapolislabs.lineage.entity.UserRole;
-import com.annapolislabs.lineage.service.PermissionEvaluationService;
+import com.annapolislabs.lineage.service.PermissionSnapshotService;
+import com.annapolislabs.lineage.service.PermissionSnapshotService.PermissionSnapshot;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
@@ -20,12 +21,21 @@ import java.util.stream.Collectors;
 /**
  * Enhanced JWT configuration with role and permission context
  * Provides comprehensive token management for the RBAC system
+ *
+ * <p>Permission claims come from {@link PermissionSnapshotService}, so issuing or refreshing a token
+ * reuses the snapshot of the user's current permission epoch. The epoch is embedded as
+ * {@code perm_epoch}; {@link #isPermissionSnapshotCurrent(String)} compares it with the stored epoch
+ * to detect tokens whose permission claims are out of date. Validation rejects such tokens and the
+ * permission extractors return no permissions for them, so a holder has to refresh the token after
+ * any grant, revoke or role change instead of acting on the old claims.</p>
  */
 @Slf4j
 @Component
 public class EnhancedJwtConfig {
 
-    private final PermissionEvaluationService permissionEvaluationService;
+    private static final String PERMISSION_EPOCH_CLAIM = "perm_epoch";
+
+    private final PermissionSnapshotService permissionSnapshotService;
     private final AtomicReference<SecretKey> cachedSigningKey = new AtomicReference<>();
 
     @Value("${app.jwt.secret:mySecretKey123456789012345678901234567890}")
@@ -34,8 +44,8 @@ public class EnhancedJwtConfig {
     @Value("${app.jwt.expiration:86400000}") // 24 hours
     private int jwtExpirationMs;
 
-    public EnhancedJwtConfig(PermissionEvaluationService permissionEvaluationService) {
-        this.permissionEvaluationService = permissionEvaluationService;
+    public EnhancedJwtConfig(PermissionSnapshotService permissionSnapshotService) {
+        this.permissionSnapshotService = permissionSnapshotService;
     }
 
     private SecretKey getSigningKey() {
@@ -67,8 +77,9 @@ public class EnhancedJwtConfig {
         claims.put("token_version", "enhanced");
         claims.put("issued_at", new Date());
 
-        Set<String> globalPermissions = permissionEvaluationService.getEffectivePermissions(userId);
-        claims.put("global_permissions", new ArrayList<>(globalPermissions));
+        PermissionSnapshot globalPermissions = permissionSnapshotService.getSnapshot(userId);
+        claims.put("global_permissions", new ArrayList<>(globalPermissions.permissions()));
+        claims.put(PERMISSION_EPOCH_CLAIM, globalPermissions.epoch());
 
         return claims;
     }
@@ -86,8 +97,11 @@ public class EnhancedJwtConfig {
      */
     public String generateScopedToken(UUID userId, String email, UserRole role, UUID resourceId) {
         Map<String, Object> claims = new HashMap<>(buildBaseClaims(userId, email, role));
-        Set<String> scopedPermissions = permissionEvaluationService.getEffectivePermissions(userId, resourceId);
-        claims.put("scoped_permissions", new ArrayList<>(scopedPermissions));
+        PermissionSnapshot scopedPermissions = permissionSnapshotService.getSnapshot(userId, resourceId);
+        claims.put("scoped_permissions", new ArrayList<>(scopedPermissions.permissions()));
+        // An epoch bump between the two lookups leaves the token stamped with the older epoch
+        claims.put(PERMISSION_EPOCH_CLAIM,
+                Math.min((Long) claims.get(PERMISSION_EPOCH_CLAIM), scopedPermissions.epoch()));
         claims.put("resource_id", resourceId != null ? resourceId.toString() : null);
         claims.put("token_type", "scoped_access");
         return createToken(claims, email);
@@ -114,7 +128,7 @@ public class EnhancedJwtConfig {
                 return false;
             }
 
-            return !isTokenExpired(claims);
+            return !isTokenExpired(claims) && isPermissionSnapshotCurrent(claims);
         } catch (IllegalStateException e) {
             log.warn("Token validation failed: {}", e.getMessage());
             return false;
@@ -122,11 +136,40 @@ public class EnhancedJwtConfig {
     }
 
     /**
-     * Extract permissions from token
+     * Check whether the permission claims of a token were issued at the user's current permission
+     * epoch. Costs one epoch lookup; tokens issued before epochs were embedded are treated as stale.
+     */
+    public boolean isPermissionSnapshotCurrent(String token) {
+        try {
+            return isPermissionSnapshotCurrent(getClaimsFromToken(token));
+        } catch (Exception e) {
+            log.error("Failed to check permission epoch of token: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isPermissionSnapshotCurrent(Claims claims) {
+        String userId = claims.get("user_id", String.class);
+        Number epoch = claims.get(PERMISSION_EPOCH_CLAIM, Number.class);
+        if (userId == null || epoch == null) {
+            return false;
+        }
+        if (!permissionSnapshotService.isCurrent(UUID.fromString(userId), epoch.longValue())) {
+            log.debug("Token of {} carries permission epoch {}, which is no longer current", userId, epoch);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Extract permissions from token; none when the token's permission epoch is stale
      */
     public List<String> extractPermissions(String token) {
         try {
             Claims claims = getClaimsFromToken(token);
+            if (!isPermissionSnapshotCurrent(claims)) {
+                return Collections.emptyList();
+            }
             return extractStringListClaim(claims, "global_permissions");
         } catch (Exception e) {
             log.error("Failed to extract permissions from token: {}", e.getMessage());
@@ -148,11 +191,14 @@ public class EnhancedJwtConfig {
     }
 
     /**
-     * Extract scoped permissions from token
+     * Extract scoped permissions from token; none when the token's permission epoch is stale
      */
     public List<String> extractScopedPermissions(String token) {
         try {
             Claims claims = getClaimsFromToken(token);
+            if (!isPermissionSnapshotCurrent(claims)) {
+                return Collections.emptyList();
+            }
             return extractStringListClaim(claims, "scoped_permissions");
         } catch (Exception e) {
             log.error("Failed to extract scoped permissions from token: {}", e.getMessage());
@@ -289,6 +335,7 @@ public class EnhancedJwtConfig {
             metadata.put("issued_at", claims.getIssuedAt());
             metadata.put("expires_at", claims.getExpiration());
             metadata.put("is_admin", claims.get("is_admin", Boolean.class));
+            metadata.put(PERMISSION_EPOCH_CLAIM, claims.get(PERMISSION_EPOCH_CLAIM));
 
             Object permissions = claims.get("global_permissions");
             if (permissions instanceof Collection<?> collection) {
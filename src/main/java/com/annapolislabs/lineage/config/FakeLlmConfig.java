@@ -0,0 +1,47 @@
+package com.annapolislabs.lineage.config;
+
+import com.annapolislabs.lineage.llm.FakeLlmScript;
+import com.annapolislabs.lineage.llm.FakeLlmServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Starts the built-in {@link FakeLlmServer} for offline development and load tests.
+ *
+ * <p>Disabled by default. Enable with {@code lineage.llm.fake.enabled=true} and point
+ * {@code lineage.llm.api-url} at {@code http://localhost:<port>/v1/chat/completions}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "lineage.llm.fake.enabled", havingValue = "true")
+public class FakeLlmConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeLlmConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public FakeLlmServer fakeLlmServer(
+            ObjectMapper objectMapper,
+            @Value("${lineage.llm.fake.port:11435}") int port,
+            @Value("${lineage.llm.fake.script:classpath:fake-llm/default-script.json}") Resource script,
+            @Value("${lineage.llm.fake.first-token-latency-ms:200}") long firstTokenLatencyMs,
+            @Value("${lineage.llm.fake.prompt-tokens-per-second:2000}") double promptTokensPerSecond,
+            @Value("${lineage.llm.fake.completion-tokens-per-second:40}") double completionTokensPerSecond)
+            throws IOException {
+        FakeLlmScript fakeScript;
+        try (InputStream in = script.getInputStream()) {
+            fakeScript = FakeLlmScript.fromJson(in, objectMapper);
+        }
+        logger.warn("Fake LLM enabled - agent responses are scripted from {}", script.getDescription());
+        return new FakeLlmServer(fakeScript, objectMapper, Duration.ofMillis(firstTokenLatencyMs),
+                promptTokensPerSecond, completionTokensPerSecond).start(port);
+    }
+}
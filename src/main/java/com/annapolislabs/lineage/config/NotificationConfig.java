@@ -0,0 +1,40 @@
+package com.annapolislabs.lineage.config;
+
+import com.annapolislabs.lineage.notification.LoggingNotificationSender;
+import com.annapolislabs.lineage.notification.NotificationSender;
+import com.annapolislabs.lineage.notification.SmtpNotificationSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Selects how outbox notifications are delivered.
+ *
+ * <p>When {@code spring.mail.host} is set, Spring Boot configures a {@link JavaMailSender} and
+ * notifications are delivered over SMTP. Otherwise they are only logged.</p>
+ */
+@Configuration
+public class NotificationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.mail.host")
+    public NotificationSender smtpNotificationSender(
+            JavaMailSender mailSender,
+            @Value("${lineage.notifications.from:no-reply@lineage.local}") String from) {
+        return new SmtpNotificationSender(mailSender, from);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(NotificationSender.class)
+    public NotificationSender loggingNotificationSender() {
+        logger.info("No SMTP host configured - outgoing notifications will be logged only");
+        return new LoggingNotificationSender();
+    }
+}
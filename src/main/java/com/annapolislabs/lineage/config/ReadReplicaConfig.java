@@ -0,0 +1,87 @@
+package com.annapolislabs.lineage.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes read-only transactions to a read replica when {@code lineage.datasource.replica.enabled=true}.
+ *
+ * <p>The primary pool is configured by the usual {@code spring.datasource.*} properties and the
+ * replica pool by {@code lineage.datasource.replica.url}, {@code username} and {@code password}
+ * (defaulting to the primary's credentials) plus {@code lineage.datasource.replica.hikari.*}.
+ * Flyway always migrates the primary. The {@code @Primary} data source used by JPA and
+ * {@code JdbcTemplate} is a {@link ReplicaRoutingDataSource} behind a
+ * {@link LazyConnectionDataSourceProxy}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "lineage.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("lineage-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("lineage.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${lineage.datasource.replica.url}") String url,
+                                              @Value("${lineage.datasource.replica.username:}") String username,
+                                              @Value("${lineage.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username.isBlank() ? properties.determineUsername() : username)
+                .password(password.isBlank() ? properties.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("lineage-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${lineage.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${lineage.datasource.replica.sticky-ms:10000}") long stickyMs) {
+        return new ReadYourWritesTracker(stickyMs);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer readYourWritesStatementInspector(ReadYourWritesTracker readYourWritesTracker) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, readYourWritesTracker, meterRegistry));
+    }
+}
@@ -0,0 +1,192 @@
+package com.annapolislabs.lineage.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary until the replica has
+ * caught up.
+ *
+ * <p>Registered as the Hibernate {@link StatementInspector}: the first INSERT, UPDATE, DELETE or
+ * MERGE in a transaction marks it as writing, and when that transaction commits the authenticated
+ * user is pinned to the primary for {@code stickyMs}. Read-write transactions that only select
+ * (common for class-level {@code @Transactional} services) do not pin anyone.</p>
+ *
+ * <p>The window travels with the client: the commit also sets the {@value #COOKIE} cookie to the
+ * end of the window, and every node honors it, so the next request stays on the primary whichever
+ * node it lands on. The cookie only ever routes its holder's own reads, and a value further out than
+ * {@code stickyMs} is ignored. Writes made outside a request, such as on worker threads, are
+ * remembered on the writing node only.</p>
+ */
+public class ReadYourWritesTracker implements StatementInspector {
+
+    static final String COOKIE = "lineage_read_after";
+
+    private static final Object WRITE_MARKER = new Object();
+
+    private final long stickyMs;
+    private final Clock clock;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyMs) {
+        this(stickyMs, Clock.systemUTC());
+    }
+
+    ReadYourWritesTracker(long stickyMs, Clock clock) {
+        this.stickyMs = stickyMs;
+        this.clock = clock;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (isWrite(sql)) {
+            recordWrite();
+        }
+        return sql;
+    }
+
+    /**
+     * Marks the current transaction as writing; the current user becomes sticky once it commits.
+     */
+    public void recordWrite() {
+        String subject = currentSubject();
+        if (subject == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long until = clock.millis() + stickyMs;
+                stickyUntil.put(subject, until);
+                carryToClient(until);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+            }
+        });
+    }
+
+    /**
+     * @return whether the current user wrote within the sticky window, on this node or, per the
+     * request's cookie, on any node.
+     */
+    public boolean isCurrentUserSticky() {
+        String subject = currentSubject();
+        if (subject == null) {
+            return false;
+        }
+        long now = clock.millis();
+        Long until = stickyUntil.get(subject);
+        if (until != null) {
+            if (until > now) {
+                return true;
+            }
+            stickyUntil.remove(subject, until);
+        }
+        Long carried = carriedByClient();
+        return carried != null && carried > now && carried <= now + stickyMs;
+    }
+
+    /**
+     * Drops expired entries of users who have not read since their window closed
+     */
+    @Scheduled(fixedDelayString = "${lineage.datasource.replica.sticky-ms:10000}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        stickyUntil.values().removeIf(until -> until <= now);
+    }
+
+    /**
+     * Sets the cookie on the response of the current request, if there is one still open
+     */
+    private void carryToClient(long until) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(until))
+                .path("/")
+                .maxAge(Duration.ofMillis(stickyMs).plusSeconds(1))
+                .httpOnly(true)
+                .secure(attributes.getRequest().isSecure())
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * @return the end of the window carried by the current request's cookie, or {@code null}
+     */
+    private static Long carriedByClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean isWrite(String sql) {
+        int start = 0;
+        int length = sql.length();
+        while (start < length && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        // Hibernate prefixes statements with /* comments */ when sql comments are enabled
+        if (sql.startsWith("/*", start)) {
+            int end = sql.indexOf("*/", start);
+            return end >= 0 && isWrite(sql.substring(end + 2));
+        }
+        String keyword = sql.substring(start, Math.min(length, start + 6)).toLowerCase(Locale.ROOT);
+        return keyword.startsWith("insert") || keyword.startsWith("update") || keyword.startsWith("delete")
+                || keyword.startsWith("merge");
+    }
+
+    private static String currentSubject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
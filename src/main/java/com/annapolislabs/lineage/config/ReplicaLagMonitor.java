@@ -0,0 +1,74 @@
+package com.annapolislabs.lineage.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Tracks how far the read replica is behind the primary.
+ *
+ * <p>Lag is the time since the last replayed transaction while WAL is still waiting to be replayed,
+ * and zero when the replica has replayed everything it received (or is not a standby at all, as
+ * with two independent local databases). The replica is usable while the last check succeeded
+ * and lag is at most {@code maxLagMs}; until the first check, and after any failed check, reads
+ * go to the primary. Publishes {@code lineage.datasource.replica.lag} in milliseconds, or -1 when
+ * unknown.</p>
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (clock_timestamp() - pg_last_xact_replay_timestamp())) * 1000, -1)
+            END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+    private volatile long lagMs = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMs, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagMs = maxLagMs;
+        Gauge.builder("lineage.datasource.replica.lag", this, ReplicaLagMonitor::getLagMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Measures replica lag
+     */
+    @Scheduled(fixedDelayString = "${lineage.datasource.replica.lag-check-ms:2000}")
+    public void check() {
+        long previous = lagMs;
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Number.class);
+            lagMs = lag != null ? lag.longValue() : -1;
+        } catch (RuntimeException e) {
+            lagMs = -1;
+            log.warn("Replica lag check failed: {}", e.getMessage());
+        }
+        boolean wasUsable = isUsable(previous);
+        if (wasUsable != isUsable(lagMs)) {
+            log.info("Read replica {} (lag {} ms, limit {} ms)", isUsable(lagMs) ? "in use" : "bypassed", lagMs, maxLagMs);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return isUsable(lagMs);
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    private boolean isUsable(long lag) {
+        return lag >= 0 && lag <= maxLagMs;
+    }
+}
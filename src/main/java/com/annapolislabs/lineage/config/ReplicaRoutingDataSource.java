@@ -0,0 +1,65 @@
+package com.annapolislabs.lineage.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * <p>A read-only transaction still uses the primary when the replica lags more than allowed (see
+ * {@link ReplicaLagMonitor}) or when the current user wrote within the read-your-writes window (see
+ * {@link ReadYourWritesTracker}). Work outside a transaction goes to the primary.</p>
+ *
+ * <p>The routing key is resolved when a connection is fetched. Wrap this data source in a
+ * {@code LazyConnectionDataSourceProxy} so that happens on the first statement, after the
+ * transaction manager has published the read-only flag. Publishes {@code lineage.datasource.route}
+ * tagged by target and reason.</p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWritesTracker,
+                                    MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.meterRegistry = meterRegistry;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return route(Target.PRIMARY, "no_transaction");
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return route(Target.PRIMARY, "read_write");
+        }
+        if (readYourWritesTracker.isCurrentUserSticky()) {
+            return route(Target.PRIMARY, "recent_write");
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            return route(Target.PRIMARY, "replica_lag");
+        }
+        return route(Target.REPLICA, "read_only");
+    }
+
+    private Target route(Target target, String reason) {
+        meterRegistry.counter("lineage.datasource.route", "target", target.name().toLowerCase(), "reason", reason)
+                .increment();
+        return target;
+    }
+}
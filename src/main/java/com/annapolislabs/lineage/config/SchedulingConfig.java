@@ -0,0 +1,15 @@
+package com.annapolislabs.lineage.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the task statistics reconcile.
+ * Set {@code lineage.scheduling.enabled=false} to run an instance without background jobs.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "lineage.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
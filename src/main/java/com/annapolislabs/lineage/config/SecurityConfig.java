@@ -1,6 +1,7 @@
 package com.annapolislabs.lineage.config;
 
 import com.annapolislabs.lineage.security.*;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -51,6 +52,7 @@ public class SecurityConfig {
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final UserDetailsService userDetailsService;
     private final CsrfTokenService csrfTokenService;
+    private final RequestPathClassifier requestPathClassifier;
 
     @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
     private String[] allowedOrigins;
@@ -59,11 +61,13 @@ public class SecurityConfig {
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
                          JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
                          UserDetailsService userDetailsService,
-                         CsrfTokenService csrfTokenService) {
+                         CsrfTokenService csrfTokenService,
+                         RequestPathClassifier requestPathClassifier) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.userDetailsService = userDetailsService;
         this.csrfTokenService = csrfTokenService;
+        this.requestPathClassifier = requestPathClassifier;
     }
 
     @Bean
@@ -84,6 +88,8 @@ public class SecurityConfig {
                 
                 // Authorization Rules
                 .authorizeHttpRequests(auth -> auth
+                    // Async dispatches resume requests already authorized on the way in (streamed exports)
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     // Public endpoints
                     .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/invitations/**").permitAll()
@@ -92,6 +98,8 @@ public class SecurityConfig {
                     .requestMatchers("/error").permitAll()
                     .requestMatchers("/h2-console/**").hasAnyRole(OWNER, ADMINISTRATOR)
                     .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                    // Change stream authenticates the handshake itself, see ChangeStreamWebSocketConfig
+                    .requestMatchers(ChangeStreamWebSocketConfig.PATH).permitAll()
                     
                     // Static resources
                     .requestMatchers("/", "/index.html", "/assets/**", "/vite.svg", "/favicon.ico").permitAll()
@@ -244,6 +252,6 @@ public class SecurityConfig {
     
     @Bean
     public CsrfValidationFilter csrfValidationFilter() {
-        return new CsrfValidationFilter(csrfTokenService);
+        return new CsrfValidationFilter(csrfTokenService, requestPathClassifier);
     }
 }
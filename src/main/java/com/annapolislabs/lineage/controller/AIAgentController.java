@@ -3,7 +3,7 @@ package com.annapolislabs.lineage.controller;
 import com.annapolislabs.lineage.dto.request.AIMessageRequest;
 import com.annapolislabs.lineage.dto.response.AIChatListResponse;
 import com.annapolislabs.lineage.dto.response.AIMessageResponse;
-import com.annapolislabs.lineage.entity.AIConversation;
+import com.annapolislabs.lineage.entity.AIConversation.ConversationMessage;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.service.AIAgentService;
 import com.annapolislabs.lineage.service.AuthService;
@@ -14,7 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller that exposes conversational AI chat endpoints for authenticated users.
@@ -91,25 +90,28 @@ public class AIAgentController {
     /**
      * GET /api/ai/chat/history lists conversation metadata for the authenticated user to power history UIs.
      *
+     * @param page zero-based page index (default 0)
+     * @param size page size (default 20, capped by the service)
      * @return 200 OK with lightweight summaries of each chat owned by the caller
      */
     @GetMapping("/chat/history")
-    public ResponseEntity<List<AIChatListResponse>> getChatHistory() {
+    public ResponseEntity<List<AIChatListResponse>> getChatHistory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         User currentUser = authService.getCurrentUser();
-        List<AIConversation> conversations = aiAgentService.getConversationHistory(currentUser);
-        
-        List<AIChatListResponse> response = conversations.stream()
-                .map(conv -> new AIChatListResponse(
-                        conv.getChatId(),
-                        conv.getTitle(),
-                        conv.getUpdatedAt(),
-                        (int) conv.getMessages().stream()
-                                .filter(m -> !"system".equals(m.getRole()))
-                                .count()
-                ))
-                .toList();
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(aiAgentService.getConversationHistory(currentUser, page, size));
+    }
+
+    /**
+     * GET /api/ai/chat/{chatId}/messages returns the stored messages of one chat when it is opened.
+     *
+     * @param chatId identifier of the conversation to load
+     * @return 200 OK with the ordered messages, or 404 when the chat is not owned by the caller
+     */
+    @GetMapping("/chat/{chatId}/messages")
+    public ResponseEntity<List<ConversationMessage>> getChatMessages(@PathVariable String chatId) {
+        User currentUser = authService.getCurrentUser();
+        return ResponseEntity.ok(aiAgentService.getConversationMessages(chatId, currentUser));
     }
     
     /**
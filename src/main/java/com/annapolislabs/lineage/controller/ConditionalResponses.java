@@ -0,0 +1,40 @@
+package com.annapolislabs.lineage.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utility helper shared by controllers that answer {@code If-None-Match} from project content versions.
+ */
+final class ConditionalResponses {
+
+    /**
+     * Lets browsers keep versioned responses but revalidate them on every use. Setting it also keeps
+     * Spring Security from writing its default {@code no-store}, which would disable revalidation.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * @return {@code 304 Not Modified} repeating the validator, without a body
+     */
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    /**
+     * @return {@code 200 OK} stamped with the validator
+     */
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(body);
+    }
+}
@@ -30,7 +30,8 @@ public class CsrfTokenController {
     }
     
     /**
-     * GET /api/csrf/token issues a CSRF token/tokenId pair, writes headers, and returns metadata for the caller.
+     * GET /api/csrf/token issues a signed CSRF token bound to the caller, writes headers, and returns metadata for the
+     * caller. The token can be reused until {@code expiresAt} unless {@code singleUse} is true.
      * Returns 200 OK when the token is created; unexpected failures return 500.
      *
      * @param request current request used for logging
@@ -58,7 +59,9 @@ public class CsrfTokenController {
                 "token", token.getToken(),
                 "tokenId", tokenId,
                 "headerName", token.getHeaderName(),
-                "parameterName", token.getParameterName()
+                "parameterName", token.getParameterName(),
+                "expiresAt", pair.expiresAt().toString(),
+                "singleUse", String.valueOf(csrfTokenService.isSingleUse())
             ));
             
         } catch (Exception e) {
@@ -69,10 +72,11 @@ public class CsrfTokenController {
     }
     
     /**
-     * POST /api/csrf/validate checks whether the supplied token/tokenId pair matches the server record.
-     * Returns 200 OK with a boolean result; 400 when required fields are missing.
+     * POST /api/csrf/validate checks whether the supplied token is validly signed for the caller and unexpired, without
+     * consuming it in single-use mode.
+     * Returns 200 OK with a boolean result; 400 when the token is missing.
      *
-     * @param tokenData map containing "token" and "tokenId"
+     * @param tokenData map containing "token" and, optionally, "tokenId"
      * @param request used to record the request URI for diagnostics
      * @return JSON body describing validation result
      */
@@ -84,12 +88,12 @@ public class CsrfTokenController {
         String tokenValue = tokenData.get("token");
         String tokenId = tokenData.get("tokenId");
         
-        if (tokenValue == null || tokenId == null) {
+        if (tokenValue == null) {
             return ResponseEntity.badRequest()
-                .body(Map.of("valid", false, "error", "Missing token or tokenId"));
+                .body(Map.of("valid", false, "error", "Missing token"));
         }
         
-        boolean isValid = csrfTokenService.validateToken(tokenValue, tokenId);
+        boolean isValid = csrfTokenService.checkToken(tokenValue, tokenId);
         
         logger.debug("CSRF token validation for request to {}: {}", 
             request.getRequestURI(), isValid ? "SUCCESS" : "FAILED");
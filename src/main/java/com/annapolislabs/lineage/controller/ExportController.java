@@ -1,74 +1,162 @@
 package com.annapolislabs.lineage.controller;
 
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff;
+import com.annapolislabs.lineage.service.BaselineDiffService;
 import com.annapolislabs.lineage.service.ExportService;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * REST controller delivering project-level export endpoints for CSV, JSON, and Markdown downloads.
+ * Exports are versioned by the project's content version: a matching {@code If-None-Match} is
+ * answered with 304 and large bodies are reused until the version moves. Diffs between two
+ * point-in-time snapshots of a project are streamed as JSON or Markdown.
  */
 @RestController
 @RequestMapping("/api/projects/{projectId}/export")
 public class ExportController {
 
     private final ExportService exportService;
+    private final ProjectVersionService projectVersionService;
+    private final BaselineDiffService baselineDiffService;
 
     @Autowired
-    public ExportController(ExportService exportService) {
+    public ExportController(ExportService exportService, ProjectVersionService projectVersionService,
+                            BaselineDiffService baselineDiffService) {
         this.exportService = exportService;
+        this.projectVersionService = projectVersionService;
+        this.baselineDiffService = baselineDiffService;
     }
 
     /**
      * GET /api/projects/{projectId}/export/csv streams a CSV representation of project requirements.
-     * Sets Content-Disposition for download and always returns 200 with the generated document.
+     * Sets Content-Disposition for download and returns 200 with the generated document, or 304 when
+     * the client's copy is current.
      *
      * @param projectId identifier of the project to export
+     * @param ifNoneMatch validator of the client's cached copy, if any
      * @return CSV payload ready for download
      */
     @GetMapping("/csv")
-    public ResponseEntity<String> exportCsv(@PathVariable UUID projectId) {
-        String csv = exportService.exportToCsv(projectId);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=requirements.csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+    public ResponseEntity<String> exportCsv(
+            @PathVariable UUID projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return export(projectId, "csv", ifNoneMatch, () -> exportService.exportToCsv(projectId),
+                "requirements.csv", MediaType.parseMediaType("text/csv"));
     }
 
     /**
      * GET /api/projects/{projectId}/export/json provides a JSON export suitable for API clients.
      *
      * @param projectId identifier of the project to export
+     * @param ifNoneMatch validator of the client's cached copy, if any
      * @return application/json payload packaged as an attachment
      */
     @GetMapping("/json")
-    public ResponseEntity<String> exportJson(@PathVariable UUID projectId) {
-        String json = exportService.exportToJson(projectId);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=requirements.json")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(json);
+    public ResponseEntity<String> exportJson(
+            @PathVariable UUID projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return export(projectId, "json", ifNoneMatch, () -> exportService.exportToJson(projectId),
+                "requirements.json", MediaType.APPLICATION_JSON);
     }
 
     /**
      * GET /api/projects/{projectId}/export/markdown produces a Markdown document summarizing requirements.
      *
      * @param projectId project identifier
+     * @param ifNoneMatch validator of the client's cached copy, if any
      * @return text/plain response with Content-Disposition set for download
      */
     @GetMapping("/markdown")
-    public ResponseEntity<String> exportMarkdown(@PathVariable UUID projectId) {
-        String markdown = exportService.exportToMarkdown(projectId);
+    public ResponseEntity<String> exportMarkdown(
+            @PathVariable UUID projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return export(projectId, "markdown", ifNoneMatch, () -> exportService.exportToMarkdown(projectId),
+                "requirements.md", MediaType.TEXT_PLAIN);
+    }
+
+    /**
+     * GET /api/projects/{projectId}/export/diff/json streams the changes between two snapshots of the
+     * project as JSON. Each side is a baseline name or an ISO-8601 timestamp; the {@code to} side is
+     * the current state when omitted.
+     *
+     * @param projectId project identifier
+     * @param from timestamp to compare from
+     * @param fromBaseline baseline to compare from, instead of {@code from}
+     * @param to timestamp to compare to
+     * @param toBaseline baseline to compare to, instead of {@code to}
+     * @return application/json attachment with a summary, requirement changes and link changes
+     */
+    @GetMapping("/diff/json")
+    public ResponseEntity<StreamingResponseBody> exportDiffJson(
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) String fromBaseline,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String toBaseline) {
+        ProjectSnapshotDiff diff = baselineDiffService.diff(projectId, from, fromBaseline, to, toBaseline);
+        return diffDownload("diff.json", MediaType.APPLICATION_JSON,
+                out -> baselineDiffService.writeJson(diff, out));
+    }
+
+    /**
+     * GET /api/projects/{projectId}/export/diff/markdown streams the changes between two snapshots of
+     * the project as a Markdown report, with the same parameters as the JSON diff.
+     *
+     * @return text/plain attachment with the report
+     */
+    @GetMapping("/diff/markdown")
+    public ResponseEntity<StreamingResponseBody> exportDiffMarkdown(
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) String fromBaseline,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String toBaseline) {
+        ProjectSnapshotDiff diff = baselineDiffService.diff(projectId, from, fromBaseline, to, toBaseline);
+        return diffDownload("diff.md", new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8),
+                out -> baselineDiffService.writeMarkdown(diff, out));
+    }
+
+    /**
+     * The diff is computed before the response starts, so access and lookup errors still map to
+     * error statuses; only writing it out is streamed
+     */
+    private ResponseEntity<StreamingResponseBody> diffDownload(String filename, MediaType contentType,
+                                                               StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(contentType)
+                .body(body);
+    }
+
+    private ResponseEntity<String> export(UUID projectId,
+                                          String format,
+                                          String ifNoneMatch,
+                                          Supplier<String> builder,
+                                          String filename,
+                                          MediaType contentType) {
+        String etag = projectVersionService.memberEtag(projectId, format);
+        if (projectVersionService.isNotModified(ifNoneMatch, etag)) {
+            return ConditionalResponses.notModified(etag);
+        }
+        String body = projectVersionService.cachedExport(projectId, format, etag, builder);
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=requirements.md")
-                .contentType(MediaType.TEXT_PLAIN)
-                .body(markdown);
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(contentType)
+                .eTag(etag)
+                .cacheControl(ConditionalResponses.REVALIDATE)
+                .body(body);
     }
 }
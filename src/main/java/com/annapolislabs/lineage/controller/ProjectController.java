@@ -1,12 +1,19 @@
 package com.annapolislabs.lineage.controller;
 
+import com.annapolislabs.lineage.dto.request.CreateBaselineRequest;
 import com.annapolislabs.lineage.dto.request.CreateProjectRequest;
 import com.annapolislabs.lineage.dto.request.ImportProjectRequest;
+import com.annapolislabs.lineage.dto.response.BaselineResponse;
 import com.annapolislabs.lineage.dto.response.ProjectResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse;
 import com.annapolislabs.lineage.service.ProjectImportService;
 import com.annapolislabs.lineage.service.ProjectService;
+import com.annapolislabs.lineage.service.ProjectSnapshotService;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +23,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -29,11 +37,18 @@ public class ProjectController {
 
     private final ProjectService projectService;
     private final ProjectImportService projectImportService;
+    private final ProjectVersionService projectVersionService;
+    private final ProjectSnapshotService projectSnapshotService;
 
     @Autowired
-    public ProjectController(ProjectService projectService, ProjectImportService projectImportService) {
+    public ProjectController(ProjectService projectService,
+                             ProjectImportService projectImportService,
+                             ProjectVersionService projectVersionService,
+                             ProjectSnapshotService projectSnapshotService) {
         this.projectService = projectService;
         this.projectImportService = projectImportService;
+        this.projectVersionService = projectVersionService;
+        this.projectSnapshotService = projectSnapshotService;
     }
 
     /**
@@ -128,12 +143,65 @@ public class ProjectController {
      * GET /api/projects/{id} fetches a single project resource by identifier.
      *
      * @param id project identifier
-     * @return 200 OK when found or propagates service-layer exceptions when not
+     * @param ifNoneMatch validator of the client's cached copy, if any
+     * @return 200 OK when found, 304 when the cached copy is current, or propagates service-layer
+     * exceptions when not
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponse> getProjectById(@PathVariable UUID id) {
+    public ResponseEntity<ProjectResponse> getProjectById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = projectVersionService.memberEtag(id, "project");
+        if (projectVersionService.isNotModified(ifNoneMatch, etag)) {
+            return ConditionalResponses.notModified(etag);
+        }
         ProjectResponse response = projectService.getProjectById(id);
-        return ResponseEntity.ok(response);
+        return ConditionalResponses.ok(etag, response);
+    }
+
+    /**
+     * GET /api/projects/{id}/snapshot returns the project's requirement tree and links as they were at
+     * an instant, rebuilt from requirement history. Pass either {@code at} or the name of a
+     * {@code baseline}; with neither the snapshot is of the current state.
+     *
+     * @param id project identifier
+     * @param at ISO-8601 instant to rebuild, e.g. {@code 2025-03-01T12:00:00}
+     * @param baseline name of a baseline whose instant to rebuild
+     * @return 200 OK with the snapshot, or 400 when both {@code at} and {@code baseline} are given
+     */
+    @GetMapping("/{id}/snapshot")
+    public ResponseEntity<ProjectSnapshotResponse> getSnapshot(
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) String baseline) {
+        return ResponseEntity.ok(projectSnapshotService.snapshot(id, at, baseline));
+    }
+
+    /**
+     * GET /api/projects/{id}/baselines lists the project's named baselines, latest first.
+     *
+     * @param id project identifier
+     * @return 200 OK with the baselines
+     */
+    @GetMapping("/{id}/baselines")
+    public ResponseEntity<List<BaselineResponse>> getBaselines(@PathVariable UUID id) {
+        return ResponseEntity.ok(projectSnapshotService.getBaselines(id));
+    }
+
+    /**
+     * POST /api/projects/{id}/baselines names an instant of the project, now unless the request gives
+     * an earlier one, so its snapshot can be requested by name.
+     *
+     * @param id project identifier
+     * @param request baseline name and optional instant
+     * @return 201 Created with the baseline
+     */
+    @PostMapping("/{id}/baselines")
+    public ResponseEntity<BaselineResponse> createBaseline(
+            @PathVariable UUID id,
+            @Valid @RequestBody CreateBaselineRequest request) {
+        BaselineResponse response = projectSnapshotService.createBaseline(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     /**
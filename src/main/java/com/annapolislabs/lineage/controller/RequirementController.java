@@ -1,10 +1,13 @@
 package com.annapolislabs.lineage.controller;
 
 import com.annapolislabs.lineage.dto.request.CreateRequirementRequest;
+import com.annapolislabs.lineage.dto.response.RequirementChangesResponse;
 import com.annapolislabs.lineage.dto.response.RequirementResponse;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import com.annapolislabs.lineage.service.RequirementService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,16 +18,20 @@ import java.util.UUID;
 
 /**
  * REST controller providing CRUD and history endpoints for requirements scoped to projects.
+ * Reads carry an ETag derived from the project's content version and answer a matching
+ * {@code If-None-Match} with 304.
  */
 @RestController
 @RequestMapping("/api")
 public class RequirementController {
 
     private final RequirementService requirementService;
+    private final ProjectVersionService projectVersionService;
 
     @Autowired
-    public RequirementController(RequirementService requirementService) {
+    public RequirementController(RequirementService requirementService, ProjectVersionService projectVersionService) {
         this.requirementService = requirementService;
+        this.projectVersionService = projectVersionService;
     }
 
     /**
@@ -43,21 +50,52 @@ public class RequirementController {
      * GET /api/projects/{projectId}/requirements lists every requirement associated with a project.
      *
      * @param projectId owning project identifier
-     * @return 200 OK containing an ordered list of requirements
+     * @param ifNoneMatch validator of the client's cached copy, if any
+     * @return 200 OK containing an ordered list of requirements, or 304 when the cached copy is current
      */
     @GetMapping("/projects/{projectId}/requirements")
-    public ResponseEntity<List<RequirementResponse>> getRequirementsByProject(@PathVariable UUID projectId) {
+    public ResponseEntity<List<RequirementResponse>> getRequirementsByProject(
+            @PathVariable UUID projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = projectVersionService.memberEtag(projectId, "requirements");
+        if (projectVersionService.isNotModified(ifNoneMatch, etag)) {
+            return ConditionalResponses.notModified(etag);
+        }
         List<RequirementResponse> requirements = requirementService.getRequirementsByProject(projectId);
-        return ResponseEntity.ok(requirements);
+        return ConditionalResponses.ok(etag, requirements);
+    }
+
+    /**
+     * GET /api/projects/{projectId}/changes returns the requirements and links changed after a sync
+     * cursor, or a full snapshot when {@code since} is omitted or 0.
+     *
+     * @param projectId project to synchronize
+     * @param since cursor returned by the previous call
+     * @param limit maximum number of change log entries to consume in this page
+     * @return 200 OK with the changes and the cursor to resume from
+     */
+    @GetMapping("/projects/{projectId}/changes")
+    public ResponseEntity<RequirementChangesResponse> getChanges(
+            @PathVariable UUID projectId,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(requirementService.getChanges(projectId, since, limit));
     }
 
     /**
-     * GET /api/requirements/{id} fetches a single requirement resource by ID.
+     * GET /api/requirements/{id} fetches a single requirement resource by ID, or 304 when the
+     * client's cached copy is current.
      */
     @GetMapping("/requirements/{id}")
-    public ResponseEntity<RequirementResponse> getRequirementById(@PathVariable UUID id) {
+    public ResponseEntity<RequirementResponse> getRequirementById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = projectVersionService.requirementEtag(id, "requirement");
+        if (projectVersionService.isNotModified(ifNoneMatch, etag)) {
+            return ConditionalResponses.notModified(etag);
+        }
         RequirementResponse response = requirementService.getRequirementById(id);
-        return ResponseEntity.ok(response);
+        return ConditionalResponses.ok(etag, response);
     }
 
     /**
@@ -88,11 +126,25 @@ public class RequirementController {
      * GET /api/requirements/{id}/history surfaces the change log for a requirement, aiding traceability.
      *
      * @param id requirement identifier
-     * @return 200 OK with chronological history entries
+     * @param page optional zero-based page; the whole history is returned when omitted
+     * @param size entries per page when {@code page} is given
+     * @param ifNoneMatch validator of the client's cached copy, if any
+     * @return 200 OK with chronological history entries, or 304 when the cached copy is current
      */
     @GetMapping("/requirements/{id}/history")
-    public ResponseEntity<List<Map<String, Object>>> getRequirementHistory(@PathVariable UUID id) {
-        List<Map<String, Object>> history = requirementService.getRequirementHistory(id);
-        return ResponseEntity.ok(history);
+    public ResponseEntity<List<Map<String, Object>>> getRequirementHistory(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = projectVersionService.requirementEtag(id,
+                page == null ? "history" : "history-p" + page + "-s" + size);
+        if (projectVersionService.isNotModified(ifNoneMatch, etag)) {
+            return ConditionalResponses.notModified(etag);
+        }
+        List<Map<String, Object>> history = page == null
+                ? requirementService.getRequirementHistory(id)
+                : requirementService.getRequirementHistory(id, page, size);
+        return ConditionalResponses.ok(etag, history);
     }
 }
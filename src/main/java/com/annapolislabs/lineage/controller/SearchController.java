@@ -7,7 +7,9 @@ import com.annapolislabs.lineage.exception.SearchException;
 import com.annapolislabs.lineage.repository.ProjectMemberRepository;
 import com.annapolislabs.lineage.repository.RequirementRepository;
 import com.annapolislabs.lineage.service.AuthService;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,7 +17,9 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * REST controller providing authenticated requirement search within a project.
+ * REST controller providing authenticated requirement search within a project. Results carry an
+ * ETag derived from the project's content version, so repeating a search on an unchanged project
+ * is answered with 304.
  */
 @RestController
 @RequestMapping("/api/projects/{projectId}/search")
@@ -24,14 +28,17 @@ public class SearchController {
     private final RequirementRepository requirementRepository;
     private final ProjectMemberRepository projectMemberRepository;
     private final AuthService authService;
+    private final ProjectVersionService projectVersionService;
 
     @Autowired
     public SearchController(RequirementRepository requirementRepository,
                            ProjectMemberRepository projectMemberRepository,
-                           AuthService authService) {
+                           AuthService authService,
+                           ProjectVersionService projectVersionService) {
         this.requirementRepository = requirementRepository;
         this.projectMemberRepository = projectMemberRepository;
         this.authService = authService;
+        this.projectVersionService = projectVersionService;
     }
 
     /**
@@ -42,20 +49,28 @@ public class SearchController {
      * @param q optional full-text query
      * @param status optional status filter
      * @param priority optional priority filter
-     * @return filtered requirements as DTOs
+     * @param ifNoneMatch validator of the client's cached copy, if any
+     * @return filtered requirements as DTOs, or 304 when the cached copy is current
      */
     @GetMapping
     public ResponseEntity<List<RequirementResponse>> search(
             @PathVariable UUID projectId,
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String priority) {
+            @RequestParam(required = false) String priority,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         User currentUser = authService.getCurrentUser();
         if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, currentUser.getId())) {
             throw new SearchException("Access denied");
         }
 
+        // The ETag only has to be unique per URL, and the query string is part of the URL
+        String etag = projectVersionService.etag(projectId, "search");
+        if (projectVersionService.isNotModified(ifNoneMatch, etag)) {
+            return ConditionalResponses.notModified(etag);
+        }
+
         List<Requirement> results;
 
         if (q != null && !q.trim().isEmpty()) {
@@ -78,7 +93,7 @@ public class SearchController {
             results = requirementRepository.findByFilters(projectId, status, priority);
         }
 
-        return ResponseEntity.ok(
+        return ConditionalResponses.ok(etag,
                 results.stream()
                         .map(RequirementResponse::new)
                         .toList()
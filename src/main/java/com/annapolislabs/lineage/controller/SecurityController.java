@@ -21,6 +21,9 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -366,16 +369,11 @@ public class SecurityController {
             String email = request.getRemoteUser();
             User currentUser = userService.getUserByEmail(email);
             // Get the most recent password change event
-            List<AuditLog> allUserLogs = auditLogRepository
-                .findByUserIdOrderByCreatedAtDesc(currentUser.getId());
+            java.util.Optional<AuditLog> passwordChange = auditLogRepository
+                .findFirstByUserIdAndActionOrderByCreatedAtDesc(currentUser.getId(), "PASSWORD_CHANGED");
 
-            // Filter for password changes
-            List<AuditLog> passwordChanges = allUserLogs.stream()
-                .filter(log -> "PASSWORD_CHANGED".equals(log.getAction()))
-                .toList();
-
-            if (!passwordChanges.isEmpty()) {
-                AuditLog lastChange = passwordChanges.getFirst();
+            if (passwordChange.isPresent()) {
+                AuditLog lastChange = passwordChange.get();
                 java.util.Map<String, Object> response = new java.util.HashMap<>();
                 response.put("lastChanged", lastChange.getCreatedAt());
                 response.put(MESSAGE, "Last password change retrieved successfully");
@@ -407,15 +405,11 @@ public class SecurityController {
         try {
             String userId = getCurrentUserId();
 
-            // Get security events for user
-            List<AuditLog> events = auditLogRepository
-                .findByUserIdOrderByCreatedAtDesc(UUID.fromString(userId));
-
-            // Apply pagination
-            int total = events.size();
-            int fromIndex = Math.min(page * size, total);
-            int toIndex = Math.min(fromIndex + size, total);
-            List<AuditLog> paginatedEvents = events.subList(fromIndex, toIndex);
+            // Get one page of security events for user
+            Page<AuditLog> events = auditLogRepository.findByUserId(UUID.fromString(userId),
+                    PageRequest.of(Math.max(page, 0), Math.max(size, 1), Sort.by(Sort.Direction.DESC, "createdAt")));
+            long total = events.getTotalElements();
+            List<AuditLog> paginatedEvents = events.getContent();
 
             return ResponseEntity.ok(Map.of(
                     "events", paginatedEvents.stream().map(event -> Map.of(
@@ -493,6 +493,29 @@ public class TaskAssignmentController {
         return ResponseEntity.ok(dueSoonTasks);
     }
 
+    /**
+     * Get task statistics for a project
+     */
+    @GetMapping("/statistics")
+    @Operation(
+        summary = "Get task statistics", 
+        description = "Retrieve task counts by status, priority and active assignee for a project"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task statistics retrieved"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<Map<String, Object>> getTaskStatistics(
+            @Parameter(description = "Project ID", required = true)
+            @RequestParam UUID projectId) {
+        
+        UUID currentUserId = getCurrentUserId();
+        Map<String, Object> statistics = taskAssignmentService.getTaskStatistics(projectId, currentUserId);
+        
+        return ResponseEntity.ok(statistics);
+    }
+
     /**
      * Get current user ID from authentication context
      */
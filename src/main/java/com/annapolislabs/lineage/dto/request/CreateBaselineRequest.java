@@ -0,0 +1,27 @@
+package com.annapolislabs.lineage.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class CreateBaselineRequest {
+
+    @NotBlank(message = "Baseline name is required")
+    @Size(max = 100, message = "Baseline name must not exceed 100 characters")
+    private String name;
+
+    /**
+     * Instant the baseline pins; now when omitted
+     */
+    private LocalDateTime at;
+
+    public CreateBaselineRequest(String name, LocalDateTime at) {
+        this.name = name;
+        this.at = at;
+    }
+}
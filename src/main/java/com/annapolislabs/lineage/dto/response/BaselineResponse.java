@@ -0,0 +1,15 @@
+package com.annapolislabs.lineage.dto.response;
+
+import com.annapolislabs.lineage.entity.ProjectBaseline;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BaselineResponse(UUID id, String name, LocalDateTime capturedAt, String createdBy,
+                               LocalDateTime createdAt) {
+
+    public BaselineResponse(ProjectBaseline baseline) {
+        this(baseline.getId(), baseline.getName(), baseline.getCapturedAt(),
+                baseline.getCreatedBy() != null ? baseline.getCreatedBy().getEmail() : null, baseline.getCreatedAt());
+    }
+}
@@ -0,0 +1,46 @@
+package com.annapolislabs.lineage.dto.response;
+
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.Link;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What changed in a project between two snapshots. Entries are ordered by requirement id; a
+ * requirement counts as modified when any of its own fields or its parent changed, and
+ * {@code changes} lists those fields with their values in both snapshots.
+ */
+public record ProjectSnapshotDiff(UUID projectId,
+                                  String projectName,
+                                  Side from,
+                                  Side to,
+                                  int unchanged,
+                                  List<RequirementChange> added,
+                                  List<RequirementChange> removed,
+                                  List<RequirementChange> modified,
+                                  List<Link> linksAdded,
+                                  List<Link> linksRemoved) {
+
+    /**
+     * One end of the comparison, the instant of an ad hoc snapshot or of a named baseline
+     */
+    public record Side(LocalDateTime at, String baseline) {
+
+        public String label() {
+            return baseline != null ? baseline + " (" + at + ")" : at.toString();
+        }
+    }
+
+    /**
+     * @param changes changed fields of a modified requirement; empty for added and removed ones
+     */
+    public record RequirementChange(UUID id, String reqId, String title, List<FieldChange> changes) {
+    }
+
+    /**
+     * @param field field name, or {@code customFields.<key>} for a custom field
+     */
+    public record FieldChange(String field, Object before, Object after) {
+    }
+}
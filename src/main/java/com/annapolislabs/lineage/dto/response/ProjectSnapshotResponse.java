@@ -0,0 +1,41 @@
+package com.annapolislabs.lineage.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A project's requirement tree and links as they were at {@code at}, rebuilt from requirement
+ * history. Requirements deleted at that instant are left out, along with their links.
+ *
+ * @param baseline name of the baseline the snapshot was taken for, {@code null} for an ad hoc instant
+ * @param requirements top-level requirements, each with its children, ordered by requirement id
+ */
+public record ProjectSnapshotResponse(UUID projectId,
+                                      LocalDateTime at,
+                                      String baseline,
+                                      int requirementCount,
+                                      List<RequirementNode> requirements,
+                                      List<Link> links) {
+
+    /**
+     * @param parentId parent at the snapshot's instant, {@code null} for top-level requirements
+     * @param fingerprint hash of the requirement's own fields and parent, equal across snapshots exactly
+     *                    when the requirement did not change between them
+     */
+    public record RequirementNode(UUID id,
+                                  UUID parentId,
+                                  String fingerprint,
+                                  String reqId,
+                                  String title,
+                                  String description,
+                                  String status,
+                                  String priority,
+                                  Map<String, Object> customFields,
+                                  List<RequirementNode> children) {
+    }
+
+    public record Link(UUID fromRequirementId, String fromReqId, UUID toRequirementId, String toReqId) {
+    }
+}
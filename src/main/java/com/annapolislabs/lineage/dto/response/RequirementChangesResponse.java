@@ -0,0 +1,46 @@
+package com.annapolislabs.lineage.dto.response;
+
+import com.annapolislabs.lineage.entity.RequirementLink;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Requirements and links of a project that changed after a sync cursor. Entries carry current state,
+ * so applying the same page twice is harmless. A {@code full} response is a complete snapshot that
+ * replaces the client's copy; otherwise clients upsert {@code requirements} and {@code links}, drop
+ * the deleted ids and resume from {@code cursor}, immediately while {@code hasMore} is set.
+ */
+@Data
+@NoArgsConstructor
+public class RequirementChangesResponse {
+    private UUID projectId;
+    private long cursor;
+    private boolean full;
+    private boolean hasMore;
+    private List<RequirementResponse> requirements = new ArrayList<>();
+    private List<LinkSummary> links = new ArrayList<>();
+    private List<UUID> deletedRequirementIds = new ArrayList<>();
+    private List<UUID> deletedLinkIds = new ArrayList<>();
+
+    public RequirementChangesResponse(UUID projectId, long cursor, boolean full, boolean hasMore) {
+        this.projectId = projectId;
+        this.cursor = cursor;
+        this.full = full;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Link endpoints only; the requirements themselves are listed separately
+     */
+    public record LinkSummary(UUID id, UUID fromRequirementId, UUID toRequirementId, LocalDateTime createdAt) {
+
+        public LinkSummary(RequirementLink link) {
+            this(link.getId(), link.getFromRequirement().getId(), link.getToRequirement().getId(), link.getCreatedAt());
+        }
+    }
+}
@@ -3,15 +3,11 @@ package com.annapolislabs.lineage.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -40,12 +36,18 @@ public class AIConversation {
     private String title;
     
     /**
-     * Conversation messages stored as JSON array
-     * Format: [{"role": "user|assistant|system", "content": "..."}]
+     * Number of messages shown in the chat transcript: the user's own messages and assistant
+     * replies with text for the user. Tool results and other internal turns are not counted.
      */
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "jsonb", nullable = false)
-    private List<ConversationMessage> messages = new ArrayList<>();
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    /**
+     * Sequence number assigned to the next row appended to ai_conversation_messages, counting
+     * every stored turn.
+     */
+    @Column(name = "next_seq", nullable = false)
+    private int nextSequence;
     
     @CreatedDate
     @Column(nullable = false, updatable = false)
@@ -64,7 +66,8 @@ public class AIConversation {
     }
 
     /**
-     * Inner class for conversation messages
+     * In-memory view of a conversation message as passed to the LLM; persisted as
+     * {@link AIConversationMessage} rows.
      */
     public static class ConversationMessage {
         private String role; // "user", "assistant", "system"
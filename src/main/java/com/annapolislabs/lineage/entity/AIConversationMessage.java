@@ -0,0 +1,52 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Single message of an AI conversation. Rows are append-only and ordered by {@code sequence}
+ * within their conversation.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "ai_conversation_messages")
+@EntityListeners(AuditingEntityListener.class)
+public class AIConversationMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "conversation_id", nullable = false, updatable = false)
+    private UUID conversationId;
+
+    @Column(name = "seq", nullable = false, updatable = false)
+    private int sequence;
+
+    @Column(nullable = false, length = 20, updatable = false)
+    private String role; // "user", "assistant", "system"
+
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String content;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AIConversationMessage() {}
+
+    public AIConversationMessage(UUID conversationId, int sequence, String role, String content) {
+        this.conversationId = conversationId;
+        this.sequence = sequence;
+        this.role = role;
+        this.content = content;
+    }
+}
@@ -18,17 +18,17 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * Audit trail entry. The table is range-partitioned by month on {@code created_at}, so queries
+ * should bound {@code created_at} where they can; the database primary key is
+ * {@code (id, created_at)}.
+ */
 @Setter
 @Getter
 @Entity
 @Table(name = "audit_logs", indexes = {
-    @Index(name = "idx_audit_logs_user_id", columnList = "user_id"),
-    @Index(name = "idx_audit_logs_action", columnList = "action"),
-    @Index(name = "idx_audit_logs_resource", columnList = "resource"),
-    @Index(name = "idx_audit_logs_resource_id", columnList = "resource_id"),
-    @Index(name = "idx_audit_logs_severity", columnList = "severity"),
-    @Index(name = "idx_audit_logs_created_at", columnList = "created_at"),
-    @Index(name = "idx_audit_logs_ip_address", columnList = "ip_address")
+    @Index(name = "idx_audit_logs_user_created_at", columnList = "user_id, created_at DESC"),
+    @Index(name = "idx_audit_logs_created_at", columnList = "created_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class AuditLog {
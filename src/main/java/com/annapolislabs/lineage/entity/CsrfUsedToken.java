@@ -0,0 +1,32 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identifier of a CSRF token that has already been accepted. Only written when single-use CSRF
+ * tokens are enabled; rows can be removed once the token has expired.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "csrf_used_tokens")
+public class CsrfUsedToken {
+
+    @Id
+    @Column(name = "token_id", nullable = false, length = 32)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public CsrfUsedToken() {}
+
+    public CsrfUsedToken(String tokenId, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+}
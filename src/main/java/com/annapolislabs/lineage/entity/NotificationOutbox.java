@@ -0,0 +1,75 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Rendered email waiting in the transactional outbox. Rows are written in the same transaction as
+ * the business change that triggers them and delivered later by the notification dispatcher, so a
+ * slow or unavailable mail server never holds a request transaction open and a rolled-back change
+ * never sends mail.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "notification_type", nullable = false, length = 50, updatable = false)
+    private String notificationType;
+
+    @Column(nullable = false, updatable = false)
+    private String recipient;
+
+    @Column(nullable = false, updatable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    // Constructors
+    public NotificationOutbox() {}
+
+    public NotificationOutbox(String notificationType, String recipient, String subject, String body,
+                              LocalDateTime createdAt) {
+        this.notificationType = notificationType;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
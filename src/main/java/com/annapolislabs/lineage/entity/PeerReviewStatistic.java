@@ -0,0 +1,73 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Rolled-up peer review counter. Each row counts the reviews that fall into one bucket of a
+ * dimension (for example status {@code APPROVED}, or the pending reviews of one reviewer). Rows are
+ * maintained incrementally by the peer review service and reconciled periodically.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "peer_review_statistics")
+@IdClass(PeerReviewStatistic.Key.class)
+public class PeerReviewStatistic {
+
+    public static final String DIMENSION_STATUS = "status";
+    public static final String DIMENSION_TYPE = "type";
+    public static final String DIMENSION_PENDING_REVIEWER = "pending_reviewer";
+
+    @Id
+    @Column(nullable = false, length = 20)
+    private String dimension;
+
+    @Id
+    @Column(nullable = false, length = 64)
+    private String bucket;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    public PeerReviewStatistic() {}
+
+    public PeerReviewStatistic(String dimension, String bucket, long reviewCount) {
+        this.dimension = dimension;
+        this.bucket = bucket;
+        this.reviewCount = reviewCount;
+    }
+
+    /**
+     * Composite primary key of {@link PeerReviewStatistic}.
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private String dimension;
+        private String bucket;
+
+        public Key() {}
+
+        public Key(String dimension, String bucket) {
+            this.dimension = dimension;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(dimension, key.dimension) && Objects.equals(bucket, key.bucket);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, bucket);
+        }
+    }
+}
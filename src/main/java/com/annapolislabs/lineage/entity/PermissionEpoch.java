@@ -0,0 +1,39 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Version counter of a user's effective permissions. The epoch is incremented whenever a grant,
+ * revoke, global role change or team membership change may alter what the user is allowed to do,
+ * so a permission snapshot or token stamped with an older epoch is known to be stale. Users without
+ * a row are at epoch {@code 0}.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "permission_epochs")
+public class PermissionEpoch {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long epoch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public PermissionEpoch() {}
+
+    public PermissionEpoch(UUID userId, long epoch, LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.epoch = epoch;
+        this.updatedAt = updatedAt;
+    }
+}
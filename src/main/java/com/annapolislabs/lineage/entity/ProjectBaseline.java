@@ -0,0 +1,55 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A named instant in a project's life, such as a release. The project's requirements and links as
+ * of {@link #capturedAt} are rebuilt from requirement history on demand (see
+ * {@code ProjectSnapshotService}); the baseline itself stores no content.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "project_baselines",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "name"}))
+@EntityListeners(AuditingEntityListener.class)
+public class ProjectBaseline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    private Project project;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public ProjectBaseline() {}
+
+    public ProjectBaseline(Project project, String name, LocalDateTime capturedAt, User createdBy) {
+        this.project = project;
+        this.name = name;
+        this.capturedAt = capturedAt;
+        this.createdBy = createdBy;
+    }
+}
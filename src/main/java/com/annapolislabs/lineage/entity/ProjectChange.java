@@ -0,0 +1,60 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One requirement or link write in a project's change log, stamped with the project content
+ * version the write bumped to (see {@code ProjectVersionService}). The version doubles as the
+ * resume cursor of delta sync.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "project_changes")
+public class ProjectChange {
+
+    public enum EntityType { REQUIREMENT, LINK }
+
+    public enum Operation { UPSERT, DELETE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public ProjectChange() {}
+
+    public ProjectChange(UUID projectId, long version, EntityType entityType, UUID entityId, Operation operation,
+                         LocalDateTime changedAt) {
+        this.projectId = projectId;
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+}
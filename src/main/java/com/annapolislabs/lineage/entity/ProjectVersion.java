@@ -0,0 +1,38 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Version counter of a project's requirements, links and metadata. The version is incremented by
+ * every write that changes what the project's read endpoints return, so an ETag stamped with an
+ * older version is known to be stale. Projects without a row are at version {@code 0}.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "project_versions")
+public class ProjectVersion {
+
+    @Id
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ProjectVersion() {}
+
+    public ProjectVersion(UUID projectId, long version, LocalDateTime updatedAt) {
+        this.projectId = projectId;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+}
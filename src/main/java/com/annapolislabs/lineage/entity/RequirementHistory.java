@@ -9,6 +9,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -44,6 +45,30 @@ public class RequirementHistory {
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> newValue;
 
+    /**
+     * Position in the requirement's state history, {@code null} for link rows
+     */
+    private Integer revision;
+
+    /**
+     * Whether {@link #newValue} holds the full requirement state, so replay can start here
+     */
+    @Column(nullable = false)
+    private boolean checkpoint;
+
+    /**
+     * RFC 6902 operations turning the previous revision's state into this one's
+     */
+    @Type(JsonBinaryType.class)
+    @Column(columnDefinition = "jsonb")
+    private List<Map<String, Object>> patch;
+
+    /**
+     * Other endpoint of a link row, whose history shows the row as well
+     */
+    @Column(name = "related_requirement_id")
+    private UUID relatedRequirementId;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime changedAt;
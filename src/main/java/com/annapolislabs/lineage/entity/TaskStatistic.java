@@ -0,0 +1,83 @@
+package com.annapolislabs.lineage.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Rolled-up task counter for one project. Each row counts the tasks of a project that fall into
+ * one bucket of a dimension (for example status {@code IN_PROGRESS}, or the active tasks of one
+ * assignee). Rows are maintained incrementally by the task service and reconciled periodically.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "task_statistics")
+@IdClass(TaskStatistic.Key.class)
+public class TaskStatistic {
+
+    public static final String DIMENSION_STATUS = "status";
+    public static final String DIMENSION_PRIORITY = "priority";
+    public static final String DIMENSION_ACTIVE_ASSIGNEE = "active_assignee";
+
+    @Id
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Id
+    @Column(nullable = false, length = 20)
+    private String dimension;
+
+    @Id
+    @Column(nullable = false, length = 64)
+    private String bucket;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    public TaskStatistic() {}
+
+    public TaskStatistic(UUID projectId, String dimension, String bucket, long taskCount) {
+        this.projectId = projectId;
+        this.dimension = dimension;
+        this.bucket = bucket;
+        this.taskCount = taskCount;
+    }
+
+    /**
+     * Composite primary key of {@link TaskStatistic}.
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private UUID projectId;
+        private String dimension;
+        private String bucket;
+
+        public Key() {}
+
+        public Key(UUID projectId, String dimension, String bucket) {
+            this.projectId = projectId;
+            this.dimension = dimension;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(projectId, key.projectId)
+                    && Objects.equals(dimension, key.dimension)
+                    && Objects.equals(bucket, key.bucket);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, dimension, bucket);
+        }
+    }
+}
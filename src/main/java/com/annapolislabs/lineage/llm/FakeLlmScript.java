@@ -0,0 +1,121 @@
+package com.annapolislabs.lineage.llm;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic response script for {@link FakeLlmServer}.
+ *
+ * <p>Rules are evaluated in declaration order against the content of the last message of each
+ * chat-completions request; the first rule whose pattern is found wins. Response templates may
+ * reference capture groups as {@code $1}..{@code $9}; templates are JSON, so captured text is
+ * substituted JSON-string-escaped and a reference belongs inside a string literal. When no rule
+ * matches, the fallback response is returned. Scripts can be declared fluently in tests or loaded from JSON:</p>
+ *
+ * <pre>
+ * {
+ *   "rules": [{"match": "\\[Current project ID: ([^\\]]+)\\]", "response": "{\"tool\": ...}"}],
+ *   "fallback": "{\"tool\": null, \"arguments\": null, \"message\": \"Done.\"}"
+ * }
+ * </pre>
+ */
+public class FakeLlmScript {
+
+    private static final Pattern GROUP_REFERENCE = Pattern.compile("\\$(\\d)");
+    private static final String DEFAULT_FALLBACK =
+            "{\"tool\": null, \"arguments\": null, \"message\": \"OK\"}";
+
+    private final List<Rule> rules = new ArrayList<>();
+    private String fallback = DEFAULT_FALLBACK;
+
+    /**
+     * Adds a rule answering with {@code response} when {@code regex} is found in the last message.
+     *
+     * @param regex    pattern searched in the last message content
+     * @param response response template, may reference capture groups as {@code $n} inside JSON strings
+     * @return this script for chaining
+     */
+    public FakeLlmScript when(String regex, String response) {
+        rules.add(new Rule(Pattern.compile(regex), response));
+        return this;
+    }
+
+    /**
+     * Sets the response used when no rule matches.
+     *
+     * @param response fallback assistant content
+     * @return this script for chaining
+     */
+    public FakeLlmScript otherwise(String response) {
+        this.fallback = response;
+        return this;
+    }
+
+    /**
+     * Resolves the assistant content for the given last message.
+     *
+     * @param lastMessage content of the final message in the request, may be {@code null}
+     * @return scripted assistant content
+     */
+    public String respond(String lastMessage) {
+        String content = lastMessage == null ? "" : lastMessage;
+        for (Rule rule : rules) {
+            Optional<String> response = rule.apply(content);
+            if (response.isPresent()) {
+                return response.get();
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Loads a script from its JSON representation.
+     *
+     * @param json         stream containing {@code rules} and optional {@code fallback}
+     * @param objectMapper mapper used to read the document
+     * @return parsed script
+     * @throws IOException when the stream cannot be read or is not valid JSON
+     */
+    public static FakeLlmScript fromJson(InputStream json, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        FakeLlmScript script = new FakeLlmScript();
+        for (JsonNode rule : root.path("rules")) {
+            script.when(rule.path("match").asText(), rule.path("response").asText());
+        }
+        if (root.hasNonNull("fallback")) {
+            script.otherwise(root.path("fallback").asText());
+        }
+        return script;
+    }
+
+    private record Rule(Pattern pattern, String response) {
+
+        Optional<String> apply(String content) {
+            Matcher matcher = pattern.matcher(content);
+            if (!matcher.find()) {
+                return Optional.empty();
+            }
+            Matcher reference = GROUP_REFERENCE.matcher(response);
+            StringBuilder resolved = new StringBuilder();
+            while (reference.find()) {
+                int group = Integer.parseInt(reference.group(1));
+                String value = group <= matcher.groupCount() && matcher.group(group) != null
+                        ? matcher.group(group) : "";
+                // Tool errors and user text carry quotes, backslashes and line breaks
+                String escaped = new String(JsonStringEncoder.getInstance().quoteAsString(value));
+                reference.appendReplacement(resolved, Matcher.quoteReplacement(escaped));
+            }
+            reference.appendTail(resolved);
+            return Optional.of(resolved.toString());
+        }
+    }
+}
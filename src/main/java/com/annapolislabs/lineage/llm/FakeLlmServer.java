@@ -0,0 +1,202 @@
+package com.annapolislabs.lineage.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deterministic stand-in for an OpenAI-compatible chat-completions endpoint.
+ *
+ * <p>The server binds to the loopback interface only and answers every POST to
+ * {@value #COMPLETIONS_PATH} with the content resolved by a {@link FakeLlmScript}. Latency is
+ * simulated as a fixed time-to-first-token plus prompt processing and generation time derived from
+ * the configured token rates (tokens are estimated as four characters each), so the effect of prompt
+ * size on agent latency can be measured without a GPU or network access. Requests are handled on
+ * virtual threads so concurrent load tests do not queue behind the simulated latency.</p>
+ */
+public class FakeLlmServer implements AutoCloseable {
+
+    /** Path answered by the server; point {@code lineage.llm.api-url} at {@link #getUrl()}. */
+    public static final String COMPLETIONS_PATH = "/v1/chat/completions";
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeLlmServer.class);
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final FakeLlmScript script;
+    private final ObjectMapper objectMapper;
+    private final Duration firstTokenLatency;
+    private final double promptTokensPerSecond;
+    private final double completionTokensPerSecond;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param script                    responses to serve
+     * @param objectMapper              mapper used to read requests and write responses
+     * @param firstTokenLatency         fixed delay added to every response
+     * @param promptTokensPerSecond     simulated prompt processing rate; {@code <= 0} disables it
+     * @param completionTokensPerSecond simulated generation rate; {@code <= 0} disables it
+     */
+    public FakeLlmServer(FakeLlmScript script, ObjectMapper objectMapper, Duration firstTokenLatency,
+                         double promptTokensPerSecond, double completionTokensPerSecond) {
+        this.script = script;
+        this.objectMapper = objectMapper;
+        this.firstTokenLatency = firstTokenLatency;
+        this.promptTokensPerSecond = promptTokensPerSecond;
+        this.completionTokensPerSecond = completionTokensPerSecond;
+    }
+
+    /**
+     * Creates a server without simulated latency, convenient for unit tests.
+     */
+    public FakeLlmServer(FakeLlmScript script, ObjectMapper objectMapper) {
+        this(script, objectMapper, Duration.ZERO, 0, 0);
+    }
+
+    /**
+     * Binds the server on the loopback interface.
+     *
+     * @param port TCP port, or {@code 0} for an ephemeral port
+     * @return this server for chaining
+     * @throws IOException when the port cannot be bound
+     */
+    public FakeLlmServer start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(COMPLETIONS_PATH, this::handle);
+        server.start();
+        logger.info("Fake LLM server listening on {}", getUrl());
+        return this;
+    }
+
+    /**
+     * @return full URL of the completions endpoint
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + COMPLETIONS_PATH;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.get();
+    }
+
+    public long getPromptTokens() {
+        return promptTokens.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            requestCount.incrementAndGet();
+            requestBytes.addAndGet(body.length);
+
+            JsonNode request = objectMapper.readTree(body);
+            JsonNode messages = request.path("messages");
+            String lastMessage = messages.isArray() && !messages.isEmpty()
+                    ? messages.get(messages.size() - 1).path("content").asText()
+                    : null;
+            String content = script.respond(lastMessage);
+
+            long requestTokens = 0;
+            for (JsonNode message : messages) {
+                requestTokens += estimateTokens(message.path("content").asText());
+            }
+            long completionTokens = estimateTokens(content);
+            promptTokens.addAndGet(requestTokens);
+            simulateLatency(requestTokens, completionTokens);
+
+            byte[] response = objectMapper.writeValueAsBytes(buildResponse(request, content, requestTokens, completionTokens));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Fake LLM request failed: {}", e.getMessage());
+            byte[] error = ("{\"error\": \"" + e.getClass().getSimpleName() + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(400, error.length);
+            exchange.getResponseBody().write(error);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency(long requestTokens, long completionTokens) throws InterruptedException {
+        double seconds = firstTokenLatency.toNanos() / 1e9;
+        if (promptTokensPerSecond > 0) {
+            seconds += requestTokens / promptTokensPerSecond;
+        }
+        if (completionTokensPerSecond > 0) {
+            seconds += completionTokens / completionTokensPerSecond;
+        }
+        long millis = Math.round(seconds * 1000);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private ObjectNode buildResponse(JsonNode request, String content, long requestTokens, long completionTokens) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", "fake-" + requestCount.get());
+        response.put("object", "chat.completion");
+        response.put("model", request.path("model").asText("fake"));
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.put("finish_reason", "stop");
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", requestTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", requestTokens + completionTokens);
+        return response;
+    }
+
+    private static long estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
@@ -0,0 +1,27 @@
+package com.annapolislabs.lineage.notification;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sender used when no SMTP server is configured. Logs each notification instead of delivering it
+ * so lower environments can validate email flows without dispatching real mail.
+ */
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public Map<UUID, String> send(List<NotificationOutbox> batch) {
+        for (NotificationOutbox notification : batch) {
+            logger.info("{} email would be sent to: {} with subject '{}'",
+                    notification.getNotificationType(), notification.getRecipient(), notification.getSubject());
+        }
+        return Map.of();
+    }
+}
@@ -0,0 +1,24 @@
+package com.annapolislabs.lineage.notification;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delivers a batch of rendered notifications taken from the outbox.
+ *
+ * <p>Implementations should send the whole batch over one connection where the transport allows
+ * it and report per-message failures instead of throwing, so one bad address does not cause the
+ * rest of the batch to be retried. An exception means nothing in the batch was delivered.</p>
+ */
+public interface NotificationSender {
+
+    /**
+     * @param batch notifications to deliver
+     * @return IDs of the notifications that could not be delivered, mapped to the error message;
+     *         empty when the whole batch was sent
+     */
+    Map<UUID, String> send(List<NotificationOutbox> batch);
+}
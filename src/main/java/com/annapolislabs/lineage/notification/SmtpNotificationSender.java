@@ -0,0 +1,72 @@
+package com.annapolislabs.lineage.notification;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.*;
+
+/**
+ * Delivers notifications through a {@link JavaMailSender}. The batch is handed to the sender in
+ * one call so it is transmitted over a single SMTP connection; per-message failures reported by
+ * the server are mapped back to their outbox rows.
+ */
+public class SmtpNotificationSender implements NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpNotificationSender.class);
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public SmtpNotificationSender(JavaMailSender mailSender, String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public Map<UUID, String> send(List<NotificationOutbox> batch) {
+        if (batch.isEmpty()) {
+            return Map.of();
+        }
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        Map<Object, UUID> idsByMessage = new IdentityHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutbox notification = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(notification.getRecipient());
+            message.setSubject(notification.getSubject());
+            message.setText(notification.getBody());
+            messages[i] = message;
+            idsByMessage.put(message, notification.getId());
+        }
+
+        try {
+            mailSender.send(messages);
+            return Map.of();
+        } catch (MailSendException e) {
+            Map<UUID, String> failures = new HashMap<>();
+            e.getFailedMessages().forEach((message, error) -> {
+                UUID id = idsByMessage.get(message);
+                if (id != null) {
+                    failures.put(id, error.getMessage());
+                }
+            });
+            if (failures.isEmpty()) {
+                // Failure not attributable to individual messages, e.g. the connection dropped
+                batch.forEach(notification -> failures.put(notification.getId(), e.getMessage()));
+            }
+            logger.warn("SMTP delivery failed for {} of {} notifications: {}", failures.size(), batch.size(), e.getMessage());
+            return failures;
+        } catch (MailException e) {
+            logger.warn("SMTP delivery failed for batch of {} notifications: {}", batch.size(), e.getMessage());
+            Map<UUID, String> failures = new HashMap<>();
+            batch.forEach(notification -> failures.put(notification.getId(), e.getMessage()));
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.annapolislabs.lineage.realtime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * A committed change to an entity of a project, pushed to the project's subscribers.
+ *
+ * @param projectId  project the entity belongs to
+ * @param entityType {@code REQUIREMENT} and {@code LINK} as in the change log, or {@link #TASK} and {@link #REVIEW}
+ * @param entityId   changed entity
+ * @param operation  {@code UPSERT} or {@code DELETE}
+ * @param version    project content version the change was recorded at, {@code null} for entities
+ *                   outside the change log
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProjectChangeEvent(@JsonIgnore UUID projectId, String entityType, UUID entityId, String operation,
+                                 Long version) {
+
+    public static final String TASK = "TASK";
+    public static final String REVIEW = "REVIEW";
+    public static final String UPSERT = "UPSERT";
+
+    /**
+     * Identifies the entity, so later changes to it supersede earlier ones
+     */
+    String key() {
+        return entityType + ":" + entityId;
+    }
+}
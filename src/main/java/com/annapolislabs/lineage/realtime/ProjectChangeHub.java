@@ -0,0 +1,411 @@
+package com.annapolislabs.lineage.realtime;
+
+import com.annapolislabs.lineage.repository.ProjectMemberRepository;
+import com.annapolislabs.lineage.repository.ProjectVersionRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes project change notifications to WebSocket clients so they do not have to poll.
+ *
+ * <p>Clients connect to {@code /ws/changes} and send {@code {"type":"subscribe","projectId":"..."}}
+ * for each project they display. Changes published through {@link ProjectChangePublisher} arrive
+ * after their transaction commits and are queued per session, keyed by entity, so a burst of edits
+ * to one requirement is sent once with its latest version. Every {@code flush-ms} each session's
+ * queue is written as one {@code changes} message per project. Notifications carry ids and versions
+ * only; clients read the new state through the delta sync endpoint.</p>
+ *
+ * <p>Each session queues at most {@code max-pending} entities. Past that, the project's queue is
+ * replaced by a single {@code resync} message telling the client to sync from its cursor. Writes
+ * happen off the scheduler thread, one at a time per session. A session whose write has not
+ * finished after {@code send-time-limit-ms}, or whose buffered output exceeds
+ * {@code buffer-size-limit} bytes, is closed as a slow consumer.</p>
+ *
+ * <p>Changes made on other nodes arrive through {@link ProjectChangeRelay}. Every
+ * {@code heartbeat-ms} each subscription gets a {@code version} message with the project's current
+ * content version, so a client that missed a notification sees that the version moved past its
+ * cursor and syncs. The heartbeat also re-checks membership: subscriptions of users who have left
+ * the project are dropped with a {@code revoked} message.</p>
+ */
+@Slf4j
+@Component
+public class ProjectChangeHub extends TextWebSocketHandler {
+
+    /**
+     * Handshake attribute holding the authenticated user's id
+     */
+    public static final String USER_ID = "userId";
+
+    private static final String TYPE = "type";
+    private static final String PROJECT_ID = "projectId";
+
+    private final ObjectMapper objectMapper;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectVersionRepository versionRepository;
+    private final MeterRegistry meterRegistry;
+    private final Executor sender;
+    private final Clock clock;
+    private final Map<String, Subscriber> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscriber>> subscriptions = new ConcurrentHashMap<>();
+
+    @Value("${lineage.changes.push.max-pending:500}")
+    private int maxPending;
+
+    @Value("${lineage.changes.push.max-subscriptions:20}")
+    private int maxSubscriptions;
+
+    @Value("${lineage.changes.push.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${lineage.changes.push.buffer-size-limit:524288}")
+    private int bufferSizeLimit;
+
+    @Autowired
+    public ProjectChangeHub(ObjectMapper objectMapper,
+                            ProjectMemberRepository projectMemberRepository,
+                            ProjectVersionRepository versionRepository,
+                            MeterRegistry meterRegistry) {
+        this(objectMapper, projectMemberRepository, versionRepository, meterRegistry,
+                Executors.newVirtualThreadPerTaskExecutor(), Clock.systemUTC());
+    }
+
+    ProjectChangeHub(ObjectMapper objectMapper,
+                     ProjectMemberRepository projectMemberRepository,
+                     ProjectVersionRepository versionRepository,
+                     MeterRegistry meterRegistry,
+                     Executor sender,
+                     Clock clock) {
+        this.objectMapper = objectMapper;
+        this.projectMemberRepository = projectMemberRepository;
+        this.versionRepository = versionRepository;
+        this.meterRegistry = meterRegistry;
+        this.sender = sender;
+        this.clock = clock;
+        meterRegistry.gaugeMapSize("lineage.changes.push.sessions", Tags.empty(), sessions);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (!(session.getAttributes().get(USER_ID) instanceof UUID userId)) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        // Serializes subscription replies with change notifications and bounds what a session buffers
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs,
+                bufferSizeLimit);
+        sessions.put(session.getId(), new Subscriber(concurrent, userId));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        Subscriber subscriber = sessions.get(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+        JsonNode request;
+        UUID projectId;
+        try {
+            request = objectMapper.readTree(message.getPayload());
+            projectId = UUID.fromString(request.path(PROJECT_ID).asText());
+        } catch (IOException | IllegalArgumentException e) {
+            reply(subscriber, "error", null, "Expected {\"type\": ..., \"projectId\": ...}");
+            return;
+        }
+
+        switch (request.path(TYPE).asText()) {
+            case "subscribe" -> subscribe(subscriber, projectId);
+            case "unsubscribe" -> {
+                unsubscribe(subscriber, projectId);
+                reply(subscriber, "unsubscribed", projectId, null);
+            }
+            default -> reply(subscriber, "error", projectId, "Unknown message type");
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Change stream transport error on session {}: {}", session.getId(), exception.getMessage());
+        remove(session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        remove(session.getId());
+    }
+
+    /**
+     * Queues a committed change for every session subscribed to its project
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ProjectChangeEvent event) {
+        Set<Subscriber> subscribers = subscriptions.get(event.projectId());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            meterRegistry.counter("lineage.changes.push", "outcome", subscriber.enqueue(event, maxPending))
+                    .increment();
+        }
+    }
+
+    /**
+     * Hands each session's queued changes to a sender, and closes sessions whose previous write is stuck
+     */
+    @Scheduled(fixedDelayString = "${lineage.changes.push.flush-ms:250}")
+    public void flush() {
+        long now = clock.millis();
+        for (Subscriber subscriber : sessions.values()) {
+            switch (subscriber.beginFlush(now, sendTimeLimitMs)) {
+                case READY -> sender.execute(() -> send(subscriber));
+                case STALLED -> evict(subscriber);
+                case IDLE -> {
+                    // Nothing queued, or a write that is still within its time limit
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues each subscription's current project version, and drops subscriptions whose user is no
+     * longer a member of the project
+     */
+    @Scheduled(initialDelayString = "${lineage.changes.push.heartbeat-ms:30000}",
+            fixedDelayString = "${lineage.changes.push.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Map.Entry<UUID, Set<Subscriber>> entry : subscriptions.entrySet()) {
+            UUID projectId = entry.getKey();
+            List<Subscriber> subscribers = List.copyOf(entry.getValue());
+            Set<UUID> userIds = new HashSet<>();
+            subscribers.forEach(subscriber -> userIds.add(subscriber.userId));
+            Set<UUID> members = projectMemberRepository.findMemberUserIds(projectId, userIds);
+            Long version = versionRepository.findVersion(projectId);
+            for (Subscriber subscriber : subscribers) {
+                if (members.contains(subscriber.userId)) {
+                    subscriber.heartbeat(projectId, version != null ? version : 0L);
+                } else {
+                    unsubscribe(subscriber, projectId);
+                    subscriber.revoke(projectId);
+                    meterRegistry.counter("lineage.changes.push", "outcome", "revoked").increment();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    private void subscribe(Subscriber subscriber, UUID projectId) throws IOException {
+        if (subscriber.projects.size() >= maxSubscriptions && !subscriber.projects.contains(projectId)) {
+            reply(subscriber, "error", projectId, "Too many subscriptions");
+            return;
+        }
+        if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, subscriber.userId)) {
+            reply(subscriber, "error", projectId, "Access denied");
+            return;
+        }
+        subscriber.projects.add(projectId);
+        subscriptions.computeIfAbsent(projectId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        reply(subscriber, "subscribed", projectId, null);
+    }
+
+    private void unsubscribe(Subscriber subscriber, UUID projectId) {
+        subscriber.projects.remove(projectId);
+        subscriptions.computeIfPresent(projectId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriber.discard(projectId);
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            for (Notice notice : subscriber.drain()) {
+                subscriber.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(notice)));
+                meterRegistry.counter("lineage.changes.push", "outcome", "sent").increment();
+            }
+        } catch (SessionLimitExceededException e) {
+            // The decorator has already closed the session
+            log.info("Closed change stream session {} of user {}: {}", subscriber.session.getId(),
+                    subscriber.userId, e.getMessage());
+            meterRegistry.counter("lineage.changes.push", "outcome", "evicted").increment();
+            remove(subscriber.session.getId());
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to push changes to session {}: {}", subscriber.session.getId(), e.getMessage());
+            remove(subscriber.session.getId());
+        } finally {
+            subscriber.endFlush();
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        log.info("Closing change stream session {} of user {}: write stalled for more than {} ms",
+                subscriber.session.getId(), subscriber.userId, sendTimeLimitMs);
+        meterRegistry.counter("lineage.changes.push", "outcome", "evicted").increment();
+        remove(subscriber.session.getId());
+        // Closing can block on the stuck write, so it must not hold up the flush
+        sender.execute(() -> {
+            try {
+                subscriber.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Failed to close session {}: {}", subscriber.session.getId(), e.getMessage());
+            }
+        });
+    }
+
+    private void remove(String sessionId) {
+        Subscriber subscriber = sessions.remove(sessionId);
+        if (subscriber != null) {
+            List.copyOf(subscriber.projects).forEach(projectId -> unsubscribe(subscriber, projectId));
+        }
+    }
+
+    private void reply(Subscriber subscriber, String type, UUID projectId, String message) throws IOException {
+        subscriber.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(
+                new Notice(type, projectId, null, null, message))));
+    }
+
+    enum FlushState { READY, STALLED, IDLE }
+
+    /**
+     * Message sent to a client
+     *
+     * @param type    {@code changes}, {@code resync}, {@code version}, {@code revoked}, {@code subscribed},
+     *                {@code unsubscribed} or {@code error}
+     * @param version the project's content version, on {@code version} messages
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Notice(String type, UUID projectId, Collection<ProjectChangeEvent> changes, Long version,
+                  String message) {}
+
+    private static final class Subscriber {
+        private final WebSocketSession session;
+        private final UUID userId;
+        private final Set<UUID> projects = ConcurrentHashMap.newKeySet();
+        // Guarded by this
+        private final Map<UUID, Map<String, ProjectChangeEvent>> pending = new LinkedHashMap<>();
+        private final Set<UUID> resync = new LinkedHashSet<>();
+        private final Map<UUID, Long> versions = new LinkedHashMap<>();
+        private final Set<UUID> revoked = new LinkedHashSet<>();
+        private int pendingCount;
+        private boolean sending;
+        private long sendingSince;
+
+        private Subscriber(WebSocketSession session, UUID userId) {
+            this.session = session;
+            this.userId = userId;
+        }
+
+        /**
+         * @return the metric outcome: {@code queued}, {@code coalesced}, {@code resync} or {@code dropped}
+         */
+        synchronized String enqueue(ProjectChangeEvent event, int maxPending) {
+            UUID projectId = event.projectId();
+            if (resync.contains(projectId)) {
+                return "dropped";
+            }
+            Map<String, ProjectChangeEvent> changes = pending.computeIfAbsent(projectId, id -> new LinkedHashMap<>());
+            // Re-inserting moves the entity behind older changes, keeping each batch in version order
+            boolean coalesced = changes.remove(event.key()) != null;
+            changes.put(event.key(), event);
+            if (coalesced) {
+                return "coalesced";
+            }
+            if (++pendingCount <= maxPending) {
+                return "queued";
+            }
+            pendingCount -= changes.size();
+            pending.remove(projectId);
+            resync.add(projectId);
+            return "resync";
+        }
+
+        synchronized FlushState beginFlush(long now, long sendTimeLimitMs) {
+            if (sending) {
+                return now - sendingSince > sendTimeLimitMs ? FlushState.STALLED : FlushState.IDLE;
+            }
+            if (pending.isEmpty() && resync.isEmpty() && versions.isEmpty() && revoked.isEmpty()) {
+                return FlushState.IDLE;
+            }
+            sending = true;
+            sendingSince = now;
+            return FlushState.READY;
+        }
+
+        synchronized void heartbeat(UUID projectId, long version) {
+            versions.put(projectId, version);
+        }
+
+        synchronized void revoke(UUID projectId) {
+            revoked.add(projectId);
+        }
+
+        synchronized List<Notice> drain() {
+            List<Notice> notices = new ArrayList<>(revoked.size() + resync.size() + pending.size() + versions.size());
+            revoked.forEach(projectId -> notices.add(new Notice("revoked", projectId, null, null, "Access denied")));
+            resync.forEach(projectId -> notices.add(new Notice("resync", projectId, null, null, null)));
+            pending.forEach((projectId, changes) ->
+                    notices.add(new Notice("changes", projectId, List.copyOf(changes.values()), null, null)));
+            // After the changes, so a client never sees a version ahead of changes still in this batch
+            versions.forEach((projectId, version) -> notices.add(new Notice("version", projectId, null, version, null)));
+            revoked.clear();
+            resync.clear();
+            pending.clear();
+            versions.clear();
+            pendingCount = 0;
+            return notices;
+        }
+
+        synchronized void endFlush() {
+            sending = false;
+        }
+
+        synchronized void discard(UUID projectId) {
+            Map<String, ProjectChangeEvent> changes = pending.remove(projectId);
+            if (changes != null) {
+                pendingCount -= changes.size();
+            }
+            resync.remove(projectId);
+            versions.remove(projectId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.annapolislabs.lineage.realtime;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Publishes {@link ProjectChangeEvent}s from the services that write project content. Events
+ * published inside a transaction reach {@link ProjectChangeHub} only once it commits, on this node
+ * directly and on the others through {@link ProjectChangeRelay}.
+ */
+@Component
+public class ProjectChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectChangeRelay relay;
+
+    public ProjectChangePublisher(ApplicationEventPublisher eventPublisher, ProjectChangeRelay relay) {
+        this.eventPublisher = eventPublisher;
+        this.relay = relay;
+    }
+
+    public void publish(UUID projectId, String entityType, UUID entityId, String operation, Long version) {
+        if (projectId == null || entityId == null) {
+            return;
+        }
+        ProjectChangeEvent event = new ProjectChangeEvent(projectId, entityType, entityId, operation, version);
+        eventPublisher.publishEvent(event);
+        relay.announce(event);
+    }
+
+    /**
+     * Publishes an update to an entity that is not tracked in the project change log
+     */
+    public void publishUpsert(UUID projectId, String entityType, UUID entityId) {
+        publish(projectId, entityType, entityId, ProjectChangeEvent.UPSERT, null);
+    }
+}
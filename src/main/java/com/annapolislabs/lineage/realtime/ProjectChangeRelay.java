@@ -0,0 +1,178 @@
+package com.annapolislabs.lineage.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Relays project change notifications between application nodes over PostgreSQL
+ * {@code LISTEN/NOTIFY} on the {@code project_changes} channel.
+ *
+ * <p>A node hands its own changes to its {@link ProjectChangeHub} directly. The publisher also calls
+ * {@link #announce} inside the writing transaction, so {@code pg_notify} is delivered to every
+ * listening node when, and only if, that transaction commits. Each node keeps one connection
+ * listening on a background thread and passes the changes of other nodes to its hub; its own are
+ * recognized by node id and skipped. Notifications sent while a listener is reconnecting are lost;
+ * the hub's version heartbeat lets clients notice the gap and sync.</p>
+ *
+ * <p>The relay stays off when {@code lineage.changes.push.relay.enabled=false} or the database is
+ * not PostgreSQL.</p>
+ */
+@Slf4j
+@Component
+public class ProjectChangeRelay {
+
+    static final String CHANNEL = "project_changes";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectChangeHub hub;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile boolean enabled;
+    private volatile boolean running;
+    private Thread listener;
+
+    @Value("${lineage.changes.push.relay.enabled:true}")
+    private boolean relayEnabled = true;
+
+    @Value("${lineage.changes.push.relay.poll-ms:1000}")
+    private int pollMs = 1000;
+
+    @Value("${lineage.changes.push.relay.reconnect-ms:5000}")
+    private long reconnectMs = 5000;
+
+    public ProjectChangeRelay(DataSource dataSource,
+                              JdbcTemplate jdbcTemplate,
+                              ProjectChangeHub hub,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.hub = hub;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!relayEnabled || !isPostgres()) {
+            log.info("Project change relay disabled; changes are pushed to this node's sessions only");
+            return;
+        }
+        enabled = true;
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("project-change-relay").start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Announces a change to the other nodes; inside a transaction it is delivered on commit
+     */
+    public void announce(ProjectChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, CHANNEL, encode(event));
+    }
+
+    /**
+     * Passes a change announced by another node to the local hub
+     */
+    void receive(String payload) {
+        Relayed relayed;
+        try {
+            relayed = objectMapper.readValue(payload, Relayed.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Ignoring malformed project change notification: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(relayed.node())) {
+            return;
+        }
+        hub.onChange(new ProjectChangeEvent(relayed.projectId(), relayed.entityType(), relayed.entityId(),
+                relayed.operation(), relayed.version()));
+        meterRegistry.counter("lineage.changes.relay", "outcome", "received").increment();
+    }
+
+    String encode(ProjectChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(new Relayed(nodeId, event.projectId(), event.entityType(),
+                    event.entityId(), event.operation(), event.version()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for project changes from other nodes");
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Project change relay lost its connection: {}; reconnecting in {} ms", e.getMessage(),
+                        reconnectMs);
+                meterRegistry.counter("lineage.changes.relay", "outcome", "reconnect").increment();
+                try {
+                    Thread.sleep(reconnectMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            log.warn("Could not inspect the database for the project change relay: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Notification payload; {@code node} identifies the sender
+     */
+    record Relayed(String node, UUID projectId, String entityType, UUID entityId, String operation, Long version) {}
+}
@@ -0,0 +1,17 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.AIConversationMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only AIConversationMessage rows
+ */
+@Repository
+public interface AIConversationMessageRepository extends JpaRepository<AIConversationMessage, UUID> {
+
+    List<AIConversationMessage> findByConversationIdOrderBySequenceAsc(UUID conversationId);
+}
@@ -1,9 +1,13 @@
 package com.annapolislabs.lineage.repository;
 
+import com.annapolislabs.lineage.dto.response.AIChatListResponse;
 import com.annapolislabs.lineage.entity.AIConversation;
 import com.annapolislabs.lineage.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +23,14 @@ public interface AIConversationRepository extends JpaRepository<AIConversation,
 
     Optional<AIConversation> findByChatIdAndUser(String chatId, User user);
 
-    List<AIConversation> findByUserOrderByUpdatedAtDesc(User user);
+    /**
+     * Sidebar projection of a user's chats, newest first. Only the conversation row is read and the
+     * page is applied as LIMIT/OFFSET, served by idx_ai_conversations_user_updated.
+     */
+    @Query("SELECT new com.annapolislabs.lineage.dto.response.AIChatListResponse(" +
+           "c.chatId, c.title, c.updatedAt, c.messageCount) " +
+           "FROM AIConversation c WHERE c.user = :user ORDER BY c.updatedAt DESC")
+    List<AIChatListResponse> findChatSummariesByUser(@Param("user") User user, Pageable pageable);
 
     @Modifying
     @Transactional
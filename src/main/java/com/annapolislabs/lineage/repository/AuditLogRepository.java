@@ -5,12 +5,15 @@ import com.annapolislabs.lineage.entity.AuditSeverity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -91,6 +94,22 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     
     List<AuditLog> findByUserIdOrderByCreatedAtDesc(UUID userId);
 
+    Page<AuditLog> findByUserId(UUID userId, Pageable pageable);
+
+    Optional<AuditLog> findFirstByUserIdAndActionOrderByCreatedAtDesc(UUID userId, String action);
+
+    /**
+     * Most recent events of the given severities whose {@code event_type} detail contains
+     * {@code eventTypeFragment}. The {@code since} bound lets the planner prune old partitions.
+     */
+    @Query(value = "SELECT * FROM audit_logs WHERE severity IN (:severities) AND created_at >= :since " +
+            "AND details ->> 'event_type' LIKE CONCAT('%', :eventTypeFragment, '%') " +
+            "ORDER BY created_at DESC LIMIT :limit", nativeQuery = true)
+    List<AuditLog> findRecentByEventType(@Param("severities") List<String> severities,
+                                         @Param("eventTypeFragment") String eventTypeFragment,
+                                         @Param("since") LocalDateTime since,
+                                         @Param("limit") int limit);
+
     List<AuditLog> findByUserIdAndActionOrderByCreatedAtDesc(UUID userId, String action);
 
     // Cleanup and maintenance
@@ -99,6 +118,35 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     
     @Query("DELETE FROM AuditLog al WHERE al.severity = 'INFO' AND al.createdAt < :cutoffDate")
     void deleteOldInfoLogs(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * Deletes at most {@code limit} INFO logs created before the cutoff
+     */
+    @Modifying
+    @Query(value = "DELETE FROM audit_logs WHERE (id, created_at) IN (" +
+            "SELECT id, created_at FROM audit_logs WHERE severity = 'INFO' AND created_at < :cutoffDate LIMIT :limit)",
+            nativeQuery = true)
+    int deleteOldInfoLogsBatch(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("limit") int limit);
+
+    long countBySeverityAndCreatedAtBefore(AuditSeverity severity, LocalDateTime cutoffDate);
+
+    // Partition management (see V25__Partition_audit_logs.sql)
+
+    /**
+     * Creates the monthly partitions from the current month through {@code monthsAhead} months ahead
+     *
+     * @return number of partitions created
+     */
+    @Query(value = "SELECT ensure_audit_log_partitions(:monthsAhead)", nativeQuery = true)
+    Integer ensurePartitions(@Param("monthsAhead") int monthsAhead);
+
+    /**
+     * Drops the monthly partitions that end on or before {@code before}
+     *
+     * @return number of partitions dropped
+     */
+    @Query(value = "SELECT drop_audit_log_partitions(:before)", nativeQuery = true)
+    Integer dropPartitionsBefore(@Param("before") LocalDate before);
     
     // Statistics
     @Query("SELECT COUNT(al) FROM AuditLog al WHERE al.createdAt >= :startDate")
@@ -0,0 +1,39 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.CsrfUsedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for the consumed single-use CSRF token identifiers in {@code csrf_used_tokens}
+ */
+@Repository
+public interface CsrfUsedTokenRepository extends JpaRepository<CsrfUsedToken, String> {
+
+    /**
+     * Records a token as used unless it already was
+     *
+     * @return {@code 1} on first use, {@code 0} when the token was used before
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO csrf_used_tokens (token_id, expires_at) VALUES (:tokenId, :expiresAt) " +
+            "ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int markUsed(@Param("tokenId") String tokenId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Deletes at most {@code limit} identifiers of tokens that expired before {@code now}
+     */
+    @Modifying
+    @Query(value = "DELETE FROM csrf_used_tokens WHERE token_id IN (" +
+            "SELECT token_id FROM csrf_used_tokens WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByExpiresAtBefore(LocalDateTime now);
+}
@@ -0,0 +1,40 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the notification outbox
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+
+    /**
+     * Locks the next batch of pending notifications that are due, skipping rows already locked by
+     * another dispatcher so several instances can drain the outbox concurrently
+     */
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(NotificationOutbox.Status status);
+
+    /**
+     * Deletes delivered notifications older than the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status = com.annapolislabs.lineage.entity.NotificationOutbox.Status.SENT " +
+           "AND n.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
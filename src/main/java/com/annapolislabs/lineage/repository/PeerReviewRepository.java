@@ -4,11 +4,14 @@ import com.annapolislabs.lineage.entity.PeerReview;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -51,10 +54,39 @@ public interface PeerReviewRepository extends JpaRepository<PeerReview, UUID> {
     Page<PeerReview> findPendingReviews(Pageable pageable);
     
     /**
-     * Find overdue reviews
+     * Open reviews with a deadline as (id, reviewerId, reviewDeadline) rows for the deadline index
      */
-    @Query("SELECT pr FROM PeerReview pr WHERE pr.reviewDeadline < :now AND pr.status NOT IN ('approved', 'rejected', 'revision_requested')")
-    List<PeerReview> findOverdueReviews(@Param("now") LocalDateTime now);
+    @Query("SELECT pr.id, pr.reviewerId, pr.reviewDeadline FROM PeerReview pr WHERE pr.reviewDeadline IS NOT NULL AND pr.status IN :statuses")
+    List<Object[]> findOpenDeadlines(@Param("statuses") Collection<PeerReview.ReviewStatus> statuses);
+    
+    /**
+     * Claims the due-soon notice for the review at its current due date
+     *
+     * @return {@code 1} when this caller should send the notice, {@code 0} when it was already sent
+     *         or the due date has moved
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE peer_reviews SET due_soon_notified_for = :dueAt WHERE id = :id AND review_deadline = :dueAt " +
+            "AND due_soon_notified_for IS DISTINCT FROM :dueAt", nativeQuery = true)
+    int claimDueSoonNotice(@Param("id") UUID id, @Param("dueAt") LocalDateTime dueAt);
+    
+    /**
+     * Claims the overdue notice for the review at its current due date
+     *
+     * @return {@code 1} when this caller should send the notice, {@code 0} when it was already sent
+     *         or the due date has moved
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE peer_reviews SET overdue_notified_for = :dueAt WHERE id = :id AND review_deadline = :dueAt " +
+            "AND overdue_notified_for IS DISTINCT FROM :dueAt", nativeQuery = true)
+    int claimOverdueNotice(@Param("id") UUID id, @Param("dueAt") LocalDateTime dueAt);
+    
+    /**
+     * Find reviews in the given statuses, bounded by the page
+     */
+    List<PeerReview> findByStatusIn(Collection<PeerReview.ReviewStatus> statuses, Pageable pageable);
     
     /**
      * Find reviews by status
@@ -92,14 +124,7 @@ public interface PeerReviewRepository extends JpaRepository<PeerReview, UUID> {
     Page<PeerReview> findBySearch(@Param("search") String search, Pageable pageable);
     
     /**
-     * Find reviews that need attention (pending or overdue)
-     */
-    @Query("SELECT pr FROM PeerReview pr WHERE pr.status IN ('pending', 'in_progress') OR " +
-           "(pr.reviewDeadline < :now AND pr.status NOT IN ('approved', 'rejected', 'revision_requested'))")
-    List<PeerReview> findReviewsNeedingAttention(@Param("now") LocalDateTime now);
-    
-    /**
-     * Get review statistics
+     * Get review statistics; used to reconcile the peer_review_statistics counters
      */
     @Query("SELECT pr.status, COUNT(pr) FROM PeerReview pr GROUP BY pr.status")
     List<Object[]> getReviewCountByStatus();
@@ -107,8 +132,8 @@ public interface PeerReviewRepository extends JpaRepository<PeerReview, UUID> {
     @Query("SELECT pr.reviewType, COUNT(pr) FROM PeerReview pr GROUP BY pr.reviewType")
     List<Object[]> getReviewCountByType();
     
-    @Query("SELECT pr.reviewerId, COUNT(pr) FROM PeerReview pr WHERE pr.status = 'pending' GROUP BY pr.reviewerId")
-    List<Object[]> getPendingReviewCountByReviewer();
+    @Query("SELECT pr.reviewerId, COUNT(pr) FROM PeerReview pr WHERE pr.status = :status GROUP BY pr.reviewerId")
+    List<Object[]> getReviewCountByReviewer(@Param("status") PeerReview.ReviewStatus status);
     
     /**
      * Find reviews with quality ratings
@@ -139,4 +164,16 @@ public interface PeerReviewRepository extends JpaRepository<PeerReview, UUID> {
      */
     @Query("SELECT pr.requirementId, AVG(pr.qualityRating), AVG(pr.effortRating) FROM PeerReview pr WHERE pr.qualityRating IS NOT NULL GROUP BY pr.requirementId")
     List<Object[]> getAverageRatingsByRequirement();
-}
\ No newline at end of file
+
+    /**
+     * Loads the given reviews with their reviewed files initialized; used to hydrate a page in one query
+     */
+    @Query("SELECT DISTINCT pr FROM PeerReview pr LEFT JOIN FETCH pr.reviewedFiles WHERE pr.id IN :ids")
+    List<PeerReview> fetchWithReviewedFiles(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Loads the given reviews with their tags initialized; used to hydrate a page in one query
+     */
+    @Query("SELECT DISTINCT pr FROM PeerReview pr LEFT JOIN FETCH pr.tags WHERE pr.id IN :ids")
+    List<PeerReview> fetchWithTags(@Param("ids") Collection<UUID> ids);
+}
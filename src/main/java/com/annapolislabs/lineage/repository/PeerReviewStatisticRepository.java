@@ -0,0 +1,45 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.PeerReviewStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the peer review counters in {@code peer_review_statistics}
+ */
+@Repository
+public interface PeerReviewStatisticRepository extends JpaRepository<PeerReviewStatistic, PeerReviewStatistic.Key> {
+
+    /**
+     * Atomically adds {@code delta} to a counter, creating it when missing
+     */
+    @Modifying
+    @Query(value = "INSERT INTO peer_review_statistics (dimension, bucket, review_count) " +
+            "VALUES (:dimension, :bucket, :delta) " +
+            "ON CONFLICT (dimension, bucket) " +
+            "DO UPDATE SET review_count = peer_review_statistics.review_count + EXCLUDED.review_count",
+            nativeQuery = true)
+    int increment(@Param("dimension") String dimension,
+                  @Param("bucket") String bucket,
+                  @Param("delta") long delta);
+
+    /**
+     * Takes the counter lock in shared mode until the end of the transaction. Incremental writers
+     * share it; a rebuild takes it exclusively so it never interleaves with an increment.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(hashtext('peer_review_statistics'))", nativeQuery = true)
+    Integer lockShared();
+
+    /**
+     * Takes the counter lock exclusively until the end of the transaction
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('peer_review_statistics'))", nativeQuery = true)
+    Integer lockExclusive();
+
+    @Modifying
+    @Query("DELETE FROM PeerReviewStatistic s")
+    int deleteAllCounters();
+}
@@ -60,6 +60,17 @@ public interface PermissionChangeRepository extends JpaRepository<PermissionChan
      */
     @Query("SELECT pc FROM PermissionChange pc WHERE pc.temporary = true AND pc.expiresAt < :now")
     List<PermissionChange> findExpiredChanges(@Param("now") LocalDateTime now);
+
+    /**
+     * Locks up to {@code limit} temporary changes that are past their expiry but still in effect.
+     * Rows locked by another transaction are skipped.
+     */
+    @Query(value = "SELECT * FROM permission_changes WHERE is_temporary = true AND effective_until IS NULL " +
+            "AND expires_at < :now ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PermissionChange> lockExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(pc) FROM PermissionChange pc WHERE pc.temporary = true AND pc.effectiveUntil IS NULL AND pc.expiresAt < :now")
+    long countExpiredInEffect(@Param("now") LocalDateTime now);
     
     /**
      * Find permission changes with filtering
@@ -98,6 +109,17 @@ public interface PermissionChangeRepository extends JpaRepository<PermissionChan
            "(pc.effectiveUntil IS NULL OR pc.effectiveUntil > :now)")
     List<PermissionChange> findActiveChanges(@Param("now") LocalDateTime now);
     
+    /**
+     * Find a user's active resource-scoped changes for one permission
+     */
+    @Query("SELECT pc FROM PermissionChange pc WHERE pc.userId = :userId AND pc.permissionKey = :permissionKey AND " +
+           "pc.resourceId IS NOT NULL AND pc.approved = true AND " +
+           "(pc.effectiveFrom IS NULL OR pc.effectiveFrom <= :now) AND " +
+           "(pc.effectiveUntil IS NULL OR pc.effectiveUntil > :now)")
+    List<PermissionChange> findActiveResourceChangesForUser(@Param("userId") UUID userId,
+                                                            @Param("permissionKey") String permissionKey,
+                                                            @Param("now") LocalDateTime now);
+    
     /**
      * Get permission change statistics
      */
@@ -0,0 +1,35 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.PermissionEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for the per-user permission epochs in {@code permission_epochs}
+ */
+@Repository
+public interface PermissionEpochRepository extends JpaRepository<PermissionEpoch, UUID> {
+
+    /**
+     * Reads a user's epoch without loading the entity; {@code null} when the user has never had a
+     * permission change
+     */
+    @Query(value = "SELECT epoch FROM permission_epochs WHERE user_id = :userId", nativeQuery = true)
+    Long findEpoch(@Param("userId") UUID userId);
+
+    /**
+     * Atomically increments a user's epoch, creating the row at epoch 1 when missing
+     */
+    @Modifying
+    @Query(value = "INSERT INTO permission_epochs (user_id, epoch, updated_at) " +
+            "VALUES (:userId, 1, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) " +
+            "DO UPDATE SET epoch = permission_epochs.epoch + 1, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int increment(@Param("userId") UUID userId);
+}
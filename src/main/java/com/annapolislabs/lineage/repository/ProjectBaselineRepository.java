@@ -0,0 +1,19 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.ProjectBaseline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ProjectBaselineRepository extends JpaRepository<ProjectBaseline, UUID> {
+
+    Optional<ProjectBaseline> findByProjectIdAndName(UUID projectId, String name);
+
+    boolean existsByProjectIdAndName(UUID projectId, String name);
+
+    List<ProjectBaseline> findByProjectIdOrderByCapturedAtDesc(UUID projectId);
+}
@@ -0,0 +1,34 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.ProjectChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the per-project change log in {@code project_changes}
+ */
+@Repository
+public interface ProjectChangeRepository extends JpaRepository<ProjectChange, UUID> {
+
+    /**
+     * Columns of a change covered by the {@code (project_id, version)} index
+     */
+    interface Entry {
+        long getVersion();
+
+        ProjectChange.EntityType getEntityType();
+
+        UUID getEntityId();
+
+        ProjectChange.Operation getOperation();
+    }
+
+    /**
+     * Changes of a project after {@code version}, oldest first
+     */
+    List<Entry> findByProjectIdAndVersionGreaterThanOrderByVersionAsc(UUID projectId, long version, Pageable pageable);
+}
@@ -2,10 +2,14 @@ package com.annapolislabs.lineage.repository;
 
 import com.annapolislabs.lineage.entity.ProjectMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +18,10 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, UU
     List<ProjectMember> findByUserId(UUID userId);
     Optional<ProjectMember> findByProjectIdAndUserId(UUID projectId, UUID userId);
     boolean existsByProjectIdAndUserId(UUID projectId, UUID userId);
+
+    /**
+     * Those of {@code userIds} that are members of the project
+     */
+    @Query("SELECT pm.user.id FROM ProjectMember pm WHERE pm.project.id = :projectId AND pm.user.id IN :userIds")
+    Set<UUID> findMemberUserIds(@Param("projectId") UUID projectId, @Param("userIds") Collection<UUID> userIds);
 }
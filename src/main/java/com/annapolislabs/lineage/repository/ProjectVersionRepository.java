@@ -0,0 +1,35 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.ProjectVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for the per-project content versions in {@code project_versions}
+ */
+@Repository
+public interface ProjectVersionRepository extends JpaRepository<ProjectVersion, UUID> {
+
+    /**
+     * Reads a project's version without loading the entity; {@code null} when the project has never
+     * been written to since versions were introduced
+     */
+    @Query(value = "SELECT version FROM project_versions WHERE project_id = :projectId", nativeQuery = true)
+    Long findVersion(@Param("projectId") UUID projectId);
+
+    /**
+     * Atomically increments a project's version, creating the row at version 1 when missing
+     */
+    @Modifying
+    @Query(value = "INSERT INTO project_versions (project_id, version, updated_at) " +
+            "VALUES (:projectId, 1, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (project_id) " +
+            "DO UPDATE SET version = project_versions.version + 1, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int increment(@Param("projectId") UUID projectId);
+}
@@ -1,13 +1,114 @@
 package com.annapolislabs.lineage.repository;
 
+import com.annapolislabs.lineage.entity.ChangeType;
 import com.annapolislabs.lineage.entity.RequirementHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RequirementHistoryRepository extends JpaRepository<RequirementHistory, UUID> {
-    List<RequirementHistory> findByRequirementIdOrderByChangedAtDesc(UUID requirementId);
+
+    /**
+     * History rows of a requirement, including link rows recorded on the other endpoint, newest first
+     */
+    @Query("SELECT h FROM RequirementHistory h LEFT JOIN FETCH h.changedBy " +
+           "WHERE h.requirement.id = :requirementId OR h.relatedRequirementId = :requirementId " +
+           "ORDER BY h.changedAt DESC, h.revision DESC")
+    List<RequirementHistory> findHistory(@Param("requirementId") UUID requirementId, Pageable pageable);
+
+    @Query("SELECT MAX(h.revision) FROM RequirementHistory h WHERE h.requirement.id = :requirementId")
+    Integer findMaxRevision(@Param("requirementId") UUID requirementId);
+
+    /**
+     * Latest checkpoint at or before {@code revision}, where replay towards it starts
+     */
+    @Query("SELECT MAX(h.revision) FROM RequirementHistory h " +
+           "WHERE h.requirement.id = :requirementId AND h.checkpoint = true AND h.revision <= :revision")
+    Integer findCheckpointRevision(@Param("requirementId") UUID requirementId, @Param("revision") int revision);
+
+    @Query("SELECT h FROM RequirementHistory h " +
+           "WHERE h.requirement.id = :requirementId AND h.revision BETWEEN :fromRevision AND :toRevision " +
+           "ORDER BY h.revision, h.changedAt")
+    List<RequirementHistory> findRevisions(@Param("requirementId") UUID requirementId,
+                                           @Param("fromRevision") int fromRevision,
+                                           @Param("toRevision") int toRevision);
+
+    /**
+     * Columns of a state row that replay needs
+     */
+    interface StateRow {
+        UUID getRequirementId();
+
+        Integer getRevision();
+
+        ChangeType getChangeType();
+
+        boolean isCheckpoint();
+
+        Map<String, Object> getNewValue();
+
+        List<Map<String, Object>> getPatch();
+    }
+
+    /**
+     * Columns of a link row
+     */
+    interface LinkRow {
+        UUID getRequirementId();
+
+        UUID getRelatedRequirementId();
+
+        ChangeType getChangeType();
+
+        Map<String, Object> getNewValue();
+    }
+
+    /**
+     * State rows of a project's requirements written up to {@code at}, starting at each requirement's
+     * latest checkpoint at or before {@code at}, grouped by requirement in revision order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT h.requirement.id AS requirementId, h.revision AS revision, h.changeType AS changeType, " +
+           "h.checkpoint AS checkpoint, h.newValue AS newValue, h.patch AS patch " +
+           "FROM RequirementHistory h " +
+           "WHERE h.requirement.project.id = :projectId AND h.revision IS NOT NULL AND h.changedAt <= :at " +
+           "AND h.revision >= COALESCE((SELECT MAX(c.revision) FROM RequirementHistory c " +
+           "WHERE c.requirement.id = h.requirement.id AND c.checkpoint = true AND c.changedAt <= :at), 1) " +
+           "ORDER BY h.requirement.id, h.revision, h.changedAt")
+    Stream<StateRow> streamStatesAt(@Param("projectId") UUID projectId, @Param("at") LocalDateTime at);
+
+    /**
+     * Link rows of a project written up to {@code at}, oldest first
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT h.requirement.id AS requirementId, h.relatedRequirementId AS relatedRequirementId, " +
+           "h.changeType AS changeType, h.newValue AS newValue " +
+           "FROM RequirementHistory h " +
+           "WHERE h.requirement.project.id = :projectId AND h.changedAt <= :at " +
+           "AND h.changeType IN (com.annapolislabs.lineage.entity.ChangeType.LINK_ADDED, " +
+           "com.annapolislabs.lineage.entity.ChangeType.LINK_REMOVED) " +
+           "ORDER BY h.changedAt, h.id")
+    Stream<LinkRow> streamLinksAt(@Param("projectId") UUID projectId, @Param("at") LocalDateTime at);
+
+    /**
+     * First state row written after {@code at} for each of the given requirements that has one
+     */
+    @Query("SELECT h FROM RequirementHistory h WHERE h.requirement.id IN :requirementIds " +
+           "AND h.revision = (SELECT MIN(f.revision) FROM RequirementHistory f " +
+           "WHERE f.requirement.id = h.requirement.id AND f.revision IS NOT NULL AND f.changedAt > :at)")
+    List<RequirementHistory> findFirstStatesAfter(@Param("requirementIds") Collection<UUID> requirementIds,
+                                                  @Param("at") LocalDateTime at);
 }
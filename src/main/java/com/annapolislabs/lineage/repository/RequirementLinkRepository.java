@@ -16,4 +16,8 @@ public interface RequirementLinkRepository extends JpaRepository<RequirementLink
 
     @Query("SELECT rl FROM RequirementLink rl WHERE rl.fromRequirement.id = :reqId OR rl.toRequirement.id = :reqId")
     List<RequirementLink> findAllLinksForRequirement(@Param("reqId") UUID reqId);
+
+    @Query("SELECT rl FROM RequirementLink rl WHERE rl.fromRequirement.project.id = :projectId " +
+            "OR rl.toRequirement.project.id = :projectId")
+    List<RequirementLink> findAllLinksForProject(@Param("projectId") UUID projectId);
 }
@@ -1,7 +1,9 @@
 package com.annapolislabs.lineage.repository;
 
 import com.annapolislabs.lineage.entity.Requirement;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -35,4 +37,18 @@ public interface RequirementRepository extends JpaRepository<Requirement, UUID>
     List<Requirement> findByFilters(@Param("projectId") UUID projectId,
                                    @Param("status") String status,
                                    @Param("priority") String priority);
+
+    /**
+     * Loads a requirement holding its row lock until the transaction ends, so concurrent edits are
+     * serialized and each history revision is diffed from the state the previous one left
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Requirement r WHERE r.id = :id")
+    Optional<Requirement> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Resolves the owning project of a requirement without loading it; {@code null} when missing
+     */
+    @Query("SELECT r.project.id FROM Requirement r WHERE r.id = :id")
+    UUID findProjectIdById(@Param("id") UUID id);
 }
@@ -4,11 +4,14 @@ import com.annapolislabs.lineage.entity.TaskAssignment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +22,12 @@ import java.util.UUID;
 @Repository
 public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment, UUID> {
 
+    /**
+     * Authorization predicate shared by the search queries
+     */
+    String READABLE_BY_REQUESTER = "(ta.assignedTo = :requesterId OR ta.assignedBy = :requesterId OR " +
+           ":allProjects = true OR ta.projectId IN :readableProjectIds)";
+
     /**
      * Find tasks assigned to a specific user
      */
@@ -46,18 +55,34 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
     List<TaskAssignment> findByRequirementId(UUID requirementId);
     
     /**
-     * Find overdue tasks for a specific user
+     * Open tasks with a due date as (id, assignedTo, dueDate) rows for the deadline index
+     */
+    @Query("SELECT ta.id, ta.assignedTo, ta.dueDate FROM TaskAssignment ta WHERE ta.dueDate IS NOT NULL AND ta.status IN :statuses")
+    List<Object[]> findOpenDeadlines(@Param("statuses") Collection<TaskAssignment.TaskStatus> statuses);
+    
+    /**
+     * Claims the due-soon notice for the task at its current due date
+     *
+     * @return {@code 1} when this caller should send the notice, {@code 0} when it was already sent
+     *         or the due date has moved
      */
-    @Query("SELECT ta FROM TaskAssignment ta WHERE ta.assignedTo = :assignedTo AND ta.dueDate < :now AND ta.status NOT IN ('completed', 'cancelled')")
-    List<TaskAssignment> findOverdueTasks(@Param("assignedTo") UUID assignedTo, @Param("now") LocalDateTime now);
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE task_assignments SET due_soon_notified_for = :dueAt WHERE id = :id AND due_date = :dueAt " +
+            "AND due_soon_notified_for IS DISTINCT FROM :dueAt", nativeQuery = true)
+    int claimDueSoonNotice(@Param("id") UUID id, @Param("dueAt") LocalDateTime dueAt);
     
     /**
-     * Find tasks due soon (within specified window) for a specific user
+     * Claims the overdue notice for the task at its current due date
+     *
+     * @return {@code 1} when this caller should send the notice, {@code 0} when it was already sent
+     *         or the due date has moved
      */
-    @Query("SELECT ta FROM TaskAssignment ta WHERE ta.assignedTo = :assignedTo AND ta.dueDate BETWEEN :now AND :dueSoon AND ta.status NOT IN ('completed', 'cancelled')")
-    List<TaskAssignment> findTasksDueSoon(@Param("assignedTo") UUID assignedTo,
-                                          @Param("now") LocalDateTime now,
-                                          @Param("dueSoon") LocalDateTime dueSoon);
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE task_assignments SET overdue_notified_for = :dueAt WHERE id = :id AND due_date = :dueAt " +
+            "AND overdue_notified_for IS DISTINCT FROM :dueAt", nativeQuery = true)
+    int claimOverdueNotice(@Param("id") UUID id, @Param("dueAt") LocalDateTime dueAt);
     
     /**
      * Find tasks by status
@@ -70,28 +95,39 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
     List<TaskAssignment> findByPriority(TaskAssignment.TaskPriority priority);
     
     /**
-     * Find tasks with filtering
+     * Find tasks with filtering, restricted to tasks the requester may read: tasks they are assigned
+     * to or assigned, plus tasks in {@code readableProjectIds} (all projects when
+     * {@code allProjects} is true). {@code readableProjectIds} must not be empty.
      */
     @Query("SELECT ta FROM TaskAssignment ta WHERE " +
            "(:assignedTo IS NULL OR ta.assignedTo = :assignedTo) AND " +
            "(:assignedBy IS NULL OR ta.assignedBy = :assignedBy) AND " +
            "(:projectId IS NULL OR ta.projectId = :projectId) AND " +
            "(:status IS NULL OR ta.status = :status) AND " +
-           "(:priority IS NULL OR ta.priority = :priority)")
+           "(:priority IS NULL OR ta.priority = :priority) AND " +
+           READABLE_BY_REQUESTER)
     Page<TaskAssignment> findWithFilters(@Param("assignedTo") UUID assignedTo,
                                         @Param("assignedBy") UUID assignedBy,
                                         @Param("projectId") UUID projectId,
                                         @Param("status") TaskAssignment.TaskStatus status,
                                         @Param("priority") TaskAssignment.TaskPriority priority,
+                                        @Param("requesterId") UUID requesterId,
+                                        @Param("allProjects") boolean allProjects,
+                                        @Param("readableProjectIds") Collection<UUID> readableProjectIds,
                                         Pageable pageable);
     
     /**
-     * Search tasks by title or description
+     * Search tasks by title or description, restricted like {@link #findWithFilters}
      */
     @Query("SELECT ta FROM TaskAssignment ta WHERE " +
-           "LOWER(ta.taskTitle) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(ta.taskDescription) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<TaskAssignment> findBySearchTerm(@Param("search") String search, Pageable pageable);
+           "(LOWER(ta.taskTitle) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(ta.taskDescription) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           READABLE_BY_REQUESTER)
+    Page<TaskAssignment> findBySearchTerm(@Param("search") String search,
+                                          @Param("requesterId") UUID requesterId,
+                                          @Param("allProjects") boolean allProjects,
+                                          @Param("readableProjectIds") Collection<UUID> readableProjectIds,
+                                          Pageable pageable);
     
     /**
      * Find high priority tasks
@@ -106,16 +142,24 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
     List<TaskAssignment> findUnassignedTasks();
     
     /**
-     * Get task statistics
+     * Get task statistics for one project; used to rebuild the task_statistics counters
      */
-    @Query("SELECT ta.status, COUNT(ta) FROM TaskAssignment ta GROUP BY ta.status")
-    List<Object[]> getTaskCountByStatus();
+    @Query("SELECT ta.status, COUNT(ta) FROM TaskAssignment ta WHERE ta.projectId = :projectId GROUP BY ta.status")
+    List<Object[]> getTaskCountByStatus(@Param("projectId") UUID projectId);
     
-    @Query("SELECT ta.priority, COUNT(ta) FROM TaskAssignment ta GROUP BY ta.priority")
-    List<Object[]> getTaskCountByPriority();
+    @Query("SELECT ta.priority, COUNT(ta) FROM TaskAssignment ta WHERE ta.projectId = :projectId GROUP BY ta.priority")
+    List<Object[]> getTaskCountByPriority(@Param("projectId") UUID projectId);
     
-    @Query("SELECT ta.assignedTo, COUNT(ta) FROM TaskAssignment ta WHERE ta.status NOT IN ('completed', 'cancelled') GROUP BY ta.assignedTo")
-    List<Object[]> getActiveTaskCountByUser();
+    @Query("SELECT ta.assignedTo, COUNT(ta) FROM TaskAssignment ta WHERE ta.projectId = :projectId " +
+           "AND ta.status NOT IN (com.annapolislabs.lineage.entity.TaskAssignment.TaskStatus.COMPLETED, " +
+           "com.annapolislabs.lineage.entity.TaskAssignment.TaskStatus.CANCELLED) GROUP BY ta.assignedTo")
+    List<Object[]> getActiveTaskCountByUser(@Param("projectId") UUID projectId);
+    
+    /**
+     * Projects that own at least one task
+     */
+    @Query("SELECT DISTINCT ta.projectId FROM TaskAssignment ta WHERE ta.projectId IS NOT NULL")
+    List<UUID> findDistinctProjectIds();
     
     /**
      * Find tasks created after a date
@@ -140,4 +184,16 @@ public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment,
      */
     @Query("SELECT ta FROM TaskAssignment ta WHERE ta.status = 'completed' AND ta.completedAt BETWEEN :startDate AND :endDate")
     List<TaskAssignment> findCompletedTasksInRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Loads the given tasks with their tags initialized; used to hydrate a page in one query
+     */
+    @Query("SELECT DISTINCT t FROM TaskAssignment t LEFT JOIN FETCH t.tags WHERE t.id IN :ids")
+    List<TaskAssignment> fetchWithTags(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Loads the given tasks with their blockers initialized; used to hydrate a page in one query
+     */
+    @Query("SELECT DISTINCT t FROM TaskAssignment t LEFT JOIN FETCH t.blockers WHERE t.id IN :ids")
+    List<TaskAssignment> fetchWithBlockers(@Param("ids") Collection<UUID> ids);
+}
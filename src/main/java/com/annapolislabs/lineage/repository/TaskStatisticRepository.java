@@ -0,0 +1,57 @@
+package com.annapolislabs.lineage.repository;
+
+import com.annapolislabs.lineage.entity.TaskStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the per-project task counters in {@code task_statistics}
+ */
+@Repository
+public interface TaskStatisticRepository extends JpaRepository<TaskStatistic, TaskStatistic.Key> {
+
+    /**
+     * All counters of a project; a primary-key range scan bounded by the number of buckets
+     */
+    List<TaskStatistic> findByProjectId(UUID projectId);
+
+    /**
+     * Atomically adds {@code delta} to a counter, creating it when missing
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_statistics (project_id, dimension, bucket, task_count) " +
+            "VALUES (:projectId, :dimension, :bucket, :delta) " +
+            "ON CONFLICT (project_id, dimension, bucket) " +
+            "DO UPDATE SET task_count = task_statistics.task_count + EXCLUDED.task_count",
+            nativeQuery = true)
+    int increment(@Param("projectId") UUID projectId,
+                  @Param("dimension") String dimension,
+                  @Param("bucket") String bucket,
+                  @Param("delta") long delta);
+
+    /**
+     * Takes the project's counter lock in shared mode until the end of the transaction. Incremental
+     * writers share it; a rebuild takes it exclusively so it never interleaves with an increment.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(hashtext(CAST(:projectId AS text)))", nativeQuery = true)
+    Integer lockProjectShared(@Param("projectId") UUID projectId);
+
+    /**
+     * Takes the project's counter lock exclusively until the end of the transaction
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(CAST(:projectId AS text)))", nativeQuery = true)
+    Integer lockProjectExclusive(@Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query("DELETE FROM TaskStatistic s WHERE s.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("SELECT DISTINCT s.projectId FROM TaskStatistic s")
+    List<UUID> findProjectIds();
+}
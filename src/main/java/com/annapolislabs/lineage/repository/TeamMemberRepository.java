@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,6 +38,27 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
         return findByUserIdAndStatus(userId, TeamMember.TeamMemberStatus.ACTIVE);
     }
 
+    /**
+     * Roles a user holds through memberships in the given status in active teams of a project.
+     * Served from idx_team_members_user_status and idx_teams_active_project (V22) without touching
+     * the table heaps.
+     */
+    @Query("SELECT tm.role FROM TeamMember tm JOIN Team t ON t.id = tm.teamId " +
+           "WHERE tm.userId = :userId AND tm.status = :status AND t.projectId = :projectId AND t.active = true")
+    List<TeamMember.TeamRole> findRolesInActiveProjectTeams(@Param("userId") UUID userId,
+                                                           @Param("projectId") UUID projectId,
+                                                           @Param("status") TeamMember.TeamMemberStatus status);
+
+    /**
+     * Projects of the active teams in which the user holds one of the given roles
+     */
+    @Query("SELECT DISTINCT t.projectId FROM TeamMember tm JOIN Team t ON t.id = tm.teamId " +
+           "WHERE tm.userId = :userId AND tm.status = :status AND tm.role IN :roles " +
+           "AND t.active = true AND t.projectId IS NOT NULL")
+    List<UUID> findProjectIdsOfActiveTeams(@Param("userId") UUID userId,
+                                           @Param("status") TeamMember.TeamMemberStatus status,
+                                           @Param("roles") Collection<TeamMember.TeamRole> roles);
+
     /**
      * Find team member by team ID and user ID (for unique constraint check)
      */
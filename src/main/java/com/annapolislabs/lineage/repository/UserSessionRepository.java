@@ -4,6 +4,7 @@ import com.annapolislabs.lineage.entity.UserSession;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -83,6 +84,18 @@ public interface UserSessionRepository extends JpaRepository<UserSession, UUID>
     
     @Query("DELETE FROM UserSession us WHERE us.expiresAt < :cutoffTime OR (us.revoked = true AND us.revokedAt < :cutoffTime)")
     void cleanupOldSessions(@Param("cutoffTime") LocalDateTime cutoffTime);
+
+    /**
+     * Deletes at most {@code limit} sessions that expired, or were revoked, before the cutoff
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_sessions WHERE id IN (" +
+            "SELECT id FROM user_sessions WHERE expires_at < :cutoffTime OR (revoked = true AND revoked_at < :cutoffTime) " +
+            "LIMIT :limit)", nativeQuery = true)
+    int deleteOldSessionsBatch(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(us) FROM UserSession us WHERE us.expiresAt < :cutoffTime OR (us.revoked = true AND us.revokedAt < :cutoffTime)")
+    long countOldSessions(@Param("cutoffTime") LocalDateTime cutoffTime);
     
     // Statistics
     @Query("SELECT COUNT(us) FROM UserSession us WHERE us.createdAt >= :startDate")
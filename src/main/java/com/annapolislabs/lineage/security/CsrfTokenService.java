@@ -1,77 +1,108 @@
 package com.annapolislabs.lineage.security;
 
+import com.annapolislabs.lineage.repository.CsrfUsedTokenRepository;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.security.web.csrf.DefaultCsrfToken;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Base64;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Issues stateless CSRF tokens for SPA/JWT flows, caching them in-memory until the paired header is validated and
- * discarded to keep replay windows narrow.
+ * Issues stateless, HMAC-signed CSRF tokens for SPA/JWT flows.
+ *
+ * <p>A token has the form {@code <tokenId>.<expiresAtEpochSeconds>.<signature>}. The signature is an
+ * HMAC-SHA256 over the token id, the expiry and the subject the token was issued to (the
+ * authenticated username, or {@code anonymous}). Any node sharing the secret can therefore validate
+ * a token without a token store, and a token issued to one user is rejected for another.</p>
+ *
+ * <p>Tokens can be reused until they expire, so clients only fetch a new one when the old one
+ * expires or is rejected. With {@code lineage.csrf.single-use=true}, each token id is recorded in
+ * {@code csrf_used_tokens} on first use and later uses are rejected on every node.</p>
  */
 @Service
 public class CsrfTokenService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(CsrfTokenService.class);
     private static final String CSRF_TOKEN_HEADER = "X-CSRF-TOKEN";
     private static final String CSRF_TOKEN_PARAMETER = "_csrf";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String ANONYMOUS_SUBJECT = "anonymous";
     private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
 
-    /**
-     * Maximum lifetime for a CSRF token in milliseconds. Tokens older than this
-     * are treated as expired and rejected during validation. This TTL is
-     * intentionally short-lived and should roughly align with the authenticated
-     * session window.
-     */
-    private static final long TOKEN_TTL_MILLIS = 30 * 60 * 1000L; // 30 minutes
+    private final CsrfUsedTokenRepository usedTokenRepository;
+    private final Clock clock;
+    private volatile SecretKeySpec signingKey;
 
-    /**
-     * Value and creation timestamp for a single-use CSRF token. Storing the
-     * timestamp locally lets us enforce a hard upper bound on token lifetime
-     * even if the client never uses or refreshes it.
-     */
-    private static final class StoredToken {
-        final String value;
-        final long createdAtMillis;
+    @Value("${lineage.csrf.secret:}")
+    private String csrfSecret;
 
-        StoredToken(String value, long createdAtMillis) {
-            this.value = value;
-            this.createdAtMillis = createdAtMillis;
-        }
+    // Fallback key material when no dedicated CSRF secret is configured
+    @Value("${app.jwt.secret:mySecretKey123456789012345678901234567890}")
+    private String jwtSecret;
+
+    @Value("${lineage.csrf.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${lineage.csrf.single-use:false}")
+    private boolean singleUse;
+
+    @Autowired
+    public CsrfTokenService(CsrfUsedTokenRepository usedTokenRepository) {
+        this(usedTokenRepository, Clock.systemUTC());
+    }
+
+    CsrfTokenService(CsrfUsedTokenRepository usedTokenRepository, Clock clock) {
+        this.usedTokenRepository = usedTokenRepository;
+        this.clock = clock;
     }
 
-    // Store active CSRF tokens by identifier (tokenId -> StoredToken)
-    private final Map<String, StoredToken> activeTokens = new ConcurrentHashMap<>();
-    
     /**
-     * Container for the generated token and its corresponding identifier so
-     * callers can safely obtain both values without relying on shared mutable
-     * state such as {@code lastGeneratedTokenId}. Returning this pair removes
-     * the race condition where concurrent callers could observe the wrong id
-     * for a given token value.
+     * Container for the generated token and its identifier. The identifier is embedded in the token
+     * and is returned separately for clients that still send the {@code X-CSRF-TOKEN-ID} header.
      */
-    public record CsrfTokenPair(CsrfToken token, String tokenId) {}
+    public record CsrfTokenPair(CsrfToken token, String tokenId, Instant expiresAt) {}
 
     /**
-     * Generates a new CSRF token/ID pair and caches it for one-time validation.
+     * Generates a token for the current subject.
      *
-     * @return token/value pair containing the Spring Security wrapper and the
-     * associated opaque identifier.
+     * @return token/value pair containing the Spring Security wrapper and the associated
+     * identifier.
      */
     public CsrfTokenPair generateTokenPair() {
-        String tokenValue = generateSecureToken();
-        String tokenId = generateTokenId();
+        return generateTokenPair(currentSubject());
+    }
 
-        // Store the token for validation with its creation time
-        activeTokens.put(tokenId, new StoredToken(tokenValue, System.currentTimeMillis()));
+    /**
+     * Generates a token bound to {@code subject}.
+     *
+     * @param subject authenticated username, or {@code anonymous}.
+     * @return token/value pair containing the Spring Security wrapper and the associated
+     * identifier.
+     */
+    public CsrfTokenPair generateTokenPair(String subject) {
+        String tokenId = generateTokenId();
+        Instant expiresAt = clock.instant().plusSeconds(ttlMinutes * 60);
+        long expiresAtSeconds = expiresAt.getEpochSecond();
+        String tokenValue = tokenId + "." + expiresAtSeconds + "." + sign(tokenId, expiresAtSeconds, subject);
 
         DefaultCsrfToken token = new DefaultCsrfToken(
             CSRF_TOKEN_HEADER,
@@ -80,52 +111,112 @@ public class CsrfTokenService {
         );
 
         logger.debug("Generated new CSRF token with ID: {}", tokenId);
-        return new CsrfTokenPair(token, tokenId);
+        return new CsrfTokenPair(token, tokenId, Instant.ofEpochSecond(expiresAtSeconds));
     }
-    
+
     /**
-     * Validates the provided token value against the cached entry for the identifier and removes it when matched to
-     * enforce single use semantics.
+     * Validates a token for the current subject.
      *
-     * @param tokenValue Base64 string provided by the client.
-     * @param tokenId identifier used as the lookup key.
+     * @param tokenValue token provided by the client.
+     * @param tokenId optional identifier header; when present it must match the identifier embedded
+     * in the token.
      * @return {@code true} when validation succeeds.
      */
     public boolean validateToken(String tokenValue, String tokenId) {
-        if (tokenValue == null || tokenId == null) {
-            logger.debug("CSRF token validation failed: missing token value or ID");
+        return validateToken(tokenValue, tokenId, currentSubject());
+    }
+
+    /**
+     * Validates a token for {@code subject}: the signature must match, the token must not be
+     * expired and, in single-use mode, must not have been used before.
+     *
+     * @param tokenValue token provided by the client.
+     * @param tokenId optional identifier header; when present it must match the identifier embedded
+     * in the token.
+     * @param subject authenticated username, or {@code anonymous}.
+     * @return {@code true} when validation succeeds.
+     */
+    public boolean validateToken(String tokenValue, String tokenId, String subject) {
+        Instant expiresAt = verify(tokenValue, tokenId, subject);
+        if (expiresAt == null) {
             return false;
         }
-        
-        StoredToken stored = activeTokens.get(tokenId);
 
-        if (stored == null) {
-            logger.warn("CSRF token validation failed for token ID: {} (no entry)", tokenId);
+        String embeddedId = tokenValue.substring(0, tokenValue.indexOf('.'));
+        if (singleUse && usedTokenRepository.markUsed(embeddedId,
+                LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault())) == 0) {
+            logger.warn("CSRF token validation failed for token ID: {} (already used)", embeddedId);
             return false;
         }
 
-        long ageMillis = System.currentTimeMillis() - stored.createdAtMillis;
-        if (ageMillis > TOKEN_TTL_MILLIS) {
-            // Drop expired token and treat as invalid
-            activeTokens.remove(tokenId);
-            logger.warn("CSRF token validation failed for token ID: {} (expired after {} ms)", tokenId, ageMillis);
-            return false;
+        logger.debug("CSRF token validation successful for token ID: {}", embeddedId);
+        return true;
+    }
+
+    /**
+     * Checks a token for the current subject without consuming it in single-use mode.
+     *
+     * @param tokenValue token provided by the client.
+     * @param tokenId optional identifier that must match the embedded one when present.
+     * @return {@code true} when the token is validly signed and unexpired.
+     */
+    public boolean checkToken(String tokenValue, String tokenId) {
+        return verify(tokenValue, tokenId, currentSubject()) != null;
+    }
+
+    /**
+     * Verifies format, identifier, signature and expiry.
+     *
+     * @return the token expiry, or {@code null} when the token is not acceptable.
+     */
+    private Instant verify(String tokenValue, String tokenId, String subject) {
+        if (tokenValue == null) {
+            logger.debug("CSRF token validation failed: missing token value");
+            return null;
+        }
+
+        String[] parts = tokenValue.split("\\.", -1);
+        if (parts.length != 3 || parts[0].isEmpty()) {
+            logger.warn("CSRF token validation failed: malformed token");
+            return null;
+        }
+        String embeddedId = parts[0];
+        if (tokenId != null && !tokenId.equals(embeddedId)) {
+            logger.warn("CSRF token validation failed for token ID: {} (ID header mismatch)", tokenId);
+            return null;
+        }
+
+        long expiresAtSeconds;
+        try {
+            expiresAtSeconds = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            logger.warn("CSRF token validation failed for token ID: {} (malformed expiry)", embeddedId);
+            return null;
         }
 
-        boolean isValid = stored.value.equals(tokenValue);
-        
-        if (isValid) {
-            logger.debug("CSRF token validation successful for token ID: {}", tokenId);
-            // Remove used token to prevent replay attacks
-            activeTokens.remove(tokenId);
-        } else {
-            logger.warn("CSRF token validation failed for token ID: {}", tokenId);
+        byte[] expected = sign(embeddedId, expiresAtSeconds, subject).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            logger.warn("CSRF token validation failed for token ID: {} (bad signature)", embeddedId);
+            return null;
         }
-        
-        return isValid;
+
+        Instant expiresAt = Instant.ofEpochSecond(expiresAtSeconds);
+        if (!clock.instant().isBefore(expiresAt)) {
+            logger.warn("CSRF token validation failed for token ID: {} (expired at {})", embeddedId, expiresAt);
+            return null;
+        }
+        return expiresAt;
+    }
+
+    /**
+     * @return whether accepted tokens are consumed, so clients know to fetch a new one after each
+     * state-changing request.
+     */
+    public boolean isSingleUse() {
+        return singleUse;
     }
-    
-     /**
+
+    /**
      * Writes the CSRF value into the response header so front-end clients can store it and attach on protected calls.
      *
      * @param response outgoing response.
@@ -137,48 +228,53 @@ public class CsrfTokenService {
             logger.debug("Added CSRF token header to response: {}", token.getHeaderName());
         }
     }
-    
-     /**
-     * Performs opportunistic cleanup when the token cache grows beyond a safe threshold to avoid memory leaks. This
-     * method also eagerly removes entries that have exceeded their TTL, even if the cache size is below the
-     * threshold, to keep the in-memory store healthy over time.
+
+    /**
+     * Subject CSRF tokens are bound to: the authenticated username, or {@code anonymous}.
      */
-    public void cleanupExpiredTokens() {
-        long now = System.currentTimeMillis();
-
-        // Remove explicit expirations first
-        Iterator<Map.Entry<String, StoredToken>> iterator = activeTokens.entrySet().iterator();
-        int expiredCount = 0;
-
-        while (iterator.hasNext()) {
-            Map.Entry<String, StoredToken> entry = iterator.next();
-            if (now - entry.getValue().createdAtMillis > TOKEN_TTL_MILLIS) {
-                iterator.remove();
-                expiredCount++;
-            }
+    static String currentSubject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return ANONYMOUS_SUBJECT;
         }
+        return authentication.getName();
+    }
 
-        if (expiredCount > 0) {
-            logger.debug("Cleaned up {} expired CSRF tokens", expiredCount);
+    private String sign(String tokenId, long expiresAtSeconds, String subject) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(getSigningKey());
+            String payload = tokenId + "|" + expiresAtSeconds + "|" + subject;
+            return ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign CSRF token", e);
         }
+    }
 
-        // Safety valve: if we still have an unexpectedly large map, clear it
-        if (activeTokens.size() > 1000) { // Prevent memory leaks in pathological cases
-            int sizeBeforeClear = activeTokens.size();
-            activeTokens.clear();
-            logger.info("Cleaned up CSRF tokens due to size limit ({} -> 0)", sizeBeforeClear);
+    private SecretKeySpec getSigningKey() throws GeneralSecurityException {
+        SecretKeySpec key = signingKey;
+        if (key == null) {
+            byte[] material;
+            if (csrfSecret != null && !csrfSecret.isBlank()) {
+                material = csrfSecret.getBytes(StandardCharsets.UTF_8);
+            } else if (jwtSecret != null && !jwtSecret.isBlank()) {
+                // Derive a separate key so CSRF signatures can never be confused with JWT signatures
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                material = mac.doFinal("lineage-csrf".getBytes(StandardCharsets.UTF_8));
+            } else {
+                throw new IllegalStateException("CSRF secret must be configured");
+            }
+            key = new SecretKeySpec(material, HMAC_ALGORITHM);
+            signingKey = key;
         }
+        return key;
     }
-    
-    private String generateSecureToken() {
-        byte[] bytes = new byte[32];
-        random.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-    }
-    
+
     private String generateTokenId() {
         byte[] bytes = new byte[16];
         random.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        return ENCODER.encodeToString(bytes);
     }
-}
\ No newline at end of file
+}
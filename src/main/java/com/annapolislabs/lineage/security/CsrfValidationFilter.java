@@ -6,15 +6,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
-import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
 /**
  * Once-per-request filter that enforces CSRF headers on mutating endpoints so JWT-authenticated traffic still proves
- * browser origin before controllers run.
+ * browser origin before controllers run. Tokens are verified by signature against the authenticated user, so no
+ * token state is shared between nodes. Runs after the JWT filter so the user is known. Which paths are protected is
+ * decided by {@link RequestPathClassifier}.
  */
 public class CsrfValidationFilter extends OncePerRequestFilter {
     
@@ -24,33 +24,17 @@ public class CsrfValidationFilter extends OncePerRequestFilter {
     private static final String CSRF_TOKEN_ID_HEADER = "X-CSRF-TOKEN-ID";
     
     private final CsrfTokenService csrfTokenService;
-    
-    // Define which endpoints require CSRF validation
-    private final RequestMatcher[] requireCsrfValidationMatchers = {
-        new AntPathRequestMatcher("/api/projects/**"),
-        new AntPathRequestMatcher("/api/requirements/**"),
-        new AntPathRequestMatcher("/api/admin/**")
-    };
-    
-    // Define which endpoints should bypass CSRF validation
-    private final RequestMatcher[] bypassCsrfValidationMatchers = {
-        new AntPathRequestMatcher("/api/csrf/**"),
-        new AntPathRequestMatcher("/api/auth/**"),
-        new AntPathRequestMatcher("/api/invitations/**"),
-        new AntPathRequestMatcher("/api/security/**"),
-        new AntPathRequestMatcher("/api/docs/**"),
-        new AntPathRequestMatcher("/api/projects/test-import"),
-        new AntPathRequestMatcher("/api/projects/import"),
-        new AntPathRequestMatcher("/actuator/**")
-    };
+    private final RequestPathClassifier requestPathClassifier;
     
     /**
-     * Creates the filter with access to the CSRF token store.
+     * Creates the filter with access to the CSRF token verifier.
      *
      * @param csrfTokenService service that issues and validates the headers enforced here.
+     * @param requestPathClassifier shared classifier deciding which paths require CSRF validation.
      */
-    public CsrfValidationFilter(CsrfTokenService csrfTokenService) {
+    public CsrfValidationFilter(CsrfTokenService csrfTokenService, RequestPathClassifier requestPathClassifier) {
         this.csrfTokenService = csrfTokenService;
+        this.requestPathClassifier = requestPathClassifier;
     }
     
     /**
@@ -82,30 +66,23 @@ public class CsrfValidationFilter extends OncePerRequestFilter {
             return;
         }
         
-        // Check if this endpoint should bypass CSRF validation
-        if (shouldBypassValidation(request)) {
+        // Check if this endpoint requires CSRF validation; exempt paths are already excluded by the classifier
+        if (!requestPathClassifier.classify(request).csrfRequired()) {
             filterChain.doFilter(request, response);
             return;
         }
         
-        // Check if this endpoint requires CSRF validation
-        if (!requiresCsrfValidation(request)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-        
-        // Extract CSRF token and token ID from headers
+        // Extract CSRF token from headers; the token ID header is optional since the ID is embedded in the token
         String tokenValue = request.getHeader(CSRF_TOKEN_HEADER);
         String tokenId = request.getHeader(CSRF_TOKEN_ID_HEADER);
         
-        if (tokenValue == null || tokenId == null) {
-            logger.warn("CSRF token validation failed for {}: missing headers (token or tokenId)", requestUri);
-            sendCsrfErrorResponse(response, "CSRF token or token ID missing");
+        if (tokenValue == null) {
+            logger.warn("CSRF token validation failed for {}: missing token header", requestUri);
+            sendCsrfErrorResponse(response, "CSRF token missing");
             return;
         }
         
-        logger.debug("Validating CSRF token for {} - Token ID: {}, Token length: {}", 
-                    requestUri, tokenId, tokenValue.length());
+        logger.debug("Validating CSRF token for {} - Token length: {}", requestUri, tokenValue.length());
         
         // Validate the token
         boolean isValid = csrfTokenService.validateToken(tokenValue, tokenId);
@@ -114,29 +91,11 @@ public class CsrfValidationFilter extends OncePerRequestFilter {
             logger.debug("CSRF token validation successful for {}", requestUri);
             filterChain.doFilter(request, response);
         } else {
-            logger.warn("CSRF token validation failed for {} with token ID: {}", requestUri, tokenId);
+            logger.warn("CSRF token validation failed for {}", requestUri);
             sendCsrfErrorResponse(response, "Invalid CSRF token");
         }
     }
     
-    private boolean shouldBypassValidation(HttpServletRequest request) {
-        for (RequestMatcher matcher : bypassCsrfValidationMatchers) {
-            if (matcher.matches(request)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private boolean requiresCsrfValidation(HttpServletRequest request) {
-        for (RequestMatcher matcher : requireCsrfValidationMatchers) {
-            if (matcher.matches(request)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
     private void sendCsrfErrorResponse(HttpServletResponse response, String message) throws IOException {
         response.setStatus(HttpServletResponse.SC_FORBIDDEN);
         response.setContentType("application/json");
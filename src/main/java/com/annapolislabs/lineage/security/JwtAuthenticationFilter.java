@@ -42,6 +42,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private SecurityAuditService securityAuditService;
     
+    @Autowired
+    private RequestPathClassifier requestPathClassifier;
+    
     /**
      * Attempts to resolve and verify a bearer token for each request, authenticating valid access tokens and logging
      * failures before continuing the chain.
@@ -137,24 +140,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
     
     /**
-     * Declares which URIs bypass JWT mediation so login flows, invitations, docs, and diagnostics stay anonymous.
+     * Declares which URIs bypass JWT mediation so login flows, invitations, docs, diagnostics, and static assets stay
+     * anonymous. The decision comes from the shared {@link RequestPathClassifier}.
      *
      * @param request current HTTP request used to derive the route.
      * @return {@code true} when the endpoint should skip JWT validation.
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getRequestURI();
-
-        // Skip authentication for public endpoints (login, register, etc.)
-        // But NOT for /api/auth/me which requires authentication
-        return (path.startsWith("/api/auth/") && !path.equals("/api/auth/me")) ||
-               path.startsWith("/api/invitations/") ||
-               path.startsWith("/swagger") ||
-               path.startsWith("/api-docs") ||
-               path.equals("/error") ||
-               path.startsWith("/h2-console/") ||
-               path.equals("/actuator/health") ||
-               path.equals("/actuator/info");
+        // Public endpoints (login, register, etc.) but NOT /api/auth/me, which requires authentication
+        RequestPathClassifier.Classification classification = requestPathClassifier.classify(request);
+        return classification.publicEndpoint() || classification.staticResource();
     }
 }
\ No newline at end of file
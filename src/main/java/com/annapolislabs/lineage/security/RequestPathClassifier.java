@@ -0,0 +1,260 @@
+package com.annapolislabs.lineage.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classifies request paths once per request for the Lineage filters.
+ *
+ * <p>Routing rules are compiled at startup into a trie keyed by path segment, so classifying a
+ * path is a single walk over its segments instead of a chain of {@code AntPathRequestMatcher} and
+ * {@code startsWith} checks in every filter. The result is stored in the {@link #ATTRIBUTE} request
+ * attribute and reused by later callers.</p>
+ *
+ * <p>Patterns support literal segments, {@code *} for any single segment, {@code prefix*} for a
+ * segment starting with {@code prefix}, and a trailing {@code /**} for a whole subtree including
+ * its root. A pattern without {@code /**} matches that exact path only. Where rules overlap, the
+ * rule on the longest matching path wins, and literal segments take precedence over wildcards.</p>
+ */
+@Component
+public class RequestPathClassifier {
+
+    /**
+     * Request attribute holding the {@link Classification} of the current request
+     */
+    public static final String ATTRIBUTE = RequestPathClassifier.class.getName() + ".classification";
+
+    public static final String RATE_LIMIT_STANDARD = "standard";
+    public static final String RATE_LIMIT_PERMISSION = "permission";
+    public static final String RATE_LIMIT_BULK = "bulk";
+    public static final String RATE_LIMIT_ADMIN = "admin";
+
+    private final Node root = new Node();
+
+    /**
+     * How a request path is treated by the security filters.
+     *
+     * @param path path within the application the classification was computed for.
+     * @param publicEndpoint whether the path is served without JWT authentication.
+     * @param csrfRequired whether state-changing requests must carry a CSRF token.
+     * @param staticResource whether the path serves the SPA or its static assets.
+     * @param rateLimitCategory endpoint category key understood by
+     *                          {@code RateLimitingConfig.checkRateLimit(String, String)}.
+     */
+    public record Classification(String path, boolean publicEndpoint, boolean csrfRequired,
+                                 boolean staticResource, String rateLimitCategory) {}
+
+    public RequestPathClassifier() {
+        // Served without JWT authentication
+        on("/api/auth/**").publicEndpoint(true);
+        on("/api/auth/me").publicEndpoint(false);
+        on("/api/invitations/**").publicEndpoint(true);
+        on("/swagger*/**").publicEndpoint(true);
+        on("/api-docs*/**").publicEndpoint(true);
+        on("/error").publicEndpoint(true);
+        on("/h2-console/**").publicEndpoint(true);
+        on("/actuator/health").publicEndpoint(true);
+        on("/actuator/info").publicEndpoint(true);
+        // Authenticated by the WebSocket handshake interceptor
+        on("/ws/changes").publicEndpoint(true);
+
+        // SPA shell and static assets
+        on("/").staticResource(true);
+        on("/index.html").staticResource(true);
+        on("/assets/**").staticResource(true);
+        on("/vite.svg").staticResource(true);
+        on("/favicon.ico").staticResource(true);
+
+        // CSRF-protected APIs and the exemptions inside them
+        on("/api/projects/**").csrfRequired(true);
+        on("/api/requirements/**").csrfRequired(true);
+        on("/api/admin/**").csrfRequired(true).rateLimitCategory(RATE_LIMIT_ADMIN);
+        on("/api/projects/test-import").csrfRequired(false).rateLimitCategory(RATE_LIMIT_BULK);
+        on("/api/projects/import").csrfRequired(false).rateLimitCategory(RATE_LIMIT_BULK);
+        on("/api/csrf/**").csrfRequired(false);
+        on("/api/auth/**").csrfRequired(false);
+        on("/api/invitations/**").csrfRequired(false);
+        on("/api/security/**").csrfRequired(false);
+        on("/api/docs/**").csrfRequired(false);
+        on("/actuator/**").csrfRequired(false);
+
+        // Rate limit categories besides the defaults above
+        on("/api/v1/rbac/**").rateLimitCategory(RATE_LIMIT_PERMISSION);
+        on("/api/projects/*/export/**").rateLimitCategory(RATE_LIMIT_BULK);
+    }
+
+    /**
+     * Returns the classification of {@code request}, computing and storing it on first use.
+     *
+     * @param request current request.
+     * @return classification of the path within the application.
+     */
+    public Classification classify(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        // Error and forward dispatches reuse the request with a different path
+        if (request.getAttribute(ATTRIBUTE) instanceof Classification cached && cached.path().equals(path)) {
+            return cached;
+        }
+        Classification classification = classify(path);
+        request.setAttribute(ATTRIBUTE, classification);
+        return classification;
+    }
+
+    /**
+     * Classifies a path within the application, such as {@code /api/projects/42}.
+     *
+     * @param path request path without the context path.
+     * @return classification of {@code path}.
+     */
+    public Classification classify(String path) {
+        Rule result = new Rule();
+        Node node = root;
+        result.apply(node.subtree);
+
+        int length = path.length();
+        int start = 0;
+        while (node != null && start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.child(path.substring(start, end));
+                if (node != null) {
+                    result.apply(node.subtree);
+                }
+            }
+            start = end + 1;
+        }
+        if (node != null) {
+            result.apply(node.exact);
+        }
+
+        return new Classification(path, Boolean.TRUE.equals(result.publicEndpoint),
+                Boolean.TRUE.equals(result.csrfRequired), Boolean.TRUE.equals(result.staticResource),
+                result.rateLimitCategory != null ? result.rateLimitCategory : RATE_LIMIT_STANDARD);
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (uri == null) {
+            return "/";
+        }
+        if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            return uri.substring(contextPath.length());
+        }
+        return uri;
+    }
+
+    private Rule on(String pattern) {
+        boolean subtree = pattern.endsWith("/**");
+        String segments = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+
+        Node node = root;
+        for (String segment : segments.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.add(segment);
+            }
+        }
+        if (subtree) {
+            return node.subtree;
+        }
+        return node.exact;
+    }
+
+    /**
+     * Trie node for one path segment
+     */
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<Map.Entry<String, Node>> prefixes = new ArrayList<>();
+        private Node wildcard;
+        private final Rule subtree = new Rule();
+        private final Rule exact = new Rule();
+
+        Node add(String segment) {
+            if (segment.equals("*")) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+            if (segment.endsWith("*")) {
+                String prefix = segment.substring(0, segment.length() - 1);
+                for (Map.Entry<String, Node> entry : prefixes) {
+                    if (entry.getKey().equals(prefix)) {
+                        return entry.getValue();
+                    }
+                }
+                Node node = new Node();
+                prefixes.add(Map.entry(prefix, node));
+                return node;
+            }
+            return literals.computeIfAbsent(segment, key -> new Node());
+        }
+
+        Node child(String segment) {
+            Node literal = literals.get(segment);
+            if (literal != null) {
+                return literal;
+            }
+            for (Map.Entry<String, Node> entry : prefixes) {
+                if (segment.startsWith(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+            return wildcard;
+        }
+    }
+
+    /**
+     * Attributes set by a pattern; {@code null} leaves the value from a shorter match in place
+     */
+    private static final class Rule {
+        private Boolean publicEndpoint;
+        private Boolean csrfRequired;
+        private Boolean staticResource;
+        private String rateLimitCategory;
+
+        Rule publicEndpoint(boolean value) {
+            publicEndpoint = value;
+            return this;
+        }
+
+        Rule csrfRequired(boolean value) {
+            csrfRequired = value;
+            return this;
+        }
+
+        Rule staticResource(boolean value) {
+            staticResource = value;
+            return this;
+        }
+
+        Rule rateLimitCategory(String value) {
+            rateLimitCategory = value;
+            return this;
+        }
+
+        void apply(Rule other) {
+            if (other.publicEndpoint != null) {
+                publicEndpoint = other.publicEndpoint;
+            }
+            if (other.csrfRequired != null) {
+                csrfRequired = other.csrfRequired;
+            }
+            if (other.staticResource != null) {
+                staticResource = other.staticResource;
+            }
+            if (other.rateLimitCategory != null) {
+                rateLimitCategory = other.rateLimitCategory;
+            }
+        }
+    }
+}
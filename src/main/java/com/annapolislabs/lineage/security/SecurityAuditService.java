@@ -9,6 +9,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -44,6 +46,10 @@ public class SecurityAuditService {
     @Autowired
     private ObjectFactory<HttpServletRequest> httpRequestFactory;
 
+    // Bounds the suspicious-activity lookup so only recent audit partitions are scanned
+    @Value("${lineage.audit.suspicious-lookback-days:30}")
+    private int suspiciousLookbackDays;
+
     /**
      * Persists an audit log entry capturing generic security activity while mirroring details to the security logger.
      *
@@ -208,10 +214,7 @@ public class SecurityAuditService {
      */
     public java.util.List<AuditLog> getSecurityEvents(UUID userId, int limit) {
         try {
-            return auditLogRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                    .stream()
-                    .limit(limit)
-                    .toList();
+            return auditLogRepository.findUserRecentActivity(userId, PageRequest.of(0, limit));
         } catch (Exception e) {
             logger.error("Failed to get security events for user: {}", userId, e);
             return java.util.Collections.emptyList();
@@ -223,13 +226,9 @@ public class SecurityAuditService {
      */
     public java.util.List<AuditLog> getSuspiciousActivities(int limit) {
         try {
-            return auditLogRepository.findBySeverityInOrderByCreatedAtDesc(
-                            java.util.List.of(AuditSeverity.WARNING, AuditSeverity.ERROR, AuditSeverity.CRITICAL))
-                    .stream()
-                    .filter(log -> log.getDetails().get(EVENT_TYPE) != null &&
-                            log.getDetails().get(EVENT_TYPE).toString().contains("SUSPICIOUS"))
-                    .limit(limit)
-                    .toList();
+            return auditLogRepository.findRecentByEventType(
+                    java.util.List.of(AuditSeverity.WARNING.name(), AuditSeverity.ERROR.name(), AuditSeverity.CRITICAL.name()),
+                    "SUSPICIOUS", LocalDateTime.now().minusDays(suspiciousLookbackDays), limit);
         } catch (Exception e) {
             logger.error("Failed to get suspicious activities", e);
             return java.util.Collections.emptyList();
@@ -1,19 +1,28 @@
 package com.annapolislabs.lineage.service;
 
+import com.annapolislabs.lineage.dto.response.AIChatListResponse;
 import com.annapolislabs.lineage.entity.AIConversation;
 import com.annapolislabs.lineage.entity.AIConversation.ConversationMessage;
+import com.annapolislabs.lineage.entity.AIConversationMessage;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.exception.LLMApiException;
+import com.annapolislabs.lineage.exception.ResourceNotFoundException;
 import com.annapolislabs.lineage.mcp.McpTool;
+import com.annapolislabs.lineage.repository.AIConversationMessageRepository;
 import com.annapolislabs.lineage.repository.AIConversationRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +30,12 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,16 +45,31 @@ import java.util.regex.Pattern;
  *
  * <p>The service is intentionally stateful per user/chat via {@link AIConversation} entities and
  * relies on transactional boundaries where mutations occur to guarantee message ordering and
- * prevent duplicate tool execution when retries happen.</p>
+ * prevent duplicate tool execution when retries happen. Messages are stored as append-only
+ * {@link AIConversationMessage} rows so each turn costs one insert regardless of chat length.</p>
  */
 @Service
 public class AIAgentService {
     
     private static final Logger logger = LoggerFactory.getLogger(AIAgentService.class);
     private static final int MAX_ITERATIONS = 10;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final String PROJECT_CONTEXT_PREFIX = "[Current project ID: ";
     private static final String JSON_FIELD_CONTENT = "content";
     private static final String JSON_FIELD_MESSAGE = "message";
     private static final String JSON_FIELD_ARGUMENTS = "arguments";
+    private static final String JSON_FIELD_TOOL = "tool";
+    private static final String JSON_FIELD_TOOL_CALLS = "tool_calls";
+    private static final Duration TOOL_BATCH_TIMEOUT = Duration.ofMinutes(2);
+    static final String METRIC_LATENCY = "lineage.ai.agent.latency";
+    static final String METRIC_ITERATIONS = "lineage.ai.agent.iterations";
+    static final String METRIC_TOOL_BATCH = "lineage.ai.agent.tool.batch";
+    static final String METRIC_TOOL_CALLS = "lineage.ai.agent.tool.calls";
+    static final String METRIC_LLM_CALL = "lineage.ai.agent.llm.call";
+    static final String METRIC_JSON_SERIALIZE = "lineage.ai.agent.json.serialize";
+    static final String METRIC_JSON_PARSE = "lineage.ai.agent.json.parse";
+    static final String METRIC_DB = "lineage.ai.agent.db";
+    static final String METRIC_TOOL = "lineage.ai.agent.tool";
     private static final String AGENT_SYSTEM_PROMPT = """
             You are an assistant for Lineage Requirements Management. Always respond with valid JSON.
             
@@ -65,11 +94,14 @@ public class AIAgentService {
             {
               "tool": "TOOL_NAME or null",
               "arguments": {...} or null,
+              "tool_calls": [{"tool": "TOOL_NAME", "arguments": {...}}] (optional),
               "message": "User message or null"
             }
             
             # Rules
             - Need to call tool? Set tool + arguments, optionally message
+            - Several calls that do not need each other's results? Put all of them in tool_calls and set
+              tool/arguments = null; they run in parallel and all results come back in one message
             - Just responding? Set message, tool/arguments = null
             - Message shown while tool executes in background
             - Be concise
@@ -92,12 +124,22 @@ public class AIAgentService {
             <think>Done</think>
             {"tool": null, "arguments": null, "message": "Deleted REQ-012."}
             
+            User: "add login and logout requirements"
+            <think>Independent creates, batch them</think>
+            {"tool": null, "arguments": null, "tool_calls": [{"tool": "create_requirement", "arguments": {"projectId": "ID", "title": "Login", "description": "..."}}, {"tool": "create_requirement", "arguments": {"projectId": "ID", "title": "Logout", "description": "..."}}], "message": "Creating both..."}
+            
             Always output valid JSON with tool, arguments, message fields.""";
     
     private final AIConversationRepository conversationRepository;
+    private final AIConversationMessageRepository messageRepository;
+    private final AIContextWindowManager contextWindowManager;
     private final ObjectMapper objectMapper;
     private final Map<String, McpTool> tools;
     private final HttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    /** Virtual-thread executor for tool batches; propagates the submitting thread's security context. */
+    private final ExecutorService toolExecutor =
+            new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
     
     @Value("${lineage.llm.api-url}")
     private String llmApiUrl;
@@ -113,10 +155,16 @@ public class AIAgentService {
     
     public AIAgentService(
             AIConversationRepository conversationRepository,
+            AIConversationMessageRepository messageRepository,
+            AIContextWindowManager contextWindowManager,
             ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
             @Qualifier("mcpToolsMap") Map<String, McpTool> tools) {
         this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.contextWindowManager = contextWindowManager;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
         this.tools = tools;
         // Create HTTP client with HTTP/1.1 for LM Studio compatibility
         this.httpClient = HttpClient.newBuilder()
@@ -129,9 +177,10 @@ public class AIAgentService {
      * Processes user input through the agentic loop until a final assistant response is produced
      * or the iteration cap is reached.
      *
-     * <p>The transactional boundary ensures each appended {@link ConversationMessage} persists with
-     * the same atomicity as tool execution logs so a retried HTTP call cannot re-run a previously
-     * completed tool step. Security-sensitive context such as the authenticated user and selected
+     * <p>The transaction covers the conversation: the messages appended during the turn and the
+     * conversation row commit together. Tool calls run outside it (see
+     * {@link #handleToolExecution}), so their effects commit on their own and a failing tool cannot
+     * roll back the turn. Security-sensitive context such as the authenticated user and selected
      * project identifier are injected into both the prompt and tool execution path so downstream
      * MCP tools can enforce authorization without reloading user state.</p>
      *
@@ -145,14 +194,17 @@ public class AIAgentService {
     @Transactional
     public String processMessage(String chatId, String userMessage, String projectId, User user) {
         logger.info("Processing AI message for user={}, chatId={}", user.getEmail(), chatId);
+        Timer.Sample latencySample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        int llmCalls = 0;
         
         // Load or create conversation
         AIConversation conversation = loadOrCreateConversation(chatId, user);
+        List<ConversationMessage> messages = loadMessages(conversation);
         
         // Add user message to conversation
-        conversation.getMessages().add(new ConversationMessage("user", 
-                "[Current project ID: " + projectId + "]\n\n" + userMessage));
-        conversationRepository.save(conversation);
+        appendMessage(conversation, messages, "user",
+                PROJECT_CONTEXT_PREFIX + projectId + "]\n\n" + userMessage, true);
         
         // Run agentic loop
         StringBuilder displayMessage = new StringBuilder();
@@ -164,7 +216,8 @@ public class AIAgentService {
                 logger.debug("Agentic loop iteration {}", iterations + 1);
                 
                 // Call LLM
-                AgentAction action = callLLM(conversation, nextInput);
+                AgentAction action = callLLM(conversation, messages, nextInput);
+                llmCalls++;
                 
                 // Handle message to user
                 if (action.message != null && !action.message.isBlank()) {
@@ -175,9 +228,10 @@ public class AIAgentService {
                 }
                 
                 // Handle tool execution
-                if (action.tool != null && !action.tool.isBlank()) {
-                    logger.info("Executing tool: {}", action.tool);
-                    handleToolExecution(action, conversation, user);
+                if (!action.toolCalls.isEmpty()) {
+                    logger.info("Executing {} tool call(s): {}", action.toolCalls.size(),
+                            action.toolCalls.stream().map(ToolCall::tool).toList());
+                    handleToolExecution(action.toolCalls, conversation, messages, user);
                     iterations++;
                     nextInput = null;
                 } else {
@@ -188,17 +242,23 @@ public class AIAgentService {
             
             if (iterations >= MAX_ITERATIONS) {
                 logger.warn("Agent reached maximum iterations");
+                outcome = "max_iterations";
                 displayMessage.append("\n\n[Agent reached maximum iteration limit]");
             }
             
-            // Save final conversation state
-            conversationRepository.save(conversation);
+            // Save final conversation state (message counter and updatedAt only)
+            meterRegistry.timer(METRIC_DB).record(() -> conversationRepository.save(conversation));
             
             return displayMessage.toString();
             
         } catch (Exception e) {
             logger.error("Error processing message: {}", e.getMessage(), e);
+            outcome = "error";
             return "Sorry, I encountered an error: " + e.getMessage();
+        } finally {
+            latencySample.stop(meterRegistry.timer(METRIC_LATENCY, "outcome", outcome));
+            meterRegistry.summary(METRIC_ITERATIONS, "outcome", outcome).record(llmCalls);
+            logger.info("Agent turn finished: outcome={}, llmCalls={}", outcome, llmCalls);
         }
     }
     
@@ -207,14 +267,16 @@ public class AIAgentService {
      * additional input and converts the response into an {@link AgentAction}.
      *
      * <p>The payload mirrors the OpenAI chat-completions schema including the guardrail system
-     * prompt so downstream providers can be swapped without touching the agent loop. The rate limit
+     * prompt so downstream providers can be swapped without touching the agent loop. The message
+     * array is produced by {@link AIContextWindowManager}, which keeps it within the configured token
+     * budget and reuses the serialized prefix from earlier iterations of the same chat. The rate limit
      * and timeout configuration is tuned for the in-house LM Studio proxy, but failures bubble up so
      * callers can decide whether to retry or return an apology to users. Each successful call appends
      * the raw assistant response to the database to provide replayable history if a follow-up tool
      * action fails.</p>
      *
-     * @param conversation persisted chat state that provides prior turns and is mutated with the
-     *                     assistant response
+     * @param conversation persisted chat state the assistant response is appended to
+     * @param messages     prior turns in order; the assistant response is appended
      * @param additionalInput optional user text injected as the last message to steer the model
      * @return structured action parsed from the assistant response (may instruct a tool call or
      *         contain a direct user message)
@@ -222,40 +284,26 @@ public class AIAgentService {
      * @throws java.io.IOException if the HTTP request cannot be sent or the response cannot be read
      * @throws InterruptedException if the HTTP call is interrupted while waiting for completion
      */
-    private AgentAction callLLM(AIConversation conversation, String additionalInput) throws Exception {
+    private AgentAction callLLM(AIConversation conversation, List<ConversationMessage> messages,
+                                String additionalInput) throws Exception {
         logger.info("Calling LLM API at {} with model {}", llmApiUrl, llmModel);
 
-        // Build messages array
-        ArrayNode messagesArray = objectMapper.createArrayNode();
-
-        // Add system prompt
-        ObjectNode systemMsg = messagesArray.addObject();
-        systemMsg.put("role", "system");
-        systemMsg.put(JSON_FIELD_CONTENT, AGENT_SYSTEM_PROMPT);
-
-        // Add conversation history
-        for (ConversationMessage msg : conversation.getMessages()) {
-            ObjectNode msgNode = messagesArray.addObject();
-            msgNode.put("role", msg.getRole());
-            msgNode.put(JSON_FIELD_CONTENT, msg.getContent());
-        }
-
-        // Add additional input if provided
-        if (additionalInput != null && !additionalInput.isBlank()) {
-            ObjectNode inputMsg = messagesArray.addObject();
-            inputMsg.put("role", "user");
-            inputMsg.put(JSON_FIELD_CONTENT, additionalInput);
-        }
+        // Build the bounded message window (system prompt, rolling summary, compacted history)
+        Timer.Sample serializeSample = Timer.start(meterRegistry);
+        AIContextWindowManager.ContextWindow window = contextWindowManager.buildWindow(
+                contextCacheKey(conversation), AGENT_SYSTEM_PROMPT, messages, additionalInput);
 
         // Build request body
         ObjectNode requestBody = objectMapper.createObjectNode();
         requestBody.put("model", llmModel);
-        requestBody.set("messages", messagesArray);
+        requestBody.putRawValue("messages", new RawValue(window.messagesJson()));
         requestBody.put("temperature", llmTemperature);
         requestBody.put("max_tokens", llmMaxTokens);
 
         String requestBodyStr = requestBody.toString();
-        logger.debug("Sending request with {} messages", messagesArray.size());
+        serializeSample.stop(meterRegistry.timer(METRIC_JSON_SERIALIZE));
+        logger.debug("Sending request with {} messages (~{} tokens, ~{} uncompacted)",
+                window.messageCount(), window.windowTokens(), window.originalTokens());
         logger.debug("Request body: {}", requestBodyStr);
 
         // Make HTTP request with timeout
@@ -267,7 +315,9 @@ public class AIAgentService {
                 .build();
 
         logger.info("Sending HTTP request to LLM...");
+        Timer.Sample llmSample = Timer.start(meterRegistry);
         HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        llmSample.stop(meterRegistry.timer(METRIC_LLM_CALL));
 
         logger.info("LLM response received: status={}", response.statusCode());
 
@@ -276,52 +326,113 @@ public class AIAgentService {
         }
 
         // Parse response
+        Timer.Sample parseSample = Timer.start(meterRegistry);
         JsonNode responseJson = objectMapper.readTree(response.body());
         String content = responseJson.path("choices").get(0).path(JSON_FIELD_MESSAGE).path(JSON_FIELD_CONTENT).asText();
+        AgentAction action = parseAgentResponse(content);
+        parseSample.stop(meterRegistry.timer(METRIC_JSON_PARSE));
 
         logger.debug("LLM content length: {} chars", content.length());
 
         // Add assistant response to conversation
-        conversation.getMessages().add(new ConversationMessage("assistant", content));
+        appendMessage(conversation, messages, "assistant", content,
+                action.message != null && !action.message.isBlank());
 
-        // Parse agent action
-        return parseAgentResponse(content);
+        return action;
     }
     
     /**
-     * Executes the MCP tool requested by the agent, persists the serialized response into the
-     * conversation, and records failures as additional conversation entries.
+     * Executes the MCP tool calls requested by the agent and persists all results as one synthetic
+     * "user" message with one {@code Tool <name> returned|failed: ...} line per call, in request order.
      *
-     * <p>Tool invocation runs outside a dedicated transaction because persistence already occurs for
-     * each appended message. The helper serializes tool results into JSON strings so future agent
-     * calls can replay context without touching the original tool DTO. Exceptions are intentionally
-     * swallowed after being logged so the user receives a descriptive failure message inside the
-     * conversation stream rather than a generic HTTP 500.</p>
+     * <p>Every call, single or batched, runs on a virtual thread that carries the caller's security
+     * context but not the turn's transaction, so each tool manages its own transaction through the
+     * services it calls and a tool failure never marks the turn for rollback. Batches run
+     * concurrently; calls sharing a conflict key (for example creates in the same project, whose
+     * hierarchical IDs are derived from the existing rows) run sequentially within one lane so they
+     * cannot race each other. Exceptions are captured per call so the agent sees a descriptive
+     * failure line instead of the whole turn failing.</p>
      *
-     * @param action       structured request emitted by the agent containing the tool and arguments
-     * @param conversation conversation that is mutated with synthetic "user" messages for tool output
+     * @param toolCalls    tool invocations emitted by the agent, in the order they were requested
+     * @param conversation conversation that receives the aggregated tool output message
+     * @param messages     in-memory turns of the conversation, kept in sync with the appended rows
      * @param user         authenticated user whose identity is injected into the tool context for
      *                     downstream authorization checks
      */
-    private void handleToolExecution(AgentAction action, AIConversation conversation, User user) {
+    private void handleToolExecution(List<ToolCall> toolCalls, AIConversation conversation,
+                                     List<ConversationMessage> messages, User user) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String[] results = new String[toolCalls.size()];
+
+        Map<String, List<Integer>> lanes = new LinkedHashMap<>();
+        for (int i = 0; i < toolCalls.size(); i++) {
+            String key = conflictKey(toolCalls.get(i));
+            lanes.computeIfAbsent(key != null ? key : "call:" + i, k -> new ArrayList<>()).add(i);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(lanes.size());
+        for (List<Integer> lane : lanes.values()) {
+            tasks.add(() -> {
+                for (int index : lane) {
+                    results[index] = runToolCall(toolCalls.get(index), user);
+                }
+                return null;
+            });
+        }
+
         try {
-            // Execute tool
-            Object toolResult = executeTool(action.tool, action.arguments, user);
+            toolExecutor.invokeAll(tasks, TOOL_BATCH_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for tool batch");
+        }
+
+        StringBuilder aggregated = new StringBuilder();
+        for (int i = 0; i < results.length; i++) {
+            if (!aggregated.isEmpty()) {
+                aggregated.append('\n');
+            }
+            aggregated.append(results[i] != null ? results[i]
+                    : "Tool " + toolCalls.get(i).tool() + " failed: timed out");
+        }
+        appendMessage(conversation, messages, "user", aggregated.toString(), false);
+
+        sample.stop(meterRegistry.timer(METRIC_TOOL_BATCH,
+                "mode", toolCalls.size() == 1 ? "single" : "parallel"));
+        meterRegistry.summary(METRIC_TOOL_CALLS).record(toolCalls.size());
+    }
 
-            // Add tool result to conversation
-            String toolResultStr = objectMapper.writeValueAsString(toolResult);
-            conversation.getMessages().add(new ConversationMessage("user",
-                    "Tool " + action.tool + " returned: " + toolResultStr));
-            conversationRepository.save(conversation);
+    @PreDestroy
+    void shutdown() {
+        toolExecutor.shutdownNow();
+    }
 
+    /**
+     * Runs one tool call and renders its outcome as a single conversation line.
+     */
+    private String runToolCall(ToolCall call, User user) {
+        try {
+            Timer.Sample toolSample = Timer.start(meterRegistry);
+            Object toolResult = executeTool(call.tool(), call.arguments(), user);
+            toolSample.stop(meterRegistry.timer(METRIC_TOOL, "tool", call.tool()));
+            return "Tool " + call.tool() + " returned: "
+                    + meterRegistry.timer(METRIC_JSON_SERIALIZE).recordCallable(() -> objectMapper.writeValueAsString(toolResult));
         } catch (Exception e) {
             logger.error("Tool execution failed: {}", e.getMessage(), e);
+            return "Tool " + call.tool() + " failed: " + e.getMessage();
+        }
+    }
 
-            // Add error to conversation
-            conversation.getMessages().add(new ConversationMessage("user",
-                    "Tool " + action.tool + " failed: " + e.getMessage()));
-            conversationRepository.save(conversation);
+    /**
+     * Returns the key of calls that must not run concurrently with each other, or {@code null} when
+     * the call is independent. Requirement creation derives the next hierarchical ID from the rows
+     * already in the project, so creates in the same project share a lane.
+     */
+    private String conflictKey(ToolCall call) {
+        if ("create_requirement".equals(call.tool()) && call.arguments() != null) {
+            return "project:" + call.arguments().get("projectId");
         }
+        return null;
     }
 
     /**
@@ -331,9 +442,10 @@ public class AIAgentService {
      * a generic clarification request.
      *
      * <p>The contract expects the LLM to emit a JSON object containing {@code tool},
-     * {@code arguments}, and {@code message} fields. This helper centralizes that expectation so
-     * future schema changes only touch one location. It also guarantees that user-facing output is
-     * never empty by injecting a final clarification message when the model returns unusable data.</p>
+     * {@code arguments}, and {@code message} fields, optionally with a {@code tool_calls} batch.
+     * This helper centralizes that expectation so future schema changes only touch one location. It
+     * also guarantees that user-facing output is never empty by injecting a final clarification
+     * message when the model returns unusable data.</p>
      *
      * @param content raw assistant message returned by the LLM
      * @return structured {@link AgentAction} describing a tool invocation or user-facing reply
@@ -348,11 +460,11 @@ public class AIAgentService {
 
         // Fallback: treat remaining text as message
         if (!cleanContent.isBlank()) {
-            return new AgentAction(null, null, cleanContent);
+            return new AgentAction(List.of(), cleanContent);
         }
         
         // Ultimate fallback
-        return new AgentAction(null, null, "I need more information to help with that.");
+        return new AgentAction(List.of(), "I need more information to help with that.");
     }
 
     /**
@@ -379,7 +491,8 @@ public class AIAgentService {
     /**
      * Extracts the JSON directive emitted by the agent. The method uses a permissive regex to
      * locate the first object literal, then validates that the expected fields (tool, arguments,
-     * message) exist before converting arguments into a map structure.
+     * message, or message plus a tool_calls batch) exist before converting arguments into map
+     * structures. A single {@code tool} is placed ahead of any {@code tool_calls} entries.
      *
      * <p>The regex intentionally accepts extra prose before/after the JSON block so the agent can
      * emit natural language reasoning without breaking the parser. Only when the minimum schema is
@@ -401,13 +514,16 @@ public class AIAgentService {
         try {
             JsonNode parsed = objectMapper.readTree(jsonStr);
 
-            if (parsed.has("tool") && parsed.has(JSON_FIELD_ARGUMENTS) && parsed.has(JSON_FIELD_MESSAGE)) {
-                String tool = parsed.path("tool").isNull() ? null : parsed.path("tool").asText();
-                Map<String, Object> arguments = parsed.path(JSON_FIELD_ARGUMENTS).isNull() ? null :
-                        objectMapper.convertValue(parsed.path(JSON_FIELD_ARGUMENTS), Map.class);
+            boolean singleTool = parsed.has(JSON_FIELD_TOOL) && parsed.has(JSON_FIELD_ARGUMENTS);
+            if (parsed.has(JSON_FIELD_MESSAGE) && (singleTool || parsed.path(JSON_FIELD_TOOL_CALLS).isArray())) {
+                List<ToolCall> toolCalls = new ArrayList<>();
+                addToolCall(toolCalls, parsed);
+                for (JsonNode callNode : parsed.path(JSON_FIELD_TOOL_CALLS)) {
+                    addToolCall(toolCalls, callNode);
+                }
                 String message = parsed.path(JSON_FIELD_MESSAGE).isNull() ? null : parsed.path(JSON_FIELD_MESSAGE).asText();
 
-                return new AgentAction(tool, arguments, message);
+                return new AgentAction(toolCalls, message);
             }
         } catch (Exception e) {
             logger.error("Failed to parse JSON from LLM response: {}", jsonStr, e);
@@ -416,6 +532,18 @@ public class AIAgentService {
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    private void addToolCall(List<ToolCall> toolCalls, JsonNode node) {
+        JsonNode toolNode = node.path(JSON_FIELD_TOOL);
+        if (!toolNode.isTextual() || toolNode.asText().isBlank()) {
+            return;
+        }
+        Map<String, Object> arguments = node.path(JSON_FIELD_ARGUMENTS).isObject()
+                ? objectMapper.convertValue(node.path(JSON_FIELD_ARGUMENTS), Map.class)
+                : null;
+        toolCalls.add(new ToolCall(toolNode.asText(), arguments));
+    }
+
     /**
      * Executes the requested MCP tool with the provided arguments and user-scoped context.
      *
@@ -460,31 +588,76 @@ public class AIAgentService {
      * @return persisted {@link AIConversation} instance ready for mutation
      */
     private AIConversation loadOrCreateConversation(String chatId, User user) {
-        return conversationRepository.findByChatIdAndUser(chatId, user)
+        return meterRegistry.timer(METRIC_DB).record(() -> conversationRepository.findByChatIdAndUser(chatId, user)
                 .orElseGet(() -> {
                     AIConversation newConv = new AIConversation(chatId, user, "New Chat");
                     return conversationRepository.save(newConv);
-                });
+                }));
+    }
+    /**
+     * Loads the stored turns of a conversation in sequence order.
+     *
+     * @param conversation persisted conversation
+     * @return mutable list of messages that callers extend through {@link #appendMessage}
+     */
+    private List<ConversationMessage> loadMessages(AIConversation conversation) {
+        List<ConversationMessage> messages = new ArrayList<>(conversation.getNextSequence() + 8);
+        List<AIConversationMessage> rows = meterRegistry.timer(METRIC_DB)
+                .record(() -> messageRepository.findByConversationIdOrderBySequenceAsc(conversation.getId()));
+        for (AIConversationMessage row : rows) {
+            messages.add(new ConversationMessage(row.getRole(), row.getContent()));
+        }
+        return messages;
     }
+
     /**
-     * Immutable representation of the agent's next action including tool invocation parameters and
-     * optional user-facing message.
+     * Appends a message as a single insert into the append-only message table and advances the
+     * conversation's sequence counter, and its message count when the message shows up in the
+     * transcript. The conversation row itself is only written once per turn by
+     * {@link #processMessage}.
+     *
+     * @param conversation owning conversation
+     * @param messages     in-memory turns to keep in sync with the stored rows
+     * @param role         message role ({@code user} or {@code assistant})
+     * @param content      message text
+     * @param visible      whether {@link #getConversationMessages} shows the message to the user
+     */
+    private void appendMessage(AIConversation conversation, List<ConversationMessage> messages,
+                               String role, String content, boolean visible) {
+        int sequence = conversation.getNextSequence();
+        meterRegistry.timer(METRIC_DB).record(() ->
+                messageRepository.save(new AIConversationMessage(conversation.getId(), sequence, role, content)));
+        conversation.setNextSequence(sequence + 1);
+        if (visible) {
+            conversation.setMessageCount(conversation.getMessageCount() + 1);
+        }
+        messages.add(new ConversationMessage(role, content));
+    }
+
+    /**
+     * Immutable representation of the agent's next action including tool invocations and optional
+     * user-facing message.
      */
     private static class AgentAction {
-         /** Name of the MCP tool to execute or {@code null} to indicate no tool call is required. */
-         final String tool;
-         /** Arguments to pass to the tool when {@link #tool} is populated. */
-         final Map<String, Object> arguments;
+         /** MCP tool calls to execute; empty to indicate no tool call is required. */
+         final List<ToolCall> toolCalls;
          /** Assistant-facing text that should be rendered to the end user. */
          final String message;
 
-         AgentAction(String tool, Map<String, Object> arguments, String message) {
-             this.tool = tool;
-             this.arguments = arguments;
+         AgentAction(List<ToolCall> toolCalls, String message) {
+             this.toolCalls = toolCalls;
              this.message = message;
          }
      }
 
+    /**
+     * Single tool invocation requested by the agent.
+     *
+     * @param tool      name of the MCP tool to execute
+     * @param arguments arguments to pass to the tool, may be {@code null}
+     */
+    private record ToolCall(String tool, Map<String, Object> arguments) {}
+
     /**
      * Creates a new conversation row for the supplied user and returns its generated identifier.
      * Identifiers follow the {@code chat_<epochMillis>} pattern so they remain sortable and unique
@@ -502,15 +675,51 @@ public class AIAgentService {
     }
 
     /**
-     * Retrieves the most recent conversations for a user ordered by {@code updatedAt} descending and
-     * enforces a hard cap of 20 entries to keep dashboard payloads lightweight.
+     * Retrieves one page of chat summaries for a user ordered by {@code updatedAt} descending. The
+     * projection reads only id, title, timestamp and message counter, and the page size is applied in
+     * SQL, so the sidebar never loads message bodies.
      *
      * @param user conversation owner
-     * @return list of conversations limited to the most recent 20 entries
+     * @param page zero-based page index
+     * @param size page size, clamped to {@value #MAX_HISTORY_PAGE_SIZE}
+     * @return chat summaries for the requested page
+     */
+    @Transactional(readOnly = true)
+    public List<AIChatListResponse> getConversationHistory(User user, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        return conversationRepository.findChatSummariesByUser(user, PageRequest.of(Math.max(0, page), pageSize));
+    }
+
+    /**
+     * Loads the transcript of a single chat; only called when the user opens it. Synthetic tool
+     * output turns are skipped, the injected project prefix is removed from user turns and assistant
+     * turns are reduced to the user-facing message of the agent directive.
+     *
+     * @param chatId chat identifier
+     * @param user   owner of the conversation
+     * @return user-visible messages in order
+     * @throws ResourceNotFoundException when the chat does not exist for the user
      */
-    public List<AIConversation> getConversationHistory(User user) {
-        List<AIConversation> conversations = conversationRepository.findByUserOrderByUpdatedAtDesc(user);
-        return conversations.size() > 20 ? conversations.subList(0, 20) : conversations;
+    @Transactional(readOnly = true)
+    public List<ConversationMessage> getConversationMessages(String chatId, User user) {
+        AIConversation conversation = conversationRepository.findByChatIdAndUser(chatId, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
+
+        List<ConversationMessage> transcript = new ArrayList<>();
+        for (ConversationMessage msg : loadMessages(conversation)) {
+            String content = msg.getContent();
+            if ("assistant".equals(msg.getRole())) {
+                String display = parseAgentResponse(content).message;
+                if (display != null && !display.isBlank()) {
+                    transcript.add(new ConversationMessage("assistant", display));
+                }
+            } else if (content.startsWith(PROJECT_CONTEXT_PREFIX)) {
+                int bodyStart = content.indexOf("]\n\n");
+                transcript.add(new ConversationMessage("user",
+                        bodyStart < 0 ? content : content.substring(bodyStart + 3)));
+            }
+        }
+        return transcript;
     }
 
     /**
@@ -523,5 +732,14 @@ public class AIAgentService {
     @Transactional
     public void deleteConversation(String chatId, User user) {
         conversationRepository.deleteByChatIdAndUser(chatId, user);
+        contextWindowManager.evict(contextCacheKey(user, chatId));
+    }
+
+    private String contextCacheKey(AIConversation conversation) {
+        return contextCacheKey(conversation.getUser(), conversation.getChatId());
+    }
+
+    private String contextCacheKey(User user, String chatId) {
+        return user.getId() + ":" + chatId;
     }
 }
@@ -0,0 +1,393 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.AIConversation.ConversationMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the bounded message window that {@link AIAgentService} sends to the LLM on every agentic
+ * loop iteration.
+ *
+ * <p>The full conversation stays persisted untouched; only the outbound request is compacted. The
+ * most recent turns are forwarded verbatim while older turns are compacted in two stages: large tool
+ * payloads and reasoning blocks are elided first, and when the estimated token count still exceeds the
+ * configured budget the oldest turns are folded into a rolling extractive summary that is sent as a
+ * second system message. Folding always drops the window well below the budget so that the
+ * serialized prefix (system prompt, summary and compacted older turns) stays stable for several
+ * iterations and can be reused from the per-conversation cache instead of being re-serialized.</p>
+ *
+ * <p>Token counts are estimated from character length; the figures are only used for budgeting and
+ * metrics, so the heuristic does not need to match the model tokenizer exactly.</p>
+ */
+@Component
+public class AIContextWindowManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIContextWindowManager.class);
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+    private static final int MAX_CACHED_CONVERSATIONS = 500;
+    private static final String ROLE_SYSTEM = "system";
+    private static final String ROLE_ASSISTANT = "assistant";
+    private static final String TOOL_PREFIX = "Tool ";
+    private static final String TOOL_RETURNED = " returned: ";
+    private static final String TOOL_FAILED = " failed: ";
+    private static final String SUMMARY_HEADER = "Summary of earlier conversation turns (older details were elided):";
+    private static final String THINK_BLOCK_REGEX = "<think>[\\s\\S]*?</think>";
+
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary contextTokens;
+    private final DistributionSummary originalTokens;
+    private final DistributionSummary compressionRatio;
+    private final Counter prefixHits;
+    private final Counter prefixAppends;
+    private final Counter prefixRebuilds;
+
+    /** Per-conversation prefix cache, bounded with LRU eviction. */
+    private final Map<String, ContextState> states = Collections.synchronizedMap(
+            new LinkedHashMap<String, ContextState>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ContextState> eldest) {
+                    return size() > MAX_CACHED_CONVERSATIONS;
+                }
+            });
+
+    @Value("${lineage.llm.context.token-budget:8000}")
+    private int tokenBudget;
+
+    @Value("${lineage.llm.context.recent-messages:6}")
+    private int recentMessages;
+
+    @Value("${lineage.llm.context.tool-result-chars:600}")
+    private int toolResultChars;
+
+    @Value("${lineage.llm.context.summary-line-chars:200}")
+    private int summaryLineChars;
+
+    public AIContextWindowManager(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.contextTokens = DistributionSummary.builder("lineage.ai.context.tokens")
+                .description("Estimated tokens sent to the LLM per call")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.originalTokens = DistributionSummary.builder("lineage.ai.context.original.tokens")
+                .description("Estimated tokens of the uncompacted conversation per call")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.compressionRatio = DistributionSummary.builder("lineage.ai.context.compression.ratio")
+                .description("Sent tokens divided by uncompacted tokens per call")
+                .register(meterRegistry);
+        this.prefixHits = prefixCounter(meterRegistry, "hit");
+        this.prefixAppends = prefixCounter(meterRegistry, "append");
+        this.prefixRebuilds = prefixCounter(meterRegistry, "rebuild");
+    }
+
+    private static Counter prefixCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("lineage.ai.context.prefix.cache")
+                .description("Serialized prefix cache outcomes per LLM call")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the serialized {@code messages} array for the next LLM call.
+     *
+     * @param cacheKey        stable conversation identifier used to reuse the serialized prefix
+     * @param systemPrompt    agent system prompt that always leads the window
+     * @param messages        persisted conversation turns in chronological order; treated as append-only
+     * @param additionalInput optional transient user input appended after the conversation
+     * @return window containing the JSON array text plus size figures for logging
+     */
+    public ContextWindow buildWindow(String cacheKey, String systemPrompt,
+                                     List<ConversationMessage> messages, String additionalInput) {
+        ContextState state = states.computeIfAbsent(cacheKey, k -> new ContextState());
+        synchronized (state) {
+            int size = messages.size();
+            int tailStart = Math.max(0, size - recentMessages);
+            PrefixOutcome outcome = PrefixOutcome.HIT;
+
+            if (size < state.covered || !systemPrompt.equals(state.systemPrompt)) {
+                state.reset(systemPrompt, serialize(ROLE_SYSTEM, systemPrompt));
+                outcome = PrefixOutcome.REBUILD;
+            }
+
+            // Move turns that left the verbatim tail into the compacted prefix
+            while (state.covered < tailStart) {
+                ConversationMessage msg = messages.get(state.covered++);
+                String compacted = compactOlderMessage(msg);
+                state.rawTokens += estimateTokens(msg.getContent());
+                state.prefix.addLast(new PrefixEntry(msg, serialize(msg.getRole(), compacted),
+                        estimateTokens(compacted)));
+                state.prefixTokens += state.prefix.peekLast().tokens();
+                state.appendToSerializedPrefix(state.prefix.peekLast().json());
+                if (outcome == PrefixOutcome.HIT) {
+                    outcome = PrefixOutcome.APPEND;
+                }
+            }
+
+            int tailTokens = 0;
+            for (int i = state.covered; i < size; i++) {
+                tailTokens += estimateTokens(messages.get(i).getContent());
+            }
+            int inputTokens = additionalInput != null && !additionalInput.isBlank()
+                    ? estimateTokens(additionalInput) : 0;
+
+            if (state.fixedTokens() + tailTokens + inputTokens > tokenBudget && !state.prefix.isEmpty()) {
+                // Fold down to three quarters of the budget so the next iterations can reuse the prefix
+                int target = tokenBudget * 3 / 4;
+                while (!state.prefix.isEmpty() && state.fixedTokens() + tailTokens + inputTokens > target) {
+                    PrefixEntry folded = state.prefix.removeFirst();
+                    state.prefixTokens -= folded.tokens();
+                    state.addSummaryLine(summarize(folded.message()), tokenBudget / 4);
+                }
+                state.rebuildSerializedPrefix(serializeSummary(state));
+                outcome = PrefixOutcome.REBUILD;
+            }
+
+            boolean elideTail = state.fixedTokens() + tailTokens + inputTokens > tokenBudget;
+            StringBuilder json = new StringBuilder(state.serializedPrefix.length() + 1024);
+            json.append('[').append(state.serializedPrefix);
+            int windowTokens = state.fixedTokens();
+            int messageCount = 1 + (state.summaryLines.isEmpty() ? 0 : 1) + state.prefix.size();
+            for (int i = state.covered; i < size; i++) {
+                ConversationMessage msg = messages.get(i);
+                // The latest turn is always forwarded verbatim; earlier tail turns only lose bulk when over budget
+                String content = elideTail && i < size - 1 ? compactOlderMessage(msg) : msg.getContent();
+                json.append(',').append(serialize(msg.getRole(), content));
+                windowTokens += estimateTokens(content);
+                messageCount++;
+            }
+            if (inputTokens > 0) {
+                json.append(',').append(serialize("user", additionalInput));
+                windowTokens += inputTokens;
+                messageCount++;
+            }
+            json.append(']');
+
+            int fullTokens = estimateTokens(systemPrompt) + state.rawTokens + tailTokens + inputTokens;
+            recordMetrics(windowTokens, fullTokens, outcome);
+            logger.debug("Context window for {}: {} messages, ~{} tokens (uncompacted ~{}), {} folded, prefix {}",
+                    cacheKey, messageCount, windowTokens, fullTokens, state.foldedCount, outcome);
+            return new ContextWindow(json.toString(), messageCount, windowTokens, fullTokens);
+        }
+    }
+
+    /**
+     * Drops cached prefix state for a conversation, e.g. after it was deleted.
+     *
+     * @param cacheKey conversation identifier previously passed to {@link #buildWindow}
+     */
+    public void evict(String cacheKey) {
+        states.remove(cacheKey);
+    }
+
+    private void recordMetrics(int windowTokens, int fullTokens, PrefixOutcome outcome) {
+        contextTokens.record(windowTokens);
+        originalTokens.record(fullTokens);
+        compressionRatio.record(fullTokens == 0 ? 1.0 : (double) windowTokens / fullTokens);
+        switch (outcome) {
+            case HIT -> prefixHits.increment();
+            case APPEND -> prefixAppends.increment();
+            case REBUILD -> prefixRebuilds.increment();
+        }
+    }
+
+    /**
+     * Compacts a turn that is no longer part of the verbatim tail: reasoning blocks are removed from
+     * assistant output and oversized tool payloads are cut to the configured length. Aggregated tool
+     * messages carry one {@code Tool ...} line per call and are compacted line by line.
+     */
+    String compactOlderMessage(ConversationMessage msg) {
+        String content = msg.getContent() == null ? "" : msg.getContent();
+        if (ROLE_ASSISTANT.equals(msg.getRole())) {
+            return content.replaceAll(THINK_BLOCK_REGEX, "").trim();
+        }
+        if (!content.startsWith(TOOL_PREFIX)) {
+            return content;
+        }
+        if (content.indexOf('\n') < 0) {
+            return compactToolLine(content);
+        }
+        StringBuilder compacted = new StringBuilder(content.length());
+        for (String line : content.split("\n", -1)) {
+            if (!compacted.isEmpty()) {
+                compacted.append('\n');
+            }
+            compacted.append(line.startsWith(TOOL_PREFIX) ? compactToolLine(line) : line);
+        }
+        return compacted.toString();
+    }
+
+    private String compactToolLine(String line) {
+        int marker = line.indexOf(TOOL_RETURNED);
+        if (marker < 0) {
+            return line;
+        }
+        int payloadStart = marker + TOOL_RETURNED.length();
+        int payloadLength = line.length() - payloadStart;
+        if (payloadLength <= toolResultChars) {
+            return line;
+        }
+        return line.substring(0, payloadStart + toolResultChars)
+                + "... [" + (payloadLength - toolResultChars) + " chars elided; call the tool again if needed]";
+    }
+
+    /**
+     * Produces a one-line extractive digest of a turn for the rolling summary.
+     */
+    String summarize(ConversationMessage msg) {
+        String content = msg.getContent() == null ? "" : msg.getContent();
+        if (content.startsWith(TOOL_PREFIX)) {
+            List<String> calls = new ArrayList<>();
+            for (String line : content.split("\n")) {
+                if (line.startsWith(TOOL_PREFIX)) {
+                    calls.add(summarizeToolLine(line));
+                }
+            }
+            return "- " + String.join("; ", calls);
+        }
+        String text = ROLE_ASSISTANT.equals(msg.getRole())
+                ? content.replaceAll(THINK_BLOCK_REGEX, "").trim()
+                : content;
+        return "- " + msg.getRole() + ": " + abbreviate(text.replaceAll("\\s+", " "));
+    }
+
+    private String summarizeToolLine(String line) {
+        int returned = line.indexOf(TOOL_RETURNED);
+        int failed = line.indexOf(TOOL_FAILED);
+        if (returned > 0 && (failed < 0 || returned < failed)) {
+            return line.substring(0, returned) + " returned "
+                    + (line.length() - returned - TOOL_RETURNED.length()) + " chars of data";
+        }
+        return abbreviate(line);
+    }
+
+    private String abbreviate(String text) {
+        return text.length() <= summaryLineChars ? text : text.substring(0, summaryLineChars) + "...";
+    }
+
+    private String serializeSummary(ContextState state) {
+        if (state.summaryLines.isEmpty()) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder(SUMMARY_HEADER);
+        if (state.omittedSummaryLines > 0) {
+            summary.append("\n- (").append(state.omittedSummaryLines).append(" earlier turns omitted)");
+        }
+        for (String line : state.summaryLines) {
+            summary.append('\n').append(line);
+        }
+        return serialize(ROLE_SYSTEM, summary.toString());
+    }
+
+    private String serialize(String role, String content) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("role", role);
+        node.put("content", content);
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize conversation message", e);
+        }
+    }
+
+    static int estimateTokens(String text) {
+        int length = text == null ? 0 : text.length();
+        return (length + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    /**
+     * Size figures and serialized payload for a single LLM call.
+     *
+     * @param messagesJson   JSON array text ready to be embedded as the {@code messages} field
+     * @param messageCount   number of messages in the array
+     * @param windowTokens   estimated tokens sent
+     * @param originalTokens estimated tokens the uncompacted conversation would have cost
+     */
+    public record ContextWindow(String messagesJson, int messageCount, int windowTokens, int originalTokens) {}
+
+    private enum PrefixOutcome { HIT, APPEND, REBUILD }
+
+    private record PrefixEntry(ConversationMessage message, String json, int tokens) {}
+
+    /**
+     * Mutable per-conversation state guarded by its own monitor.
+     */
+    private static final class ContextState {
+        private String systemPrompt;
+        private String systemJson;
+        private String summaryJson;
+        private int covered;
+        private int rawTokens;
+        private int prefixTokens;
+        private int systemTokens;
+        private int summaryTokens;
+        private int foldedCount;
+        private int omittedSummaryLines;
+        private final Deque<PrefixEntry> prefix = new ArrayDeque<>();
+        private final Deque<String> summaryLines = new ArrayDeque<>();
+        private String serializedPrefix = "";
+
+        void reset(String prompt, String promptJson) {
+            systemPrompt = prompt;
+            systemJson = promptJson;
+            systemTokens = estimateTokens(prompt);
+            summaryJson = null;
+            covered = 0;
+            rawTokens = 0;
+            prefixTokens = 0;
+            summaryTokens = 0;
+            foldedCount = 0;
+            omittedSummaryLines = 0;
+            prefix.clear();
+            summaryLines.clear();
+            serializedPrefix = promptJson;
+        }
+
+        int fixedTokens() {
+            int summaryHeaderTokens = summaryLines.isEmpty() ? 0 : estimateTokens(SUMMARY_HEADER);
+            return systemTokens + summaryHeaderTokens + summaryTokens + prefixTokens;
+        }
+
+        void addSummaryLine(String line, int maxSummaryTokens) {
+            summaryLines.addLast(line);
+            summaryTokens += estimateTokens(line);
+            foldedCount++;
+            while (summaryLines.size() > 1 && summaryTokens > maxSummaryTokens) {
+                summaryTokens -= estimateTokens(summaryLines.removeFirst());
+                omittedSummaryLines++;
+            }
+        }
+
+        void appendToSerializedPrefix(String json) {
+            serializedPrefix = serializedPrefix + "," + json;
+        }
+
+        void rebuildSerializedPrefix(String newSummaryJson) {
+            summaryJson = newSummaryJson;
+            StringBuilder builder = new StringBuilder(systemJson);
+            if (summaryJson != null) {
+                builder.append(',').append(summaryJson);
+            }
+            for (PrefixEntry entry : prefix) {
+                builder.append(',').append(entry.json());
+            }
+            serializedPrefix = builder.toString();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.annapolislabs.lineage.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Elects a single node to run a background job using a PostgreSQL session-level advisory lock.
+ *
+ * <p>The lock is taken with {@code pg_try_advisory_lock} on a connection that is held for the
+ * duration of the job, so work done by the job itself in other transactions is unaffected. Nodes
+ * that lose the race skip the run instead of waiting. If the leader dies, its connection is closed
+ * and the database releases the lock.</p>
+ */
+@Slf4j
+@Component
+public class AdvisoryLockLeader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AdvisoryLockLeader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs {@code job} if this node acquires the lock named {@code lockName}.
+     *
+     * @return {@code true} when the job ran on this node
+     */
+    public boolean runIfLeader(String lockName, Runnable job) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(hashtext(?))", lockName)) {
+                log.debug("Lock {} is held by another node, skipping", lockName);
+                return false;
+            }
+            try {
+                job.run();
+                return true;
+            } finally {
+                queryBoolean(connection, "SELECT pg_advisory_unlock(hashtext(?))", lockName);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, lockName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.common.ServiceConstants;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff.FieldChange;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff.RequirementChange;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff.Side;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.Link;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.RequirementNode;
+import com.annapolislabs.lineage.entity.Project;
+import com.annapolislabs.lineage.exception.ResourceNotFoundException;
+import com.annapolislabs.lineage.repository.ProjectRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compares two point-in-time snapshots of a project (see {@link ProjectSnapshotService}), each taken
+ * at a timestamp or a named baseline, and writes the result as JSON or Markdown.
+ *
+ * <p>Every snapshot node carries a fingerprint of the requirement's fields and parent, so a
+ * requirement present on both sides costs one map lookup and one string comparison unless it
+ * changed; only changed requirements are compared field by field. Baseline snapshots are memoized,
+ * so diffs between baselines do no history replay after the first. The diff holds only the changes;
+ * the writers emit it incrementally to the response stream instead of building the document in
+ * memory.</p>
+ */
+@Service
+public class BaselineDiffService {
+
+    private final ProjectSnapshotService snapshotService;
+    private final ProjectRepository projectRepository;
+    private final ObjectMapper objectMapper;
+
+    public BaselineDiffService(ProjectSnapshotService snapshotService,
+                               ProjectRepository projectRepository,
+                               ObjectMapper objectMapper) {
+        this.snapshotService = snapshotService;
+        this.projectRepository = projectRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Changes from the {@code from} side to the {@code to} side. Each side is a baseline name or a
+     * timestamp; the {@code to} side is the current state when neither is given.
+     *
+     * @throws IllegalArgumentException  when the {@code from} side is missing or a side has both
+     * @throws ResourceNotFoundException when the project or a named baseline does not exist
+     */
+    @Transactional(readOnly = true)
+    public ProjectSnapshotDiff diff(UUID projectId, LocalDateTime fromAt, String fromBaseline,
+                                    LocalDateTime toAt, String toBaseline) {
+        if (fromAt == null && (fromBaseline == null || fromBaseline.isBlank())) {
+            throw new IllegalArgumentException("A timestamp or baseline to compare from is required");
+        }
+        ProjectSnapshotResponse from = snapshotService.snapshot(projectId, fromAt, fromBaseline);
+        ProjectSnapshotResponse to = snapshotService.snapshot(projectId, toAt, toBaseline);
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException(ServiceConstants.PROJECT_NOT_FOUND));
+        return compare(project.getName(), from, to);
+    }
+
+    static ProjectSnapshotDiff compare(String projectName, ProjectSnapshotResponse from, ProjectSnapshotResponse to) {
+        Map<UUID, RequirementNode> before = flatten(from.requirements());
+        Map<UUID, RequirementNode> after = flatten(to.requirements());
+
+        List<RequirementChange> added = new ArrayList<>();
+        List<RequirementChange> modified = new ArrayList<>();
+        int unchanged = 0;
+        for (RequirementNode node : after.values()) {
+            RequirementNode previous = before.get(node.id());
+            if (previous == null) {
+                added.add(new RequirementChange(node.id(), node.reqId(), node.title(), List.of()));
+            } else if (previous.fingerprint().equals(node.fingerprint())) {
+                unchanged++;
+            } else {
+                modified.add(new RequirementChange(node.id(), node.reqId(), node.title(), fieldChanges(previous, node)));
+            }
+        }
+        List<RequirementChange> removed = new ArrayList<>();
+        for (RequirementNode node : before.values()) {
+            if (!after.containsKey(node.id())) {
+                removed.add(new RequirementChange(node.id(), node.reqId(), node.title(), List.of()));
+            }
+        }
+        Comparator<RequirementChange> byReqId =
+                Comparator.comparing(RequirementChange::reqId, Comparator.nullsLast(Comparator.naturalOrder()));
+        added.sort(byReqId);
+        removed.sort(byReqId);
+        modified.sort(byReqId);
+
+        Set<List<UUID>> linksBefore = linkKeys(from.links());
+        Set<List<UUID>> linksAfter = linkKeys(to.links());
+        List<Link> linksAdded = to.links().stream()
+                .filter(link -> !linksBefore.contains(List.of(link.fromRequirementId(), link.toRequirementId())))
+                .toList();
+        List<Link> linksRemoved = from.links().stream()
+                .filter(link -> !linksAfter.contains(List.of(link.fromRequirementId(), link.toRequirementId())))
+                .toList();
+
+        return new ProjectSnapshotDiff(from.projectId(), projectName, new Side(from.at(), from.baseline()),
+                new Side(to.at(), to.baseline()), unchanged, added, removed, modified, linksAdded, linksRemoved);
+    }
+
+    /**
+     * Writes the diff as a JSON document
+     */
+    public void writeJson(ProjectSnapshotDiff diff, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            // The response stream belongs to the container
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeObjectField("projectId", diff.projectId());
+            json.writeStringField("projectName", diff.projectName());
+            json.writeObjectField("from", diff.from());
+            json.writeObjectField("to", diff.to());
+
+            json.writeObjectFieldStart("summary");
+            json.writeNumberField("added", diff.added().size());
+            json.writeNumberField("removed", diff.removed().size());
+            json.writeNumberField("modified", diff.modified().size());
+            json.writeNumberField("unchanged", diff.unchanged());
+            json.writeNumberField("linksAdded", diff.linksAdded().size());
+            json.writeNumberField("linksRemoved", diff.linksRemoved().size());
+            json.writeEndObject();
+
+            writeArray(json, "added", diff.added());
+            writeArray(json, "removed", diff.removed());
+            writeArray(json, "modified", diff.modified());
+            writeArray(json, "linksAdded", diff.linksAdded());
+            writeArray(json, "linksRemoved", diff.linksRemoved());
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the diff as a Markdown report: a summary, the added and removed requirements, a table of
+     * field changes per modified requirement, and the link changes
+     */
+    public void writeMarkdown(ProjectSnapshotDiff diff, OutputStream out) throws IOException {
+        Writer md = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        md.append("# ").append(diff.projectName()).append(": changes from ").append(diff.from().label())
+                .append(" to ").append(diff.to().label()).append("\n\n");
+        md.append("**Added:** ").append(String.valueOf(diff.added().size()))
+                .append(" | **Removed:** ").append(String.valueOf(diff.removed().size()))
+                .append(" | **Modified:** ").append(String.valueOf(diff.modified().size()))
+                .append(" | **Unchanged:** ").append(String.valueOf(diff.unchanged()))
+                .append(" | **Links added:** ").append(String.valueOf(diff.linksAdded().size()))
+                .append(" | **Links removed:** ").append(String.valueOf(diff.linksRemoved().size()))
+                .append("\n\n");
+
+        writeList(md, "Added requirements", diff.added(), change -> change.reqId() + ": " + change.title());
+        writeList(md, "Removed requirements", diff.removed(), change -> change.reqId() + ": " + change.title());
+
+        if (!diff.modified().isEmpty()) {
+            md.append("## Modified requirements\n\n");
+            for (RequirementChange change : diff.modified()) {
+                md.append("### ").append(change.reqId()).append(": ").append(change.title()).append("\n\n");
+                md.append("| Field | Before | After |\n|---|---|---|\n");
+                for (FieldChange field : change.changes()) {
+                    md.append("| ").append(field.field())
+                            .append(" | ").append(cell(field.before()))
+                            .append(" | ").append(cell(field.after())).append(" |\n");
+                }
+                md.append("\n");
+            }
+        }
+
+        writeList(md, "Added links", diff.linksAdded(), link -> link.fromReqId() + " → " + link.toReqId());
+        writeList(md, "Removed links", diff.linksRemoved(), link -> link.fromReqId() + " → " + link.toReqId());
+        md.flush();
+    }
+
+    private static Map<UUID, RequirementNode> flatten(List<RequirementNode> roots) {
+        Map<UUID, RequirementNode> nodes = new LinkedHashMap<>();
+        Deque<RequirementNode> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            RequirementNode node = pending.pop();
+            nodes.put(node.id(), node);
+            pending.addAll(node.children());
+        }
+        return nodes;
+    }
+
+    private static List<FieldChange> fieldChanges(RequirementNode before, RequirementNode after) {
+        List<FieldChange> changes = new ArrayList<>();
+        addIfChanged(changes, "reqId", before.reqId(), after.reqId());
+        addIfChanged(changes, "title", before.title(), after.title());
+        addIfChanged(changes, "description", before.description(), after.description());
+        addIfChanged(changes, "status", before.status(), after.status());
+        addIfChanged(changes, "priority", before.priority(), after.priority());
+        addIfChanged(changes, "parentId", before.parentId(), after.parentId());
+
+        Set<String> keys = new TreeSet<>(before.customFields().keySet());
+        keys.addAll(after.customFields().keySet());
+        for (String key : keys) {
+            addIfChanged(changes, "customFields." + key, before.customFields().get(key), after.customFields().get(key));
+        }
+        return changes;
+    }
+
+    private static void addIfChanged(List<FieldChange> changes, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.add(new FieldChange(field, before, after));
+        }
+    }
+
+    private static Set<List<UUID>> linkKeys(List<Link> links) {
+        Set<List<UUID>> keys = new HashSet<>();
+        for (Link link : links) {
+            keys.add(List.of(link.fromRequirementId(), link.toRequirementId()));
+        }
+        return keys;
+    }
+
+    private static void writeArray(JsonGenerator json, String field, List<?> items) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (Object item : items) {
+            json.writeObject(item);
+        }
+        json.writeEndArray();
+        json.flush();
+    }
+
+    private static <T> void writeList(Writer md, String heading, List<T> items, Function<T, String> line)
+            throws IOException {
+        if (items.isEmpty()) {
+            return;
+        }
+        md.append("## ").append(heading).append("\n\n");
+        for (T item : items) {
+            md.append("- ").append(line.apply(item)).append("\n");
+        }
+        md.append("\n");
+    }
+
+    /**
+     * Table cell text: pipes escaped and line breaks kept as {@code <br>}
+     */
+    private static String cell(Object value) {
+        if (value == null) {
+            return "—";
+        }
+        return value.toString().replace("|", "\\|").replace("\r\n", "<br>").replace("\n", "<br>");
+    }
+}
@@ -0,0 +1,394 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.PeerReview;
+import com.annapolislabs.lineage.entity.TaskAssignment;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.repository.PeerReviewRepository;
+import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
+import com.annapolislabs.lineage.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory deadline index for open tasks and peer reviews.
+ *
+ * <p>Every open item with a due date is held in a set ordered by due date, globally and per owner
+ * (assignee or reviewer), so "overdue" and "due soon" lists are range reads instead of table scans.
+ * A second ordered set acts as the timer queue: each indexed item schedules a due-soon reminder
+ * {@code reminder-lead} before its deadline and an overdue notice at the deadline. The periodic
+ * tick pops only the triggers that have come due; triggers made stale by a later update are
+ * discarded lazily when they reach the head of the queue.</p>
+ *
+ * <p>The index is rebuilt from the database once the application is ready and resynchronized
+ * periodically to pick up changes made by other instances. Services report changes through
+ * {@link #track(TaskAssignment)} and {@link #track(PeerReview)}; inside a transaction the update is
+ * applied after commit so a rollback never leaves a phantom deadline behind. Triggers that were
+ * already in the past when an item was loaded are not fired, so a restart does not resend
+ * notifications.</p>
+ *
+ * <p>Every instance runs the tick against its own queue, so the instance that saw an update always
+ * holds its triggers. Before sending, a notice is claimed in the database by stamping the due date
+ * it was sent for on the task or review row; the conditional update succeeds on one instance only,
+ * so each notice goes out once across the cluster.</p>
+ *
+ * <p>Firing a trigger only sends a notification; it does not change the item's status. Neither
+ * {@link TaskAssignment.TaskStatus} nor {@link PeerReview.ReviewStatus} has an overdue state, and
+ * {@link TaskAssignment#isOverdue()} and {@link PeerReview#isOverdue()} derive it from the due date,
+ * so overdue items are served from this index rather than persisted as a transition.</p>
+ */
+@Slf4j
+@Service
+public class DeadlineScheduler {
+
+    public enum ItemType { TASK, PEER_REVIEW }
+
+    public enum Stage { DUE_SOON, OVERDUE }
+
+    private static final Set<TaskAssignment.TaskStatus> OPEN_TASK_STATUSES =
+            EnumSet.of(TaskAssignment.TaskStatus.ASSIGNED, TaskAssignment.TaskStatus.IN_PROGRESS);
+    private static final Set<PeerReview.ReviewStatus> OPEN_REVIEW_STATUSES =
+            EnumSet.of(PeerReview.ReviewStatus.PENDING, PeerReview.ReviewStatus.IN_PROGRESS);
+
+    private static final Comparator<Deadline> DEADLINE_ORDER = Comparator
+            .comparing(Deadline::dueAt)
+            .thenComparing(Deadline::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Deadline::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final Comparator<Trigger> TRIGGER_ORDER = Comparator
+            .comparing(Trigger::fireAt)
+            .thenComparing(Trigger::stage)
+            .thenComparing(trigger -> trigger.deadline().type())
+            .thenComparing(trigger -> trigger.deadline().id());
+
+    private final TaskAssignmentRepository taskAssignmentRepository;
+    private final PeerReviewRepository peerReviewRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final Clock clock;
+
+    private final ConcurrentMap<Key, Deadline> byKey = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Deadline> byDueDate = new ConcurrentSkipListSet<>(DEADLINE_ORDER);
+    private final ConcurrentMap<UUID, ConcurrentSkipListSet<Deadline>> byOwner = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Trigger> triggers = new ConcurrentSkipListSet<>(TRIGGER_ORDER);
+    private final AtomicLong versions = new AtomicLong();
+
+    @Value("${lineage.deadlines.reminder-lead-hours:24}")
+    private long reminderLeadHours;
+
+    @Value("${lineage.deadlines.max-results:500}")
+    private int maxResults;
+
+    @Autowired
+    public DeadlineScheduler(TaskAssignmentRepository taskAssignmentRepository,
+                             PeerReviewRepository peerReviewRepository,
+                             UserRepository userRepository,
+                             EmailService emailService) {
+        this(taskAssignmentRepository, peerReviewRepository, userRepository, emailService, Clock.systemDefaultZone());
+    }
+
+    DeadlineScheduler(TaskAssignmentRepository taskAssignmentRepository,
+                      PeerReviewRepository peerReviewRepository,
+                      UserRepository userRepository,
+                      EmailService emailService,
+                      Clock clock) {
+        this.taskAssignmentRepository = taskAssignmentRepository;
+        this.peerReviewRepository = peerReviewRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.clock = clock;
+    }
+
+    /**
+     * Indexes, moves or removes a task's deadline according to its current state
+     */
+    public void track(TaskAssignment task) {
+        UUID id = task.getId();
+        Deadline deadline = task.getDueDate() != null && OPEN_TASK_STATUSES.contains(task.getStatus())
+                ? new Deadline(ItemType.TASK, id, task.getAssignedTo(), task.getDueDate(), 0)
+                : null;
+        afterCommit(() -> apply(new Key(ItemType.TASK, id), deadline, true));
+    }
+
+    /**
+     * Indexes, moves or removes a review's deadline according to its current state
+     */
+    public void track(PeerReview review) {
+        UUID id = review.getId();
+        Deadline deadline = review.getReviewDeadline() != null && OPEN_REVIEW_STATUSES.contains(review.getStatus())
+                ? new Deadline(ItemType.PEER_REVIEW, id, review.getReviewerId(), review.getReviewDeadline(), 0)
+                : null;
+        afterCommit(() -> apply(new Key(ItemType.PEER_REVIEW, id), deadline, true));
+    }
+
+    /**
+     * IDs of items whose deadline has passed, most overdue first
+     *
+     * @param ownerId restrict to one assignee/reviewer, or {@code null} for all owners
+     */
+    public List<UUID> findOverdue(ItemType type, UUID ownerId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return collect(index(ownerId).headSet(bound(now), false), type);
+    }
+
+    /**
+     * IDs of items due between now and {@code now + window}, soonest first
+     *
+     * @param ownerId restrict to one assignee/reviewer, or {@code null} for all owners
+     */
+    public List<UUID> findDueWithin(ItemType type, UUID ownerId, Duration window) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return collect(index(ownerId).subSet(bound(now), true, bound(now.plus(window).plusNanos(1)), false), type);
+    }
+
+    /**
+     * Number of overdue items of a type across all owners
+     */
+    public long countOverdue(ItemType type) {
+        return byDueDate.headSet(bound(LocalDateTime.now(clock)), false).stream()
+                .filter(deadline -> deadline.type() == type)
+                .count();
+    }
+
+    /**
+     * Reloads all open deadlines from the database. Entries changed through {@link #track} while
+     * the snapshot was being read are kept; entries absent from the snapshot are dropped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lineage.deadlines.resync-ms:600000}",
+            fixedDelayString = "${lineage.deadlines.resync-ms:600000}")
+    public void rebuild() {
+        long snapshotVersion = versions.get();
+        Set<Key> seen = new HashSet<>();
+
+        for (Object[] row : taskAssignmentRepository.findOpenDeadlines(OPEN_TASK_STATUSES)) {
+            Deadline deadline = new Deadline(ItemType.TASK, (UUID) row[0], (UUID) row[1], (LocalDateTime) row[2], 0);
+            seen.add(deadline.key());
+            applySnapshot(deadline, snapshotVersion);
+        }
+        for (Object[] row : peerReviewRepository.findOpenDeadlines(OPEN_REVIEW_STATUSES)) {
+            Deadline deadline = new Deadline(ItemType.PEER_REVIEW, (UUID) row[0], (UUID) row[1], (LocalDateTime) row[2], 0);
+            seen.add(deadline.key());
+            applySnapshot(deadline, snapshotVersion);
+        }
+
+        for (Deadline deadline : List.copyOf(byKey.values())) {
+            if (!seen.contains(deadline.key()) && deadline.version() <= snapshotVersion) {
+                byKey.computeIfPresent(deadline.key(), (key, current) -> {
+                    if (current.version() > snapshotVersion) {
+                        return current;
+                    }
+                    unindex(current);
+                    return null;
+                });
+            }
+        }
+        log.info("Deadline index rebuilt: {} open deadlines, {} pending triggers", byKey.size(), triggers.size());
+    }
+
+    /**
+     * Fires the due-soon and overdue triggers whose time has come
+     */
+    @Scheduled(fixedDelayString = "${lineage.deadlines.tick-ms:30000}")
+    public void fireDueTriggers() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Trigger head;
+        int fired = 0;
+        while ((head = triggers.pollFirst()) != null) {
+            if (head.fireAt().isAfter(now)) {
+                triggers.add(head);
+                break;
+            }
+            Deadline current = byKey.get(head.deadline().key());
+            if (current == null || !current.dueAt().equals(head.deadline().dueAt())) {
+                continue; // superseded by a later update
+            }
+            try {
+                notifyOwner(current, head.stage());
+                fired++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to fire {} trigger for {} {}: {}", head.stage(), current.type(), current.id(), e.getMessage());
+            }
+        }
+        if (fired > 0) {
+            log.debug("Fired {} deadline triggers", fired);
+        }
+    }
+
+    private void notifyOwner(Deadline deadline, Stage stage) {
+        String title;
+        if (deadline.type() == ItemType.TASK) {
+            Optional<TaskAssignment> task = taskAssignmentRepository.findById(deadline.id());
+            if (task.isEmpty() || !OPEN_TASK_STATUSES.contains(task.get().getStatus())) {
+                apply(deadline.key(), null, false);
+                return;
+            }
+            title = task.get().getTaskTitle();
+        } else {
+            Optional<PeerReview> review = peerReviewRepository.findById(deadline.id());
+            if (review.isEmpty() || !OPEN_REVIEW_STATUSES.contains(review.get().getStatus())) {
+                apply(deadline.key(), null, false);
+                return;
+            }
+            title = review.get().getReviewType().getDisplayName() + " for requirement " + review.get().getRequirementId();
+        }
+
+        String email = userRepository.findById(deadline.ownerId()).map(User::getEmail).orElse(null);
+        if (email == null) {
+            return;
+        }
+        if (claim(deadline, stage) == 0) {
+            log.debug("{} notification for {} {} already sent by another instance", stage, deadline.type(), deadline.id());
+            return;
+        }
+        emailService.sendDeadlineNotification(email, deadline.type().name(), title,
+                deadline.dueAt().toString(), stage == Stage.OVERDUE);
+        log.info("{} notification sent for {} {}", stage, deadline.type(), deadline.id());
+    }
+
+    private int claim(Deadline deadline, Stage stage) {
+        if (deadline.type() == ItemType.TASK) {
+            return stage == Stage.OVERDUE
+                    ? taskAssignmentRepository.claimOverdueNotice(deadline.id(), deadline.dueAt())
+                    : taskAssignmentRepository.claimDueSoonNotice(deadline.id(), deadline.dueAt());
+        }
+        return stage == Stage.OVERDUE
+                ? peerReviewRepository.claimOverdueNotice(deadline.id(), deadline.dueAt())
+                : peerReviewRepository.claimDueSoonNotice(deadline.id(), deadline.dueAt());
+    }
+
+    private void applySnapshot(Deadline deadline, long snapshotVersion) {
+        byKey.compute(deadline.key(), (key, current) -> {
+            if (current != null && (current.version() > snapshotVersion || sameSchedule(current, deadline))) {
+                return current;
+            }
+            return replace(current, deadline, false);
+        });
+    }
+
+    private void apply(Key key, Deadline deadline, boolean live) {
+        byKey.compute(key, (k, current) -> {
+            if (deadline == null) {
+                if (current != null) {
+                    unindex(current);
+                }
+                return null;
+            }
+            return replace(current, deadline, live);
+        });
+    }
+
+    /**
+     * Swaps the indexed entry for an item; must run inside {@code byKey.compute} for that key.
+     */
+    private Deadline replace(Deadline current, Deadline deadline, boolean live) {
+        Deadline versioned = deadline.withVersion(live ? versions.incrementAndGet() : versions.get());
+        if (current != null) {
+            unindex(current);
+        }
+        byDueDate.add(versioned);
+        if (versioned.ownerId() != null) {
+            byOwner.computeIfAbsent(versioned.ownerId(), owner -> new ConcurrentSkipListSet<>(DEADLINE_ORDER)).add(versioned);
+        }
+        if (current == null || !current.dueAt().equals(versioned.dueAt())) {
+            schedule(versioned);
+        }
+        return versioned;
+    }
+
+    private void unindex(Deadline deadline) {
+        byDueDate.remove(deadline);
+        if (deadline.ownerId() != null) {
+            ConcurrentSkipListSet<Deadline> owned = byOwner.get(deadline.ownerId());
+            if (owned != null) {
+                owned.remove(deadline);
+            }
+        }
+    }
+
+    private void schedule(Deadline deadline) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime reminderAt = deadline.dueAt().minusHours(reminderLeadHours);
+        if (reminderAt.isAfter(now)) {
+            triggers.add(new Trigger(reminderAt, Stage.DUE_SOON, deadline));
+        }
+        if (deadline.dueAt().isAfter(now)) {
+            triggers.add(new Trigger(deadline.dueAt(), Stage.OVERDUE, deadline));
+        }
+    }
+
+    private NavigableSet<Deadline> index(UUID ownerId) {
+        if (ownerId == null) {
+            return byDueDate;
+        }
+        NavigableSet<Deadline> owned = byOwner.get(ownerId);
+        return owned != null ? owned : Collections.emptyNavigableSet();
+    }
+
+    private List<UUID> collect(NavigableSet<Deadline> range, ItemType type) {
+        List<UUID> ids = new ArrayList<>();
+        for (Deadline deadline : range) {
+            if (deadline.type() == type) {
+                ids.add(deadline.id());
+                if (ids.size() >= maxResults) {
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static boolean sameSchedule(Deadline a, Deadline b) {
+        return a.dueAt().equals(b.dueAt()) && Objects.equals(a.ownerId(), b.ownerId());
+    }
+
+    private static Deadline bound(LocalDateTime at) {
+        return new Deadline(null, null, null, at, 0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Key(ItemType type, UUID id) {}
+
+    /**
+     * Indexed deadline of one item. {@code version} orders live updates against database snapshots.
+     */
+    record Deadline(ItemType type, UUID id, UUID ownerId, LocalDateTime dueAt, long version) {
+
+        Key key() {
+            return new Key(type, id);
+        }
+
+        Deadline withVersion(long newVersion) {
+            return new Deadline(type, id, ownerId, dueAt, newVersion);
+        }
+    }
+
+    private record Trigger(LocalDateTime fireAt, Stage stage, Deadline deadline) {}
+}
@@ -86,4 +86,11 @@ public interface EmailService {
      */
     void sendPeerReviewRevisionRequestNotification(String authorEmail, String requirementTitle, 
                                                  String reviewerName, String feedback);
+
+    // Deadline methods
+    /**
+     * Sends a due-soon reminder or overdue notice for a task or peer review
+     */
+    void sendDeadlineNotification(String recipientEmail, String itemType, String itemTitle,
+                                  String dueAt, boolean overdue);
 }
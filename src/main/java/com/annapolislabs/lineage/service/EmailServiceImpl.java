@@ -1,144 +1,203 @@
 package com.annapolislabs.lineage.service;
 
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import com.annapolislabs.lineage.repository.NotificationOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
 /**
- * Placeholder implementation that logs when each type of email would be delivered. The class keeps
- * the contract injectable while SMTP credentials and templates are finalized, ensuring callers know
- * that no real emails are dispatched yet. Every method should eventually route through a
- * {@code JavaMailSender} configured with provider credentials and structured templates.
+ * Outbox-backed implementation. Each method renders its email and inserts it into the
+ * {@code notification_outbox} table; when called inside a transaction the row commits or rolls back
+ * with the business change, and no network I/O happens on the caller's thread. Delivery, batching
+ * and retries are handled by {@link NotificationDispatcher} through the configured
+ * {@link com.annapolislabs.lineage.notification.NotificationSender}.
  */
 @Service
 public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
 
+    private final NotificationOutboxRepository outboxRepository;
+
+    @Value("${lineage.notifications.app-url:http://localhost:5173}")
+    private String appUrl = "http://localhost:5173";
+
+    // Frontend routes behind the links in account and team emails; {token}, {teamId} and
+    // {invitationId} are replaced with the values for the recipient
+    @Value("${lineage.notifications.links.verify-email:/verify-email?token={token}}")
+    private String verifyEmailLink = "/verify-email?token={token}";
+
+    @Value("${lineage.notifications.links.reset-password:/reset-password?token={token}}")
+    private String resetPasswordLink = "/reset-password?token={token}";
+
+    @Value("${lineage.notifications.links.accept-invitation:/verify-email?token={token}}")
+    private String acceptInvitationLink = "/verify-email?token={token}";
+
+    @Value("${lineage.notifications.links.team-invitation:/teams/{teamId}/invitations/{invitationId}}")
+    private String teamInvitationLink = "/teams/{teamId}/invitations/{invitationId}";
+
+    @Autowired
+    public EmailServiceImpl(NotificationOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
     /**
      * {@inheritDoc}
      *
-     * <p>Currently logs the intent to send a welcome email until SMTP delivery is wired up. The log
-     * output acts as an audit trail in lower environments so onboarding flows can be validated
-     * without dispatching real emails.</p>
+     * <p>Queues a greeting that falls back to a generic salutation when no first name is known.</p>
      */
     @Override
     public void sendWelcomeEmail(String email, String firstName) {
-        logger.info("Welcome email would be sent to: {} for user: {}", email, firstName);
-        // TODO: Implement actual email sending functionality with SMTP configuration
-        // Required: Add SMTP server configuration properties (host, port, username, password)
-        // Required: Configure JavaMailSender bean in configuration class
-        // Required: Implement actual email content templating
+        enqueue("WELCOME", email, "Welcome to Lineage",
+                greeting(firstName) + "\n\nYour Lineage account is ready. Sign in at " + appUrl + " to get started.");
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>The implementation currently logs the verification token rather than dispatching an email.
-     * Once SMTP support is added the method should embed the token within a secure link that expires
-     * according to {@link EmailService} guidance and store telemetry for audit purposes.</p>
+     * <p>Embeds the token in a verification link; the token itself is never logged.</p>
      */
     @Override
     public void sendEmailVerificationEmail(String email, String verificationToken) {
-        logger.info("Email verification would be sent to: {} with token: {}", email, verificationToken);
-        // TODO: Implement actual email sending functionality with SMTP configuration
-        // Required: Add SMTP server configuration properties (host, port, username, password)
-        // Required: Configure JavaMailSender bean in configuration class
-        // Required: Implement actual email content templating
+        enqueue("EMAIL_VERIFICATION", email, "Verify your Lineage email address",
+                "Confirm your email address by opening the link below:\n\n"
+                        + link(verifyEmailLink, "token", verificationToken));
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>Logs issuance of a password-reset token so QA can confirm the workflow without dispatching
-     * sensitive credentials. Production deployments should replace the logger with SMTP delivery and
-     * ensure the token is masked in logs to avoid leaking secrets.</p>
+     * <p>Embeds the reset token in a link; the token itself is never logged.</p>
      */
     @Override
     public void sendPasswordResetEmail(String email, String resetToken) {
-        logger.info("Password reset email would be sent to: {} with token: {}", email, resetToken);
-        // TODO: Implement actual email sending functionality with SMTP configuration
-        // Required: Add SMTP server configuration properties (host, port, username, password)
-        // Required: Configure JavaMailSender bean in configuration class
-        // Required: Implement actual email content templating
+        enqueue("PASSWORD_RESET", email, "Reset your Lineage password",
+                "A password reset was requested for your account. Open the link below to choose a new password:\n\n"
+                        + link(resetPasswordLink, "token", resetToken)
+                        + "\n\nIf you did not request this, you can ignore this email.");
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>Logs that an invitation email would be dispatched. When SMTP support is added this method
-     * should embed the invitation token into a signed URL and capture delivery telemetry for audits.</p>
+     * <p>Embeds the invitation token in an accept link.</p>
      */
     @Override
     public void sendInvitationEmail(String email, String firstName, String invitationToken) {
-        logger.info("Invitation email would be sent to: {} for user: {} with token: {}", email, firstName, invitationToken);
-        // TODO: Implement actual email sending functionality with SMTP configuration
-        // Required: Add SMTP server configuration properties (host, port, username, password)
-        // Required: Configure JavaMailSender bean in configuration class
-        // Required: Implement actual email content templating
+        enqueue("INVITATION", email, "You have been invited to Lineage",
+                greeting(firstName) + "\n\nAccept your invitation here:\n\n"
+                        + link(acceptInvitationLink, "token", invitationToken));
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>Logs that MFA setup instructions would be delivered, including the QR provisioning URL. The
-     * eventual SMTP-backed implementation must ensure the URL is short-lived and delivered over
-     * TLS-only channels to avoid exposing TOTP secrets.</p>
+     * <p>Queues the provisioning link; callers must make sure it is short-lived.</p>
      */
     @Override
     public void sendMfaSetupEmail(String email, String qrCodeUrl) {
-        logger.info("MFA setup email would be sent to: {} with QR code URL: {}", email, qrCodeUrl);
-        // TODO: Implement actual email sending functionality with SMTP configuration
-        // Required: Add SMTP server configuration properties (host, port, username, password)
-        // Required: Configure JavaMailSender bean in configuration class
-        // Required: Implement actual email content templating
+        enqueue("MFA_SETUP", email, "Set up multi-factor authentication",
+                "Scan the QR code at the link below with your authenticator app:\n\n" + qrCodeUrl);
     }
 
     @Override
-    public void sendTeamInvitation(String userEmail, String teamName, String roleDisplayName, 
+    public void sendTeamInvitation(String userEmail, String teamName, String roleDisplayName,
                                  String message, String teamId, String invitationId) {
-        logger.info("Team invitation email would be sent to: {} for team '{}' with role '{}'", 
-                userEmail, teamName, roleDisplayName);
-        // TODO: Implement actual email sending functionality with SMTP configuration
+        StringBuilder body = new StringBuilder()
+                .append("You have been invited to join the team '").append(teamName)
+                .append("' as ").append(roleDisplayName).append('.');
+        if (message != null && !message.isBlank()) {
+            body.append("\n\n").append(message);
+        }
+        body.append("\n\n").append(link(teamInvitationLink, "teamId", teamId, "invitationId", invitationId));
+        enqueue("TEAM_INVITATION", userEmail, "Invitation to join " + teamName, body.toString());
     }
 
     @Override
-    public void sendTaskAssignmentNotification(String assigneeEmail, String taskTitle, 
+    public void sendTaskAssignmentNotification(String assigneeEmail, String taskTitle,
                                              String taskDescription, String projectId) {
-        logger.info("Task assignment notification would be sent to: {} for task '{}' in project {}", 
-                assigneeEmail, taskTitle, projectId);
-        // TODO: Implement actual email sending functionality with SMTP configuration
+        enqueue("TASK_ASSIGNED", assigneeEmail, "New task: " + taskTitle,
+                "You have been assigned the task '" + taskTitle + "'."
+                        + (taskDescription != null ? "\n\n" + taskDescription : "")
+                        + "\n\n" + appUrl + "/projects/" + projectId);
     }
 
     @Override
-    public void sendPeerReviewInvitation(String reviewerEmail, String requirementTitle, 
+    public void sendPeerReviewInvitation(String reviewerEmail, String requirementTitle,
                                        String authorName, String reviewType, String deadline) {
-        logger.info("Peer review invitation would be sent to: {} for requirement '{}' by {} with type '{}'", 
-                reviewerEmail, requirementTitle, authorName, reviewType);
-        // TODO: Implement actual email sending functionality with SMTP configuration
+        enqueue("PEER_REVIEW_INVITATION", reviewerEmail, "Review requested: " + requirementTitle,
+                authorName + " requested a " + reviewType + " of '" + requirementTitle + "'."
+                        + (deadline != null ? "\n\nReference: " + deadline : ""));
     }
 
     @Override
-    public void sendPeerReviewApprovalNotification(String authorEmail, String requirementTitle, 
+    public void sendPeerReviewApprovalNotification(String authorEmail, String requirementTitle,
                                                  String reviewerName, String comments) {
-        logger.info("Peer review approval notification would be sent to: {} for requirement '{}' approved by {}", 
-                authorEmail, requirementTitle, reviewerName);
-        // TODO: Implement actual email sending functionality with SMTP configuration
+        enqueue("PEER_REVIEW_APPROVED", authorEmail, "Review approved: " + requirementTitle,
+                reviewerName + " approved the review of '" + requirementTitle + "'." + comments(comments));
     }
 
     @Override
-    public void sendPeerReviewRejectionNotification(String authorEmail, String requirementTitle, 
+    public void sendPeerReviewRejectionNotification(String authorEmail, String requirementTitle,
                                                   String reviewerName, String comments) {
-        logger.info("Peer review rejection notification would be sent to: {} for requirement '{}' rejected by {}", 
-                authorEmail, requirementTitle, reviewerName);
-        // TODO: Implement actual email sending functionality with SMTP configuration
+        enqueue("PEER_REVIEW_REJECTED", authorEmail, "Review rejected: " + requirementTitle,
+                reviewerName + " rejected the review of '" + requirementTitle + "'." + comments(comments));
     }
 
     @Override
-    public void sendPeerReviewRevisionRequestNotification(String authorEmail, String requirementTitle, 
+    public void sendPeerReviewRevisionRequestNotification(String authorEmail, String requirementTitle,
                                                        String reviewerName, String feedback) {
-        logger.info("Peer review revision request notification would be sent to: {} for requirement '{}' by {}", 
-                authorEmail, requirementTitle, reviewerName);
-        // TODO: Implement actual email sending functionality with SMTP configuration
+        enqueue("PEER_REVIEW_REVISION", authorEmail, "Revision requested: " + requirementTitle,
+                reviewerName + " requested changes to '" + requirementTitle + "'." + comments(feedback));
+    }
+
+    @Override
+    public void sendDeadlineNotification(String recipientEmail, String itemType, String itemTitle,
+                                         String dueAt, boolean overdue) {
+        enqueue(overdue ? "DEADLINE_OVERDUE" : "DEADLINE_DUE_SOON", recipientEmail,
+                (overdue ? "Overdue: " : "Due soon: ") + itemTitle,
+                "The " + itemType.toLowerCase().replace('_', ' ') + " '" + itemTitle + "' "
+                        + (overdue ? "was due" : "is due") + " at " + dueAt + ".");
+    }
+
+    private void enqueue(String type, String recipient, String subject, String body) {
+        if (recipient == null || recipient.isBlank()) {
+            logger.warn("Dropping {} email without recipient", type);
+            return;
+        }
+        outboxRepository.save(new NotificationOutbox(type, recipient, truncateSubject(subject), body, LocalDateTime.now()));
+        logger.debug("Queued {} email for {}", type, recipient);
+    }
+
+    /**
+     * Absolute link to a frontend route, with each {@code {name}} in the template replaced by the
+     * URL-encoded value that follows the name
+     */
+    private String link(String template, String... namesAndValues) {
+        String path = template;
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            path = path.replace("{" + namesAndValues[i] + "}",
+                    URLEncoder.encode(String.valueOf(namesAndValues[i + 1]), StandardCharsets.UTF_8));
+        }
+        return appUrl + path;
+    }
+
+    private static String greeting(String firstName) {
+        return firstName != null && !firstName.isBlank() ? "Hi " + firstName + "," : "Hello,";
+    }
+
+    private static String comments(String comments) {
+        return comments != null && !comments.isBlank() ? "\n\nComments:\n" + comments : "";
+    }
+
+    private static String truncateSubject(String subject) {
+        return subject.length() <= 255 ? subject : subject.substring(0, 252) + "...";
     }
-}
\ No newline at end of file
+}
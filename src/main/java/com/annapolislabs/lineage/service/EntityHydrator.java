@@ -0,0 +1,137 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.*;
+import com.annapolislabs.lineage.repository.PeerReviewRepository;
+import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
+import com.annapolislabs.lineage.repository.TeamRepository;
+import com.annapolislabs.lineage.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Resolves the associations of a page of entities with a fixed number of queries.
+ *
+ * <p>List endpoints return entities whose users, teams and element collections would otherwise be
+ * loaded one row at a time, either explicitly or lazily while the response is serialized. The
+ * methods here collect the IDs of a whole page first and resolve each association with a single
+ * {@code IN} query. Element collections are fetched with one join-fetch query per collection role;
+ * when the page entities are managed by the current persistence context Hibernate initializes
+ * their collections in place, otherwise the fetched collections are copied onto them.</p>
+ */
+@Service
+public class EntityHydrator {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Autowired
+    private PeerReviewRepository peerReviewRepository;
+
+    /**
+     * Loads users by ID in one query
+     *
+     * @param ids user IDs; {@code null}s and duplicates are ignored
+     * @return users keyed by ID, missing users are absent
+     */
+    public Map<UUID, User> loadUsers(Collection<UUID> ids) {
+        Set<UUID> distinct = distinct(ids);
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, User> users = new HashMap<>();
+        userRepository.findAllById(distinct).forEach(user -> users.put(user.getId(), user));
+        return users;
+    }
+
+    /**
+     * Loads teams by ID in one query
+     *
+     * @param ids team IDs; {@code null}s and duplicates are ignored
+     * @return teams keyed by ID, missing teams are absent
+     */
+    public Map<UUID, Team> loadTeams(Collection<UUID> ids) {
+        Set<UUID> distinct = distinct(ids);
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Team> teams = new HashMap<>();
+        teamRepository.findAllById(distinct).forEach(team -> teams.put(team.getId(), team));
+        return teams;
+    }
+
+    /**
+     * Sets the transient {@code user} of each membership
+     */
+    public void attachUsers(Collection<TeamMember> members) {
+        Map<UUID, User> users = loadUsers(members.stream().map(TeamMember::getUserId).toList());
+        for (TeamMember member : members) {
+            member.setUser(users.get(member.getUserId()));
+        }
+    }
+
+    /**
+     * Initializes the tags and blockers of a page of tasks with one query each
+     */
+    public void initializeTaskCollections(Collection<TaskAssignment> tasks) {
+        List<UUID> ids = tasks.stream().map(TaskAssignment::getId).filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        copyCollection(tasks, taskAssignmentRepository.fetchWithTags(ids),
+                TaskAssignment::getId, TaskAssignment::getTags, TaskAssignment::setTags);
+        copyCollection(tasks, taskAssignmentRepository.fetchWithBlockers(ids),
+                TaskAssignment::getId, TaskAssignment::getBlockers, TaskAssignment::setBlockers);
+    }
+
+    /**
+     * Initializes the reviewed files and tags of a page of reviews with one query each
+     */
+    public void initializeReviewCollections(Collection<PeerReview> reviews) {
+        List<UUID> ids = reviews.stream().map(PeerReview::getId).filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        copyCollection(reviews, peerReviewRepository.fetchWithReviewedFiles(ids),
+                PeerReview::getId, PeerReview::getReviewedFiles, PeerReview::setReviewedFiles);
+        copyCollection(reviews, peerReviewRepository.fetchWithTags(ids),
+                PeerReview::getId, PeerReview::getTags, PeerReview::setTags);
+    }
+
+    /**
+     * Copies a fetched collection onto page entities that are not the managed instances the query
+     * returned (for example when the page was loaded in another persistence context)
+     */
+    private static <T, V> void copyCollection(Collection<T> page, List<T> fetched, Function<T, UUID> id,
+                                              Function<T, V> getter, BiConsumer<T, V> setter) {
+        Map<UUID, T> fetchedById = new HashMap<>();
+        for (T entity : fetched) {
+            fetchedById.put(id.apply(entity), entity);
+        }
+        for (T entity : page) {
+            T loaded = fetchedById.get(id.apply(entity));
+            if (loaded != null && loaded != entity) {
+                setter.accept(entity, getter.apply(loaded));
+            }
+        }
+    }
+
+    private static Set<UUID> distinct(Collection<UUID> ids) {
+        Set<UUID> distinct = new HashSet<>();
+        for (UUID id : ids) {
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,247 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.AuditSeverity;
+import com.annapolislabs.lineage.entity.PermissionChange;
+import com.annapolislabs.lineage.repository.AuditLogRepository;
+import com.annapolislabs.lineage.repository.CsrfUsedTokenRepository;
+import com.annapolislabs.lineage.repository.PermissionChangeRepository;
+import com.annapolislabs.lineage.repository.UserSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Periodic cleanup of tables that otherwise grow without bound.
+ *
+ * <p>Each run, the database tasks are executed on one node only, chosen through
+ * {@link AdvisoryLockLeader}. They are run during the configured off-peak cron window:</p>
+ * <ul>
+ *     <li>creating upcoming monthly {@code audit_logs} partitions and dropping those past retention</li>
+ *     <li>deleting expired and revoked sessions</li>
+ *     <li>deleting INFO audit logs past retention</li>
+ *     <li>closing temporary grants past their expiry</li>
+ *     <li>deleting expired single-use CSRF token identifiers</li>
+ * </ul>
+ * <p>Work is done in batches of {@code batch-size} rows, each batch in its own short transaction,
+ * with a pause between batches. A run stops early once {@code max-run-seconds} is spent and
+ * continues in the next window.</p>
+ *
+ * <p>For every task the scheduler publishes {@code lineage.maintenance.duration},
+ * {@code lineage.maintenance.rows} and the {@code lineage.maintenance.backlog} gauge, which holds
+ * the number of eligible rows left after the last run. {@code lineage.maintenance.partitions} counts
+ * audit partitions created and dropped.</p>
+ */
+@Slf4j
+@Service
+public class MaintenanceScheduler {
+
+    static final String LOCK_NAME = "lineage.maintenance";
+    static final String TASK_SESSIONS = "sessions";
+    static final String TASK_AUDIT_LOGS = "audit_logs";
+    static final String TASK_AUDIT_PARTITIONS = "audit_partitions";
+    static final String TASK_PERMISSION_EXPIRY = "permission_expiry";
+    static final String TASK_CSRF_TOKENS = "csrf_tokens";
+
+    private final UserSessionRepository userSessionRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final PermissionChangeRepository permissionChangeRepository;
+    private final PermissionSnapshotService permissionSnapshotService;
+    private final CsrfUsedTokenRepository csrfUsedTokenRepository;
+    private final AdvisoryLockLeader leader;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, AtomicLong> backlogs = new ConcurrentHashMap<>();
+
+    @Value("${lineage.maintenance.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${lineage.maintenance.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    @Value("${lineage.maintenance.max-run-seconds:240}")
+    private long maxRunSeconds;
+
+    @Value("${lineage.maintenance.session-retention-days:7}")
+    private int sessionRetentionDays;
+
+    @Value("${lineage.maintenance.audit-info-retention-days:90}")
+    private int auditInfoRetentionDays;
+
+    @Value("${lineage.maintenance.audit-retention-months:13}")
+    private int auditRetentionMonths;
+
+    @Value("${lineage.maintenance.audit-partitions-ahead:3}")
+    private int auditPartitionsAhead;
+
+    @Autowired
+    public MaintenanceScheduler(UserSessionRepository userSessionRepository,
+                                AuditLogRepository auditLogRepository,
+                                PermissionChangeRepository permissionChangeRepository,
+                                PermissionSnapshotService permissionSnapshotService,
+                                CsrfUsedTokenRepository csrfUsedTokenRepository,
+                                AdvisoryLockLeader leader,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this(userSessionRepository, auditLogRepository, permissionChangeRepository, permissionSnapshotService,
+                csrfUsedTokenRepository, leader, transactionManager, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    MaintenanceScheduler(UserSessionRepository userSessionRepository,
+                         AuditLogRepository auditLogRepository,
+                         PermissionChangeRepository permissionChangeRepository,
+                         PermissionSnapshotService permissionSnapshotService,
+                         CsrfUsedTokenRepository csrfUsedTokenRepository,
+                         AdvisoryLockLeader leader,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         Clock clock) {
+        this.userSessionRepository = userSessionRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.permissionChangeRepository = permissionChangeRepository;
+        this.permissionSnapshotService = permissionSnapshotService;
+        this.csrfUsedTokenRepository = csrfUsedTokenRepository;
+        this.leader = leader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the database cleanup tasks if this node wins the maintenance lock
+     */
+    @Scheduled(cron = "${lineage.maintenance.cron:0 */10 1-5 * * *}")
+    public void runMaintenance() {
+        if (!leader.runIfLeader(LOCK_NAME, this::runDatabaseTasks)) {
+            log.debug("Maintenance is running on another node");
+        }
+    }
+
+    void runDatabaseTasks() {
+        Instant deadline = clock.instant().plusSeconds(maxRunSeconds);
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime sessionCutoff = now.minusDays(sessionRetentionDays);
+        LocalDateTime auditCutoff = now.minusDays(auditInfoRetentionDays);
+
+        maintainAuditPartitions(now.toLocalDate());
+        runTask(TASK_SESSIONS, deadline,
+                limit -> userSessionRepository.deleteOldSessionsBatch(sessionCutoff, limit),
+                () -> userSessionRepository.countOldSessions(sessionCutoff));
+        runTask(TASK_AUDIT_LOGS, deadline,
+                limit -> auditLogRepository.deleteOldInfoLogsBatch(auditCutoff, limit),
+                () -> auditLogRepository.countBySeverityAndCreatedAtBefore(AuditSeverity.INFO, auditCutoff));
+        runTask(TASK_PERMISSION_EXPIRY, deadline,
+                limit -> expirePermissionBatch(now, limit),
+                () -> permissionChangeRepository.countExpiredInEffect(now));
+        runTask(TASK_CSRF_TOKENS, deadline,
+                limit -> csrfUsedTokenRepository.deleteExpiredBatch(now, limit),
+                () -> csrfUsedTokenRepository.countByExpiresAtBefore(now));
+    }
+
+    /**
+     * Creates the audit partitions for the coming months and drops whole months that are past
+     * retention. A retention of {@code 0} months keeps every partition.
+     */
+    private void maintainAuditPartitions(LocalDate today) {
+        long started = System.nanoTime();
+        try {
+            Integer created = transactionTemplate.execute(status -> auditLogRepository.ensurePartitions(auditPartitionsAhead));
+            Integer dropped = auditRetentionMonths > 0
+                    ? transactionTemplate.execute(status -> auditLogRepository.dropPartitionsBefore(
+                            today.withDayOfMonth(1).minusMonths(auditRetentionMonths)))
+                    : Integer.valueOf(0);
+            int createdCount = created != null ? created : 0;
+            int droppedCount = dropped != null ? dropped : 0;
+            meterRegistry.counter("lineage.maintenance.partitions", "action", "created").increment(createdCount);
+            meterRegistry.counter("lineage.maintenance.partitions", "action", "dropped").increment(droppedCount);
+            log.info("Audit log partitions: {} created, {} dropped", createdCount, droppedCount);
+        } catch (RuntimeException e) {
+            log.warn("Audit log partition maintenance failed: {}", e.getMessage());
+        } finally {
+            meterRegistry.timer("lineage.maintenance.duration", "task", TASK_AUDIT_PARTITIONS)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Closes temporary grants past their expiry so they stop counting as active changes, and moves
+     * the affected users to a new permission epoch
+     */
+    private int expirePermissionBatch(LocalDateTime now, int limit) {
+        List<PermissionChange> expired = permissionChangeRepository.lockExpiredBatch(now, limit);
+        Set<UUID> userIds = new LinkedHashSet<>();
+        for (PermissionChange change : expired) {
+            change.setEffectiveUntil(change.getExpiresAt());
+            userIds.add(change.getUserId());
+        }
+        permissionChangeRepository.saveAll(expired);
+        permissionSnapshotService.bumpEpochs(userIds);
+        return expired.size();
+    }
+
+    private void runTask(String task, Instant deadline, IntUnaryOperator batch, LongSupplier backlog) {
+        long started = System.nanoTime();
+        long total = 0;
+        try {
+            while (true) {
+                Integer affected = transactionTemplate.execute(status -> batch.applyAsInt(batchSize));
+                int rows = affected != null ? affected : 0;
+                total += rows;
+                if (rows < batchSize || !clock.instant().isBefore(deadline) || !pause()) {
+                    break;
+                }
+            }
+            backlog(task).set(backlog.getAsLong());
+        } catch (RuntimeException e) {
+            log.warn("Maintenance task {} failed after {} rows: {}", task, total, e.getMessage());
+        } finally {
+            record(task, total, System.nanoTime() - started);
+        }
+        log.info("Maintenance task {} affected {} rows, backlog {}", task, total, backlog(task).get());
+    }
+
+    /**
+     * Gives other transactions room between batches
+     *
+     * @return {@code false} when the thread was interrupted and the task should stop
+     */
+    private boolean pause() {
+        if (batchPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void record(String task, long rows, long elapsedNanos) {
+        meterRegistry.timer("lineage.maintenance.duration", "task", task).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("lineage.maintenance.rows", "task", task).increment(rows);
+    }
+
+    private AtomicLong backlog(String task) {
+        return backlogs.computeIfAbsent(task, name ->
+                meterRegistry.gauge("lineage.maintenance.backlog", Tags.of("task", name), new AtomicLong()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import com.annapolislabs.lineage.notification.NotificationSender;
+import com.annapolislabs.lineage.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Drains the notification outbox in the background.
+ *
+ * <p>Each tick locks batches of due notifications with {@code FOR UPDATE SKIP LOCKED}, hands them
+ * to the {@link NotificationSender} and records the outcome in the same transaction, so several
+ * instances can dispatch concurrently without sending a row twice. Failed deliveries are retried
+ * with exponential backoff until {@code max-attempts} is reached, after which the row is marked
+ * {@code FAILED} and kept for inspection.</p>
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationSender notificationSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    @Value("${lineage.notifications.batch-size:50}")
+    private int batchSize;
+
+    @Value("${lineage.notifications.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${lineage.notifications.backoff-initial-ms:30000}")
+    private long backoffInitialMs;
+
+    @Value("${lineage.notifications.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${lineage.notifications.retention-days:14}")
+    private int retentionDays;
+
+    @Autowired
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  NotificationSender notificationSender,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this(outboxRepository, notificationSender, transactionManager, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                           NotificationSender notificationSender,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.notificationSender = notificationSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Sends due notifications batch by batch until the outbox has no more due rows
+     */
+    @Scheduled(fixedDelayString = "${lineage.notifications.dispatch-interval-ms:5000}")
+    public void dispatch() {
+        int processed;
+        do {
+            Integer batch = transactionTemplate.execute(status -> dispatchBatch());
+            processed = batch != null ? batch : 0;
+        } while (processed >= batchSize);
+    }
+
+    /**
+     * Sends one locked batch and records the outcome; must run inside a transaction
+     *
+     * @return number of notifications taken from the outbox
+     */
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<NotificationOutbox> batch = outboxRepository.lockDueBatch(now, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, String> failures;
+        try {
+            failures = notificationSender.send(batch);
+        } catch (RuntimeException e) {
+            log.warn("Notification sender failed for batch of {}: {}", batch.size(), e.getMessage());
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            failures = new HashMap<>();
+            for (NotificationOutbox notification : batch) {
+                failures.put(notification.getId(), error);
+            }
+        }
+
+        int sent = 0;
+        int retried = 0;
+        int failed = 0;
+        for (NotificationOutbox notification : batch) {
+            notification.setAttempts(notification.getAttempts() + 1);
+            String error = failures.get(notification.getId());
+            if (error == null) {
+                notification.setStatus(NotificationOutbox.Status.SENT);
+                notification.setSentAt(now);
+                notification.setLastError(null);
+                sent++;
+            } else if (notification.getAttempts() >= maxAttempts) {
+                notification.setStatus(NotificationOutbox.Status.FAILED);
+                notification.setLastError(truncate(error));
+                failed++;
+                log.error("Giving up on {} notification {} to {} after {} attempts: {}",
+                        notification.getNotificationType(), notification.getId(), notification.getRecipient(),
+                        notification.getAttempts(), error);
+            } else {
+                notification.setNextAttemptAt(now.plus(backoff(notification.getAttempts())));
+                notification.setLastError(truncate(error));
+                retried++;
+            }
+        }
+        outboxRepository.saveAll(batch);
+
+        meterRegistry.counter("lineage.notifications.dispatched", "outcome", "sent").increment(sent);
+        meterRegistry.counter("lineage.notifications.dispatched", "outcome", "retry").increment(retried);
+        meterRegistry.counter("lineage.notifications.dispatched", "outcome", "failed").increment(failed);
+        log.debug("Dispatched notification batch: {} sent, {} scheduled for retry, {} failed", sent, retried, failed);
+        return batch.size();
+    }
+
+    /**
+     * Deletes delivered notifications past the retention period
+     */
+    @Scheduled(cron = "${lineage.notifications.purge-cron:0 15 4 * * *}")
+    public void purgeDelivered() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(cutoff));
+        log.info("Purged {} delivered notifications sent before {}", deleted, cutoff);
+    }
+
+    /**
+     * Delay before the next attempt: the initial backoff doubled per failed attempt, capped at the maximum
+     */
+    Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = backoffInitialMs << exponent;
+        if (delay <= 0 || delay > backoffMaxMs) {
+            delay = backoffMaxMs;
+        }
+        return Duration.ofMillis(delay);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,19 +1,23 @@
 package com.annapolislabs.lineage.service;
 
 import com.annapolislabs.lineage.entity.*;
+import com.annapolislabs.lineage.realtime.ProjectChangeEvent;
+import com.annapolislabs.lineage.realtime.ProjectChangePublisher;
 import com.annapolislabs.lineage.repository.*;
 import com.annapolislabs.lineage.security.SecurityAuditService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for peer review management operations
@@ -38,6 +42,24 @@ public class PeerReviewService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
+    @Autowired
+    private PeerReviewStatisticsService peerReviewStatisticsService;
+
+    @Autowired
+    private EntityHydrator entityHydrator;
+
+    @Autowired
+    private RequirementRepository requirementRepository;
+
+    @Autowired
+    private ProjectChangePublisher projectChangePublisher;
+
+    @Value("${lineage.deadlines.max-results:500}")
+    private int maxAttentionResults = 500;
+
     /**
      * Create a new peer review
      */
@@ -87,7 +109,9 @@ public class PeerReviewService {
         review.setReviewDeadline(deadline);
 
         // Save review
-        review = peerReviewRepository.save(review);
+        review = saveAndPublish(review);
+        peerReviewStatisticsService.recordTransition(null, PeerReviewStatisticsService.ReviewSnapshot.of(review));
+        deadlineScheduler.track(review);
 
         // Send review assignment email
         try {
@@ -136,6 +160,7 @@ public class PeerReviewService {
     /**
      * Get reviews by requirement ID
      */
+    @Transactional(readOnly = true)
     public List<PeerReview> getReviewsByRequirement(UUID requirementId, UUID requestingUserId) {
         log.debug("Getting reviews for requirement {} by user {}", requirementId, requestingUserId);
 
@@ -144,8 +169,8 @@ public class PeerReviewService {
             throw new SecurityException("User does not have permission to view peer reviews");
         }
 
-        return peerReviewRepository.findByRequirementIdAndStatusIn(requirementId, 
-                Arrays.asList(PeerReview.ReviewStatus.values()));
+        return hydrated(peerReviewRepository.findByRequirementIdAndStatusIn(requirementId, 
+                Arrays.asList(PeerReview.ReviewStatus.values())));
     }
 
     /**
@@ -167,8 +192,11 @@ public class PeerReviewService {
             throw new IllegalArgumentException("Review cannot be started in current status: " + review.getStatus());
         }
 
+        PeerReviewStatisticsService.ReviewSnapshot before = PeerReviewStatisticsService.ReviewSnapshot.of(review);
         review.startReview();
-        peerReviewRepository.save(review);
+        saveAndPublish(review);
+        peerReviewStatisticsService.recordTransition(before, PeerReviewStatisticsService.ReviewSnapshot.of(review));
+        deadlineScheduler.track(review);
 
         // Audit log
         securityAuditService.logEvent("PEER_REVIEW_STARTED", requestingUserId, "PEER_REVIEW", reviewId,
@@ -196,13 +224,17 @@ public class PeerReviewService {
             throw new IllegalArgumentException("Review cannot be approved in current status: " + review.getStatus());
         }
 
+        PeerReviewStatisticsService.ReviewSnapshot before = PeerReviewStatisticsService.ReviewSnapshot.of(review);
         review.approve(comments);
-        peerReviewRepository.save(review);
+        saveAndPublish(review);
+        peerReviewStatisticsService.recordTransition(before, PeerReviewStatisticsService.ReviewSnapshot.of(review));
+        deadlineScheduler.track(review);
 
         // Send approval notification email
         try {
-            User reviewer = userRepository.findById(review.getReviewerId()).orElse(null);
-            User author = userRepository.findById(review.getAuthorId()).orElse(null);
+            Map<UUID, User> participants = entityHydrator.loadUsers(List.of(review.getReviewerId(), review.getAuthorId()));
+            User reviewer = participants.get(review.getReviewerId());
+            User author = participants.get(review.getAuthorId());
             
             if (reviewer != null && author != null) {
                 emailService.sendPeerReviewApprovalNotification(
@@ -242,13 +274,17 @@ public class PeerReviewService {
             throw new IllegalArgumentException("Review cannot be rejected in current status: " + review.getStatus());
         }
 
+        PeerReviewStatisticsService.ReviewSnapshot before = PeerReviewStatisticsService.ReviewSnapshot.of(review);
         review.reject(comments);
-        peerReviewRepository.save(review);
+        saveAndPublish(review);
+        peerReviewStatisticsService.recordTransition(before, PeerReviewStatisticsService.ReviewSnapshot.of(review));
+        deadlineScheduler.track(review);
 
         // Send rejection notification email
         try {
-            User reviewer = userRepository.findById(review.getReviewerId()).orElse(null);
-            User author = userRepository.findById(review.getAuthorId()).orElse(null);
+            Map<UUID, User> participants = entityHydrator.loadUsers(List.of(review.getReviewerId(), review.getAuthorId()));
+            User reviewer = participants.get(review.getReviewerId());
+            User author = participants.get(review.getAuthorId());
             
             if (reviewer != null && author != null) {
                 emailService.sendPeerReviewRejectionNotification(
@@ -288,13 +324,17 @@ public class PeerReviewService {
             throw new IllegalArgumentException("Review cannot request revision in current status: " + review.getStatus());
         }
 
+        PeerReviewStatisticsService.ReviewSnapshot before = PeerReviewStatisticsService.ReviewSnapshot.of(review);
         review.requestRevision(comments);
-        peerReviewRepository.save(review);
+        saveAndPublish(review);
+        peerReviewStatisticsService.recordTransition(before, PeerReviewStatisticsService.ReviewSnapshot.of(review));
+        deadlineScheduler.track(review);
 
         // Send revision notification email
         try {
-            User reviewer = userRepository.findById(review.getReviewerId()).orElse(null);
-            User author = userRepository.findById(review.getAuthorId()).orElse(null);
+            Map<UUID, User> participants = entityHydrator.loadUsers(List.of(review.getReviewerId(), review.getAuthorId()));
+            User reviewer = participants.get(review.getReviewerId());
+            User author = participants.get(review.getAuthorId());
             
             if (reviewer != null && author != null) {
                 emailService.sendPeerReviewRevisionRequestNotification(
@@ -335,7 +375,7 @@ public class PeerReviewService {
         }
 
         review.setRatings(effortRating, qualityRating);
-        peerReviewRepository.save(review);
+        saveAndPublish(review);
 
         // Audit log
         securityAuditService.logEvent("PEER_REVIEW_RATINGS_SET", requestingUserId, "PEER_REVIEW", reviewId,
@@ -347,6 +387,7 @@ public class PeerReviewService {
     /**
      * Get pending reviews for a reviewer
      */
+    @Transactional(readOnly = true)
     public List<PeerReview> getPendingReviews(UUID reviewerId, UUID requestingUserId) {
         log.debug("Getting pending reviews for reviewer {} by user {}", reviewerId, requestingUserId);
 
@@ -356,13 +397,14 @@ public class PeerReviewService {
             throw new SecurityException("User does not have permission to view these reviews");
         }
 
-        return peerReviewRepository.findByReviewerIdAndStatusIn(reviewerId, 
-                Arrays.asList(PeerReview.ReviewStatus.PENDING));
+        return hydrated(peerReviewRepository.findByReviewerIdAndStatusIn(reviewerId, 
+                Arrays.asList(PeerReview.ReviewStatus.PENDING)));
     }
 
     /**
      * Get overdue reviews
      */
+    @Transactional(readOnly = true)
     public List<PeerReview> getOverdueReviews(UUID requestingUserId) {
         log.debug("Getting overdue reviews for user {}", requestingUserId);
 
@@ -371,12 +413,19 @@ public class PeerReviewService {
             throw new SecurityException("User does not have permission to view peer reviews");
         }
 
-        return peerReviewRepository.findOverdueReviews(LocalDateTime.now());
+        List<UUID> overdueIds = deadlineScheduler.findOverdue(DeadlineScheduler.ItemType.PEER_REVIEW, null);
+        if (overdueIds.isEmpty()) {
+            return List.of();
+        }
+        List<PeerReview> reviews = new ArrayList<>(peerReviewRepository.findAllById(overdueIds));
+        reviews.sort(Comparator.comparing(PeerReview::getReviewDeadline));
+        return hydrated(reviews);
     }
 
     /**
      * Get reviews needing attention (pending or overdue)
      */
+    @Transactional(readOnly = true)
     public List<PeerReview> getReviewsNeedingAttention(UUID requestingUserId) {
         log.debug("Getting reviews needing attention for user {}", requestingUserId);
 
@@ -385,12 +434,17 @@ public class PeerReviewService {
             throw new SecurityException("User does not have permission to view peer reviews");
         }
 
-        return peerReviewRepository.findReviewsNeedingAttention(LocalDateTime.now());
+        // Overdue reviews are always pending or in progress, so this covers both; earliest deadline first
+        return hydrated(peerReviewRepository.findByStatusIn(
+                EnumSet.of(PeerReview.ReviewStatus.PENDING, PeerReview.ReviewStatus.IN_PROGRESS),
+                PageRequest.of(0, maxAttentionResults,
+                        Sort.by(Sort.Order.asc("reviewDeadline").nullsLast(), Sort.Order.asc("createdAt")))));
     }
 
     /**
      * Search peer reviews
      */
+    @Transactional(readOnly = true)
     public Page<PeerReview> searchReviews(String searchTerm, UUID reviewerId, UUID authorId, 
                                         PeerReview.ReviewStatus status, PeerReview.ReviewType reviewType,
                                         Pageable pageable, UUID requestingUserId) {
@@ -401,11 +455,14 @@ public class PeerReviewService {
             throw new SecurityException("User does not have permission to search peer reviews");
         }
 
+        Page<PeerReview> page;
         if (StringUtils.hasText(searchTerm)) {
-            return peerReviewRepository.findBySearch(searchTerm, pageable);
+            page = peerReviewRepository.findBySearch(searchTerm, pageable);
         } else {
-            return peerReviewRepository.findWithFilters(null, reviewerId, authorId, status, reviewType, pageable);
+            page = peerReviewRepository.findWithFilters(null, reviewerId, authorId, status, reviewType, pageable);
         }
+        entityHydrator.initializeReviewCollections(page.getContent());
+        return page;
     }
 
     /**
@@ -419,30 +476,29 @@ public class PeerReviewService {
             throw new SecurityException("User does not have permission to view peer review statistics");
         }
 
-        Map<String, Object> statistics = new HashMap<>();
-
-        // Get counts by status
-        List<Object[]> statusCounts = peerReviewRepository.getReviewCountByStatus();
-        Map<String, Long> statusMap = statusCounts.stream()
-                .collect(Collectors.toMap(obj -> ((PeerReview.ReviewStatus) obj[0]).name(), obj -> (Long) obj[1]));
-        statistics.put("by_status", statusMap);
-
-        // Get counts by type
-        List<Object[]> typeCounts = peerReviewRepository.getReviewCountByType();
-        Map<String, Long> typeMap = typeCounts.stream()
-                .collect(Collectors.toMap(obj -> ((PeerReview.ReviewType) obj[0]).name(), obj -> (Long) obj[1]));
-        statistics.put("by_type", typeMap);
+        // Counters come from the rollup table, the overdue count from the deadline index
+        Map<String, Object> statistics = new HashMap<>(peerReviewStatisticsService.getStatistics());
+        statistics.put("overdue_count", deadlineScheduler.countOverdue(DeadlineScheduler.ItemType.PEER_REVIEW));
 
-        // Get pending reviews per reviewer
-        List<Object[]> pendingCounts = peerReviewRepository.getPendingReviewCountByReviewer();
-        Map<String, Long> pendingMap = pendingCounts.stream()
-                .collect(Collectors.toMap(obj -> obj[0].toString(), obj -> (Long) obj[1]));
-        statistics.put("pending_by_reviewer", pendingMap);
+        return statistics;
+    }
 
-        // Get overdue reviews count
-        List<PeerReview> overdueReviews = peerReviewRepository.findOverdueReviews(LocalDateTime.now());
-        statistics.put("overdue_count", (long) overdueReviews.size());
+    /**
+     * Initializes the element collections of a list of reviews with one query per collection
+     */
+    private List<PeerReview> hydrated(List<PeerReview> reviews) {
+        entityHydrator.initializeReviewCollections(reviews);
+        return reviews;
+    }
 
-        return statistics;
+    /**
+     * Saves a review and notifies subscribers of the reviewed requirement's project once the
+     * transaction commits
+     */
+    private PeerReview saveAndPublish(PeerReview review) {
+        PeerReview saved = peerReviewRepository.save(review);
+        projectChangePublisher.publishUpsert(requirementRepository.findProjectIdById(saved.getRequirementId()),
+                ProjectChangeEvent.REVIEW, saved.getId());
+        return saved;
     }
-}
\ No newline at end of file
+}
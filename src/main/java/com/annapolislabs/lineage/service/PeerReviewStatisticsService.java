@@ -0,0 +1,174 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.PeerReview;
+import com.annapolislabs.lineage.entity.PeerReviewStatistic;
+import com.annapolislabs.lineage.repository.PeerReviewRepository;
+import com.annapolislabs.lineage.repository.PeerReviewStatisticRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Peer review statistics backed by the {@code peer_review_statistics} rollup table.
+ *
+ * <p>Counters are adjusted in the same transaction as the review change that causes them, so the
+ * dashboard reads a handful of rows instead of grouping the whole review history. Writers take the
+ * counter lock in shared mode; {@link #rebuild()} takes it exclusively and recomputes the counters
+ * from the review rows. The nightly rebuild runs on one node only, chosen through
+ * {@link AdvisoryLockLeader}.</p>
+ */
+@Slf4j
+@Service
+public class PeerReviewStatisticsService {
+
+    static final String REBUILD_LOCK_NAME = "lineage.peer-reviews.statistics.rebuild";
+
+    private final PeerReviewStatisticRepository statisticRepository;
+    private final PeerReviewRepository peerReviewRepository;
+    private final AdvisoryLockLeader leader;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PeerReviewStatisticsService(PeerReviewStatisticRepository statisticRepository,
+                                       PeerReviewRepository peerReviewRepository,
+                                       AdvisoryLockLeader leader,
+                                       PlatformTransactionManager transactionManager) {
+        this.statisticRepository = statisticRepository;
+        this.peerReviewRepository = peerReviewRepository;
+        this.leader = leader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Moves a review's contribution from the buckets it occupied before a change to the buckets it
+     * occupies now. Dimensions whose bucket did not change are not written.
+     *
+     * @param before snapshot taken before the review was modified, {@code null} for a new review
+     * @param after  snapshot of the saved review
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(ReviewSnapshot before, ReviewSnapshot after) {
+        Map<PeerReviewStatistic.Key, Long> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            before.buckets().forEach(key -> deltas.merge(key, -1L, Long::sum));
+        }
+        if (after != null) {
+            after.buckets().forEach(key -> deltas.merge(key, 1L, Long::sum));
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        statisticRepository.lockShared();
+        deltas.forEach((key, delta) -> statisticRepository.increment(key.getDimension(), key.getBucket(), delta));
+    }
+
+    /**
+     * Reads the counters.
+     *
+     * @return {@code by_status} and {@code by_type} maps covering every enum value, and
+     *         {@code pending_by_reviewer} mapping reviewer IDs to their pending review count
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStatistics() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (PeerReview.ReviewStatus status : PeerReview.ReviewStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (PeerReview.ReviewType type : PeerReview.ReviewType.values()) {
+            byType.put(type.name(), 0L);
+        }
+        Map<String, Long> pendingByReviewer = new LinkedHashMap<>();
+
+        for (PeerReviewStatistic statistic : statisticRepository.findAll()) {
+            if (statistic.getReviewCount() <= 0) {
+                continue;
+            }
+            switch (statistic.getDimension()) {
+                case PeerReviewStatistic.DIMENSION_STATUS -> byStatus.put(statistic.getBucket(), statistic.getReviewCount());
+                case PeerReviewStatistic.DIMENSION_TYPE -> byType.put(statistic.getBucket(), statistic.getReviewCount());
+                case PeerReviewStatistic.DIMENSION_PENDING_REVIEWER -> pendingByReviewer.put(statistic.getBucket(), statistic.getReviewCount());
+                default -> log.debug("Ignoring unknown peer review statistic dimension {}", statistic.getDimension());
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("by_status", byStatus);
+        stats.put("by_type", byType);
+        stats.put("pending_by_reviewer", pendingByReviewer);
+        stats.put("total", byStatus.values().stream().mapToLong(Long::longValue).sum());
+        return stats;
+    }
+
+    /**
+     * Runs the nightly {@link #rebuild()} in its own transaction if this node wins the rebuild lock
+     */
+    @Scheduled(cron = "${lineage.peer-reviews.statistics.rebuild-cron:0 45 3 * * *}")
+    public void scheduledRebuild() {
+        if (!leader.runIfLeader(REBUILD_LOCK_NAME,
+                () -> transactionTemplate.executeWithoutResult(status -> rebuild()))) {
+            log.debug("Peer review statistics are being rebuilt on another node");
+        }
+    }
+
+    /**
+     * Recomputes the counters from the review rows. Runs nightly to repair drift left by writes
+     * that bypass the service.
+     */
+    @Transactional
+    public void rebuild() {
+        statisticRepository.lockExclusive();
+        statisticRepository.deleteAllCounters();
+
+        int counters = 0;
+        for (Object[] row : peerReviewRepository.getReviewCountByStatus()) {
+            statisticRepository.increment(PeerReviewStatistic.DIMENSION_STATUS,
+                    ((PeerReview.ReviewStatus) row[0]).name(), (Long) row[1]);
+            counters++;
+        }
+        for (Object[] row : peerReviewRepository.getReviewCountByType()) {
+            statisticRepository.increment(PeerReviewStatistic.DIMENSION_TYPE,
+                    ((PeerReview.ReviewType) row[0]).name(), (Long) row[1]);
+            counters++;
+        }
+        for (Object[] row : peerReviewRepository.getReviewCountByReviewer(PeerReview.ReviewStatus.PENDING)) {
+            statisticRepository.increment(PeerReviewStatistic.DIMENSION_PENDING_REVIEWER,
+                    row[0].toString(), (Long) row[1]);
+            counters++;
+        }
+        log.info("Rebuilt {} peer review statistic counters", counters);
+    }
+
+    /**
+     * The fields of a review that determine which counters it contributes to.
+     */
+    public record ReviewSnapshot(PeerReview.ReviewStatus status, PeerReview.ReviewType reviewType, UUID reviewerId) {
+
+        public static ReviewSnapshot of(PeerReview review) {
+            return new ReviewSnapshot(review.getStatus(), review.getReviewType(), review.getReviewerId());
+        }
+
+        List<PeerReviewStatistic.Key> buckets() {
+            List<PeerReviewStatistic.Key> keys = new ArrayList<>(3);
+            if (status != null) {
+                keys.add(new PeerReviewStatistic.Key(PeerReviewStatistic.DIMENSION_STATUS, status.name()));
+            }
+            if (reviewType != null) {
+                keys.add(new PeerReviewStatistic.Key(PeerReviewStatistic.DIMENSION_TYPE, reviewType.name()));
+            }
+            if (reviewerId != null && status == PeerReview.ReviewStatus.PENDING) {
+                keys.add(new PeerReviewStatistic.Key(PeerReviewStatistic.DIMENSION_PENDING_REVIEWER, reviewerId.toString()));
+            }
+            return keys;
+        }
+    }
+}
@@ -34,12 +34,13 @@ public class PermissionEvaluationService {
     @Autowired
     private TeamMemberRepository teamMemberRepository;
 
-    @Autowired
-    private TeamRepository teamRepository;
-
     // In-memory cache for frequently evaluated permissions
     private final Map<String, PermissionCacheEntry> permissionCache = new ConcurrentHashMap<>();
     
+    // Team roles that can edit (see TeamMember#canEdit)
+    private static final Set<TeamMember.TeamRole> EDITING_TEAM_ROLES = EnumSet.of(
+            TeamMember.TeamRole.OWNER, TeamMember.TeamRole.ADMIN, TeamMember.TeamRole.MEMBER);
+
     // Cache expiration time in seconds
     private static final long CACHE_EXPIRY_SECONDS = 300; // 5 minutes
     private static final long CACHE_MAX_SIZE = 10000;
@@ -110,6 +111,38 @@ public class PermissionEvaluationService {
         }
     }
 
+    /**
+     * Resolve the set of projects in which a user holds a permission, for pushing authorization
+     * into queries instead of checking rows one by one. Mirrors {@link #hasPermission(UUID, String, UUID)}:
+     * a role-based grant covers every project, otherwise the scope is the union of projects with an
+     * explicit grant (latest change wins) and projects of active teams where the user can edit.
+     */
+    public ProjectScope getPermittedProjects(UUID userId, String permissionKey) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || user.getStatus() != UserStatus.ACTIVE) {
+            return ProjectScope.none();
+        }
+        if (checkRoleBasedPermissions(user, permissionKey, null)) {
+            return ProjectScope.all();
+        }
+
+        Set<UUID> projectIds = new HashSet<>();
+        permissionChangeRepository.findActiveResourceChangesForUser(userId, permissionKey, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.groupingBy(PermissionChange::getResourceId,
+                        Collectors.maxBy(Comparator.comparing(PermissionChange::getEffectiveFrom,
+                                Comparator.nullsFirst(Comparator.naturalOrder())))))
+                .forEach((resourceId, latest) -> latest
+                        .filter(change -> change.getChangeType() == PermissionChange.ChangeType.GRANT ||
+                                change.getChangeType() == PermissionChange.ChangeType.MODIFY)
+                        .ifPresent(change -> projectIds.add(resourceId)));
+
+        projectIds.addAll(teamMemberRepository.findProjectIdsOfActiveTeams(
+                userId, TeamMember.TeamMemberStatus.ACTIVE, EDITING_TEAM_ROLES));
+
+        return ProjectScope.of(projectIds);
+    }
+
     /**
      * Get all effective permissions for a user
      */
@@ -150,15 +183,9 @@ public class PermissionEvaluationService {
             
             // Add team-based permissions if scoped to resource
             if (resourceId != null) {
-                List<TeamMember> teamMemberships = teamMemberRepository
-                        .findByUserIdAndStatus(userId, TeamMember.TeamMemberStatus.ACTIVE);
-                for (TeamMember membership : teamMemberships) {
-                    Team team = teamRepository.findById(membership.getTeamId()).orElse(null);
-                    if (team != null && team.getProjectId() != null && 
-                        team.getProjectId().equals(resourceId) && team.isActive()) {
-                        // Add team-specific permissions based on role
-                        permissions.addAll(getTeamBasedPermissions(membership.getRole()));
-                    }
+                for (TeamMember.TeamRole teamRole : teamRolesInProject(userId, resourceId)) {
+                    // Add team-specific permissions based on role
+                    permissions.addAll(getTeamBasedPermissions(teamRole));
                 }
             }
             
@@ -292,25 +319,25 @@ public class PermissionEvaluationService {
     }
 
     private boolean checkTeamPermissions(UUID userId, String permissionKey, UUID resourceId) {
-        // Check if user is member of any team associated with the resource
-        List<TeamMember> teamMemberships = teamMemberRepository
-                .findByUserIdAndStatus(userId, TeamMember.TeamMemberStatus.ACTIVE);
-        
-        for (TeamMember membership : teamMemberships) {
-            Team team = teamRepository.findById(membership.getTeamId()).orElse(null);
-            if (team != null && team.getProjectId() != null && 
-                team.getProjectId().equals(resourceId) && team.isActive()) {
-                
-                // Check team role permissions
-                if (membership.canEdit() || membership.canManage()) {
-                    return true;
-                }
+        // Check if user is an editing member of any active team of the resource project
+        for (TeamMember.TeamRole teamRole : teamRolesInProject(userId, resourceId)) {
+            if (EDITING_TEAM_ROLES.contains(teamRole)) {
+                return true;
             }
         }
         
         return false;
     }
 
+    /**
+     * Roles the user holds through active memberships in active teams of the project, resolved by
+     * one join over the covering membership and team indexes
+     */
+    private List<TeamMember.TeamRole> teamRolesInProject(UUID userId, UUID projectId) {
+        return teamMemberRepository.findRolesInActiveProjectTeams(
+                userId, projectId, TeamMember.TeamMemberStatus.ACTIVE);
+    }
+
     private Set<String> getRoleBasedPermissions(UserRole role) {
         Set<String> permissions = new HashSet<>();
         
@@ -407,6 +434,31 @@ public class PermissionEvaluationService {
                 .forEach(entry -> permissionCache.remove(entry.getKey()));
     }
 
+    /**
+     * Projects in which a permission applies: either every project or an explicit set.
+     *
+     * @param unrestricted {@code true} when the permission is granted globally
+     * @param projectIds   projects covered when not unrestricted; never {@code null}
+     */
+    public record ProjectScope(boolean unrestricted, Set<UUID> projectIds) {
+
+        public static ProjectScope all() {
+            return new ProjectScope(true, Set.of());
+        }
+
+        public static ProjectScope none() {
+            return new ProjectScope(false, Set.of());
+        }
+
+        public static ProjectScope of(Set<UUID> projectIds) {
+            return new ProjectScope(false, Set.copyOf(projectIds));
+        }
+
+        public boolean contains(UUID projectId) {
+            return unrestricted || (projectId != null && projectIds.contains(projectId));
+        }
+    }
+
     // Inner class for cache entries
     private static class PermissionCacheEntry {
         private final boolean allowed;
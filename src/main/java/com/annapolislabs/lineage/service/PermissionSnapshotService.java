@@ -0,0 +1,172 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.repository.PermissionEpochRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versioned snapshots of users' effective permissions.
+ *
+ * <p>Every user has a permission epoch in {@code permission_epochs} that is bumped whenever a grant,
+ * revoke, global role change or team change may alter their permissions. Evaluated permission sets
+ * are memoized per user and stamped with the epoch they were computed at; a lookup only costs a
+ * primary-key read of the epoch while it is unchanged, and a full RBAC evaluation once it moves.
+ * Because the bump is written in the same transaction as the change, a snapshot evaluated before the
+ * change commits carries the old epoch and is discarded on the next read. Snapshots also expire after
+ * {@code snapshot-ttl-seconds} so grants with a start or end date take effect without a bump.</p>
+ */
+@Slf4j
+@Service
+public class PermissionSnapshotService {
+
+    private static final String GLOBAL_SCOPE = "global";
+
+    private final PermissionEvaluationService permissionEvaluationService;
+    private final PermissionEpochRepository epochRepository;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<UUID, UserSnapshots> snapshots = new ConcurrentHashMap<>();
+
+    @Value("${lineage.permissions.snapshot-ttl-seconds:300}")
+    private long snapshotTtlSeconds;
+
+    @Value("${lineage.permissions.snapshot-max-users:10000}")
+    private int maxUsers;
+
+    @Autowired
+    public PermissionSnapshotService(PermissionEvaluationService permissionEvaluationService,
+                                     PermissionEpochRepository epochRepository,
+                                     MeterRegistry meterRegistry) {
+        this(permissionEvaluationService, epochRepository, meterRegistry, Clock.systemUTC());
+    }
+
+    PermissionSnapshotService(PermissionEvaluationService permissionEvaluationService,
+                              PermissionEpochRepository epochRepository,
+                              MeterRegistry meterRegistry,
+                              Clock clock) {
+        this.permissionEvaluationService = permissionEvaluationService;
+        this.epochRepository = epochRepository;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Current permission epoch of a user, {@code 0} when their permissions never changed
+     */
+    public long currentEpoch(UUID userId) {
+        Long epoch = epochRepository.findEpoch(userId);
+        return epoch != null ? epoch : 0L;
+    }
+
+    /**
+     * @return {@code true} when {@code epoch} is still the user's current permission epoch
+     */
+    public boolean isCurrent(UUID userId, long epoch) {
+        return currentEpoch(userId) == epoch;
+    }
+
+    /**
+     * Global effective permissions of a user at their current epoch
+     */
+    public PermissionSnapshot getSnapshot(UUID userId) {
+        return getSnapshot(userId, null);
+    }
+
+    /**
+     * Effective permissions of a user at their current epoch, optionally scoped to a resource
+     */
+    public PermissionSnapshot getSnapshot(UUID userId, UUID resourceId) {
+        long epoch = currentEpoch(userId);
+        Instant now = clock.instant();
+        UserSnapshots entry = snapshots.get(userId);
+        if (entry == null || entry.epoch() != epoch || entry.isExpired(now, snapshotTtl())) {
+            if (entry == null) {
+                evictIfFull(now);
+            }
+            entry = new UserSnapshots(epoch, now, new ConcurrentHashMap<>());
+            snapshots.put(userId, entry);
+        }
+
+        String scope = resourceId != null ? resourceId.toString() : GLOBAL_SCOPE;
+        Set<String> permissions = entry.scopes().get(scope);
+        if (permissions != null) {
+            recordLookup("hit");
+        } else {
+            recordLookup("miss");
+            permissions = entry.scopes().computeIfAbsent(scope, key ->
+                    Set.copyOf(permissionEvaluationService.getEffectivePermissions(userId, resourceId)));
+        }
+        return new PermissionSnapshot(epoch, permissions);
+    }
+
+    /**
+     * Invalidates a user's permission snapshots and stamps their permissions with a new epoch.
+     * Called from the transaction that changes the user's grants, role or team memberships.
+     *
+     * @return the new epoch as seen by the calling transaction
+     */
+    @Transactional
+    public long bumpEpoch(UUID userId) {
+        epochRepository.increment(userId);
+        snapshots.remove(userId);
+        permissionEvaluationService.clearUserCache(userId);
+        long epoch = currentEpoch(userId);
+        log.debug("Permission epoch of user {} is now {}", userId, epoch);
+        return epoch;
+    }
+
+    /**
+     * Bumps the epoch of every given user, for changes affecting a whole team
+     */
+    @Transactional
+    public void bumpEpochs(Collection<UUID> userIds) {
+        new LinkedHashSet<>(userIds).forEach(this::bumpEpoch);
+    }
+
+    private Duration snapshotTtl() {
+        return Duration.ofSeconds(snapshotTtlSeconds);
+    }
+
+    private void evictIfFull(Instant now) {
+        if (snapshots.size() < maxUsers) {
+            return;
+        }
+        Duration ttl = snapshotTtl();
+        snapshots.values().removeIf(entry -> entry.isExpired(now, ttl));
+        if (snapshots.size() >= maxUsers) {
+            // Drop the oldest 10% like the evaluation cache does
+            snapshots.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparing(UserSnapshots::loadedAt)))
+                    .limit(Math.max(1, snapshots.size() / 10))
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(snapshots::remove);
+        }
+    }
+
+    private void recordLookup(String outcome) {
+        meterRegistry.counter("lineage.permissions.snapshot", "outcome", outcome).increment();
+    }
+
+    /**
+     * Effective permissions of a user together with the epoch they were evaluated at
+     */
+    public record PermissionSnapshot(long epoch, Set<String> permissions) {}
+
+    private record UserSnapshots(long epoch, Instant loadedAt, Map<String, Set<String>> scopes) {
+
+        boolean isExpired(Instant now, Duration ttl) {
+            return !loadedAt.plus(ttl).isAfter(now);
+        }
+    }
+}
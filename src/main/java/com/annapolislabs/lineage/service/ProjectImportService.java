@@ -4,19 +4,16 @@ import com.annapolislabs.lineage.dto.request.ImportProjectMetadata;
 import com.annapolislabs.lineage.dto.request.ImportProjectRequest;
 import com.annapolislabs.lineage.dto.response.ProjectResponse;
 import com.annapolislabs.lineage.dto.response.RequirementResponse;
-import com.annapolislabs.lineage.entity.ChangeType;
 import com.annapolislabs.lineage.entity.Project;
 import com.annapolislabs.lineage.entity.ProjectMember;
 import com.annapolislabs.lineage.entity.ProjectRole;
 import com.annapolislabs.lineage.entity.Requirement;
-import com.annapolislabs.lineage.entity.RequirementHistory;
 import com.annapolislabs.lineage.entity.RequirementLink;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.exception.DuplicateKeyException;
 import com.annapolislabs.lineage.exception.ResourceNotFoundException;
 import com.annapolislabs.lineage.repository.ProjectMemberRepository;
 import com.annapolislabs.lineage.repository.ProjectRepository;
-import com.annapolislabs.lineage.repository.RequirementHistoryRepository;
 import com.annapolislabs.lineage.repository.RequirementLinkRepository;
 import com.annapolislabs.lineage.repository.RequirementRepository;
 import com.annapolislabs.lineage.service.dto.ImportedRequirement;
@@ -47,20 +44,20 @@ public class ProjectImportService {
     private final ProjectMemberRepository projectMemberRepository;
     private final RequirementRepository requirementRepository;
     private final RequirementLinkRepository requirementLinkRepository;
-    private final RequirementHistoryRepository requirementHistoryRepository;
+    private final RequirementHistoryService requirementHistoryService;
 
     public ProjectImportService(AuthService authService,
                                 ProjectRepository projectRepository,
                                 ProjectMemberRepository projectMemberRepository,
                                 RequirementRepository requirementRepository,
                                 RequirementLinkRepository requirementLinkRepository,
-                                RequirementHistoryRepository requirementHistoryRepository) {
+                                RequirementHistoryService requirementHistoryService) {
         this.authService = authService;
         this.projectRepository = projectRepository;
         this.projectMemberRepository = projectMemberRepository;
         this.requirementRepository = requirementRepository;
         this.requirementLinkRepository = requirementLinkRepository;
-        this.requirementHistoryRepository = requirementHistoryRepository;
+        this.requirementHistoryService = requirementHistoryService;
     }
 
     /**
@@ -206,34 +203,13 @@ public class ProjectImportService {
             requirementLinkRepository.save(link);
         }
 
-        createHistoryEntry(requirement, currentUser);
+        requirementHistoryService.recordCreated(requirement, currentUser);
 
         created.put(reqId, requirement);
         visiting.remove(reqId);
         return requirement;
     }
 
-    /**
-     * Creates a {@link RequirementHistory} entry capturing the initial state of the imported
-     * requirement so later edits have an audit baseline.
-     *
-     * @param requirement newly persisted requirement
-     * @param user        actor recorded as the creator within the history row
-     */
-    private void createHistoryEntry(Requirement requirement, User user) {
-        Map<String, Object> newValue = new HashMap<>();
-        newValue.put("reqId", requirement.getReqId());
-        newValue.put("title", requirement.getTitle());
-        newValue.put("description", requirement.getDescription());
-        newValue.put("status", requirement.getStatus());
-        newValue.put("priority", requirement.getPriority());
-        newValue.put("parentId", requirement.getParent() != null ? requirement.getParent().getId().toString() : null);
-        newValue.put("customFields", requirement.getCustomFields());
-
-        RequirementHistory history = new RequirementHistory(requirement, user, ChangeType.CREATED, null, newValue);
-        requirementHistoryRepository.save(history);
-    }
-
     /**
      * Structured response returned by {@link #importProject(ImportProjectRequest)} containing the
      * persisted project details plus the ordered list of imported requirements so clients can refresh
@@ -32,16 +32,19 @@ public class ProjectService {
     private final ProjectMemberRepository projectMemberRepository;
     private final AuthService authService;
     private final RequirementRepository requirementRepository;
+    private final ProjectVersionService projectVersionService;
 
     @Autowired
     public ProjectService(ProjectRepository projectRepository,
                          ProjectMemberRepository projectMemberRepository,
                          AuthService authService,
-                         RequirementRepository requirementRepository) {
+                         RequirementRepository requirementRepository,
+                         ProjectVersionService projectVersionService) {
         this.projectRepository = projectRepository;
         this.projectMemberRepository = projectMemberRepository;
         this.authService = authService;
         this.requirementRepository = requirementRepository;
+        this.projectVersionService = projectVersionService;
     }
 
     /**
@@ -136,6 +139,7 @@ public class ProjectService {
         // Don't allow changing project key after creation
 
         project = projectRepository.save(project);
+        projectVersionService.bump(projectId);
         return new ProjectResponse(project);
     }
 
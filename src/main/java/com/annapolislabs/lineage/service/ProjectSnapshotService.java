@@ -0,0 +1,455 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.common.ServiceConstants;
+import com.annapolislabs.lineage.dto.request.CreateBaselineRequest;
+import com.annapolislabs.lineage.dto.response.BaselineResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.Link;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.RequirementNode;
+import com.annapolislabs.lineage.entity.*;
+import com.annapolislabs.lineage.exception.AccessDeniedException;
+import com.annapolislabs.lineage.exception.DuplicateKeyException;
+import com.annapolislabs.lineage.exception.ResourceNotFoundException;
+import com.annapolislabs.lineage.repository.*;
+import com.annapolislabs.lineage.repository.RequirementHistoryRepository.LinkRow;
+import com.annapolislabs.lineage.repository.RequirementHistoryRepository.StateRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Point-in-time views of a project rebuilt from requirement history.
+ *
+ * <p>Each requirement's state as of an instant is replayed from its latest checkpoint at or before
+ * that instant (see {@link RequirementHistoryService}). All requirements of the project are replayed
+ * in one pass over a single streamed query grouped by requirement, so only the rebuilt states are
+ * held in memory, not the history rows. Links are rebuilt by replaying link rows in time order;
+ * links older than link history are taken from the current links by creation time. Requirements
+ * whose history does not reach back to the instant fall back to the state stored with their first
+ * later change, or to their current state when they never changed since. Hard-deleted requirements
+ * take their history with them and cannot be rebuilt.</p>
+ *
+ * <p>Named baselines pin an instant. History up to an instant stops changing once in-flight writes
+ * and replica lag have caught up with it, so a baseline's snapshot is memoized per baseline once the
+ * baseline is older than {@code baseline-settle-ms}.</p>
+ */
+@Slf4j
+@Service
+public class ProjectSnapshotService {
+
+    private static final List<String> FINGERPRINT_FIELDS =
+            List.of("reqId", "title", "description", "status", "priority", "parentId", "customFields");
+
+    private final ProjectBaselineRepository baselineRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final RequirementRepository requirementRepository;
+    private final RequirementLinkRepository linkRepository;
+    private final RequirementHistoryRepository historyRepository;
+    private final AuthService authService;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<UUID, CachedSnapshot> baselineSnapshots = new ConcurrentHashMap<>();
+
+    @Value("${lineage.snapshot.baseline-cache-max-entries:32}")
+    private int maxCachedBaselines = 32;
+
+    @Value("${lineage.snapshot.baseline-settle-ms:60000}")
+    private long baselineSettleMs = 60000;
+
+    @Autowired
+    public ProjectSnapshotService(ProjectBaselineRepository baselineRepository,
+                                  ProjectRepository projectRepository,
+                                  ProjectMemberRepository projectMemberRepository,
+                                  RequirementRepository requirementRepository,
+                                  RequirementLinkRepository linkRepository,
+                                  RequirementHistoryRepository historyRepository,
+                                  AuthService authService,
+                                  MeterRegistry meterRegistry) {
+        this(baselineRepository, projectRepository, projectMemberRepository, requirementRepository, linkRepository,
+                historyRepository, authService, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    ProjectSnapshotService(ProjectBaselineRepository baselineRepository,
+                           ProjectRepository projectRepository,
+                           ProjectMemberRepository projectMemberRepository,
+                           RequirementRepository requirementRepository,
+                           RequirementLinkRepository linkRepository,
+                           RequirementHistoryRepository historyRepository,
+                           AuthService authService,
+                           MeterRegistry meterRegistry,
+                           Clock clock) {
+        this.baselineRepository = baselineRepository;
+        this.projectRepository = projectRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.requirementRepository = requirementRepository;
+        this.linkRepository = linkRepository;
+        this.historyRepository = historyRepository;
+        this.authService = authService;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Names an instant of the project's life, now unless the request gives an earlier one
+     *
+     * @throws AccessDeniedException     when the caller is not an editor of the project
+     * @throws IllegalArgumentException  when the instant is in the future
+     * @throws DuplicateKeyException     when the project already has a baseline with that name
+     */
+    @Transactional
+    public BaselineResponse createBaseline(UUID projectId, CreateBaselineRequest request) {
+        User currentUser = authService.getCurrentUser();
+        ProjectMember member = projectMemberRepository.findByProjectIdAndUserId(projectId, currentUser.getId())
+                .orElseThrow(AccessDeniedException::new);
+        if (member.getRole() == ProjectRole.VIEWER) {
+            throw new AccessDeniedException("Editor access required");
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime at = request.getAt() != null ? request.getAt() : now;
+        if (at.isAfter(now)) {
+            throw new IllegalArgumentException("Baseline cannot be set in the future");
+        }
+        String name = request.getName().trim();
+        if (baselineRepository.existsByProjectIdAndName(projectId, name)) {
+            throw new DuplicateKeyException("Baseline already exists: " + name);
+        }
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException(ServiceConstants.PROJECT_NOT_FOUND));
+
+        ProjectBaseline baseline = baselineRepository.save(new ProjectBaseline(project, name, at, currentUser));
+        log.info("Baseline '{}' of project {} set at {}", name, projectId, at);
+        return new BaselineResponse(baseline);
+    }
+
+    /**
+     * Baselines of a project, latest instant first
+     */
+    @Transactional(readOnly = true)
+    public List<BaselineResponse> getBaselines(UUID projectId) {
+        checkAccess(projectId);
+        return baselineRepository.findByProjectIdOrderByCapturedAtDesc(projectId).stream()
+                .map(BaselineResponse::new)
+                .toList();
+    }
+
+    /**
+     * The project at the named {@code baseline} when given, otherwise at {@code at}, or now when
+     * neither is given
+     *
+     * @throws IllegalArgumentException when both are given
+     */
+    @Transactional(readOnly = true)
+    public ProjectSnapshotResponse snapshot(UUID projectId, LocalDateTime at, String baseline) {
+        if (baseline == null || baseline.isBlank()) {
+            return snapshotAt(projectId, at);
+        }
+        if (at != null) {
+            throw new IllegalArgumentException("Pass either a timestamp or a baseline, not both");
+        }
+        return baselineSnapshot(projectId, baseline);
+    }
+
+    /**
+     * The project as it was at {@code at}, or as it is now when {@code at} is {@code null}
+     */
+    @Transactional(readOnly = true)
+    public ProjectSnapshotResponse snapshotAt(UUID projectId, LocalDateTime at) {
+        checkAccess(projectId);
+        return rebuild(projectId, at != null ? at : LocalDateTime.now(clock), null);
+    }
+
+    /**
+     * The project as it was at the named baseline, memoized once the baseline has settled
+     *
+     * @throws ResourceNotFoundException when the project has no baseline with that name
+     */
+    @Transactional(readOnly = true)
+    public ProjectSnapshotResponse baselineSnapshot(UUID projectId, String name) {
+        checkAccess(projectId);
+        ProjectBaseline baseline = baselineRepository.findByProjectIdAndName(projectId, name)
+                .orElseThrow(() -> new ResourceNotFoundException("Baseline not found: " + name));
+
+        CachedSnapshot cached = baselineSnapshots.get(baseline.getId());
+        if (cached != null) {
+            recordCache("hit");
+            return cached.snapshot();
+        }
+        recordCache("miss");
+        ProjectSnapshotResponse snapshot = rebuild(projectId, baseline.getCapturedAt(), baseline.getName());
+        LocalDateTime settled = LocalDateTime.now(clock).minus(Duration.ofMillis(baselineSettleMs));
+        if (baseline.getCapturedAt().isBefore(settled)) {
+            evictIfFull();
+            baselineSnapshots.put(baseline.getId(), new CachedSnapshot(snapshot, clock.instant()));
+        }
+        return snapshot;
+    }
+
+    ProjectSnapshotResponse rebuild(UUID projectId, LocalDateTime at, String baselineName) {
+        List<Requirement> requirements = requirementRepository.findByProjectId(projectId);
+        Map<UUID, Map<String, Object>> states = new HashMap<>();
+        // Requirements with history at or before the instant, whether alive at it or not
+        Set<UUID> replayed = new HashSet<>();
+
+        try (Stream<StateRow> rows = historyRepository.streamStatesAt(projectId, at)) {
+            UUID current = null;
+            Map<String, Object> state = null;
+            boolean deleted = false;
+            for (Iterator<StateRow> it = rows.iterator(); it.hasNext(); ) {
+                StateRow row = it.next();
+                if (!row.getRequirementId().equals(current)) {
+                    keep(states, current, state, deleted);
+                    current = row.getRequirementId();
+                    replayed.add(current);
+                    state = null;
+                }
+                state = RequirementHistoryService.advance(state, row.isCheckpoint(), row.getNewValue(), row.getPatch());
+                deleted = row.getChangeType() == ChangeType.DELETED;
+            }
+            keep(states, current, state, deleted);
+        }
+        addUnreplayed(requirements, replayed, at, states);
+
+        List<Link> links = links(projectId, at, requirements, states);
+        return new ProjectSnapshotResponse(projectId, at, baselineName, states.size(), tree(states), links);
+    }
+
+    private static void keep(Map<UUID, Map<String, Object>> states, UUID requirementId, Map<String, Object> state,
+                             boolean deleted) {
+        if (requirementId != null && state != null && !deleted) {
+            states.put(requirementId, state);
+        }
+    }
+
+    /**
+     * Adds requirements that existed at {@code at} but have no history up to it
+     */
+    private void addUnreplayed(List<Requirement> requirements, Set<UUID> replayed, LocalDateTime at,
+                               Map<UUID, Map<String, Object>> states) {
+        Map<UUID, Requirement> candidates = new HashMap<>();
+        for (Requirement requirement : requirements) {
+            boolean existed = requirement.getCreatedAt() != null && !requirement.getCreatedAt().isAfter(at);
+            boolean deleted = requirement.getDeletedAt() != null && !requirement.getDeletedAt().isAfter(at);
+            if (existed && !deleted && !replayed.contains(requirement.getId())) {
+                candidates.put(requirement.getId(), requirement);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, RequirementHistory> firstAfter = new HashMap<>();
+        for (RequirementHistory row : historyRepository.findFirstStatesAfter(candidates.keySet(), at)) {
+            firstAfter.putIfAbsent(row.getRequirement().getId(), row);
+        }
+        candidates.forEach((id, requirement) -> {
+            RequirementHistory next = firstAfter.get(id);
+            if (next == null) {
+                states.put(id, RequirementHistoryService.state(requirement));
+            } else if (next.getOldValue() != null) {
+                states.put(id, next.getOldValue());
+            } else if (next.getChangeType() != ChangeType.CREATED) {
+                log.warn("Cannot rebuild requirement {} at {}: no stored state before revision {}",
+                        id, at, next.getRevision());
+            }
+        });
+    }
+
+    private List<Link> links(UUID projectId, LocalDateTime at, List<Requirement> requirements,
+                             Map<UUID, Map<String, Object>> states) {
+        // Rows written before links were recorded once identify endpoints by requirement id only
+        Map<String, UUID> idsByReqId = new HashMap<>();
+        for (Requirement requirement : requirements) {
+            idsByReqId.put(requirement.getReqId(), requirement.getId());
+        }
+        states.forEach((id, state) -> idsByReqId.put(text(state, "reqId"), id));
+
+        Set<LinkKey> links = new LinkedHashSet<>();
+        Set<LinkKey> recorded = new HashSet<>();
+        try (Stream<LinkRow> rows = historyRepository.streamLinksAt(projectId, at)) {
+            rows.forEach(row -> {
+                LinkKey key = row.getRelatedRequirementId() != null
+                        ? new LinkKey(row.getRequirementId(), row.getRelatedRequirementId())
+                        : legacyKey(row, idsByReqId);
+                if (key == null) {
+                    return;
+                }
+                recorded.add(key);
+                if (row.getChangeType() == ChangeType.LINK_ADDED) {
+                    links.add(key);
+                } else {
+                    links.remove(key);
+                }
+            });
+        }
+        for (RequirementLink link : linkRepository.findAllLinksForProject(projectId)) {
+            LinkKey key = new LinkKey(link.getFromRequirement().getId(), link.getToRequirement().getId());
+            if (!recorded.contains(key) && link.getCreatedAt() != null && !link.getCreatedAt().isAfter(at)) {
+                links.add(key);
+            }
+        }
+
+        return links.stream()
+                .filter(key -> states.containsKey(key.from()) && states.containsKey(key.to()))
+                .map(key -> new Link(key.from(), text(states.get(key.from()), "reqId"),
+                        key.to(), text(states.get(key.to()), "reqId")))
+                .sorted(Comparator.comparing(Link::fromReqId, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Link::toReqId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static LinkKey legacyKey(LinkRow row, Map<String, UUID> idsByReqId) {
+        Map<String, Object> linkData = row.getNewValue();
+        if (linkData == null) {
+            return null;
+        }
+        UUID from = idsByReqId.get(text(linkData, "fromReqId"));
+        UUID to = idsByReqId.get(text(linkData, "toReqId"));
+        return from != null && to != null ? new LinkKey(from, to) : null;
+    }
+
+    /**
+     * Arranges states by their parent ids; requirements whose parent is not part of the snapshot are
+     * top-level
+     */
+    private static List<RequirementNode> tree(Map<UUID, Map<String, Object>> states) {
+        Map<UUID, List<UUID>> children = new HashMap<>();
+        List<UUID> roots = new ArrayList<>();
+        for (Map.Entry<UUID, Map<String, Object>> entry : states.entrySet()) {
+            String parentId = text(entry.getValue(), "parentId");
+            UUID parent = parentId != null ? UUID.fromString(parentId) : null;
+            if (parent != null && states.containsKey(parent)) {
+                children.computeIfAbsent(parent, key -> new ArrayList<>()).add(entry.getKey());
+            } else {
+                roots.add(entry.getKey());
+            }
+        }
+
+        Set<UUID> visited = new HashSet<>();
+        List<RequirementNode> nodes = nodes(roots, states, children, visited);
+        if (visited.size() < states.size()) {
+            // Parent cycles have no way in from the top; surface them rather than drop them
+            List<UUID> unreached = states.keySet().stream().filter(id -> !visited.contains(id)).toList();
+            nodes = new ArrayList<>(nodes);
+            nodes.addAll(nodes(unreached, states, children, visited));
+        }
+        return nodes;
+    }
+
+    private static List<RequirementNode> nodes(List<UUID> ids, Map<UUID, Map<String, Object>> states,
+                                               Map<UUID, List<UUID>> children, Set<UUID> visited) {
+        List<RequirementNode> nodes = new ArrayList<>();
+        for (UUID id : ids) {
+            if (!visited.add(id)) {
+                continue;
+            }
+            Map<String, Object> state = states.get(id);
+            String parentId = text(state, "parentId");
+            nodes.add(new RequirementNode(id, parentId != null ? UUID.fromString(parentId) : null, fingerprint(state),
+                    text(state, "reqId"), text(state, "title"), text(state, "description"),
+                    text(state, "status"), text(state, "priority"), customFields(state),
+                    nodes(children.getOrDefault(id, List.of()), states, children, visited)));
+        }
+        nodes.sort(Comparator.comparing(RequirementNode::reqId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return nodes;
+    }
+
+    /**
+     * SHA-256 of the fields a snapshot shows for a requirement, in a canonical form that does not
+     * depend on map order, truncated to 128 bits
+     */
+    static String fingerprint(Map<String, Object> state) {
+        StringBuilder canonical = new StringBuilder();
+        for (String field : FINGERPRINT_FIELDS) {
+            canonical.append(field).append('=');
+            appendCanonical(canonical, field.equals("customFields") ? customFields(state) : text(state, field));
+            canonical.append(';');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void appendCanonical(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append('~');
+        } else if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, item) -> sorted.put(String.valueOf(key), item));
+            out.append('{');
+            sorted.forEach((key, item) -> {
+                appendCanonical(out, key);
+                out.append(':');
+                appendCanonical(out, item);
+                out.append(',');
+            });
+            out.append('}');
+        } else if (value instanceof Collection<?> items) {
+            out.append('[');
+            items.forEach(item -> {
+                appendCanonical(out, item);
+                out.append(',');
+            });
+            out.append(']');
+        } else {
+            // Length prefix keeps delimiters inside values from running into the next field
+            String text = value.toString();
+            out.append(text.length()).append(':').append(text);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> customFields(Map<String, Object> state) {
+        return state.get("customFields") instanceof Map<?, ?> fields ? (Map<String, Object>) fields : Map.of();
+    }
+
+    private static String text(Map<String, Object> state, String key) {
+        Object value = state.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private void checkAccess(UUID projectId) {
+        User currentUser = authService.getCurrentUser();
+        if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, currentUser.getId())) {
+            throw new AccessDeniedException(ServiceConstants.ACCESS_DENIED);
+        }
+    }
+
+    private void evictIfFull() {
+        if (baselineSnapshots.size() < maxCachedBaselines) {
+            return;
+        }
+        baselineSnapshots.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.comparing(CachedSnapshot::cachedAt)))
+                .limit(Math.max(1, baselineSnapshots.size() / 10))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(baselineSnapshots::remove);
+    }
+
+    private void recordCache(String outcome) {
+        meterRegistry.counter("lineage.snapshot.baseline.cache", "outcome", outcome).increment();
+    }
+
+    private record LinkKey(UUID from, UUID to) {}
+
+    private record CachedSnapshot(ProjectSnapshotResponse snapshot, Instant cachedAt) {}
+}
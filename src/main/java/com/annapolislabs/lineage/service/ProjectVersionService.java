@@ -0,0 +1,273 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.common.ServiceConstants;
+import com.annapolislabs.lineage.entity.ProjectChange;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.exception.AccessDeniedException;
+import com.annapolislabs.lineage.exception.ResourceNotFoundException;
+import com.annapolislabs.lineage.realtime.ProjectChangePublisher;
+import com.annapolislabs.lineage.repository.ProjectChangeRepository;
+import com.annapolislabs.lineage.repository.ProjectMemberRepository;
+import com.annapolislabs.lineage.repository.ProjectVersionRepository;
+import com.annapolislabs.lineage.repository.RequirementRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-project content versions used for conditional GETs.
+ *
+ * <p>Every project has a version in {@code project_versions} that is bumped by each requirement,
+ * link and project write, in the same transaction as the write. Read endpoints stamp their responses
+ * with a strong ETag built from the project id, the version and the representation, and answer a
+ * matching {@code If-None-Match} with {@code 304 Not Modified} after checking membership, without
+ * reading the requirement tables. The version is read before the body is built, in a read-only
+ * transaction routed like the read that follows, so a body is never older than the ETag it is sent
+ * with.</p>
+ *
+ * <p>Requirement and link writes also append to the project's change log in
+ * {@code project_changes}, one row per bump. Versions are assigned under the row lock of the
+ * project's {@code project_versions} row, so once version N is visible every change up to N is too,
+ * which makes the version a gap-free resume cursor for delta sync. Each recorded change is also
+ * published to WebSocket subscribers once the transaction commits.</p>
+ *
+ * <p>Large export bodies are memoized per project and format under the ETag they were built for
+ * and are rebuilt once the version moves.</p>
+ */
+@Slf4j
+@Service
+public class ProjectVersionService {
+
+    private final ProjectVersionRepository versionRepository;
+    private final ProjectChangeRepository changeRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final RequirementRepository requirementRepository;
+    private final AuthService authService;
+    private final ProjectChangePublisher changePublisher;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    // A requirement never moves between projects, so its owner can be remembered indefinitely
+    private final Map<UUID, UUID> requirementProjects = new ConcurrentHashMap<>();
+    private final Map<String, CachedExport> exports = new ConcurrentHashMap<>();
+
+    @Value("${lineage.etag.requirement-index-max-entries:50000}")
+    private int maxRequirementIndexEntries;
+
+    @Value("${lineage.etag.export-cache-max-entries:64}")
+    private int maxExportEntries;
+
+    @Value("${lineage.etag.export-cache-min-chars:16384}")
+    private int exportCacheMinChars;
+
+    @Autowired
+    public ProjectVersionService(ProjectVersionRepository versionRepository,
+                                 ProjectChangeRepository changeRepository,
+                                 ProjectMemberRepository projectMemberRepository,
+                                 RequirementRepository requirementRepository,
+                                 AuthService authService,
+                                 ProjectChangePublisher changePublisher,
+                                 MeterRegistry meterRegistry) {
+        this(versionRepository, changeRepository, projectMemberRepository, requirementRepository, authService,
+                changePublisher, meterRegistry, Clock.systemUTC());
+    }
+
+    ProjectVersionService(ProjectVersionRepository versionRepository,
+                          ProjectChangeRepository changeRepository,
+                          ProjectMemberRepository projectMemberRepository,
+                          RequirementRepository requirementRepository,
+                          AuthService authService,
+                          ProjectChangePublisher changePublisher,
+                          MeterRegistry meterRegistry,
+                          Clock clock) {
+        this.versionRepository = versionRepository;
+        this.changeRepository = changeRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.requirementRepository = requirementRepository;
+        this.authService = authService;
+        this.changePublisher = changePublisher;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Current content version of a project, {@code 0} when it was never written to
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion(UUID projectId) {
+        Long version = versionRepository.findVersion(projectId);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Stamps a project with a new version. Called from the transaction that changes its requirements,
+     * links or metadata, so the bump is rolled back with the change.
+     *
+     * @return the new version as seen by the calling transaction
+     */
+    @Transactional
+    public long bump(UUID projectId) {
+        versionRepository.increment(projectId);
+        long version = currentVersion(projectId);
+        log.debug("Content version of project {} is now {}", projectId, version);
+        return version;
+    }
+
+    /**
+     * Bumps the project's version, appends the write to its change log and publishes it to
+     * subscribers after commit
+     *
+     * @return the version the change is recorded at
+     */
+    @Transactional
+    public long recordChange(UUID projectId, ProjectChange.EntityType entityType, UUID entityId,
+                             ProjectChange.Operation operation) {
+        long version = bump(projectId);
+        changeRepository.save(new ProjectChange(projectId, version, entityType, entityId, operation,
+                LocalDateTime.now(clock)));
+        changePublisher.publish(projectId, entityType.name(), entityId, operation.name(), version);
+        return version;
+    }
+
+    /**
+     * Up to {@code limit} changes of a project recorded after version {@code since}, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectChangeRepository.Entry> changesSince(UUID projectId, long since, int limit) {
+        return changeRepository.findByProjectIdAndVersionGreaterThanOrderByVersionAsc(projectId, since,
+                PageRequest.of(0, limit));
+    }
+
+    /**
+     * Strong ETag of one representation of a project's content at its current version
+     *
+     * @param variant distinguishes representations of the same project, e.g. {@code requirements} or {@code csv}
+     */
+    @Transactional(readOnly = true)
+    public String etag(UUID projectId, String variant) {
+        return "\"" + projectId + "-v" + currentVersion(projectId) + "-" + variant + "\"";
+    }
+
+    /**
+     * ETag of a project representation for the current user
+     *
+     * @throws AccessDeniedException when the current user is not a member of the project
+     */
+    @Transactional(readOnly = true)
+    public String memberEtag(UUID projectId, String variant) {
+        User currentUser = authService.getCurrentUser();
+        if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, currentUser.getId())) {
+            throw new AccessDeniedException(ServiceConstants.ACCESS_DENIED);
+        }
+        return etag(projectId, variant);
+    }
+
+    /**
+     * ETag of a requirement representation for the current user, versioned by the owning project.
+     * The owner is looked up once per requirement and remembered.
+     *
+     * @throws ResourceNotFoundException when the requirement does not exist
+     * @throws AccessDeniedException     when the current user is not a member of the owning project
+     */
+    @Transactional(readOnly = true)
+    public String requirementEtag(UUID requirementId, String variant) {
+        UUID projectId = requirementProjects.get(requirementId);
+        if (projectId == null) {
+            projectId = requirementRepository.findProjectIdById(requirementId);
+            if (projectId == null) {
+                throw new ResourceNotFoundException(ServiceConstants.REQUIREMENT_NOT_FOUND);
+            }
+            if (requirementProjects.size() >= maxRequirementIndexEntries) {
+                requirementProjects.clear();
+            }
+            requirementProjects.put(requirementId, projectId);
+        }
+        return memberEtag(projectId, variant + "-" + requirementId);
+    }
+
+    /**
+     * @return {@code true} when the {@code If-None-Match} header matches {@code etag} and the
+     * request can be answered with {@code 304 Not Modified}
+     */
+    public boolean isNotModified(String ifNoneMatch, String etag) {
+        boolean notModified = matches(ifNoneMatch, etag);
+        meterRegistry.counter("lineage.http.conditional", "outcome", notModified ? "not_modified" : "modified")
+                .increment();
+        return notModified;
+    }
+
+    /**
+     * Returns the export body built for {@code etag}, building and memoizing it on a miss. Bodies
+     * shorter than {@code export-cache-min-chars} are cheap to rebuild and are not kept.
+     */
+    public String cachedExport(UUID projectId, String format, String etag, Supplier<String> builder) {
+        String key = projectId + ":" + format;
+        CachedExport cached = exports.get(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            recordExport("hit");
+            return cached.body();
+        }
+        recordExport("miss");
+        String body = builder.get();
+        if (body.length() < exportCacheMinChars) {
+            exports.remove(key);
+            return body;
+        }
+        if (cached == null) {
+            evictIfFull();
+        }
+        exports.put(key, new CachedExport(etag, body, clock.instant()));
+        return body;
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            // Weak comparison: compressed responses get their ETag weakened by the container
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictIfFull() {
+        if (exports.size() < maxExportEntries) {
+            return;
+        }
+        exports.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.comparing(CachedExport::cachedAt)))
+                .limit(Math.max(1, exports.size() / 10))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(exports::remove);
+    }
+
+    private void recordExport(String outcome) {
+        meterRegistry.counter("lineage.export.cache", "outcome", outcome).increment();
+    }
+
+    private record CachedExport(String etag, String body, Instant cachedAt) {}
+}
@@ -0,0 +1,235 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.common.JsonPatch;
+import com.annapolislabs.lineage.entity.ChangeType;
+import com.annapolislabs.lineage.entity.Requirement;
+import com.annapolislabs.lineage.entity.RequirementHistory;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.repository.RequirementHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes and reads the change history of requirements.
+ *
+ * <p>History used to keep two full snapshots per edit. Rows that change a requirement's state now
+ * carry a per-requirement {@code revision}: the first revision and every
+ * {@code checkpoint-interval}-th one store the full state in {@code new_value}, and the rows in
+ * between store only the JSON Patch from the previous state. Reads rebuild the states a page needs
+ * by replaying patches forward from the nearest checkpoint and return entries in the original
+ * shape, with full {@code oldValue} and {@code newValue} maps. A link change is a single row on its
+ * source requirement that also appears in the target's history.</p>
+ *
+ * <p>Rows written before the compact format keep their snapshots and are returned as stored.</p>
+ */
+@Slf4j
+@Service
+public class RequirementHistoryService {
+
+    private final RequirementHistoryRepository historyRepository;
+
+    @Value("${lineage.history.checkpoint-interval:16}")
+    private int checkpointInterval = 16;
+
+    public RequirementHistoryService(RequirementHistoryRepository historyRepository) {
+        this.historyRepository = historyRepository;
+    }
+
+    /**
+     * State of a requirement as recorded in history
+     */
+    public static Map<String, Object> state(Requirement requirement) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("reqId", requirement.getReqId());
+        map.put("title", requirement.getTitle());
+        map.put("description", requirement.getDescription());
+        map.put("status", requirement.getStatus());
+        map.put("priority", requirement.getPriority());
+        map.put("parentId", requirement.getParent() != null ? requirement.getParent().getId().toString() : null);
+        map.put("customFields", requirement.getCustomFields());
+        return map;
+    }
+
+    /**
+     * Records the initial state of a newly saved requirement as its first checkpoint
+     */
+    @Transactional
+    public void recordCreated(Requirement requirement, User user) {
+        RequirementHistory history = new RequirementHistory(requirement, user, ChangeType.CREATED, null,
+                state(requirement));
+        history.setRevision(1);
+        history.setCheckpoint(true);
+        historyRepository.save(history);
+    }
+
+    /**
+     * Records an edit as the patch from {@code before} to the requirement's current state, or as a
+     * checkpoint when the revision is due for one. The caller loads the requirement with
+     * {@link com.annapolislabs.lineage.repository.RequirementRepository#findByIdForUpdate} so that
+     * {@code before} is the state the previous revision recorded and no other edit takes the next
+     * revision number.
+     */
+    @Transactional
+    public void recordUpdated(Requirement requirement, User user, Map<String, Object> before) {
+        Map<String, Object> after = state(requirement);
+        historyRepository.save(stateEntry(requirement, user, ChangeType.UPDATED, before, after,
+                nextRevision(requirement.getId())));
+    }
+
+    /**
+     * Records a soft delete. The state does not change, so only the deletion details are stored.
+     * Like {@link #recordUpdated}, it expects the requirement row to be locked.
+     */
+    @Transactional
+    public void recordDeleted(Requirement requirement, User user, Map<String, Object> before,
+                              Map<String, Object> deletion) {
+        int revision = nextRevision(requirement.getId());
+        RequirementHistory history = new RequirementHistory(requirement, user, ChangeType.DELETED,
+                revision == 1 ? before : null, deletion);
+        history.setRevision(revision);
+        historyRepository.save(history);
+    }
+
+    /**
+     * Records a link change once, on the source requirement, with the target as related requirement
+     */
+    @Transactional
+    public void recordLink(Requirement fromReq, Requirement toReq, User user, ChangeType changeType) {
+        Map<String, Object> linkData = new HashMap<>();
+        linkData.put("fromReqId", fromReq.getReqId());
+        linkData.put("fromTitle", fromReq.getTitle());
+        linkData.put("toReqId", toReq.getReqId());
+        linkData.put("toTitle", toReq.getTitle());
+
+        RequirementHistory history = new RequirementHistory(fromReq, user, changeType, null, linkData);
+        history.setRelatedRequirementId(toReq.getId());
+        historyRepository.save(history);
+    }
+
+    /**
+     * History entries of a requirement, newest first, with full old and new values
+     *
+     * @param pageable page to read, or {@link Pageable#unpaged()} for the whole history
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getHistory(UUID requirementId, Pageable pageable) {
+        List<RequirementHistory> rows = historyRepository.findHistory(requirementId, pageable);
+
+        // Revisions whose state the page shows without having it stored
+        int from = Integer.MAX_VALUE;
+        int to = 0;
+        for (RequirementHistory row : rows) {
+            if (row.getRevision() == null) {
+                continue;
+            }
+            if (row.getOldValue() == null && row.getChangeType() != ChangeType.CREATED) {
+                from = Math.min(from, row.getRevision() - 1);
+                to = Math.max(to, row.getRevision() - 1);
+            }
+            if (row.getNewValue() == null) {
+                from = Math.min(from, row.getRevision());
+                to = Math.max(to, row.getRevision());
+            }
+        }
+        Map<Integer, Map<String, Object>> states = to > 0 ? replay(requirementId, Math.max(from, 1), to) : Map.of();
+
+        return rows.stream()
+                .map(row -> toMap(row, states))
+                .toList();
+    }
+
+    /**
+     * States after each revision from {@code from} to {@code to}, replayed from the nearest
+     * checkpoint at or before {@code from}
+     */
+    Map<Integer, Map<String, Object>> replay(UUID requirementId, int from, int to) {
+        Integer checkpoint = historyRepository.findCheckpointRevision(requirementId, from);
+        if (checkpoint == null) {
+            log.warn("No history checkpoint at or before revision {} of requirement {}", from, requirementId);
+            checkpoint = 1;
+        }
+        Map<Integer, Map<String, Object>> states = new HashMap<>();
+        Map<String, Object> state = null;
+        for (RequirementHistory row : historyRepository.findRevisions(requirementId, checkpoint, to)) {
+            state = advance(state, row);
+            if (row.getRevision() >= from) {
+                states.put(row.getRevision(), state);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * State after {@code row}, given the state before it
+     */
+    static Map<String, Object> advance(Map<String, Object> state, RequirementHistory row) {
+        return advance(state, row.isCheckpoint(), row.getNewValue(), row.getPatch());
+    }
+
+    /**
+     * State after a row with the given checkpoint flag, new value and patch, given the state before it
+     */
+    static Map<String, Object> advance(Map<String, Object> state, boolean checkpoint, Map<String, Object> newValue,
+                                       List<Map<String, Object>> patch) {
+        if (checkpoint) {
+            return newValue;
+        }
+        if (patch != null) {
+            return JsonPatch.apply(state, patch);
+        }
+        return state;
+    }
+
+    RequirementHistory stateEntry(Requirement requirement, User user, ChangeType changeType,
+                                  Map<String, Object> before, Map<String, Object> after, int revision) {
+        RequirementHistory history = new RequirementHistory(requirement, user, changeType, null, null);
+        history.setRevision(revision);
+        if (revision == 1) {
+            // Nothing to replay from: keep both states, as history rows did before
+            history.setOldValue(before);
+            history.setNewValue(after);
+            history.setCheckpoint(true);
+        } else if (revision % checkpointInterval == 0) {
+            history.setNewValue(after);
+            history.setCheckpoint(true);
+        } else {
+            history.setPatch(JsonPatch.diff(before, after));
+        }
+        return history;
+    }
+
+    private int nextRevision(UUID requirementId) {
+        Integer latest = historyRepository.findMaxRevision(requirementId);
+        return latest != null ? latest + 1 : 1;
+    }
+
+    private static Map<String, Object> toMap(RequirementHistory history, Map<Integer, Map<String, Object>> states) {
+        Map<String, Object> oldValue = history.getOldValue();
+        Map<String, Object> newValue = history.getNewValue();
+        if (history.getRevision() != null) {
+            if (oldValue == null && history.getChangeType() != ChangeType.CREATED) {
+                oldValue = states.get(history.getRevision() - 1);
+            }
+            if (newValue == null) {
+                newValue = states.get(history.getRevision());
+            }
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", history.getId());
+        map.put("changeType", history.getChangeType());
+        map.put("changedBy", history.getChangedBy() != null ? history.getChangedBy().getEmail() : null);
+        map.put("changedAt", history.getChangedAt());
+        map.put("oldValue", oldValue);
+        map.put("newValue", newValue);
+        return map;
+    }
+}
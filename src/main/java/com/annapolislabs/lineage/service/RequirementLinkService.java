@@ -25,8 +25,9 @@ public class RequirementLinkService {
     private final RequirementLinkRepository linkRepository;
     private final RequirementRepository requirementRepository;
     private final ProjectMemberRepository projectMemberRepository;
-    private final RequirementHistoryRepository historyRepository;
+    private final RequirementHistoryService historyService;
     private final AuthService authService;
+    private final ProjectVersionService projectVersionService;
 
     /**
      * Creates the service with all required collaborators for enforcing link rules,
@@ -35,27 +36,30 @@ public class RequirementLinkService {
      * @param linkRepository repository used to persist and query requirement links
      * @param requirementRepository repository used to resolve requirement metadata
      * @param projectMemberRepository repository used to validate caller membership/role
-     * @param historyRepository repository used to store link change history
+     * @param historyService service recording link changes in requirement history
      * @param authService service providing the authenticated {@link User}
+     * @param projectVersionService service versioning project content for conditional reads
      */
     @Autowired
     public RequirementLinkService(RequirementLinkRepository linkRepository,
                                  RequirementRepository requirementRepository,
                                  ProjectMemberRepository projectMemberRepository,
-                                 RequirementHistoryRepository historyRepository,
-                                 AuthService authService) {
+                                 RequirementHistoryService historyService,
+                                 AuthService authService,
+                                 ProjectVersionService projectVersionService) {
         this.linkRepository = linkRepository;
         this.requirementRepository = requirementRepository;
         this.projectMemberRepository = projectMemberRepository;
-        this.historyRepository = historyRepository;
+        this.historyService = historyService;
         this.authService = authService;
+        this.projectVersionService = projectVersionService;
     }
 
     /**
      * Creates a directional relationship between two requirements while verifying
      * membership, role privileges, level compatibility, and duplicate prevention.
      * The operation runs in a transactional context to persist both the link and
-     * symmetric history entries atomically.
+     * its history entry atomically.
      *
      * @param fromRequirementId identifier of the requirement that will be treated as the source
      * @param request payload describing the destination requirement and optional metadata
@@ -108,8 +112,9 @@ public class RequirementLinkService {
         // A requirement can have multiple parents through links.
         // The parentId field is just used for the initial/primary parent.
 
-        // Create history entries for both requirements
-        createLinkHistoryEntry(fromReq, toReq, currentUser, ChangeType.LINK_ADDED);
+        // One history entry, shown in both requirements' histories
+        historyService.recordLink(fromReq, toReq, currentUser, ChangeType.LINK_ADDED);
+        recordLinkChange(link, ProjectChange.Operation.UPSERT);
 
         return linkToMap(link);
     }
@@ -172,8 +177,8 @@ public class RequirementLinkService {
 
     /**
      * Removes a previously created requirement link after verifying that the
-     * caller has editor privileges within the same project and that dual
-     * history entries are captured before deletion. The removal does not modify
+     * caller has editor privileges within the same project and that the
+     * history entry is captured before deletion. The removal does not modify
      * either requirement beyond the audit history entry.
      *
      * @param linkId identifier of the persisted {@link RequirementLink} to remove
@@ -195,12 +200,13 @@ public class RequirementLinkService {
             throw new InvalidLinkException("Editor access required");
         }
 
-        // Create history entries before deleting
-        createLinkHistoryEntry(link.getFromRequirement(), link.getToRequirement(), currentUser, ChangeType.LINK_REMOVED);
+        // Create the history entry before deleting
+        historyService.recordLink(link.getFromRequirement(), link.getToRequirement(), currentUser, ChangeType.LINK_REMOVED);
 
         // Delete the link only - don't delete the child requirement
         // The child requirement can have multiple parents through other links
         linkRepository.delete(link);
+        recordLinkChange(link, ProjectChange.Operation.DELETE);
     }
 
     /**
@@ -221,27 +227,25 @@ public class RequirementLinkService {
     }
 
     /**
-     * Creates symmetric history entries for both participating requirements so that
-     * downstream audits can see which requirement initiated or received a link
-     * addition/removal along with display metadata for UI presentation.
+     * Appends a link write to the change log of each project involved, together with both endpoint
+     * requirements since their link counts and histories changed.
      *
-     * @param fromReq requirement treated as the link source
-     * @param toReq requirement treated as the destination
-     * @param user authenticated user who performed the change, stored for audit trails
-     * @param changeType differentiates whether the entry records a link addition or removal
+     * @param link link that was created or is being removed
+     * @param operation whether the link now exists or not
      */
-    private void createLinkHistoryEntry(Requirement fromReq, Requirement toReq, User user, ChangeType changeType) {
-        Map<String, Object> linkData = new HashMap<>();
-        linkData.put("fromReqId", fromReq.getReqId());
-        linkData.put("fromTitle", fromReq.getTitle());
-        linkData.put("toReqId", toReq.getReqId());
-        linkData.put("toTitle", toReq.getTitle());
-
-        // Create history entries for both requirements
-        RequirementHistory fromHistory = new RequirementHistory(fromReq, user, changeType, null, linkData);
-        RequirementHistory toHistory = new RequirementHistory(toReq, user, changeType, null, linkData);
-
-        historyRepository.save(fromHistory);
-        historyRepository.save(toHistory);
+    private void recordLinkChange(RequirementLink link, ProjectChange.Operation operation) {
+        Requirement fromReq = link.getFromRequirement();
+        Requirement toReq = link.getToRequirement();
+        UUID fromProjectId = fromReq.getProject().getId();
+        UUID toProjectId = toReq.getProject().getId();
+
+        projectVersionService.recordChange(fromProjectId, ProjectChange.EntityType.LINK, link.getId(), operation);
+        if (!toProjectId.equals(fromProjectId)) {
+            projectVersionService.recordChange(toProjectId, ProjectChange.EntityType.LINK, link.getId(), operation);
+        }
+        projectVersionService.recordChange(fromProjectId, ProjectChange.EntityType.REQUIREMENT, fromReq.getId(),
+                ProjectChange.Operation.UPSERT);
+        projectVersionService.recordChange(toProjectId, ProjectChange.EntityType.REQUIREMENT, toReq.getId(),
+                ProjectChange.Operation.UPSERT);
     }
 }
@@ -2,12 +2,15 @@ package com.annapolislabs.lineage.service;
 
 import com.annapolislabs.lineage.common.ServiceConstants;
 import com.annapolislabs.lineage.dto.request.CreateRequirementRequest;
+import com.annapolislabs.lineage.dto.response.RequirementChangesResponse;
 import com.annapolislabs.lineage.dto.response.RequirementResponse;
 import com.annapolislabs.lineage.entity.*;
 import com.annapolislabs.lineage.exception.AccessDeniedException;
 import com.annapolislabs.lineage.exception.ResourceNotFoundException;
 import com.annapolislabs.lineage.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,26 +22,32 @@ import java.util.*;
 @Service
 public class RequirementService {
 
+    static final int MAX_CHANGES_PAGE = 1000;
+    static final int MAX_HISTORY_PAGE = 200;
+
     private final RequirementRepository requirementRepository;
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository projectMemberRepository;
-    private final RequirementHistoryRepository historyRepository;
+    private final RequirementHistoryService historyService;
     private final RequirementLinkRepository linkRepository;
     private final AuthService authService;
+    private final ProjectVersionService projectVersionService;
 
     @Autowired
     public RequirementService(RequirementRepository requirementRepository,
                              ProjectRepository projectRepository,
                              ProjectMemberRepository projectMemberRepository,
-                             RequirementHistoryRepository historyRepository,
+                             RequirementHistoryService historyService,
                              RequirementLinkRepository linkRepository,
-                             AuthService authService) {
+                             AuthService authService,
+                             ProjectVersionService projectVersionService) {
         this.requirementRepository = requirementRepository;
         this.projectRepository = projectRepository;
         this.projectMemberRepository = projectMemberRepository;
-        this.historyRepository = historyRepository;
+        this.historyService = historyService;
         this.linkRepository = linkRepository;
         this.authService = authService;
+        this.projectVersionService = projectVersionService;
     }
 
     /**
@@ -89,15 +98,20 @@ public class RequirementService {
 
         requirement = requirementRepository.save(requirement);
 
+        // Create history entry
+        historyService.recordCreated(requirement, currentUser);
+        recordChange(requirement, ProjectChange.Operation.UPSERT);
+
         // If parent is set, automatically create a link
         if (parent != null) {
             RequirementLink link = new RequirementLink(parent, requirement, currentUser);
             linkRepository.save(link);
+            projectVersionService.recordChange(projectId, ProjectChange.EntityType.LINK, link.getId(),
+                    ProjectChange.Operation.UPSERT);
+            // The parent's link counts changed
+            recordChange(parent, ProjectChange.Operation.UPSERT);
         }
 
-        // Create history entry
-        createHistoryEntry(requirement, currentUser, ChangeType.CREATED, null, toMap(requirement));
-
         return toRequirementResponse(requirement);
     }
 
@@ -160,7 +174,7 @@ public class RequirementService {
      */
     @Transactional
     public RequirementResponse updateRequirement(UUID requirementId, CreateRequirementRequest request) {
-        Requirement requirement = requirementRepository.findById(requirementId)
+        Requirement requirement = requirementRepository.findByIdForUpdate(requirementId)
                 .orElseThrow(() -> new ResourceNotFoundException(ServiceConstants.REQUIREMENT_NOT_FOUND));
 
         User currentUser = authService.getCurrentUser();
@@ -171,7 +185,7 @@ public class RequirementService {
             throw new AccessDeniedException("Editor access required");
         }
 
-        Map<String, Object> oldValue = toMap(requirement);
+        Map<String, Object> oldValue = RequirementHistoryService.state(requirement);
 
         requirement.setTitle(request.getTitle());
         requirement.setDescription(request.getDescription());
@@ -190,7 +204,8 @@ public class RequirementService {
         requirement = requirementRepository.save(requirement);
 
         // Create history entry
-        createHistoryEntry(requirement, currentUser, ChangeType.UPDATED, oldValue, toMap(requirement));
+        historyService.recordUpdated(requirement, currentUser, oldValue);
+        recordChange(requirement, ProjectChange.Operation.UPSERT);
 
         return toRequirementResponse(requirement);
     }
@@ -206,7 +221,7 @@ public class RequirementService {
      */
     @Transactional
     public void deleteRequirement(UUID requirementId) {
-        Requirement requirement = requirementRepository.findById(requirementId)
+        Requirement requirement = requirementRepository.findByIdForUpdate(requirementId)
                 .orElseThrow(() -> new ResourceNotFoundException(ServiceConstants.REQUIREMENT_NOT_FOUND));
 
         if (requirement.isDeleted()) {
@@ -222,7 +237,7 @@ public class RequirementService {
         }
 
         // Soft delete: mark as deleted but preserve the record and ID
-        Map<String, Object> oldValue = toMap(requirement);
+        Map<String, Object> oldValue = RequirementHistoryService.state(requirement);
 
         requirement.setDeletedAt(java.time.LocalDateTime.now());
         requirement.setDeletedBy(currentUser);
@@ -233,7 +248,8 @@ public class RequirementService {
         newValue.put("deletedAt", requirement.getDeletedAt());
         newValue.put("deletedBy", currentUser.getEmail());
 
-        createHistoryEntry(requirement, currentUser, ChangeType.DELETED, oldValue, newValue);
+        historyService.recordDeleted(requirement, currentUser, oldValue, newValue);
+        recordChange(requirement, ProjectChange.Operation.DELETE);
     }
 
     /**
@@ -247,6 +263,29 @@ public class RequirementService {
      */
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getRequirementHistory(UUID requirementId) {
+        checkHistoryAccess(requirementId);
+        return historyService.getHistory(requirementId, Pageable.unpaged());
+    }
+
+    /**
+     * Returns one page of a requirement's history, newest first. Only the states shown on the page
+     * are rebuilt from the compact history.
+     *
+     * @param requirementId identifier of the requirement whose history is requested
+     * @param page          zero-based page number
+     * @param size          entries per page, capped at {@value #MAX_HISTORY_PAGE}
+     * @return history entries of the page in descending chronological order
+     * @throws ResourceNotFoundException when the requirement cannot be located
+     * @throws AccessDeniedException     when the caller is not part of the project
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRequirementHistory(UUID requirementId, int page, int size) {
+        checkHistoryAccess(requirementId);
+        return historyService.getHistory(requirementId,
+                PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_HISTORY_PAGE)));
+    }
+
+    private void checkHistoryAccess(UUID requirementId) {
         Requirement requirement = requirementRepository.findById(requirementId)
                 .orElseThrow(() -> new ResourceNotFoundException(ServiceConstants.REQUIREMENT_NOT_FOUND));
 
@@ -254,11 +293,86 @@ public class RequirementService {
         if (!projectMemberRepository.existsByProjectIdAndUserId(requirement.getProject().getId(), currentUser.getId())) {
             throw new AccessDeniedException("Access denied");
         }
+    }
 
-        return historyRepository.findByRequirementIdOrderByChangedAtDesc(requirementId)
-                .stream()
-                .map(this::historyToMap)
-                .toList();
+    /**
+     * Returns what changed in a project after the sync cursor {@code since}, for clients keeping a
+     * local copy current. Changes are read from the project's change log and resolved to the current
+     * state of each requirement and link touched, so a page is proportional to the change volume.
+     * A cursor of {@code 0}, or one ahead of the project (e.g. after a restore), yields a full
+     * snapshot instead.
+     *
+     * @param projectId project to synchronize
+     * @param since     cursor returned by the previous call, or {@code 0} for a full snapshot
+     * @param limit     maximum number of change log entries to consume, capped at {@value #MAX_CHANGES_PAGE}
+     * @return changed requirements and links plus the cursor to resume from
+     * @throws AccessDeniedException when the caller is not a project member
+     */
+    @Transactional(readOnly = true)
+    public RequirementChangesResponse getChanges(UUID projectId, long since, int limit) {
+        User currentUser = authService.getCurrentUser();
+        if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, currentUser.getId())) {
+            throw new AccessDeniedException("Access denied");
+        }
+
+        // Read the version first: every change up to it is visible to the queries below
+        long current = projectVersionService.currentVersion(projectId);
+        if (since <= 0 || since > current) {
+            RequirementChangesResponse snapshot = new RequirementChangesResponse(projectId, current, true, false);
+            requirementRepository.findByProjectIdAndDeletedAtIsNull(projectId).stream()
+                    .sorted((r1, r2) -> compareReqIds(r1.getReqId(), r2.getReqId()))
+                    .map(this::toRequirementResponse)
+                    .forEach(snapshot.getRequirements()::add);
+            linkRepository.findAllLinksForProject(projectId).stream()
+                    .map(RequirementChangesResponse.LinkSummary::new)
+                    .forEach(snapshot.getLinks()::add);
+            return snapshot;
+        }
+
+        int pageSize = Math.clamp(limit, 1, MAX_CHANGES_PAGE);
+        List<ProjectChangeRepository.Entry> changes = projectVersionService.changesSince(projectId, since, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+        long cursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).getVersion();
+        if (!hasMore) {
+            cursor = Math.max(cursor, current);
+        }
+
+        Set<UUID> requirementIds = new LinkedHashSet<>();
+        Set<UUID> linkIds = new LinkedHashSet<>();
+        for (ProjectChangeRepository.Entry change : changes) {
+            if (change.getEntityType() == ProjectChange.EntityType.REQUIREMENT) {
+                requirementIds.add(change.getEntityId());
+            } else {
+                linkIds.add(change.getEntityId());
+            }
+        }
+
+        RequirementChangesResponse response = new RequirementChangesResponse(projectId, cursor, false, hasMore);
+        Map<UUID, Requirement> requirements = new HashMap<>();
+        requirementRepository.findAllById(requirementIds).forEach(r -> requirements.put(r.getId(), r));
+        for (UUID id : requirementIds) {
+            Requirement requirement = requirements.get(id);
+            if (requirement == null || requirement.isDeleted()) {
+                response.getDeletedRequirementIds().add(id);
+            } else {
+                response.getRequirements().add(toRequirementResponse(requirement));
+            }
+        }
+
+        Map<UUID, RequirementLink> links = new HashMap<>();
+        linkRepository.findAllById(linkIds).forEach(l -> links.put(l.getId(), l));
+        for (UUID id : linkIds) {
+            RequirementLink link = links.get(id);
+            if (link == null) {
+                response.getDeletedLinkIds().add(id);
+            } else {
+                response.getLinks().add(new RequirementChangesResponse.LinkSummary(link));
+            }
+        }
+        return response;
     }
 
     /**
@@ -317,32 +431,9 @@ public class RequirementService {
         return reqId;
     }
 
-    private void createHistoryEntry(Requirement requirement, User user, ChangeType changeType, Map<String, Object> oldValue, Map<String, Object> newValue) {
-        RequirementHistory history = new RequirementHistory(requirement, user, changeType, oldValue, newValue);
-        historyRepository.save(history);
-    }
-
-    private Map<String, Object> toMap(Requirement requirement) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("reqId", requirement.getReqId());
-        map.put("title", requirement.getTitle());
-        map.put("description", requirement.getDescription());
-        map.put("status", requirement.getStatus());
-        map.put("priority", requirement.getPriority());
-        map.put("parentId", requirement.getParent() != null ? requirement.getParent().getId().toString() : null);
-        map.put("customFields", requirement.getCustomFields());
-        return map;
-    }
-
-    private Map<String, Object> historyToMap(RequirementHistory history) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", history.getId());
-        map.put("changeType", history.getChangeType());
-        map.put("changedBy", history.getChangedBy() != null ? history.getChangedBy().getEmail() : null);
-        map.put("changedAt", history.getChangedAt());
-        map.put("oldValue", history.getOldValue());
-        map.put("newValue", history.getNewValue());
-        return map;
+    private void recordChange(Requirement requirement, ProjectChange.Operation operation) {
+        projectVersionService.recordChange(requirement.getProject().getId(), ProjectChange.EntityType.REQUIREMENT,
+                requirement.getId(), operation);
     }
 
     /**
@@ -32,6 +32,9 @@ public class RoleManagementService {
     @Autowired
     private PermissionEvaluationService permissionEvaluationService;
 
+    @Autowired
+    private PermissionSnapshotService permissionSnapshotService;
+
     @Autowired
     private SecurityAuditService securityAuditService;
 
@@ -243,8 +246,8 @@ public class RoleManagementService {
             permissionChangeRepository.save(change);
         }
 
-        // Clear user's permission cache
-        permissionEvaluationService.clearUserCache(userId);
+        // Move the user to a new permission epoch, invalidating cached permissions and snapshots
+        permissionSnapshotService.bumpEpoch(userId);
 
         // Audit log
         securityAuditService.logEvent("PERMISSIONS_GRANTED", requestingUserId, "USER", userId,
@@ -287,8 +290,8 @@ public class RoleManagementService {
             permissionChangeRepository.save(change);
         }
 
-        // Clear user's permission cache
-        permissionEvaluationService.clearUserCache(userId);
+        // Move the user to a new permission epoch, invalidating cached permissions and snapshots
+        permissionSnapshotService.bumpEpoch(userId);
 
         // Audit log
         securityAuditService.logEvent("PERMISSIONS_REVOKED", requestingUserId, "USER", userId,
@@ -1,6 +1,8 @@
 package com.annapolislabs.lineage.service;
 
 import com.annapolislabs.lineage.entity.*;
+import com.annapolislabs.lineage.realtime.ProjectChangeEvent;
+import com.annapolislabs.lineage.realtime.ProjectChangePublisher;
 import com.annapolislabs.lineage.repository.*;
 import com.annapolislabs.lineage.security.SecurityAuditService;
 import lombok.extern.slf4j.Slf4j;
@@ -11,9 +13,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Simplified Task Assignment Service
@@ -23,6 +25,9 @@ import java.util.stream.Collectors;
 @Service
 public class TaskAssignmentService {
 
+    /** Placeholder for an empty readable-project set; an empty IN list is not portable JPQL */
+    private static final List<UUID> NO_PROJECTS = List.of(new UUID(0L, 0L));
+
     @Autowired
     private TaskAssignmentRepository taskAssignmentRepository;
 
@@ -41,6 +46,18 @@ public class TaskAssignmentService {
     @Autowired
     private SecurityAuditService securityAuditService;
 
+    @Autowired
+    private TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
+    @Autowired
+    private EntityHydrator entityHydrator;
+
+    @Autowired
+    private ProjectChangePublisher projectChangePublisher;
+
     /**
      * Create a new task assignment
      */
@@ -90,7 +107,9 @@ public class TaskAssignmentService {
         task.setPriority(priority != null ? priority : TaskAssignment.TaskPriority.MEDIUM);
         task.setDueDate(dueDate);
 
-        task = taskAssignmentRepository.save(task);
+        task = saveAndPublish(task);
+        taskStatisticsService.recordCreated(task);
+        deadlineScheduler.track(task);
 
         // Send notification email
         try {
@@ -158,6 +177,7 @@ public class TaskAssignmentService {
         }
 
         TaskAssignment.TaskStatus oldStatus = task.getStatus();
+        TaskStatisticsService.TaskSnapshot before = TaskStatisticsService.TaskSnapshot.of(task);
         task.setStatus(newStatus);
 
         if (newStatus == TaskAssignment.TaskStatus.COMPLETED) {
@@ -167,7 +187,9 @@ public class TaskAssignmentService {
             }
         }
 
-        task = taskAssignmentRepository.save(task);
+        task = saveAndPublish(task);
+        taskStatisticsService.recordTransition(before, TaskStatisticsService.TaskSnapshot.of(task));
+        deadlineScheduler.track(task);
 
         // Audit log
         securityAuditService.logEvent("TASK_STATUS_UPDATED", requestingUserId, "TASK", taskId,
@@ -180,6 +202,7 @@ public class TaskAssignmentService {
     /**
      * Get tasks assigned to user
      */
+    @Transactional(readOnly = true)
     public List<TaskAssignment> getTasksForUser(UUID userId, UUID requestingUserId) {
         log.debug("Getting tasks for user {} requested by {}", userId, requestingUserId);
 
@@ -189,31 +212,44 @@ public class TaskAssignmentService {
             throw new SecurityException("User does not have permission to view other users' tasks");
         }
 
-        return taskAssignmentRepository.findByAssignedToAndActiveTrue(userId);
+        List<TaskAssignment> tasks = taskAssignmentRepository.findByAssignedToAndActiveTrue(userId);
+        entityHydrator.initializeTaskCollections(tasks);
+        return tasks;
     }
 
     /**
-     * Get overdue tasks
+     * Get overdue tasks, served from the in-memory deadline index
      */
+    @Transactional(readOnly = true)
     public List<TaskAssignment> getOverdueTasks(UUID userId) {
         log.debug("Getting overdue tasks for user {}", userId);
-        LocalDateTime now = LocalDateTime.now();
-        return taskAssignmentRepository.findOverdueTasks(userId, now);
+        return loadByDueDate(deadlineScheduler.findOverdue(DeadlineScheduler.ItemType.TASK, userId));
     }
 
     /**
-     * Get tasks due soon
+     * Get tasks due soon, served from the in-memory deadline index
      */
+    @Transactional(readOnly = true)
     public List<TaskAssignment> getTasksDueSoon(UUID userId, int daysThreshold) {
         log.debug("Getting tasks due soon for user {} within {} days", userId, daysThreshold);
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime dueSoon = now.plusDays(daysThreshold);
-        return taskAssignmentRepository.findTasksDueSoon(userId, now, dueSoon);
+        return loadByDueDate(deadlineScheduler.findDueWithin(
+                DeadlineScheduler.ItemType.TASK, userId, Duration.ofDays(daysThreshold)));
+    }
+
+    private List<TaskAssignment> loadByDueDate(List<UUID> taskIds) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        List<TaskAssignment> tasks = new ArrayList<>(taskAssignmentRepository.findAllById(taskIds));
+        tasks.sort(Comparator.comparing(TaskAssignment::getDueDate, Comparator.nullsLast(Comparator.naturalOrder())));
+        entityHydrator.initializeTaskCollections(tasks);
+        return tasks;
     }
 
     /**
      * Search tasks with multi-criteria filters
      */
+    @Transactional(readOnly = true)
     public Page<TaskAssignment> searchTasks(String search,
                                             UUID assignedTo,
                                             UUID projectId,
@@ -230,57 +266,64 @@ public class TaskAssignmentService {
             throw new SecurityException("User does not have permission to view other users' tasks");
         }
 
-        // If search text provided, delegate to text search first
+        // Resolve the readable project set once and let the query apply it, so pages stay full
+        PermissionEvaluationService.ProjectScope scope =
+                permissionEvaluationService.getPermittedProjects(requestingUserId, "task.read");
+        Collection<UUID> readableProjectIds = scope.projectIds().isEmpty()
+                ? NO_PROJECTS : scope.projectIds();
+
+        Page<TaskAssignment> page;
         if (StringUtils.hasText(search)) {
-            Page<TaskAssignment> results = taskAssignmentRepository.findBySearchTerm(search, pageable);
-            return filterByAuthorization(results, requestingUserId);
+            page = taskAssignmentRepository.findBySearchTerm(
+                    search, requestingUserId, scope.unrestricted(), readableProjectIds, pageable);
+        } else {
+            page = taskAssignmentRepository.findWithFilters(
+                    assignedTo != null ? assignedTo : requestingUserId,
+                    null,
+                    projectId,
+                    status,
+                    priority,
+                    requestingUserId,
+                    scope.unrestricted(),
+                    readableProjectIds,
+                    pageable);
         }
 
-        return taskAssignmentRepository.findWithFilters(
-                assignedTo != null ? assignedTo : requestingUserId,
-                null,
-                projectId,
-                status,
-                priority,
-                pageable);
+        // Tags and blockers for the whole page in one query each instead of per row during serialization
+        entityHydrator.initializeTaskCollections(page.getContent());
+        return page;
     }
 
     /**
      * Get tasks for specific project enforcing permissions
      */
+    @Transactional(readOnly = true)
     public List<TaskAssignment> getTasksByProject(UUID projectId, UUID requestingUserId) {
         log.debug("Getting tasks for project {} by user {}", projectId, requestingUserId);
         if (!permissionEvaluationService.hasPermission(requestingUserId, "task.read", projectId)) {
             throw new SecurityException("User does not have permission to view tasks for this project");
         }
 
-        return taskAssignmentRepository.findByProjectIdAndStatusIn(projectId,
+        List<TaskAssignment> tasks = taskAssignmentRepository.findByProjectIdAndStatusIn(projectId,
                 Arrays.asList(TaskAssignment.TaskStatus.values()));
+        entityHydrator.initializeTaskCollections(tasks);
+        return tasks;
     }
 
     /**
-     * Task statistics aggregated by status/priority
+     * Task statistics for one project aggregated by status/priority, read from the incrementally
+     * maintained counters
      */
     public Map<String, Object> getTaskStatistics(UUID projectId, UUID requestingUserId) {
         log.debug("Getting task statistics for project {} by user {}", projectId, requestingUserId);
+        if (projectId == null) {
+            throw new IllegalArgumentException("Project ID is required");
+        }
         if (!permissionEvaluationService.hasPermission(requestingUserId, "task.manage", projectId)) {
             throw new SecurityException("User does not have permission to view task statistics");
         }
 
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("by_status", taskAssignmentRepository.getTaskCountByStatus());
-        stats.put("by_priority", taskAssignmentRepository.getTaskCountByPriority());
-        stats.put("active_by_user", taskAssignmentRepository.getActiveTaskCountByUser());
-        return stats;
-    }
-
-    private Page<TaskAssignment> filterByAuthorization(Page<TaskAssignment> tasks, UUID requestingUserId) {
-        List<TaskAssignment> filtered = tasks.stream()
-                .filter(task -> task.getAssignedTo().equals(requestingUserId) ||
-                        task.getAssignedBy().equals(requestingUserId) ||
-                        permissionEvaluationService.hasPermission(requestingUserId, "task.read", task.getProjectId()))
-                .collect(Collectors.toList());
-        return new org.springframework.data.domain.PageImpl<>(filtered, tasks.getPageable(), filtered.size());
+        return taskStatisticsService.getStatistics(projectId);
     }
 
     /**
@@ -324,9 +367,12 @@ public class TaskAssignmentService {
         }
 
         UUID oldAssignee = task.getAssignedTo();
+        TaskStatisticsService.TaskSnapshot before = TaskStatisticsService.TaskSnapshot.of(task);
         task.setAssignedTo(newAssigneeId);
 
-        task = taskAssignmentRepository.save(task);
+        task = saveAndPublish(task);
+        taskStatisticsService.recordTransition(before, TaskStatisticsService.TaskSnapshot.of(task));
+        deadlineScheduler.track(task);
 
         // Audit log
         securityAuditService.logEvent("TASK_REASSIGNED", requestingUserId, "TASK", taskId,
@@ -359,7 +405,7 @@ public class TaskAssignmentService {
         }
         task.setTags(tags);
 
-        task = taskAssignmentRepository.save(task);
+        task = saveAndPublish(task);
 
         log.info("Tag '{}' added to task {}", tag, taskId);
         return task;
@@ -389,7 +435,7 @@ public class TaskAssignmentService {
         }
         task.setBlockers(blockers);
 
-        task = taskAssignmentRepository.save(task);
+        task = saveAndPublish(task);
 
         log.info("Blocker '{}' added to task {}", blocker, taskId);
         return task;
@@ -413,6 +459,7 @@ public class TaskAssignmentService {
             throw new SecurityException("User does not have permission to update this task");
         }
 
+        TaskStatisticsService.TaskSnapshot before = TaskStatisticsService.TaskSnapshot.of(task);
         if (StringUtils.hasText(taskTitle)) {
             task.setTaskTitle(taskTitle);
         }
@@ -426,9 +473,20 @@ public class TaskAssignmentService {
             task.setDueDate(dueDate);
         }
 
-        task = taskAssignmentRepository.save(task);
+        task = saveAndPublish(task);
+        taskStatisticsService.recordTransition(before, TaskStatisticsService.TaskSnapshot.of(task));
+        deadlineScheduler.track(task);
 
         log.info("Task {} updated successfully", taskId);
         return task;
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves a task and notifies subscribers of its project once the transaction commits
+     */
+    private TaskAssignment saveAndPublish(TaskAssignment task) {
+        TaskAssignment saved = taskAssignmentRepository.save(task);
+        projectChangePublisher.publishUpsert(saved.getProjectId(), ProjectChangeEvent.TASK, saved.getId());
+        return saved;
+    }
+}
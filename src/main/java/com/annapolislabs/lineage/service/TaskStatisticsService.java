@@ -0,0 +1,216 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.TaskAssignment;
+import com.annapolislabs.lineage.entity.TaskStatistic;
+import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
+import com.annapolislabs.lineage.repository.TaskStatisticRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Per-project task statistics backed by the {@code task_statistics} rollup table.
+ *
+ * <p>Counters are adjusted in the same transaction as the task change that causes them, so reads
+ * are a single primary-key range scan instead of a GROUP BY over {@code task_assignments}. Every
+ * write takes the project's counter lock in shared mode; {@link #rebuild(UUID)} takes it exclusively
+ * and recomputes the counters from the task rows, which repairs any drift left by writes that bypass
+ * this service (imports, manual SQL). The nightly reconcile of all projects runs on one node only,
+ * chosen through {@link AdvisoryLockLeader}.</p>
+ */
+@Slf4j
+@Service
+public class TaskStatisticsService {
+
+    static final String REBUILD_LOCK_NAME = "lineage.tasks.statistics.rebuild";
+
+    private final TaskStatisticRepository statisticRepository;
+    private final TaskAssignmentRepository taskAssignmentRepository;
+    private final AdvisoryLockLeader leader;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public TaskStatisticsService(TaskStatisticRepository statisticRepository,
+                                 TaskAssignmentRepository taskAssignmentRepository,
+                                 AdvisoryLockLeader leader,
+                                 PlatformTransactionManager transactionManager) {
+        this.statisticRepository = statisticRepository;
+        this.taskAssignmentRepository = taskAssignmentRepository;
+        this.leader = leader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Counts a newly created task
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(TaskAssignment task) {
+        recordTransition(null, TaskSnapshot.of(task));
+    }
+
+    /**
+     * Moves a task's contribution from the buckets it occupied before a change to the buckets it
+     * occupies now. Dimensions whose bucket did not change are not written.
+     *
+     * @param before snapshot taken before the task was modified, {@code null} for a new task
+     * @param after  snapshot of the saved task
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(TaskSnapshot before, TaskSnapshot after) {
+        Map<TaskStatistic.Key, Long> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            before.buckets().forEach(key -> deltas.merge(key, -1L, Long::sum));
+        }
+        if (after != null) {
+            after.buckets().forEach(key -> deltas.merge(key, 1L, Long::sum));
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        deltas.keySet().stream()
+                .map(TaskStatistic.Key::getProjectId)
+                .distinct()
+                .forEach(statisticRepository::lockProjectShared);
+        deltas.forEach((key, delta) ->
+                statisticRepository.increment(key.getProjectId(), key.getDimension(), key.getBucket(), delta));
+    }
+
+    /**
+     * Reads the counters of a project.
+     *
+     * @return {@code by_status} and {@code by_priority} maps covering every enum value, and
+     *         {@code active_by_user} mapping assignee IDs to their open task count
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStatistics(UUID projectId) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (TaskAssignment.TaskStatus status : TaskAssignment.TaskStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (TaskAssignment.TaskPriority priority : TaskAssignment.TaskPriority.values()) {
+            byPriority.put(priority.name(), 0L);
+        }
+        Map<String, Long> activeByUser = new LinkedHashMap<>();
+
+        for (TaskStatistic statistic : statisticRepository.findByProjectId(projectId)) {
+            if (statistic.getTaskCount() <= 0) {
+                continue;
+            }
+            switch (statistic.getDimension()) {
+                case TaskStatistic.DIMENSION_STATUS -> byStatus.put(statistic.getBucket(), statistic.getTaskCount());
+                case TaskStatistic.DIMENSION_PRIORITY -> byPriority.put(statistic.getBucket(), statistic.getTaskCount());
+                case TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE -> activeByUser.put(statistic.getBucket(), statistic.getTaskCount());
+                default -> log.debug("Ignoring unknown task statistic dimension {}", statistic.getDimension());
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("by_status", byStatus);
+        stats.put("by_priority", byPriority);
+        stats.put("active_by_user", activeByUser);
+        stats.put("total", byStatus.values().stream().mapToLong(Long::longValue).sum());
+        return stats;
+    }
+
+    /**
+     * Recomputes a project's counters from its task rows.
+     */
+    @Transactional
+    public void rebuild(UUID projectId) {
+        rebuildCounters(projectId);
+    }
+
+    private void rebuildCounters(UUID projectId) {
+        statisticRepository.lockProjectExclusive(projectId);
+        statisticRepository.deleteByProjectId(projectId);
+
+        int counters = 0;
+        for (Object[] row : taskAssignmentRepository.getTaskCountByStatus(projectId)) {
+            statisticRepository.increment(projectId, TaskStatistic.DIMENSION_STATUS,
+                    ((TaskAssignment.TaskStatus) row[0]).name(), (Long) row[1]);
+            counters++;
+        }
+        for (Object[] row : taskAssignmentRepository.getTaskCountByPriority(projectId)) {
+            statisticRepository.increment(projectId, TaskStatistic.DIMENSION_PRIORITY,
+                    ((TaskAssignment.TaskPriority) row[0]).name(), (Long) row[1]);
+            counters++;
+        }
+        for (Object[] row : taskAssignmentRepository.getActiveTaskCountByUser(projectId)) {
+            statisticRepository.increment(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE,
+                    row[0].toString(), (Long) row[1]);
+            counters++;
+        }
+        log.debug("Rebuilt {} task statistic counters for project {}", counters, projectId);
+    }
+
+    /**
+     * Runs the nightly {@link #rebuildAll()} if this node wins the rebuild lock
+     */
+    @Scheduled(cron = "${lineage.tasks.statistics.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (!leader.runIfLeader(REBUILD_LOCK_NAME, this::rebuildAll)) {
+            log.debug("Task statistics are being rebuilt on another node");
+        }
+    }
+
+    /**
+     * Reconciles the counters of every project that has tasks or counters. Each project is rebuilt
+     * in its own short transaction so writers are only blocked for one project at a time.
+     */
+    public void rebuildAll() {
+        Set<UUID> projectIds = new LinkedHashSet<>(taskAssignmentRepository.findDistinctProjectIds());
+        projectIds.addAll(statisticRepository.findProjectIds());
+        int failures = 0;
+        for (UUID projectId : projectIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebuildCounters(projectId));
+            } catch (RuntimeException e) {
+                failures++;
+                log.warn("Failed to rebuild task statistics for project {}: {}", projectId, e.getMessage());
+            }
+        }
+        log.info("Reconciled task statistics for {} projects ({} failed)", projectIds.size(), failures);
+    }
+
+    /**
+     * The fields of a task that determine which counters it contributes to.
+     */
+    public record TaskSnapshot(UUID projectId, TaskAssignment.TaskStatus status,
+                               TaskAssignment.TaskPriority priority, UUID assignedTo) {
+
+        public static TaskSnapshot of(TaskAssignment task) {
+            return new TaskSnapshot(task.getProjectId(), task.getStatus(), task.getPriority(), task.getAssignedTo());
+        }
+
+        List<TaskStatistic.Key> buckets() {
+            if (projectId == null) {
+                return List.of();
+            }
+            List<TaskStatistic.Key> keys = new ArrayList<>(3);
+            if (status != null) {
+                keys.add(new TaskStatistic.Key(projectId, TaskStatistic.DIMENSION_STATUS, status.name()));
+            }
+            if (priority != null) {
+                keys.add(new TaskStatistic.Key(projectId, TaskStatistic.DIMENSION_PRIORITY, priority.name()));
+            }
+            if (assignedTo != null && isActive(status)) {
+                keys.add(new TaskStatistic.Key(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE, assignedTo.toString()));
+            }
+            return keys;
+        }
+
+        private static boolean isActive(TaskAssignment.TaskStatus status) {
+            return status != TaskAssignment.TaskStatus.COMPLETED && status != TaskAssignment.TaskStatus.CANCELLED;
+        }
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for team management operations
@@ -35,9 +34,15 @@ public class TeamService {
     @Autowired
     private PermissionEvaluationService permissionEvaluationService;
 
+    @Autowired
+    private PermissionSnapshotService permissionSnapshotService;
+
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private EntityHydrator entityHydrator;
+
     @Autowired
     private SecurityAuditService securityAuditService;
 
@@ -100,6 +105,7 @@ public class TeamService {
         TeamMember ownerMembership = new TeamMember(team.getId(), createdBy, TeamMember.TeamRole.OWNER);
         ownerMembership.setInvitedBy(createdBy);
         teamMemberRepository.save(ownerMembership);
+        permissionSnapshotService.bumpEpoch(createdBy);
 
         // Audit log
         securityAuditService.logEvent("TEAM_CREATED", createdBy, "TEAM", team.getId(),
@@ -284,6 +290,7 @@ public class TeamService {
         membership.setStatus(TeamMember.TeamMemberStatus.ACTIVE);
         membership.setLastActivityAt(LocalDateTime.now());
         teamMemberRepository.save(membership);
+        permissionSnapshotService.bumpEpoch(userId);
 
         // Audit log
         securityAuditService.logEvent("TEAM_INVITATION_ACCEPTED", userId, "TEAM", membership.getTeamId(),
@@ -325,6 +332,7 @@ public class TeamService {
         // Deactivate membership
         membershipToRemove.setStatus(TeamMember.TeamMemberStatus.INACTIVE);
         teamMemberRepository.save(membershipToRemove);
+        permissionSnapshotService.bumpEpoch(userIdToRemove);
 
         // Audit log
         securityAuditService.logEvent("USER_REMOVED_FROM_TEAM", requestingUserId, "TEAM", teamId,
@@ -359,20 +367,7 @@ public class TeamService {
         // membership metadata. This keeps the database schema
         // normalised (only userId is stored on TeamMember) while
         // still providing a convenient denormalised view over HTTP.
-        Set<UUID> userIds = members.stream()
-                .map(TeamMember::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        if (!userIds.isEmpty()) {
-            Map<UUID, User> usersById = userRepository.findAllById(userIds).stream()
-                    .collect(Collectors.toMap(User::getId, u -> u));
-
-            for (TeamMember member : members) {
-                User user = usersById.get(member.getUserId());
-                member.setUser(user);
-            }
-        }
+        entityHydrator.attachUsers(members);
 
         return members;
     }
@@ -411,6 +406,7 @@ public class TeamService {
         TeamMember.TeamRole oldRole = membership.getRole();
         membership.setRole(newRole);
         teamMemberRepository.save(membership);
+        permissionSnapshotService.bumpEpoch(userId);
 
         // Audit log
         securityAuditService.logEvent("TEAM_MEMBER_ROLE_UPDATED", requestingUserId, "TEAM", teamId,
@@ -447,6 +443,7 @@ public class TeamService {
             member.setStatus(TeamMember.TeamMemberStatus.INACTIVE);
         }
         teamMemberRepository.saveAll(members);
+        permissionSnapshotService.bumpEpochs(members.stream().map(TeamMember::getUserId).toList());
 
         // Audit log
         securityAuditService.logEvent("TEAM_DEACTIVATED", requestingUserId, "TEAM", teamId,
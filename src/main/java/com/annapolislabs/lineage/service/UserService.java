@@ -56,6 +56,9 @@ public class UserService {
     
     @Autowired
     private EmailService emailService;
+
+    @Autowired
+    private PermissionSnapshotService permissionSnapshotService;
     
     /**
      * Registers a new user account, ensuring password strength, uniqueness of email,
@@ -219,8 +222,10 @@ public class UserService {
         // Only admins can change global role
         if (request.getGlobalRole() != null && updatedBy != null) {
             User updater = getUserById(updatedBy);
-            if (updater.getGlobalRole() == UserRole.ADMINISTRATOR) {
+            if (updater.getGlobalRole() == UserRole.ADMINISTRATOR
+                    && request.getGlobalRole() != user.getGlobalRole()) {
                 user.setGlobalRole(request.getGlobalRole());
+                permissionSnapshotService.bumpEpoch(userId);
             }
         }
         
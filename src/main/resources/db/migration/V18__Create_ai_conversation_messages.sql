@@ -0,0 +1,47 @@
+-- Migration: V18__Create_ai_conversation_messages.sql
+-- Description: Move AI conversation messages out of the ai_conversations.messages JSONB column into an
+-- append-only table so each new message is a single insert instead of a rewrite of the whole document
+
+-- ===============================================
+-- 1. CREATE APPEND-ONLY MESSAGE TABLE
+-- ===============================================
+
+CREATE TABLE ai_conversation_messages (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    conversation_id UUID NOT NULL REFERENCES ai_conversations(id) ON DELETE CASCADE,
+    seq INTEGER NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Also serves as the index for ordered retrieval of a conversation
+    CONSTRAINT uk_ai_conversation_messages_seq UNIQUE (conversation_id, seq)
+);
+
+-- ===============================================
+-- 2. MIGRATE EXISTING JSONB MESSAGES
+-- ===============================================
+
+INSERT INTO ai_conversation_messages (conversation_id, seq, role, content, created_at)
+SELECT c.id,
+       (m.ordinality - 1)::INTEGER,
+       COALESCE(m.value->>'role', 'user'),
+       COALESCE(m.value->>'content', ''),
+       c.updated_at
+FROM ai_conversations c
+CROSS JOIN LATERAL jsonb_array_elements(c.messages) WITH ORDINALITY AS m(value, ordinality);
+
+-- ===============================================
+-- 3. KEEP A MESSAGE COUNTER ON THE CONVERSATION
+-- ===============================================
+
+-- The counter doubles as the next sequence number and lets history listings skip the message table
+ALTER TABLE ai_conversations ADD COLUMN message_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE ai_conversations SET message_count = jsonb_array_length(messages);
+
+-- ===============================================
+-- 4. DROP THE JSONB COLUMN
+-- ===============================================
+
+ALTER TABLE ai_conversations DROP COLUMN messages;
@@ -0,0 +1,29 @@
+-- Per-project task counters maintained incrementally by TaskStatisticsService.
+-- dimension is one of 'status', 'priority' or 'active_assignee'; bucket holds the status/priority
+-- name or the assignee id.
+CREATE TABLE IF NOT EXISTS task_statistics (
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    dimension VARCHAR(20) NOT NULL,
+    bucket VARCHAR(64) NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (project_id, dimension, bucket)
+);
+
+-- Seed the counters from the existing tasks
+INSERT INTO task_statistics (project_id, dimension, bucket, task_count)
+SELECT project_id, 'status', UPPER(status), COUNT(*)
+FROM task_assignments
+WHERE project_id IS NOT NULL AND status IS NOT NULL
+GROUP BY project_id, UPPER(status);
+
+INSERT INTO task_statistics (project_id, dimension, bucket, task_count)
+SELECT project_id, 'priority', UPPER(priority), COUNT(*)
+FROM task_assignments
+WHERE project_id IS NOT NULL AND priority IS NOT NULL
+GROUP BY project_id, UPPER(priority);
+
+INSERT INTO task_statistics (project_id, dimension, bucket, task_count)
+SELECT project_id, 'active_assignee', CAST(assigned_to AS VARCHAR), COUNT(*)
+FROM task_assignments
+WHERE project_id IS NOT NULL AND UPPER(status) NOT IN ('COMPLETED', 'CANCELLED')
+GROUP BY project_id, assigned_to;
@@ -0,0 +1,28 @@
+-- Peer review counters maintained incrementally by PeerReviewStatisticsService.
+-- dimension is one of 'status', 'type' or 'pending_reviewer'; bucket holds the status/type name
+-- or the reviewer id.
+CREATE TABLE IF NOT EXISTS peer_review_statistics (
+    dimension VARCHAR(20) NOT NULL,
+    bucket VARCHAR(64) NOT NULL,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, bucket)
+);
+
+-- Seed the counters from the existing reviews
+INSERT INTO peer_review_statistics (dimension, bucket, review_count)
+SELECT 'status', UPPER(status), COUNT(*)
+FROM peer_reviews
+WHERE status IS NOT NULL
+GROUP BY UPPER(status);
+
+INSERT INTO peer_review_statistics (dimension, bucket, review_count)
+SELECT 'type', UPPER(review_type), COUNT(*)
+FROM peer_reviews
+WHERE review_type IS NOT NULL
+GROUP BY UPPER(review_type);
+
+INSERT INTO peer_review_statistics (dimension, bucket, review_count)
+SELECT 'pending_reviewer', CAST(reviewer_id AS VARCHAR), COUNT(*)
+FROM peer_reviews
+WHERE UPPER(status) = 'PENDING'
+GROUP BY reviewer_id;
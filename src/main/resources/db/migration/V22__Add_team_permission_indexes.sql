@@ -0,0 +1,9 @@
+-- Covering indexes for the team part of permission checks:
+--   SELECT tm.role FROM team_members tm JOIN teams t ON t.id = tm.team_id
+--   WHERE tm.user_id = ? AND tm.status = 'ACTIVE' AND t.project_id = ? AND t.is_active
+-- Both sides can be answered with index-only scans, however many teams the user belongs to.
+CREATE INDEX IF NOT EXISTS idx_team_members_user_status
+    ON team_members(user_id, status) INCLUDE (team_id, role);
+
+CREATE INDEX IF NOT EXISTS idx_teams_active_project
+    ON teams(id, project_id) WHERE is_active;
@@ -0,0 +1,8 @@
+-- Per-user permission version maintained by PermissionSnapshotService. The epoch is bumped on every
+-- grant, revoke, global role change and team membership change; enhanced JWTs carry the epoch they
+-- were issued at so stale permission claims can be detected with a primary-key lookup.
+CREATE TABLE IF NOT EXISTS permission_epochs (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    epoch BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,13 @@
+-- Indexes backing the batched cleanup queries run by MaintenanceScheduler
+
+-- INFO audit logs past retention
+CREATE INDEX IF NOT EXISTS idx_audit_logs_info_created_at
+    ON audit_logs(created_at) WHERE severity = 'INFO';
+
+-- Revoked sessions past retention (expired sessions use idx_user_sessions_expires_at)
+CREATE INDEX IF NOT EXISTS idx_user_sessions_revoked_at
+    ON user_sessions(revoked_at) WHERE revoked = true;
+
+-- Temporary grants past their expiry that have not been closed yet
+CREATE INDEX IF NOT EXISTS idx_permission_changes_pending_expiry
+    ON permission_changes(expires_at) WHERE is_temporary = true AND effective_until IS NULL;
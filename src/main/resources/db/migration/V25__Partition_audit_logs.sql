@@ -0,0 +1,124 @@
+-- Convert audit_logs to monthly range partitions on created_at.
+--
+-- Partitions are named audit_logs_pYYYYMM and cover [first of month, first of next month).
+-- MaintenanceScheduler keeps partitions created ahead of time with ensure_audit_log_partitions()
+-- and applies retention with drop_audit_log_partitions(), which drops whole months instead of
+-- deleting rows. A default partition catches rows outside every range so audit writes never fail;
+-- create_audit_log_partition() moves such rows into the month's partition when it is created.
+--
+-- The primary key has to include the partition key, so it becomes (id, created_at). The seven
+-- single-column indexes are replaced by the four the repository queries use.
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER INDEX IF EXISTS audit_logs_pkey RENAME TO audit_logs_legacy_pkey;
+
+CREATE TABLE audit_logs (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID REFERENCES users(id),
+    action VARCHAR(100) NOT NULL,
+    resource VARCHAR(100),
+    resource_id VARCHAR(255),
+    details JSONB DEFAULT '{}',
+    ip_address INET,
+    user_agent TEXT,
+    severity VARCHAR(20) DEFAULT 'INFO' CHECK (severity IN ('INFO', 'WARNING', 'ERROR', 'CRITICAL')),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- Creates the partition for the month containing p_month, moving any rows the default partition
+-- holds for that month. Returns true when a partition was created.
+CREATE OR REPLACE FUNCTION create_audit_log_partition(p_month DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'audit_logs_p' || to_char(v_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    CREATE TEMP TABLE audit_logs_moving ON COMMIT DROP AS
+        SELECT * FROM audit_logs_default WHERE created_at >= v_start AND created_at < v_end;
+    DELETE FROM audit_logs_default WHERE created_at >= v_start AND created_at < v_end;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_start, v_end);
+
+    INSERT INTO audit_logs SELECT * FROM audit_logs_moving;
+    DROP TABLE audit_logs_moving;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Makes sure partitions exist from the current month through p_months_ahead months ahead.
+-- Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION ensure_audit_log_partitions(p_months_ahead INT) RETURNS INT AS $$
+DECLARE
+    v_created INT := 0;
+    v_offset INT;
+BEGIN
+    FOR v_offset IN 0..p_months_ahead LOOP
+        IF create_audit_log_partition((date_trunc('month', NOW()) + make_interval(months => v_offset))::date) THEN
+            v_created := v_created + 1;
+        END IF;
+    END LOOP;
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Drops every monthly partition whose whole range lies before p_before. Returns the number of
+-- partitions dropped.
+CREATE OR REPLACE FUNCTION drop_audit_log_partitions(p_before DATE) RETURNS INT AS $$
+DECLARE
+    v_dropped INT := 0;
+    v_partition RECORD;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'audit_logs'::regclass
+          AND c.relname ~ '^audit_logs_p[0-9]{6}$'
+    LOOP
+        IF to_date(substring(v_partition.relname FROM 13 FOR 6), 'YYYYMM') + INTERVAL '1 month' <= p_before THEN
+            EXECUTE format('DROP TABLE %I', v_partition.relname);
+            v_dropped := v_dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN v_dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month of existing data, plus the current month and three months ahead
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    SELECT date_trunc('month', MIN(created_at))::date INTO v_month FROM audit_logs_legacy;
+    WHILE v_month IS NOT NULL AND v_month < date_trunc('month', NOW())::date LOOP
+        PERFORM create_audit_log_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+SELECT ensure_audit_log_partitions(3);
+
+INSERT INTO audit_logs (id, user_id, action, resource, resource_id, details, ip_address, user_agent, severity, created_at)
+SELECT id, user_id, action, resource, resource_id, details, ip_address, user_agent, severity, COALESCE(created_at, NOW())
+FROM audit_logs_legacy;
+
+DROP TABLE audit_logs_legacy;
+
+-- Per-user history, newest first (security events, last password change)
+CREATE INDEX IF NOT EXISTS idx_audit_logs_user_created_at ON audit_logs(user_id, created_at DESC);
+-- Time-window counts and recent activity
+CREATE INDEX IF NOT EXISTS idx_audit_logs_created_at ON audit_logs(created_at);
+-- Recent WARNING/ERROR/CRITICAL events
+CREATE INDEX IF NOT EXISTS idx_audit_logs_security_created_at
+    ON audit_logs(created_at) WHERE severity IN ('WARNING', 'ERROR', 'CRITICAL');
+-- INFO purge run by MaintenanceScheduler
+CREATE INDEX IF NOT EXISTS idx_audit_logs_info_created_at
+    ON audit_logs(created_at) WHERE severity = 'INFO';
@@ -0,0 +1,9 @@
+-- Identifiers of consumed CSRF tokens, written only when lineage.csrf.single-use=true. CSRF tokens
+-- are otherwise stateless (HMAC-signed), so this table is the only shared state and lets any node
+-- reject a replayed token. Expired rows are purged by MaintenanceScheduler.
+CREATE TABLE IF NOT EXISTS csrf_used_tokens (
+    token_id VARCHAR(32) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_csrf_used_tokens_expires_at ON csrf_used_tokens(expires_at);
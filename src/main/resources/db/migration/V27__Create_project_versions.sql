@@ -0,0 +1,8 @@
+-- Per-project content version maintained by ProjectVersionService. Requirement, link and project
+-- writes bump it in their own transaction; read endpoints derive strong ETags from it so
+-- If-None-Match can be answered with 304 after a primary-key lookup.
+CREATE TABLE IF NOT EXISTS project_versions (
+    project_id UUID PRIMARY KEY REFERENCES projects(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
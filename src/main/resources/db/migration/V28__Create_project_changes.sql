@@ -0,0 +1,16 @@
+-- Change log behind GET /api/projects/{id}/changes. Every requirement or link write appends one row
+-- stamped with the project version it bumped to; the version is assigned under the project_versions
+-- row lock, so a reader that has seen version N has seen every change up to N and N is a safe
+-- resume cursor. The index covers delta reads without touching the heap.
+CREATE TABLE IF NOT EXISTS project_changes (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id UUID NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_project_changes_project_version
+    ON project_changes (project_id, version) INCLUDE (entity_type, entity_id, operation);
@@ -0,0 +1,31 @@
+-- Requirement history stores field-level JSON Patch diffs instead of two full snapshots per edit.
+-- State rows (created/updated/deleted) are numbered per requirement; every checkpoint-interval-th
+-- revision keeps the full state in new_value and the rows in between keep only a patch, so any
+-- revision is rebuilt from the nearest checkpoint. A link change is one row on the source
+-- requirement pointing at the target through related_requirement_id.
+ALTER TABLE requirement_history
+    ADD COLUMN IF NOT EXISTS revision INTEGER,
+    ADD COLUMN IF NOT EXISTS checkpoint BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN IF NOT EXISTS patch JSONB,
+    ADD COLUMN IF NOT EXISTS related_requirement_id UUID REFERENCES requirements(id) ON DELETE CASCADE;
+
+-- Existing rows carry full snapshots, so each created or updated row is already a checkpoint
+WITH numbered AS (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY requirement_id ORDER BY changed_at, id) AS revision
+    FROM requirement_history
+    WHERE change_type IN ('CREATED', 'UPDATED', 'DELETED', 'RESTORED')
+)
+UPDATE requirement_history h
+SET revision = n.revision,
+    checkpoint = h.change_type IN ('CREATED', 'UPDATED') AND h.new_value IS NOT NULL
+FROM numbered n
+WHERE h.id = n.id;
+
+CREATE INDEX IF NOT EXISTS idx_requirement_history_requirement_changed
+    ON requirement_history (requirement_id, changed_at);
+-- Writers lock the requirement row before taking the next revision; the unique index turns any
+-- writer that does not into a failed transaction instead of two rows with the same revision
+CREATE UNIQUE INDEX IF NOT EXISTS idx_requirement_history_revision
+    ON requirement_history (requirement_id, revision) WHERE revision IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_requirement_history_related
+    ON requirement_history (related_requirement_id) WHERE related_requirement_id IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Named baselines behind GET /api/projects/{id}/snapshot?baseline=<name>. A baseline only pins an
+-- instant; the requirement tree and links at that instant are rebuilt from requirement_history.
+-- Rebuilding a project's state as of a time reads each requirement's latest checkpoint at or before
+-- it plus the patches after, found through the (requirement_id, revision) index from V29; link rows
+-- are read in time order per project.
+CREATE TABLE IF NOT EXISTS project_baselines (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    name VARCHAR(100) NOT NULL,
+    captured_at TIMESTAMP NOT NULL,
+    created_by UUID REFERENCES users(id) ON DELETE SET NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_project_baselines_name UNIQUE (project_id, name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_requirement_history_links_changed_at
+    ON requirement_history (changed_at)
+    WHERE change_type IN ('LINK_ADDED', 'LINK_REMOVED');
@@ -0,0 +1,8 @@
+-- Deadline notices sent by DeadlineScheduler. Every node keeps its own trigger queue, so a notice is
+-- claimed by stamping the due date it was sent for; the conditional UPDATE succeeds on one node only,
+-- and moving the due date re-arms both notices without clearing anything.
+ALTER TABLE task_assignments ADD COLUMN IF NOT EXISTS due_soon_notified_for TIMESTAMP;
+ALTER TABLE task_assignments ADD COLUMN IF NOT EXISTS overdue_notified_for TIMESTAMP;
+
+ALTER TABLE peer_reviews ADD COLUMN IF NOT EXISTS due_soon_notified_for TIMESTAMP;
+ALTER TABLE peer_reviews ADD COLUMN IF NOT EXISTS overdue_notified_for TIMESTAMP;
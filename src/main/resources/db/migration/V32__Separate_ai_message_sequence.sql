@@ -0,0 +1,18 @@
+-- AI conversations kept one counter for both the transcript size shown in chat listings and the
+-- sequence of the next stored turn, so tool results inflated the listed message count. The sequence
+-- moves to next_seq and message_count counts only the messages the transcript shows.
+ALTER TABLE ai_conversations ADD COLUMN IF NOT EXISTS next_seq INTEGER NOT NULL DEFAULT 0;
+
+UPDATE ai_conversations c
+SET next_seq = COALESCE((SELECT MAX(m.seq) + 1 FROM ai_conversation_messages m WHERE m.conversation_id = c.id), 0);
+
+-- The user's own messages carry the project context prefix; tool results do not. Assistant replies
+-- count unless the agent answered with an explicit null message.
+UPDATE ai_conversations c
+SET message_count = (
+    SELECT COUNT(*)
+    FROM ai_conversation_messages m
+    WHERE m.conversation_id = c.id
+      AND ((m.role = 'user' AND m.content LIKE '[Current project ID: %')
+        OR (m.role = 'assistant' AND m.content !~ '"message"\s*:\s*null'))
+);
@@ -0,0 +1,96 @@
+package com.annapolislabs.lineage.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionLimitedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    private AdmissionLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new AdmissionLimitedDataSource(pool, 1, 50);
+    }
+
+    @Test
+    void getConnection_releasesPermitOnceWhenClosed() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+
+        Connection borrowed = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertSame(connection, ((ConnectionProxy) borrowed).getTargetConnection());
+
+        borrowed.close();
+        borrowed.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_rejectsOtherThreadsWhenLimitIsReached() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+        when(pool.getConnection()).thenReturn(connection);
+
+        try (Connection ignored = dataSource.getConnection()) {
+            CompletableFuture<Connection> other = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> other.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SQLTransientConnectionException.class, failure.getCause().getCause());
+        }
+        assertEquals(1.0, registry.get("lineage.db.admission.rejected").counter().count());
+        verify(pool, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_letsThreadHoldingAConnectionBorrowAnother() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+
+        try (Connection outer = dataSource.getConnection();
+             Connection inner = dataSource.getConnection()) {
+            assertNotNull(inner);
+            assertEquals(0, dataSource.getAvailablePermits());
+        }
+
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void getConnection_returnsPermitWhenPoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,95 @@
+package com.annapolislabs.lineage.config;
+
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.entity.UserRole;
+import com.annapolislabs.lineage.entity.UserStatus;
+import com.annapolislabs.lineage.realtime.ProjectChangeHub;
+import com.annapolislabs.lineage.repository.UserRepository;
+import com.annapolislabs.lineage.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeStreamWebSocketConfigTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ChangeStreamWebSocketConfig.AccessTokenInterceptor interceptor;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ChangeStreamWebSocketConfig.AccessTokenInterceptor(jwtTokenProvider, userRepository);
+        user = new User("alice@example.com", "hash", "Alice", UserRole.DEVELOPER);
+        user.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void beforeHandshake_acceptsTokenOfferedAsSubprotocol() {
+        stubValidAccessToken();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        MockHttpServletRequest request = handshake();
+        request.addHeader("Sec-WebSocket-Protocol", ChangeStreamWebSocketConfig.PROTOCOL + ", " + TOKEN);
+        Map<String, Object> attributes = new HashMap<>();
+
+        assertTrue(handshake(request, attributes));
+        assertEquals(user.getId(), attributes.get(ProjectChangeHub.USER_ID));
+    }
+
+    @Test
+    void beforeHandshake_ignoresTokenInQueryString() {
+        MockHttpServletRequest request = handshake();
+        request.setQueryString("token=" + TOKEN);
+        request.setParameter("token", TOKEN);
+
+        assertFalse(handshake(request, new HashMap<>()));
+        verifyNoInteractions(jwtTokenProvider, userRepository);
+    }
+
+    @Test
+    void beforeHandshake_rejectsSuspendedUser() {
+        stubValidAccessToken();
+        user.setStatus(UserStatus.SUSPENDED);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        MockHttpServletRequest request = handshake();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        assertFalse(handshake(request, new HashMap<>()));
+    }
+
+    private void stubValidAccessToken() {
+        when(jwtTokenProvider.validateToken(TOKEN)).thenReturn(true);
+        when(jwtTokenProvider.getTokenType(TOKEN)).thenReturn(JwtTokenProvider.TokenType.ACCESS);
+        when(jwtTokenProvider.getUserIdFromToken(TOKEN)).thenReturn(user.getId().toString());
+    }
+
+    private static MockHttpServletRequest handshake() {
+        return new MockHttpServletRequest("GET", ChangeStreamWebSocketConfig.PATH);
+    }
+
+    private boolean handshake(MockHttpServletRequest request, Map<String, Object> attributes) {
+        return interceptor.beforeHandshake(new ServletServerHttpRequest(request),
+                new ServletServerHttpResponse(new MockHttpServletResponse()), null, attributes);
+    }
+}
@@ -1,7 +1,8 @@
 package com.annapolislabs.lineage.config;
 
 import com.annapolislabs.lineage.entity.UserRole;
-import com.annapolislabs.lineage.service.PermissionEvaluationService;
+import com.annapolislabs.lineage.service.PermissionSnapshotService;
+import com.annapolislabs.lineage.service.PermissionSnapshotService.PermissionSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
@@ -21,7 +22,7 @@ import static org.mockito.Mockito.when;
 
 class EnhancedJwtConfigTest {
 
-    private PermissionEvaluationService permissionEvaluationService;
+    private PermissionSnapshotService permissionSnapshotService;
     private EnhancedJwtConfig enhancedJwtConfig;
 
     private UUID userId;
@@ -30,8 +31,8 @@ class EnhancedJwtConfigTest {
 
     @BeforeEach
     void setUp() {
-        permissionEvaluationService = mock(PermissionEvaluationService.class);
-        enhancedJwtConfig = new EnhancedJwtConfig(permissionEvaluationService);
+        permissionSnapshotService = mock(PermissionSnapshotService.class);
+        enhancedJwtConfig = new EnhancedJwtConfig(permissionSnapshotService);
 
         ReflectionTestUtils.setField(enhancedJwtConfig, "jwtSecret", "unit-test-secret-key-should-be-very-long-1234567890");
         ReflectionTestUtils.setField(enhancedJwtConfig, "jwtExpirationMs", 3_600_000);
@@ -39,10 +40,11 @@ class EnhancedJwtConfigTest {
         userId = UUID.randomUUID();
         resourceId = UUID.randomUUID();
 
-        when(permissionEvaluationService.getEffectivePermissions(eq(userId)))
-                .thenReturn(Set.of("requirement.read", "project.update"));
-        when(permissionEvaluationService.getEffectivePermissions(eq(userId), eq(resourceId)))
-                .thenReturn(Set.of("resource.scope.read"));
+        when(permissionSnapshotService.getSnapshot(eq(userId)))
+                .thenReturn(new PermissionSnapshot(3, Set.of("requirement.read", "project.update")));
+        when(permissionSnapshotService.getSnapshot(eq(userId), eq(resourceId)))
+                .thenReturn(new PermissionSnapshot(3, Set.of("resource.scope.read")));
+        when(permissionSnapshotService.isCurrent(userId, 3)).thenReturn(true);
     }
 
     @Test
@@ -86,4 +88,40 @@ class EnhancedJwtConfigTest {
 
         assertFalse(enhancedJwtConfig.validateEnhancedToken(token, otherUser));
     }
+
+    @Test
+    void tokenShouldCarryPermissionEpochForStalenessChecks() {
+        String token = enhancedJwtConfig.generateTokenWithPermissions(userId, email, UserRole.USER);
+        assertEquals(3, ((Number) enhancedJwtConfig.parseClaims(token).get("perm_epoch")).intValue());
+
+        when(permissionSnapshotService.isCurrent(userId, 3)).thenReturn(true);
+        assertTrue(enhancedJwtConfig.isPermissionSnapshotCurrent(token));
+
+        when(permissionSnapshotService.isCurrent(userId, 3)).thenReturn(false);
+        assertFalse(enhancedJwtConfig.isPermissionSnapshotCurrent(token));
+    }
+
+    @Test
+    void staleEpochShouldInvalidateTokenAndHideItsPermissions() {
+        String token = enhancedJwtConfig.generateTokenWithPermissions(userId, email, UserRole.USER);
+        String scopedToken = enhancedJwtConfig.generateScopedToken(userId, email, UserRole.USER, resourceId);
+        UserDetails userDetails = new User(email, "password", Collections.emptyList());
+
+        when(permissionSnapshotService.isCurrent(userId, 3)).thenReturn(false);
+
+        assertFalse(enhancedJwtConfig.validateEnhancedToken(token, userDetails));
+        assertTrue(enhancedJwtConfig.extractPermissions(token).isEmpty());
+        assertFalse(enhancedJwtConfig.hasPermission(token, "project.update"));
+        assertTrue(enhancedJwtConfig.extractScopedPermissions(scopedToken).isEmpty());
+    }
+
+    @Test
+    void scopedTokenShouldCarryOlderEpochWhenBumpedBetweenLookups() {
+        when(permissionSnapshotService.getSnapshot(eq(userId), eq(resourceId)))
+                .thenReturn(new PermissionSnapshot(4, Set.of("resource.scope.read")));
+
+        String token = enhancedJwtConfig.generateScopedToken(userId, email, UserRole.DEVELOPER, resourceId);
+
+        assertEquals(3, ((Number) enhancedJwtConfig.parseClaims(token).get("perm_epoch")).intValue());
+    }
 }
@@ -0,0 +1,134 @@
+package com.annapolislabs.lineage.config;
+
+import org.junit.jupiter.api.AfterEach;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesTrackerTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isWrite_detectsDataChangingStatements() {
+        assertTrue(ReadYourWritesTracker.isWrite("insert into requirements (id) values (?)"));
+        assertTrue(ReadYourWritesTracker.isWrite("  UPDATE requirements SET title=? WHERE id=?"));
+        assertTrue(ReadYourWritesTracker.isWrite("/* update Requirement */ update requirements set title=?"));
+        assertTrue(ReadYourWritesTracker.isWrite("delete from audit_logs where id=?"));
+        assertFalse(ReadYourWritesTracker.isWrite("select r.id from requirements r for update"));
+        assertFalse(ReadYourWritesTracker.isWrite("(select 1)"));
+    }
+
+    @Test
+    void inspect_pinsUserAfterCommitUntilWindowCloses() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-03-10T12:00:00Z"));
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, clock);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.inspect("insert into notes (body) values (?)");
+        tracker.inspect("update notes set body=?");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        assertFalse(tracker.isCurrentUserSticky(), "not sticky before commit");
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(tracker.isCurrentUserSticky());
+        clock.instant = clock.instant.plusMillis(5000);
+        assertFalse(tracker.isCurrentUserSticky());
+    }
+
+    @Test
+    void commit_carriesWindowToClientAndOtherNodesHonorIt() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-03-10T12:00:00Z"));
+        ReadYourWritesTracker writer = new ReadYourWritesTracker(5000, clock);
+        ReadYourWritesTracker otherNode = new ReadYourWritesTracker(5000, clock);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        TransactionSynchronizationManager.initSynchronization();
+        writer.inspect("insert into notes (body) values (?)");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie);
+        String until = Long.toString(clock.millis() + 5000);
+        assertTrue(setCookie.startsWith(ReadYourWritesTracker.COOKIE + "=" + until));
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(new Cookie(ReadYourWritesTracker.COOKIE, until));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(next));
+        assertTrue(otherNode.isCurrentUserSticky());
+        clock.instant = clock.instant.plusMillis(5000);
+        assertFalse(otherNode.isCurrentUserSticky());
+    }
+
+    @Test
+    void isCurrentUserSticky_ignoresCookieBeyondWindow() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-03-10T12:00:00Z"));
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, clock);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesTracker.COOKIE, Long.toString(clock.millis() + 60_000)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertFalse(tracker.isCurrentUserSticky());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.annapolislabs.lineage.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load comparison of the request execution modes under mixed AI/CRUD traffic.
+ *
+ * <p>Requests arrive at a fixed rate (open model) and are handled by either a 200-thread platform
+ * pool (the Tomcat default), a virtual thread per request, or a virtual thread per request behind
+ * {@link AdmissionLimitedDataSource}. AI requests do a short database read, wait on the LLM without
+ * holding a connection, then write the reply. CRUD requests do one short database operation. The
+ * database is a pool of {@code poolSize} connections with a Hikari-style borrow timeout, and query
+ * time is simulated with sleeps, so the run is offline and repeatable.</p>
+ *
+ * <p>Latency is measured from the scheduled arrival, so time spent queued for a platform thread
+ * counts. Excluded from the regular test task; run with
+ * {@code ./gradlew benchmark --tests '*VirtualThreadLoadBenchmark'} and tune with
+ * {@code -Dbenchmark.<name>=<value>} where name is one of {@code requests}, {@code ratePerSecond},
+ * {@code aiPercent}, {@code llmMs}, {@code dbMs}, {@code poolSize}, {@code poolTimeoutMs} or
+ * {@code admissionTimeoutMs}.</p>
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    private final int requests = Integer.getInteger("benchmark.requests", 6000);
+    private final int ratePerSecond = Integer.getInteger("benchmark.ratePerSecond", 600);
+    private final int aiPercent = Integer.getInteger("benchmark.aiPercent", 10);
+    private final long llmMs = Long.getLong("benchmark.llmMs", 3000);
+    private final long dbMs = Long.getLong("benchmark.dbMs", 8);
+    private final int poolSize = Integer.getInteger("benchmark.poolSize", 10);
+    private final long poolTimeoutMs = Long.getLong("benchmark.poolTimeoutMs", 30000);
+    private final long admissionTimeoutMs = Long.getLong("benchmark.admissionTimeoutMs", 10000);
+
+    @Test
+    void mixedTrafficByExecutionMode() throws Exception {
+        System.out.printf("%nMixed traffic: %d requests at %d/s, %d%% AI (LLM %dms), DB %dms, pool %d%n",
+                requests, ratePerSecond, aiPercent, llmMs, dbMs, poolSize);
+        System.out.printf("%-26s %10s %10s %10s %10s %10s %8s%n",
+                "mode", "req/s", "crud p50", "crud p99", "ai p50", "ai p99", "failed");
+
+        try (ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            run("platform (200 threads)", platform, new SimulatedPool(poolSize, poolTimeoutMs));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            run("virtual", virtual, new SimulatedPool(poolSize, poolTimeoutMs));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            run("virtual + admission", virtual,
+                    new AdmissionLimitedDataSource(new SimulatedPool(poolSize, poolTimeoutMs), poolSize, admissionTimeoutMs));
+        }
+    }
+
+    private void run(String mode, ExecutorService executor, DataSource dataSource) throws InterruptedException {
+        List<Long> crudLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> aiLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failed = new AtomicInteger();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        int aiEvery = aiPercent > 0 ? Math.max(1, 100 / aiPercent) : Integer.MAX_VALUE;
+
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long arrival = started + i * intervalNanos;
+            long delay = arrival - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            boolean ai = i % aiEvery == 0;
+            executor.execute(() -> {
+                try {
+                    if (ai) {
+                        query(dataSource);
+                        Thread.sleep(llmMs);
+                        query(dataSource);
+                    } else {
+                        query(dataSource);
+                    }
+                    (ai ? aiLatencies : crudLatencies).add(System.nanoTime() - arrival);
+                } catch (SQLException e) {
+                    failed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("%-26s %10.1f %10.1f %10.1f %10.1f %10.1f %8d%n", mode,
+                (crudLatencies.size() + aiLatencies.size()) / seconds,
+                percentileMs(crudLatencies, 0.5), percentileMs(crudLatencies, 0.99),
+                percentileMs(aiLatencies, 0.5), percentileMs(aiLatencies, 0.99), failed.get());
+    }
+
+    private void query(DataSource dataSource) throws SQLException, InterruptedException {
+        try (Connection ignored = dataSource.getConnection()) {
+            Thread.sleep(dbMs);
+        }
+    }
+
+    private static double percentileMs(List<Long> latencies, double percentile) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    /**
+     * Connection pool stand-in: {@code size} connections, borrowers wait up to {@code timeoutMs}
+     */
+    private static final class SimulatedPool extends AbstractDataSource {
+
+        private final Semaphore connections;
+        private final long timeoutMs;
+
+        SimulatedPool(int size, long timeoutMs) {
+            this.connections = new Semaphore(size);
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                if (!connections.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("Connection is not available, request timed out");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted", e);
+            }
+            AtomicInteger closed = new AtomicInteger();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && closed.getAndIncrement() == 0) {
+                            connections.release();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -138,23 +138,36 @@ class AIAgentControllerTest {
     @Test
     void getChatHistory_Success() {
         // Arrange
-        AIConversation conv1 = new AIConversation("chat_1", testUser, "Chat 1");
-        conv1.setUpdatedAt(LocalDateTime.now());
-        AIConversation conv2 = new AIConversation("chat_2", testUser, "Chat 2");
-        conv2.setUpdatedAt(LocalDateTime.now());
+        AIChatListResponse chat1 = new AIChatListResponse("chat_1", "Chat 1", LocalDateTime.now(), 2);
+        AIChatListResponse chat2 = new AIChatListResponse("chat_2", "Chat 2", LocalDateTime.now(), 6);
 
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(aiAgentService.getConversationHistory(testUser)).thenReturn(Arrays.asList(conv1, conv2));
+        when(aiAgentService.getConversationHistory(testUser, 0, 20)).thenReturn(Arrays.asList(chat1, chat2));
 
         // Act
-        ResponseEntity<List<AIChatListResponse>> response = aiAgentController.getChatHistory();
+        ResponseEntity<List<AIChatListResponse>> response = aiAgentController.getChatHistory(0, 20);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
-        verify(aiAgentService).getConversationHistory(testUser);
+        verify(aiAgentService).getConversationHistory(testUser, 0, 20);
+    }
+
+    @Test
+    void getChatMessages_Success() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(aiAgentService.getConversationMessages("chat_1", testUser))
+                .thenReturn(List.of(new AIConversation.ConversationMessage("user", "hello")));
+
+        // Act
+        ResponseEntity<List<AIConversation.ConversationMessage>> response = aiAgentController.getChatMessages("chat_1");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
     }
 
     @Test
@@ -1,6 +1,10 @@
 package com.annapolislabs.lineage.controller;
 
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff;
+import com.annapolislabs.lineage.service.BaselineDiffService;
 import com.annapolislabs.lineage.service.ExportService;
+import com.annapolislabs.lineage.service.ProjectVersionService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -8,48 +12,80 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ExportControllerTest {
 
+    private static final String ETAG = "\"etag\"";
+
     @Mock
     private ExportService exportService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
+    @Mock
+    private BaselineDiffService baselineDiffService;
+
     @InjectMocks
     private ExportController exportController;
 
+    private UUID projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = UUID.randomUUID();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubVersioning(String format) {
+        when(projectVersionService.memberEtag(projectId, format)).thenReturn(ETAG);
+        when(projectVersionService.cachedExport(eq(projectId), eq(format), eq(ETAG), any()))
+                .thenAnswer(invocation -> ((Supplier<String>) invocation.getArgument(3)).get());
+    }
+
     @Test
     void exportCsv_Success() {
         // Arrange
-        UUID projectId = UUID.randomUUID();
         String csvContent = "id,title,description\n1,Test,Description";
+        stubVersioning("csv");
         when(exportService.exportToCsv(projectId)).thenReturn(csvContent);
 
         // Act
-        ResponseEntity<String> response = exportController.exportCsv(projectId);
+        ResponseEntity<String> response = exportController.exportCsv(projectId, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(csvContent, response.getBody());
         assertTrue(response.getHeaders().getContentDisposition().toString().contains("requirements.csv"));
+        assertEquals(ETAG, response.getHeaders().getETag());
         verify(exportService).exportToCsv(projectId);
     }
 
     @Test
     void exportJson_Success() {
         // Arrange
-        UUID projectId = UUID.randomUUID();
         String jsonContent = "{\"requirements\": []}";
+        stubVersioning("json");
         when(exportService.exportToJson(projectId)).thenReturn(jsonContent);
 
         // Act
-        ResponseEntity<String> response = exportController.exportJson(projectId);
+        ResponseEntity<String> response = exportController.exportJson(projectId, null);
 
         // Assert
         assertNotNull(response);
@@ -62,12 +98,12 @@ class ExportControllerTest {
     @Test
     void exportMarkdown_Success() {
         // Arrange
-        UUID projectId = UUID.randomUUID();
         String markdownContent = "# Requirements\n\n## Requirement 1";
+        stubVersioning("markdown");
         when(exportService.exportToMarkdown(projectId)).thenReturn(markdownContent);
 
         // Act
-        ResponseEntity<String> response = exportController.exportMarkdown(projectId);
+        ResponseEntity<String> response = exportController.exportMarkdown(projectId, null);
 
         // Assert
         assertNotNull(response);
@@ -76,4 +112,40 @@ class ExportControllerTest {
         assertTrue(response.getHeaders().getContentDisposition().toString().contains("requirements.md"));
         verify(exportService).exportToMarkdown(projectId);
     }
+
+    @Test
+    void exportCsv_MatchingETag_ReturnsNotModifiedWithoutExporting() {
+        when(projectVersionService.memberEtag(projectId, "csv")).thenReturn(ETAG);
+        when(projectVersionService.isNotModified(ETAG, ETAG)).thenReturn(true);
+
+        ResponseEntity<String> response = exportController.exportCsv(projectId, ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(projectVersionService, never()).cachedExport(any(), anyString(), anyString(), any());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void exportDiffMarkdown_StreamsComputedDiff() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 3, 1, 12, 0);
+        ProjectSnapshotDiff diff = new ProjectSnapshotDiff(projectId, "Spec", new ProjectSnapshotDiff.Side(from, null),
+                new ProjectSnapshotDiff.Side(from.plusMonths(3), "R2"), 0, List.of(), List.of(), List.of(), List.of(),
+                List.of());
+        when(baselineDiffService.diff(projectId, from, null, null, "R2")).thenReturn(diff);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("# Spec".getBytes());
+            return null;
+        }).when(baselineDiffService).writeMarkdown(eq(diff), any());
+
+        ResponseEntity<StreamingResponseBody> response =
+                exportController.exportDiffMarkdown(projectId, from, null, null, "R2");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("attachment; filename=diff.md", response.getHeaders().getFirst("Content-Disposition"));
+        assertEquals("# Spec", body.toString());
+    }
 }
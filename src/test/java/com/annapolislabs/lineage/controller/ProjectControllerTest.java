@@ -5,11 +5,14 @@ import com.annapolislabs.lineage.dto.request.ImportProjectMetadata;
 import com.annapolislabs.lineage.dto.request.ImportProjectRequest;
 import com.annapolislabs.lineage.dto.request.ImportRequirementRequest;
 import com.annapolislabs.lineage.dto.response.ProjectResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse;
 import com.annapolislabs.lineage.entity.Project;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.entity.UserRole;
 import com.annapolislabs.lineage.service.ProjectImportService;
 import com.annapolislabs.lineage.service.ProjectService;
+import com.annapolislabs.lineage.service.ProjectSnapshotService;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +44,12 @@ class ProjectControllerTest {
     @Mock
     private ProjectImportService projectImportService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
+    @Mock
+    private ProjectSnapshotService projectSnapshotService;
+
     @InjectMocks
     private ProjectController projectController;
 
@@ -118,16 +128,18 @@ class ProjectControllerTest {
         // Arrange
         UUID projectId = testProject.getId();
         ProjectResponse projectResponse = new ProjectResponse(testProject);
+        when(projectVersionService.memberEtag(projectId, "project")).thenReturn("\"etag\"");
         when(projectService.getProjectById(projectId)).thenReturn(projectResponse);
 
         // Act
-        ResponseEntity<ProjectResponse> response = projectController.getProjectById(projectId);
+        ResponseEntity<ProjectResponse> response = projectController.getProjectById(projectId, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Test Project", response.getBody().getName());
+        assertEquals("\"etag\"", response.getHeaders().getETag());
         verify(projectService).getProjectById(projectId);
     }
 
@@ -179,4 +191,16 @@ class ProjectControllerTest {
         request.setRequirements(List.of(requirement));
         return request;
     }
+
+    @Test
+    void getSnapshot_ReturnsSnapshotAtInstant() {
+        LocalDateTime at = LocalDateTime.of(2025, 3, 1, 12, 0);
+        ProjectSnapshotResponse snapshot = new ProjectSnapshotResponse(testProject.getId(), at, null, 0, List.of(), List.of());
+        when(projectSnapshotService.snapshot(testProject.getId(), at, null)).thenReturn(snapshot);
+
+        ResponseEntity<ProjectSnapshotResponse> response = projectController.getSnapshot(testProject.getId(), at, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(snapshot, response.getBody());
+    }
 }
@@ -6,6 +6,7 @@ import com.annapolislabs.lineage.entity.Project;
 import com.annapolislabs.lineage.entity.Requirement;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.entity.UserRole;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import com.annapolislabs.lineage.service.RequirementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,9 +27,14 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class RequirementControllerTest {
 
+    private static final String ETAG = "\"etag\"";
+
     @Mock
     private RequirementService requirementService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
     @InjectMocks
     private RequirementController requirementController;
 
@@ -93,16 +99,18 @@ class RequirementControllerTest {
                 new RequirementResponse(req1),
                 new RequirementResponse(req2)
         );
+        when(projectVersionService.memberEtag(projectId, "requirements")).thenReturn(ETAG);
         when(requirementService.getRequirementsByProject(projectId)).thenReturn(requirements);
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = requirementController.getRequirementsByProject(projectId);
+        ResponseEntity<List<RequirementResponse>> response = requirementController.getRequirementsByProject(projectId, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
+        assertEquals(ETAG, response.getHeaders().getETag());
         verify(requirementService).getRequirementsByProject(projectId);
     }
 
@@ -111,10 +119,11 @@ class RequirementControllerTest {
         // Arrange
         UUID requirementId = testRequirement.getId();
         RequirementResponse requirementResponse = new RequirementResponse(testRequirement);
+        when(projectVersionService.requirementEtag(requirementId, "requirement")).thenReturn(ETAG);
         when(requirementService.getRequirementById(requirementId)).thenReturn(requirementResponse);
 
         // Act
-        ResponseEntity<RequirementResponse> response = requirementController.getRequirementById(requirementId);
+        ResponseEntity<RequirementResponse> response = requirementController.getRequirementById(requirementId, null);
 
         // Assert
         assertNotNull(response);
@@ -177,10 +186,11 @@ class RequirementControllerTest {
                 Map.of("id", UUID.randomUUID(), "changeType", "CREATED", "changedBy", "test@example.com"),
                 Map.of("id", UUID.randomUUID(), "changeType", "UPDATED", "changedBy", "test@example.com")
         );
+        when(projectVersionService.requirementEtag(requirementId, "history")).thenReturn(ETAG);
         when(requirementService.getRequirementHistory(requirementId)).thenReturn(history);
 
         // Act
-        ResponseEntity<List<Map<String, Object>>> response = requirementController.getRequirementHistory(requirementId);
+        ResponseEntity<List<Map<String, Object>>> response = requirementController.getRequirementHistory(requirementId, null, 50, null);
 
         // Assert
         assertNotNull(response);
@@ -189,4 +199,46 @@ class RequirementControllerTest {
         assertEquals(2, response.getBody().size());
         verify(requirementService).getRequirementHistory(requirementId);
     }
+
+    @Test
+    void getRequirementHistory_WithPage_ReadsOnePage() {
+        UUID requirementId = UUID.randomUUID();
+        List<Map<String, Object>> history = List.of(Map.of("id", UUID.randomUUID(), "changeType", "UPDATED"));
+        when(projectVersionService.requirementEtag(requirementId, "history-p2-s20")).thenReturn(ETAG);
+        when(requirementService.getRequirementHistory(requirementId, 2, 20)).thenReturn(history);
+
+        ResponseEntity<List<Map<String, Object>>> response =
+                requirementController.getRequirementHistory(requirementId, 2, 20, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(history, response.getBody());
+        verify(requirementService, never()).getRequirementHistory(requirementId);
+    }
+
+    @Test
+    void getRequirementsByProject_MatchingETag_ReturnsNotModified() {
+        UUID projectId = testProject.getId();
+        when(projectVersionService.memberEtag(projectId, "requirements")).thenReturn(ETAG);
+        when(projectVersionService.isNotModified(ETAG, ETAG)).thenReturn(true);
+
+        ResponseEntity<List<RequirementResponse>> response = requirementController.getRequirementsByProject(projectId, ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verifyNoInteractions(requirementService);
+    }
+
+    @Test
+    void getRequirementHistory_MatchingETag_ReturnsNotModified() {
+        UUID requirementId = testRequirement.getId();
+        when(projectVersionService.requirementEtag(requirementId, "history")).thenReturn(ETAG);
+        when(projectVersionService.isNotModified(ETAG, ETAG)).thenReturn(true);
+
+        ResponseEntity<List<Map<String, Object>>> response = requirementController.getRequirementHistory(requirementId, null, 50, ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verifyNoInteractions(requirementService);
+    }
 }
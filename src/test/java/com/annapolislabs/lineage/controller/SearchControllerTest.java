@@ -9,6 +9,7 @@ import com.annapolislabs.lineage.exception.SearchException;
 import com.annapolislabs.lineage.repository.ProjectMemberRepository;
 import com.annapolislabs.lineage.repository.RequirementRepository;
 import com.annapolislabs.lineage.service.AuthService;
+import com.annapolislabs.lineage.service.ProjectVersionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,9 +36,14 @@ class SearchControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
     @InjectMocks
     private SearchController searchController;
 
+    private static final String ETAG = "\"etag\"";
+
     private User testUser;
     private Project testProject;
     private Requirement testRequirement;
@@ -62,10 +68,11 @@ class SearchControllerTest {
         UUID projectId = testProject.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
         when(requirementRepository.searchByText(projectId, "test")).thenReturn(Arrays.asList(testRequirement));
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", null, null);
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", null, null, null);
 
         // Assert
         assertNotNull(response);
@@ -81,11 +88,12 @@ class SearchControllerTest {
         UUID projectId = testProject.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
         when(requirementRepository.findByFilters(projectId, "DRAFT", null))
                 .thenReturn(Arrays.asList(testRequirement));
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, null, "DRAFT", null);
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, null, "DRAFT", null, null);
 
         // Assert
         assertNotNull(response);
@@ -101,10 +109,11 @@ class SearchControllerTest {
         UUID projectId = testProject.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
         when(requirementRepository.searchByText(projectId, "test")).thenReturn(Arrays.asList(testRequirement));
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", "DRAFT", null);
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", "DRAFT", null, null);
 
         // Assert
         assertNotNull(response);
@@ -119,11 +128,12 @@ class SearchControllerTest {
         UUID projectId = testProject.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
         when(requirementRepository.findByFilters(projectId, null, "MEDIUM"))
                 .thenReturn(Arrays.asList(testRequirement));
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, null, null, "MEDIUM");
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, null, null, "MEDIUM", null);
 
         // Assert
         assertNotNull(response);
@@ -141,7 +151,7 @@ class SearchControllerTest {
 
         // Act & Assert
         assertThrows(SearchException.class, () -> {
-            searchController.search(projectId, "test", null, null);
+            searchController.search(projectId, "test", null, null, null);
         });
     }
 
@@ -151,10 +161,11 @@ class SearchControllerTest {
         UUID projectId = testProject.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
         when(requirementRepository.searchByText(projectId, "test")).thenReturn(Arrays.asList(testRequirement));
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", "DRAFT", "MEDIUM");
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", "DRAFT", "MEDIUM", null);
 
         // Assert
         assertNotNull(response);
@@ -169,11 +180,12 @@ class SearchControllerTest {
         UUID projectId = testProject.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
         when(requirementRepository.findByFilters(projectId, "DRAFT", "MEDIUM"))
                 .thenReturn(Arrays.asList(testRequirement));
 
         // Act
-        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "  ", "DRAFT", "MEDIUM");
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "  ", "DRAFT", "MEDIUM", null);
 
         // Assert
         assertNotNull(response);
@@ -181,4 +193,20 @@ class SearchControllerTest {
         verify(requirementRepository).findByFilters(projectId, "DRAFT", "MEDIUM");
         verify(requirementRepository, never()).searchByText(any(), any());
     }
+
+    @Test
+    void search_MatchingETag_ReturnsNotModifiedWithoutQuerying() {
+        UUID projectId = testProject.getId();
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(projectMemberRepository.existsByProjectIdAndUserId(projectId, testUser.getId())).thenReturn(true);
+        when(projectVersionService.etag(projectId, "search")).thenReturn(ETAG);
+        when(projectVersionService.isNotModified(ETAG, ETAG)).thenReturn(true);
+
+        ResponseEntity<List<RequirementResponse>> response = searchController.search(projectId, "test", null, null, ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verifyNoInteractions(requirementRepository);
+    }
 }
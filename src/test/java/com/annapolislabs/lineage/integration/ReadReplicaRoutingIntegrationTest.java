@@ -0,0 +1,158 @@
+package com.annapolislabs.lineage.integration;
+
+import com.annapolislabs.lineage.config.ReadYourWritesTracker;
+import com.annapolislabs.lineage.config.ReplicaLagMonitor;
+import com.annapolislabs.lineage.config.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing tests against two independent Postgres containers standing in for primary and replica.
+ * Each database holds a marker row naming it, so a query shows where it was routed.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("lineage_primary")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("lineage_replica")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static final String WHERE_AM_I = "SELECT name FROM db_marker";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void createMarkers() {
+        for (PostgreSQLContainer<?> container : List.of(primary, replica)) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource(container));
+            jdbc.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(20))");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS notes (body TEXT)");
+            jdbc.update("DELETE FROM db_marker");
+            jdbc.update("INSERT INTO db_marker (name) VALUES (?)", container == primary ? "primary" : "replica");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(dataSource(replica), 5000, meterRegistry);
+        tracker = new ReadYourWritesTracker(10_000);
+        route(lagMonitor);
+    }
+
+    private void route(ReplicaLagMonitor monitor) {
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                dataSource(primary), dataSource(replica), monitor, tracker, meterRegistry));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnceLagIsKnown() {
+        assertEquals("primary", readOnly.execute(status -> whereAmI()), "lag unknown before the first check");
+
+        lagMonitor.check();
+
+        assertEquals(0, lagMonitor.getLagMs());
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        assertEquals("primary", readWrite.execute(status -> whereAmI()));
+        assertEquals("primary", whereAmI(), "no transaction");
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToPrimaryWhenLagExceedsLimit() {
+        // A negative limit makes any measured lag too high
+        ReplicaLagMonitor strictMonitor = new ReplicaLagMonitor(dataSource(replica), -1, new SimpleMeterRegistry());
+        route(strictMonitor);
+        strictMonitor.check();
+
+        assertFalse(strictMonitor.isReplicaUsable());
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+        assertEquals(1.0, meterRegistry.get("lineage.datasource.route")
+                .tags("target", "primary", "reason", "replica_lag").counter().count());
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryAfterCommit() {
+        lagMonitor.check();
+        authenticate("alice@example.com");
+
+        readWrite.executeWithoutResult(status -> {
+            String insert = "INSERT INTO notes (body) VALUES ('hello')";
+            jdbcTemplate.update(tracker.inspect(insert));
+        });
+
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+
+        authenticate("bob@example.com");
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        assertEquals(1.0, meterRegistry.get("lineage.datasource.route")
+                .tags("target", "primary", "reason", "recent_write").counter().count());
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinUser() {
+        lagMonitor.check();
+        authenticate("alice@example.com");
+
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update(tracker.inspect("INSERT INTO notes (body) VALUES ('discarded')"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+    }
+
+    private String whereAmI() {
+        return jdbcTemplate.queryForObject(WHERE_AM_I, String.class);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static DataSource dataSource(PostgreSQLContainer<?> container) {
+        return new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+}
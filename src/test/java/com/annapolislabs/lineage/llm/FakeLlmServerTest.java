@@ -0,0 +1,94 @@
+package com.annapolislabs.lineage.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeLlmServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private FakeLlmServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FakeLlmScript script = new FakeLlmScript()
+                .when("project ID: (\\w+)", "list $1")
+                .otherwise("fallback");
+        server = new FakeLlmServer(script, objectMapper).start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void respondsWithScriptedContentForLastMessage() throws Exception {
+        HttpResponse<String> response = post("{\"model\":\"m\",\"messages\":["
+                + "{\"role\":\"system\",\"content\":\"sys\"},"
+                + "{\"role\":\"user\",\"content\":\"[Current project ID: p42]\"}]}");
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals("list p42", body.path("choices").get(0).path("message").path("content").asText());
+        assertTrue(body.path("usage").path("prompt_tokens").asLong() > 0);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void usesFallbackWhenNoRuleMatches() throws Exception {
+        HttpResponse<String> response = post("{\"messages\":[{\"role\":\"user\",\"content\":\"hello\"}]}");
+
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals("fallback", body.path("choices").get(0).path("message").path("content").asText());
+    }
+
+    @Test
+    void rejectsMalformedRequests() throws Exception {
+        assertEquals(400, post("not json").statusCode());
+    }
+
+    @Test
+    void fromJson_readsRulesAndFallback() throws Exception {
+        String json = "{\"rules\":[{\"match\":\"^Tool (\\\\w+) returned\",\"response\":\"done $1\"}],"
+                + "\"fallback\":\"none\"}";
+
+        FakeLlmScript script = FakeLlmScript.fromJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), objectMapper);
+
+        assertEquals("done list_projects", script.respond("Tool list_projects returned: []"));
+        assertEquals("none", script.respond(null));
+    }
+
+    @Test
+    void respond_escapesCapturesForJsonTemplates() throws Exception {
+        FakeLlmScript script = FakeLlmScript.fromJson(
+                getClass().getResourceAsStream("/fake-llm/default-script.json"), objectMapper);
+
+        String content = script.respond("Tool update_requirement failed: field \"title\" is C:\\temp\nretry");
+
+        JsonNode response = objectMapper.readTree(content);
+        assertEquals("The tool failed: field \"title\" is C:\\temp", response.path("message").asText());
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(server.getUrl()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,88 @@
+package com.annapolislabs.lineage.notification;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpNotificationSenderTest {
+
+    private FakeSmtpServer smtpServer;
+    private SmtpNotificationSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(properties);
+        sender = new SmtpNotificationSender(mailSender, "no-reply@lineage.test");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void send_deliversWholeBatchOverOneConnection() {
+        NotificationOutbox first = notification("alice@example.com", "Review approved: REQ-1");
+        NotificationOutbox second = notification("bob@example.com", "New task: Write tests");
+
+        Map<UUID, String> failures = sender.send(List.of(first, second));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(1, smtpServer.getConnectionCount());
+        List<FakeSmtpServer.ReceivedMessage> received = smtpServer.getMessages();
+        assertEquals(2, received.size());
+        assertEquals("no-reply@lineage.test", received.get(0).from());
+        assertEquals(List.of("alice@example.com"), received.get(0).recipients());
+        assertEquals("Review approved: REQ-1", received.get(0).header("Subject"));
+        assertTrue(received.get(1).data().contains("body for bob@example.com"));
+    }
+
+    @Test
+    void send_reportsRejectedRecipientWithoutFailingTheBatch() {
+        smtpServer.rejectRecipient("bounce@example.com");
+        NotificationOutbox rejected = notification("bounce@example.com", "Overdue: Task");
+        NotificationOutbox delivered = notification("carol@example.com", "Due soon: Task");
+
+        Map<UUID, String> failures = sender.send(List.of(rejected, delivered));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(rejected.getId()));
+        assertEquals(1, smtpServer.getMessages().size());
+        assertEquals(List.of("carol@example.com"), smtpServer.getMessages().get(0).recipients());
+    }
+
+    @Test
+    void send_reportsWholeBatchWhenServerIsUnreachable() throws Exception {
+        smtpServer.close();
+        NotificationOutbox first = notification("alice@example.com", "a");
+        NotificationOutbox second = notification("bob@example.com", "b");
+
+        Map<UUID, String> failures = sender.send(List.of(first, second));
+
+        assertEquals(2, failures.size());
+    }
+
+    private static NotificationOutbox notification(String recipient, String subject) {
+        NotificationOutbox notification = new NotificationOutbox("TEST", recipient, subject,
+                "body for " + recipient, LocalDateTime.now());
+        notification.setId(UUID.randomUUID());
+        return notification;
+    }
+}
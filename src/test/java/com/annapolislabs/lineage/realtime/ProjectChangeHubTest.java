@@ -0,0 +1,199 @@
+package com.annapolislabs.lineage.realtime;
+
+import com.annapolislabs.lineage.repository.ProjectMemberRepository;
+import com.annapolislabs.lineage.repository.ProjectVersionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectChangeHubTest {
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private ProjectVersionRepository versionRepository;
+
+    @Mock
+    private WebSocketSession session;
+
+    @Mock
+    private Clock clock;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Runnable> queuedSends = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ProjectChangeHub hub;
+    private UUID userId;
+    private UUID projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new ProjectChangeHub(objectMapper, projectMemberRepository, versionRepository, meterRegistry,
+                queuedSends::add, clock);
+        ReflectionTestUtils.setField(hub, "maxPending", 3);
+        ReflectionTestUtils.setField(hub, "maxSubscriptions", 5);
+        ReflectionTestUtils.setField(hub, "sendTimeLimitMs", 1000);
+        ReflectionTestUtils.setField(hub, "bufferSizeLimit", 64 * 1024);
+        userId = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ProjectChangeHub.USER_ID, userId);
+        when(session.getId()).thenReturn("s1");
+        when(session.getAttributes()).thenReturn(attributes);
+        hub.afterConnectionEstablished(session);
+    }
+
+    @Test
+    void burstOfEditsToOneRequirementIsSentOnceWithItsLatestVersion() throws Exception {
+        subscribe(true);
+        UUID edited = UUID.randomUUID();
+        UUID linked = UUID.randomUUID();
+
+        hub.onChange(change(edited, 4L));
+        hub.onChange(change(linked, 5L));
+        hub.onChange(change(edited, 6L));
+        flushAndSend();
+
+        List<JsonNode> sent = sentMessages();
+        assertEquals(2, sent.size());
+        assertEquals("subscribed", sent.get(0).path("type").asText());
+        JsonNode batch = sent.get(1);
+        assertEquals("changes", batch.path("type").asText());
+        assertEquals(projectId.toString(), batch.path("projectId").asText());
+        assertEquals(2, batch.path("changes").size());
+        assertEquals(linked.toString(), batch.path("changes").get(0).path("entityId").asText());
+        assertEquals(edited.toString(), batch.path("changes").get(1).path("entityId").asText());
+        assertEquals(6L, batch.path("changes").get(1).path("version").asLong());
+        assertEquals(1.0, meterRegistry.get("lineage.changes.push").tag("outcome", "coalesced").counter().count());
+    }
+
+    @Test
+    void overflowingQueueCollapsesIntoResync() throws Exception {
+        subscribe(true);
+        for (long version = 1; version <= 5; version++) {
+            hub.onChange(change(UUID.randomUUID(), version));
+        }
+        flushAndSend();
+
+        List<JsonNode> sent = sentMessages();
+        assertEquals(2, sent.size());
+        assertEquals("resync", sent.get(1).path("type").asText());
+        assertTrue(sent.get(1).path("changes").isMissingNode());
+    }
+
+    @Test
+    void nonMembersReceiveNothing() throws Exception {
+        subscribe(false);
+
+        hub.onChange(change(UUID.randomUUID(), 1L));
+        flushAndSend();
+
+        List<JsonNode> sent = sentMessages();
+        assertEquals(1, sent.size());
+        assertEquals("error", sent.get(0).path("type").asText());
+    }
+
+    @Test
+    void stalledSessionIsEvicted() throws Exception {
+        subscribe(true);
+        when(clock.millis()).thenReturn(0L, 500L, 1500L);
+
+        hub.onChange(change(UUID.randomUUID(), 1L));
+        hub.flush();
+        assertEquals(1, queuedSends.size(), "write handed to a sender, which never runs it");
+        hub.flush();
+        assertEquals(1, hub.sessionCount(), "still within the send time limit");
+        hub.flush();
+
+        assertEquals(0, hub.sessionCount());
+        queuedSends.forEach(Runnable::run);
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, meterRegistry.get("lineage.changes.push").tag("outcome", "evicted").counter().count());
+    }
+
+    @Test
+    void heartbeatSendsVersionAfterQueuedChanges() throws Exception {
+        subscribe(true);
+        when(projectMemberRepository.findMemberUserIds(projectId, Set.of(userId))).thenReturn(Set.of(userId));
+        when(versionRepository.findVersion(projectId)).thenReturn(7L);
+
+        hub.onChange(change(UUID.randomUUID(), 7L));
+        hub.heartbeat();
+        flushAndSend();
+
+        List<JsonNode> sent = sentMessages();
+        assertEquals(3, sent.size());
+        assertEquals("changes", sent.get(1).path("type").asText());
+        assertEquals("version", sent.get(2).path("type").asText());
+        assertEquals(7L, sent.get(2).path("version").asLong());
+    }
+
+    @Test
+    void heartbeatRevokesSubscriptionOfFormerMember() throws Exception {
+        subscribe(true);
+        when(projectMemberRepository.findMemberUserIds(projectId, Set.of(userId))).thenReturn(Set.of());
+
+        hub.onChange(change(UUID.randomUUID(), 1L));
+        hub.heartbeat();
+        flushAndSend();
+        hub.onChange(change(UUID.randomUUID(), 2L));
+        flushAndSend();
+
+        List<JsonNode> sent = sentMessages();
+        assertEquals(2, sent.size(), "queued changes are discarded and later ones not delivered");
+        assertEquals("revoked", sent.get(1).path("type").asText());
+        assertEquals(projectId.toString(), sent.get(1).path("projectId").asText());
+    }
+
+    private void subscribe(boolean member) throws Exception {
+        when(projectMemberRepository.existsByProjectIdAndUserId(projectId, userId)).thenReturn(member);
+        hub.handleMessage(session, new TextMessage(
+                "{\"type\":\"subscribe\",\"projectId\":\"" + projectId + "\"}"));
+    }
+
+    private void flushAndSend() {
+        hub.flush();
+        List<Runnable> sends = List.copyOf(queuedSends);
+        queuedSends.clear();
+        sends.forEach(Runnable::run);
+    }
+
+    private ProjectChangeEvent change(UUID requirementId, long version) {
+        return new ProjectChangeEvent(projectId, "REQUIREMENT", requirementId, "UPSERT", version);
+    }
+
+    private List<JsonNode> sentMessages() throws Exception {
+        ArgumentCaptor<TextMessage> messages = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, atLeastOnce()).sendMessage(messages.capture());
+        List<JsonNode> sent = new ArrayList<>();
+        for (TextMessage message : messages.getAllValues()) {
+            sent.add(objectMapper.readTree(message.getPayload()));
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,63 @@
+package com.annapolislabs.lineage.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectChangeRelayTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProjectChangeHub hub;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ProjectChangeRelay relay;
+    private ProjectChangeEvent event;
+
+    @BeforeEach
+    void setUp() {
+        relay = new ProjectChangeRelay(dataSource, jdbcTemplate, hub, objectMapper, new SimpleMeterRegistry());
+        event = new ProjectChangeEvent(UUID.randomUUID(), "REQUIREMENT", UUID.randomUUID(), "UPSERT", 3L);
+    }
+
+    @Test
+    void receive_deliversChangesFromOtherNodes() throws Exception {
+        ProjectChangeRelay.Relayed relayed = new ProjectChangeRelay.Relayed("other-node", event.projectId(),
+                event.entityType(), event.entityId(), event.operation(), event.version());
+
+        relay.receive(objectMapper.writeValueAsString(relayed));
+
+        verify(hub).onChange(event);
+    }
+
+    @Test
+    void receive_skipsOwnAnnouncementsAndMalformedPayloads() {
+        relay.receive(relay.encode(event));
+        relay.receive("not json");
+
+        verifyNoInteractions(hub);
+    }
+
+    @Test
+    void announce_isNoOpWhileRelayIsDisabled() {
+        relay.announce(event);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,101 @@
+package com.annapolislabs.lineage.security;
+
+import com.annapolislabs.lineage.repository.CsrfUsedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CsrfTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+
+    @Mock
+    private CsrfUsedTokenRepository usedTokenRepository;
+
+    @Mock
+    private Clock clock;
+
+    private CsrfTokenService csrfTokenService;
+
+    @BeforeEach
+    void setUp() {
+        csrfTokenService = new CsrfTokenService(usedTokenRepository, clock);
+        ReflectionTestUtils.setField(csrfTokenService, "csrfSecret", "test-csrf-secret");
+        ReflectionTestUtils.setField(csrfTokenService, "ttlMinutes", 30L);
+        ReflectionTestUtils.setField(csrfTokenService, "singleUse", false);
+    }
+
+    @Test
+    void validateToken_acceptsTokenRepeatedlyWithinTtl() {
+        when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(60), NOW.plusSeconds(29 * 60));
+        CsrfTokenService.CsrfTokenPair pair = csrfTokenService.generateTokenPair("alice@example.com");
+        String token = pair.token().getToken();
+
+        assertTrue(csrfTokenService.validateToken(token, pair.tokenId(), "alice@example.com"));
+        assertTrue(csrfTokenService.validateToken(token, null, "alice@example.com"));
+        assertEquals(NOW.plusSeconds(30 * 60), pair.expiresAt());
+        verifyNoInteractions(usedTokenRepository);
+    }
+
+    @Test
+    void validateToken_rejectsExpiredToken() {
+        when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(30 * 60));
+        CsrfTokenService.CsrfTokenPair pair = csrfTokenService.generateTokenPair("alice@example.com");
+
+        assertFalse(csrfTokenService.validateToken(pair.token().getToken(), pair.tokenId(), "alice@example.com"));
+    }
+
+    @Test
+    void validateToken_rejectsTokenIssuedToAnotherSubject() {
+        when(clock.instant()).thenReturn(NOW);
+        CsrfTokenService.CsrfTokenPair pair = csrfTokenService.generateTokenPair("alice@example.com");
+
+        assertFalse(csrfTokenService.validateToken(pair.token().getToken(), pair.tokenId(), "bob@example.com"));
+    }
+
+    @Test
+    void validateToken_rejectsTamperedExpiryAndMismatchedId() {
+        when(clock.instant()).thenReturn(NOW);
+        CsrfTokenService.CsrfTokenPair pair = csrfTokenService.generateTokenPair("alice@example.com");
+        String[] parts = pair.token().getToken().split("\\.");
+        String extended = parts[0] + "." + (Long.parseLong(parts[1]) + 3600) + "." + parts[2];
+
+        assertFalse(csrfTokenService.validateToken(extended, pair.tokenId(), "alice@example.com"));
+        assertFalse(csrfTokenService.validateToken(pair.token().getToken(), "other-id", "alice@example.com"));
+        assertFalse(csrfTokenService.validateToken("not-a-token", null, "alice@example.com"));
+    }
+
+    @Test
+    void validateToken_acceptsTokenSignedOnAnotherNodeWithSameSecret() {
+        when(clock.instant()).thenReturn(NOW);
+        CsrfTokenService otherNode = new CsrfTokenService(usedTokenRepository, clock);
+        ReflectionTestUtils.setField(otherNode, "csrfSecret", "test-csrf-secret");
+        ReflectionTestUtils.setField(otherNode, "ttlMinutes", 30L);
+        CsrfTokenService.CsrfTokenPair pair = otherNode.generateTokenPair("alice@example.com");
+
+        assertTrue(csrfTokenService.validateToken(pair.token().getToken(), pair.tokenId(), "alice@example.com"));
+    }
+
+    @Test
+    void validateToken_rejectsReplayInSingleUseMode() {
+        ReflectionTestUtils.setField(csrfTokenService, "singleUse", true);
+        when(clock.instant()).thenReturn(NOW);
+        CsrfTokenService.CsrfTokenPair pair = csrfTokenService.generateTokenPair("alice@example.com");
+        when(usedTokenRepository.markUsed(eq(pair.tokenId()), any())).thenReturn(1, 0);
+
+        assertTrue(csrfTokenService.validateToken(pair.token().getToken(), pair.tokenId(), "alice@example.com"));
+        assertFalse(csrfTokenService.validateToken(pair.token().getToken(), pair.tokenId(), "alice@example.com"));
+    }
+}
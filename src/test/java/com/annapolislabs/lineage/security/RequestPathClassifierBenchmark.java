@@ -0,0 +1,92 @@
+package com.annapolislabs.lineage.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Microbenchmark comparing {@link RequestPathClassifier} with the per-filter matcher chains it
+ * replaced: the CSRF filter's {@code AntPathRequestMatcher} arrays and the JWT filter's
+ * {@code startsWith} chain.
+ *
+ * <p>Each iteration classifies the paths from {@link RequestPathClassifierTest#SAMPLE_PATHS} for
+ * both filters and prints the mean nanoseconds per request. The classifier is measured with a fresh
+ * request per lookup (first classification) and with a request already classified by an earlier
+ * filter (attribute reuse). Excluded from the regular test task; run with
+ * {@code ./gradlew benchmark --tests '*RequestPathClassifierBenchmark'} and tune with
+ * {@code -Dbenchmark.<name>=<value>} where name is {@code iterations} or {@code warmup}.</p>
+ */
+@Tag("benchmark")
+class RequestPathClassifierBenchmark {
+
+    private final RequestPathClassifier classifier = new RequestPathClassifier();
+
+    @Test
+    void requestClassificationCost() {
+        int iterations = Integer.getInteger("benchmark.iterations", 200_000);
+        int warmup = Integer.getInteger("benchmark.warmup", 50_000);
+
+        List<MockHttpServletRequest> requests = RequestPathClassifierTest.SAMPLE_PATHS.stream()
+                .map(path -> RequestPathClassifierTest.request("POST", path))
+                .toList();
+
+        long legacyResult = runLegacy(requests, warmup);
+        long classifierResult = runClassifier(requests, warmup, false);
+        assertEquals(legacyResult, classifierResult, "classifier and legacy matchers disagree");
+        runClassifier(requests, warmup, true);
+
+        long started = System.nanoTime();
+        runLegacy(requests, iterations);
+        long legacyNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        runClassifier(requests, iterations, false);
+        long classifierNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        runClassifier(requests, iterations, true);
+        long cachedNanos = System.nanoTime() - started;
+
+        long lookups = (long) iterations * requests.size();
+        System.out.printf("%-28s %10.1f ns/request%n", "legacy matchers", (double) legacyNanos / lookups);
+        System.out.printf("%-28s %10.1f ns/request%n", "classifier (first filter)", (double) classifierNanos / lookups);
+        System.out.printf("%-28s %10.1f ns/request%n", "classifier (attribute reuse)", (double) cachedNanos / lookups);
+    }
+
+    private static long runLegacy(List<MockHttpServletRequest> requests, int iterations) {
+        long matches = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (MockHttpServletRequest request : requests) {
+                if (RequestPathClassifierTest.legacyCsrfRequired(request)) {
+                    matches++;
+                }
+                if (RequestPathClassifierTest.legacyPublic(request.getRequestURI())) {
+                    matches++;
+                }
+            }
+        }
+        return matches / Math.max(iterations, 1);
+    }
+
+    private long runClassifier(List<MockHttpServletRequest> requests, int iterations, boolean reuse) {
+        long matches = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (MockHttpServletRequest request : requests) {
+                if (!reuse) {
+                    request.removeAttribute(RequestPathClassifier.ATTRIBUTE);
+                }
+                if (classifier.classify(request).csrfRequired()) {
+                    matches++;
+                }
+                if (classifier.classify(request).publicEndpoint()) {
+                    matches++;
+                }
+            }
+        }
+        return matches / Math.max(iterations, 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.annapolislabs.lineage.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestPathClassifierTest {
+
+    static final List<String> SAMPLE_PATHS = List.of(
+            "/", "/index.html", "/assets/index-4f2a.js", "/favicon.ico",
+            "/api/auth/login", "/api/auth/me", "/api/auth/refresh",
+            "/api/invitations/abc/accept", "/api/csrf/token",
+            "/swagger-ui/index.html", "/swagger-ui.html", "/api-docs", "/api-docs/swagger-config",
+            "/error", "/h2-console/login.do", "/actuator/health", "/actuator/info", "/actuator/metrics",
+            "/api/projects", "/api/projects/5f0c/requirements", "/api/projects/import", "/api/projects/test-import",
+            "/api/projects/5f0c/export/csv", "/api/requirements/12/links", "/api/admin/users/7",
+            "/api/security/events", "/api/docs/openapi", "/api/v1/rbac/permissions/check", "/api/v1/teams/3");
+
+    // Matchers and prefix checks the filters used before the classifier
+    static final RequestMatcher[] LEGACY_CSRF_REQUIRED = {
+            new AntPathRequestMatcher("/api/projects/**"),
+            new AntPathRequestMatcher("/api/requirements/**"),
+            new AntPathRequestMatcher("/api/admin/**")
+    };
+
+    static final RequestMatcher[] LEGACY_CSRF_BYPASS = {
+            new AntPathRequestMatcher("/api/csrf/**"),
+            new AntPathRequestMatcher("/api/auth/**"),
+            new AntPathRequestMatcher("/api/invitations/**"),
+            new AntPathRequestMatcher("/api/security/**"),
+            new AntPathRequestMatcher("/api/docs/**"),
+            new AntPathRequestMatcher("/api/projects/test-import"),
+            new AntPathRequestMatcher("/api/projects/import"),
+            new AntPathRequestMatcher("/actuator/**")
+    };
+
+    static boolean legacyCsrfRequired(MockHttpServletRequest request) {
+        for (RequestMatcher matcher : LEGACY_CSRF_BYPASS) {
+            if (matcher.matches(request)) {
+                return false;
+            }
+        }
+        for (RequestMatcher matcher : LEGACY_CSRF_REQUIRED) {
+            if (matcher.matches(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean legacyPublic(String path) {
+        return (path.startsWith("/api/auth/") && !path.equals("/api/auth/me")) ||
+               path.startsWith("/api/invitations/") ||
+               path.startsWith("/swagger") ||
+               path.startsWith("/api-docs") ||
+               path.equals("/error") ||
+               path.startsWith("/h2-console/") ||
+               path.equals("/actuator/health") ||
+               path.equals("/actuator/info");
+    }
+
+    static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private final RequestPathClassifier classifier = new RequestPathClassifier();
+
+    @Test
+    void classify_matchesLegacyCsrfAndPublicRules() {
+        for (String path : SAMPLE_PATHS) {
+            RequestPathClassifier.Classification classification = classifier.classify(request("POST", path));
+
+            assertEquals(legacyCsrfRequired(request("POST", path)), classification.csrfRequired(), path);
+            assertEquals(legacyPublic(path), classification.publicEndpoint(), path);
+        }
+    }
+
+    @Test
+    void classify_assignsStaticAndRateLimitCategories() {
+        assertTrue(classifier.classify("/").staticResource());
+        assertTrue(classifier.classify("/assets/app.css").staticResource());
+        assertFalse(classifier.classify("/api/projects").staticResource());
+        assertTrue(classifier.classify("/ws/changes").publicEndpoint());
+
+        assertEquals(RequestPathClassifier.RATE_LIMIT_ADMIN,
+                classifier.classify("/api/admin/users").rateLimitCategory());
+
+        assertEquals(RequestPathClassifier.RATE_LIMIT_PERMISSION,
+                classifier.classify("/api/v1/rbac/permissions/check").rateLimitCategory());
+        assertEquals(RequestPathClassifier.RATE_LIMIT_BULK,
+                classifier.classify("/api/projects/5f0c/export/json").rateLimitCategory());
+        assertEquals(RequestPathClassifier.RATE_LIMIT_BULK,
+                classifier.classify("/api/projects/import").rateLimitCategory());
+        assertEquals(RequestPathClassifier.RATE_LIMIT_STANDARD,
+                classifier.classify("/api/projects/5f0c").rateLimitCategory());
+    }
+
+    @Test
+    void classify_storesResultOnRequestAndRecomputesWhenPathChanges() {
+        MockHttpServletRequest request = request("POST", "/api/projects/5f0c");
+
+        RequestPathClassifier.Classification first = classifier.classify(request);
+        assertSame(first, request.getAttribute(RequestPathClassifier.ATTRIBUTE));
+        assertSame(first, classifier.classify(request));
+
+        request.setRequestURI("/error");
+        RequestPathClassifier.Classification error = classifier.classify(request);
+        assertTrue(error.publicEndpoint());
+        assertFalse(error.csrfRequired());
+    }
+
+    @Test
+    void classify_stripsContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/lineage/api/admin/users");
+        request.setContextPath("/lineage");
+
+        assertEquals(RequestPathClassifier.RATE_LIMIT_ADMIN, classifier.classify(request).rateLimitCategory());
+    }
+}
@@ -0,0 +1,227 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.AIConversation;
+import com.annapolislabs.lineage.entity.AIConversationMessage;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.entity.UserRole;
+import com.annapolislabs.lineage.llm.FakeLlmScript;
+import com.annapolislabs.lineage.llm.FakeLlmServer;
+import com.annapolislabs.lineage.mcp.McpTool;
+import com.annapolislabs.lineage.repository.AIConversationMessageRepository;
+import com.annapolislabs.lineage.repository.AIConversationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end latency benchmark for the agent loop against {@link FakeLlmServer}.
+ *
+ * <p>Runs scripted multi-iteration turns (a batch of parallel tool calls, a follow-up single tool
+ * call, then a final answer) over a pre-seeded conversation and prints p50/p95/mean for each phase
+ * recorded by {@link AIAgentService}. Repository and tool latency are simulated with sleeps, so the
+ * run is fully offline and repeatable. Excluded from the regular test task; run with
+ * {@code ./gradlew benchmark --tests '*AIAgentLatencyBenchmark'} and tune with
+ * {@code -Dbenchmark.<name>=<value>} where name is one of {@code turns}, {@code warmup},
+ * {@code history}, {@code tokenBudget}, {@code toolsPerTurn}, {@code dbLatencyMs},
+ * {@code toolLatencyMs}, {@code llmFirstTokenMs}, {@code promptTokensPerSecond} or
+ * {@code completionTokensPerSecond}.</p>
+ */
+@Tag("benchmark")
+class AIAgentLatencyBenchmark {
+
+    private static final String[] PHASES = {
+            AIAgentService.METRIC_LATENCY, AIAgentService.METRIC_LLM_CALL, AIAgentService.METRIC_JSON_SERIALIZE,
+            AIAgentService.METRIC_JSON_PARSE, AIAgentService.METRIC_DB, AIAgentService.METRIC_TOOL,
+            AIAgentService.METRIC_TOOL_BATCH
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void agentTurnLatency() throws Exception {
+        int turns = Integer.getInteger("benchmark.turns", 50);
+        int warmup = Integer.getInteger("benchmark.warmup", 10);
+        int history = Integer.getInteger("benchmark.history", 40);
+        int toolsPerTurn = Integer.getInteger("benchmark.toolsPerTurn", 3);
+        long dbLatencyMs = Long.getLong("benchmark.dbLatencyMs", 2);
+        long toolLatencyMs = Long.getLong("benchmark.toolLatencyMs", 20);
+        long firstTokenMs = Long.getLong("benchmark.llmFirstTokenMs", 50);
+        double promptRate = Double.parseDouble(System.getProperty("benchmark.promptTokensPerSecond", "0"));
+        double completionRate = Double.parseDouble(System.getProperty("benchmark.completionTokensPerSecond", "0"));
+
+        try (FakeLlmServer server = new FakeLlmServer(buildScript(toolsPerTurn), objectMapper,
+                Duration.ofMillis(firstTokenMs), promptRate, completionRate).start(0)) {
+            runTurns(server, new SimpleMeterRegistry(), warmup, history, dbLatencyMs, toolLatencyMs);
+
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            registry.config().meterFilter(percentiles());
+            long requestsBefore = server.getRequestCount();
+            long bytesBefore = server.getRequestBytes();
+            runTurns(server, registry, turns, history, dbLatencyMs, toolLatencyMs);
+
+            long requests = server.getRequestCount() - requestsBefore;
+            report(registry, turns, requests, server.getRequestBytes() - bytesBefore);
+            assertEquals(turns, registry.get(AIAgentService.METRIC_LATENCY).tag("outcome", "completed").timer().count());
+        }
+    }
+
+    private FakeLlmScript buildScript(int toolsPerTurn) {
+        StringBuilder batch = new StringBuilder("<think>plan</think>{\"tool_calls\": [");
+        for (int i = 0; i < toolsPerTurn; i++) {
+            if (i > 0) {
+                batch.append(", ");
+            }
+            batch.append("{\"tool\": \"search_requirements\", \"arguments\": {\"projectId\": \"$1\", \"query\": \"q")
+                    .append(i).append("\"}}");
+        }
+        batch.append("], \"message\": \"Searching\"}");
+        return new FakeLlmScript()
+                .when("^Tool get_project", "{\"tool\": null, \"arguments\": null, \"message\": \"Summary ready\"}")
+                .when("^Tool search_requirements",
+                        "{\"tool\": \"get_project\", \"arguments\": {\"projectId\": \"p1\"}, \"message\": \"\"}")
+                .when("project ID: (\\w+)", batch.toString());
+    }
+
+    private void runTurns(FakeLlmServer server, MeterRegistry registry, int turns, int history,
+                          long dbLatencyMs, long toolLatencyMs) throws Exception {
+        User user = new User("bench@example.com", "hash", "Bench User", UserRole.DEVELOPER);
+        user.setId(UUID.randomUUID());
+        AIConversation conversation = new AIConversation("chat_bench", user, "Benchmark");
+        conversation.setId(UUID.randomUUID());
+        List<AIConversationMessage> seeded = seedHistory(conversation.getId(), history);
+
+        AIConversationRepository conversationRepository = mock(AIConversationRepository.class);
+        AIConversationMessageRepository messageRepository = mock(AIConversationMessageRepository.class);
+        when(conversationRepository.findByChatIdAndUser(anyString(), any())).thenAnswer(inv -> {
+            sleep(dbLatencyMs);
+            conversation.setNextSequence(history);
+            return Optional.of(conversation);
+        });
+        when(conversationRepository.save(any())).thenAnswer(inv -> {
+            sleep(dbLatencyMs);
+            return inv.getArgument(0);
+        });
+        when(messageRepository.findByConversationIdOrderBySequenceAsc(any())).thenAnswer(inv -> {
+            sleep(dbLatencyMs);
+            return seeded;
+        });
+        when(messageRepository.save(any())).thenAnswer(inv -> {
+            sleep(dbLatencyMs);
+            return inv.getArgument(0);
+        });
+
+        Map<String, McpTool> tools = new HashMap<>();
+        tools.put("search_requirements", stubTool(toolLatencyMs, List.of(Map.of("reqId", "REQ-1", "title", "Login"))));
+        tools.put("get_project", stubTool(toolLatencyMs, Map.of("name", "Lineage", "requirements", 42)));
+
+        AIContextWindowManager contextWindowManager = new AIContextWindowManager(objectMapper, registry);
+        ReflectionTestUtils.setField(contextWindowManager, "tokenBudget", Integer.getInteger("benchmark.tokenBudget", 8000));
+        ReflectionTestUtils.setField(contextWindowManager, "recentMessages", 6);
+        ReflectionTestUtils.setField(contextWindowManager, "toolResultChars", 600);
+        ReflectionTestUtils.setField(contextWindowManager, "summaryLineChars", 200);
+        AIAgentService service = new AIAgentService(conversationRepository, messageRepository,
+                contextWindowManager, objectMapper, registry, tools);
+        ReflectionTestUtils.setField(service, "llmApiUrl", server.getUrl());
+        ReflectionTestUtils.setField(service, "llmModel", "fake");
+        ReflectionTestUtils.setField(service, "llmTemperature", 0.0);
+        ReflectionTestUtils.setField(service, "llmMaxTokens", 1024);
+
+        for (int i = 0; i < turns; i++) {
+            service.processMessage("chat_bench", "Summarize the login requirements", "p1", user);
+        }
+    }
+
+    private List<AIConversationMessage> seedHistory(UUID conversationId, int history) throws Exception {
+        String payload = objectMapper.writeValueAsString(List.of(
+                Map.of("reqId", "REQ-1", "title", "Login", "description", "x".repeat(800)),
+                Map.of("reqId", "REQ-2", "title", "Logout", "description", "y".repeat(800))));
+        List<AIConversationMessage> rows = new ArrayList<>(history);
+        for (int i = 0; i < history; i++) {
+            String content = switch (i % 3) {
+                case 0 -> "[Current project ID: p1]\n\nQuestion " + i;
+                case 1 -> "<think>reasoning</think>{\"tool\": \"search_requirements\", \"arguments\": {}, \"message\": \"\"}";
+                default -> "Tool search_requirements returned: " + payload;
+            };
+            rows.add(new AIConversationMessage(conversationId, i, i % 3 == 1 ? "assistant" : "user", content));
+        }
+        return rows;
+    }
+
+    private McpTool stubTool(long latencyMs, Object result) throws Exception {
+        McpTool tool = mock(McpTool.class);
+        when(tool.execute(any(), any())).thenAnswer(inv -> {
+            sleep(latencyMs);
+            return result;
+        });
+        return tool;
+    }
+
+    private void report(MeterRegistry registry, int turns, long requests, long requestBytes) {
+        System.out.printf("%nAgent latency benchmark: %d turns, %d LLM requests, %.1f KiB avg request body%n",
+                turns, requests, requests == 0 ? 0.0 : requestBytes / 1024.0 / requests);
+        System.out.printf("%-64s %8s %10s %10s %10s%n", "phase", "count", "p50 ms", "p95 ms", "mean ms");
+        for (String phase : PHASES) {
+            for (Timer timer : registry.find(phase).timers()) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                String name = phase + timer.getId().getTags().stream()
+                        .map(tag -> " " + tag.getKey() + "=" + tag.getValue())
+                        .reduce("", String::concat);
+                System.out.printf("%-64s %8d %10.2f %10.2f %10.2f%n", name, snapshot.count(),
+                        percentile(snapshot, 0.5), percentile(snapshot, 0.95), snapshot.mean(TimeUnit.MILLISECONDS));
+            }
+        }
+        registry.find(AIAgentService.METRIC_ITERATIONS).summaries().forEach(summary ->
+                System.out.printf("%-64s %8d %32.2f%n", AIAgentService.METRIC_ITERATIONS, summary.count(), summary.mean()));
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static MeterFilter percentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
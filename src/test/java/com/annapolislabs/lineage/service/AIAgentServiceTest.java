@@ -1,22 +1,38 @@
 package com.annapolislabs.lineage.service;
 
+import com.annapolislabs.lineage.dto.response.AIChatListResponse;
 import com.annapolislabs.lineage.entity.AIConversation;
+import com.annapolislabs.lineage.entity.AIConversationMessage;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.entity.UserRole;
+import com.annapolislabs.lineage.exception.ResourceNotFoundException;
+import com.annapolislabs.lineage.llm.FakeLlmScript;
+import com.annapolislabs.lineage.llm.FakeLlmServer;
 import com.annapolislabs.lineage.mcp.McpTool;
+import com.annapolislabs.lineage.repository.AIConversationMessageRepository;
 import com.annapolislabs.lineage.repository.AIConversationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.net.http.HttpClient;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +41,18 @@ class AIAgentServiceTest {
     @Mock
     private AIConversationRepository conversationRepository;
 
+    @Mock
+    private AIConversationMessageRepository messageRepository;
+
+    @Mock
+    private AIContextWindowManager contextWindowManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private List<McpTool> mcpTools;
 
@@ -63,62 +91,119 @@ class AIAgentServiceTest {
     @Test
     void getConversationHistory_Success() {
         // Arrange
-        List<AIConversation> conversations = Arrays.asList(testConversation);
-        when(conversationRepository.findByUserOrderByUpdatedAtDesc(testUser)).thenReturn(conversations);
+        AIChatListResponse summary = new AIChatListResponse("chat_123", "Test Chat", LocalDateTime.now(), 4);
+        when(conversationRepository.findChatSummariesByUser(testUser, PageRequest.of(0, 20)))
+                .thenReturn(List.of(summary));
 
         // Act
-        List<AIConversation> result = aiAgentService.getConversationHistory(testUser);
+        List<AIChatListResponse> result = aiAgentService.getConversationHistory(testUser, 0, 20);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("chat_123", result.get(0).getChatId());
-        verify(conversationRepository).findByUserOrderByUpdatedAtDesc(testUser);
+        assertEquals("chat_123", result.get(0).getId());
+        assertEquals(4, result.get(0).getMessageCount());
     }
 
     @Test
-    void getConversationHistory_LimitsTo20() {
+    void getConversationHistory_ClampsPageSize() {
         // Arrange
-        List<AIConversation> conversations = new ArrayList<>();
-        for (int i = 0; i < 25; i++) {
-            conversations.add(new AIConversation("chat_" + i, testUser, "Chat " + i));
-        }
-        when(conversationRepository.findByUserOrderByUpdatedAtDesc(testUser)).thenReturn(conversations);
+        when(conversationRepository.findChatSummariesByUser(eq(testUser), any(Pageable.class)))
+                .thenReturn(new ArrayList<>());
 
         // Act
-        List<AIConversation> result = aiAgentService.getConversationHistory(testUser);
+        aiAgentService.getConversationHistory(testUser, -1, 500);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(20, result.size());
+        verify(conversationRepository).findChatSummariesByUser(testUser, PageRequest.of(0, 100));
     }
 
     @Test
-    void deleteConversation_Success() {
+    void getConversationMessages_ReturnsUserVisibleTranscript() {
         // Arrange
-        String chatId = "chat_123";
-        doNothing().when(conversationRepository).deleteByChatIdAndUser(chatId, testUser);
+        when(conversationRepository.findByChatIdAndUser("chat_123", testUser)).thenReturn(Optional.of(testConversation));
+        when(messageRepository.findByConversationIdOrderBySequenceAsc(testConversation.getId())).thenReturn(List.of(
+                new AIConversationMessage(testConversation.getId(), 0, "user", "[Current project ID: p1]\n\nhello"),
+                new AIConversationMessage(testConversation.getId(), 1, "assistant",
+                        "<think>list</think>{\"tool\": \"list_projects\", \"arguments\": {}, \"message\": null}"),
+                new AIConversationMessage(testConversation.getId(), 2, "user", "Tool list_projects returned: []"),
+                new AIConversationMessage(testConversation.getId(), 3, "assistant",
+                        "{\"tool\": null, \"arguments\": null, \"message\": \"hi\"}")));
 
         // Act
-        aiAgentService.deleteConversation(chatId, testUser);
+        List<AIConversation.ConversationMessage> result = aiAgentService.getConversationMessages("chat_123", testUser);
 
         // Assert
-        verify(conversationRepository).deleteByChatIdAndUser(chatId, testUser);
+        assertEquals(2, result.size());
+        assertEquals("user", result.get(0).getRole());
+        assertEquals("hello", result.get(0).getContent());
+        assertEquals("hi", result.get(1).getContent());
     }
 
+    @Test
+    void getConversationMessages_UnknownChatThrows() {
+        when(conversationRepository.findByChatIdAndUser("missing", testUser)).thenReturn(Optional.empty());
 
+        assertThrows(ResourceNotFoundException.class,
+                () -> aiAgentService.getConversationMessages("missing", testUser));
+    }
 
     @Test
-    void getConversationHistory_EmptyList() {
+    void deleteConversation_Success() {
         // Arrange
-        when(conversationRepository.findByUserOrderByUpdatedAtDesc(testUser))
-                .thenReturn(new ArrayList<>());
+        String chatId = "chat_123";
+        doNothing().when(conversationRepository).deleteByChatIdAndUser(chatId, testUser);
 
         // Act
-        List<AIConversation> result = aiAgentService.getConversationHistory(testUser);
+        aiAgentService.deleteConversation(chatId, testUser);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        verify(conversationRepository).deleteByChatIdAndUser(chatId, testUser);
+        verify(contextWindowManager).evict(testUser.getId() + ":" + chatId);
+    }
+
+    @Test
+    void processMessage_runsToolCallsFromFakeLlmAndAggregatesResults() throws Exception {
+        // Arrange
+        FakeLlmScript script = new FakeLlmScript()
+                .when("^Tool ", "{\"tool\": null, \"arguments\": null, \"message\": \"All done\"}")
+                .when("project ID: (\\w+)", "<think>plan</think>{\"tool_calls\": ["
+                        + "{\"tool\": \"get_project\", \"arguments\": {\"projectId\": \"$1\"}},"
+                        + "{\"tool\": \"list_requirements\", \"arguments\": {\"projectId\": \"$1\"}}],"
+                        + " \"message\": \"Checking\"}");
+        McpTool getProject = mock(McpTool.class);
+        McpTool listRequirements = mock(McpTool.class);
+        when(getProject.execute(any(), any())).thenReturn(Map.of("name", "Lineage"));
+        when(listRequirements.execute(any(), any())).thenReturn(List.of());
+        AIContextWindowManager windowManager = new AIContextWindowManager(objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(windowManager, "tokenBudget", 8000);
+        ReflectionTestUtils.setField(windowManager, "recentMessages", 6);
+        ReflectionTestUtils.setField(windowManager, "toolResultChars", 600);
+        ReflectionTestUtils.setField(windowManager, "summaryLineChars", 200);
+        AIAgentService service = new AIAgentService(conversationRepository, messageRepository,
+                windowManager, objectMapper, meterRegistry,
+                Map.of("get_project", getProject, "list_requirements", listRequirements));
+        when(conversationRepository.findByChatIdAndUser("chat_123", testUser)).thenReturn(Optional.of(testConversation));
+        when(messageRepository.findByConversationIdOrderBySequenceAsc(testConversation.getId())).thenReturn(List.of());
+
+        try (FakeLlmServer server = new FakeLlmServer(script, objectMapper).start(0)) {
+            ReflectionTestUtils.setField(service, "llmApiUrl", server.getUrl());
+            ReflectionTestUtils.setField(service, "llmModel", "fake");
+
+            // Act
+            String result = service.processMessage("chat_123", "What is in here?", "p1", testUser);
+
+            // Assert
+            assertEquals("Checking\n\nAll done", result);
+            assertEquals(2, server.getRequestCount());
+        }
+        ArgumentCaptor<AIConversationMessage> saved = ArgumentCaptor.forClass(AIConversationMessage.class);
+        verify(messageRepository, times(4)).save(saved.capture());
+        String toolMessage = saved.getAllValues().get(2).getContent();
+        assertTrue(toolMessage.startsWith("Tool get_project returned: {\"name\":\"Lineage\"}"));
+        assertTrue(toolMessage.endsWith("Tool list_requirements returned: []"));
+        assertEquals(3, testConversation.getMessageCount(), "the tool results are not shown to the user");
+        assertEquals(4, testConversation.getNextSequence());
+        assertEquals(2, meterRegistry.get(AIAgentService.METRIC_LLM_CALL).timer().count());
     }
 }
@@ -0,0 +1,122 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.AIConversation.ConversationMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIContextWindowManagerTest {
+
+    private static final String SYSTEM_PROMPT = "You are a test assistant.";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private AIContextWindowManager manager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new AIContextWindowManager(objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(manager, "tokenBudget", 1000);
+        ReflectionTestUtils.setField(manager, "recentMessages", 2);
+        ReflectionTestUtils.setField(manager, "toolResultChars", 50);
+        ReflectionTestUtils.setField(manager, "summaryLineChars", 40);
+    }
+
+    @Test
+    void buildWindow_shortConversationIsForwardedVerbatim() throws Exception {
+        List<ConversationMessage> messages = List.of(
+                new ConversationMessage("user", "hello"),
+                new ConversationMessage("assistant", "hi"));
+
+        AIContextWindowManager.ContextWindow window = manager.buildWindow("chat", SYSTEM_PROMPT, messages, null);
+
+        JsonNode array = objectMapper.readTree(window.messagesJson());
+        assertEquals(3, array.size());
+        assertEquals("system", array.get(0).path("role").asText());
+        assertEquals("hello", array.get(1).path("content").asText());
+        assertEquals(window.originalTokens(), window.windowTokens());
+    }
+
+    @Test
+    void buildWindow_elidesOldToolResultsButKeepsRecentOnes() throws Exception {
+        String payload = "x".repeat(500);
+        List<ConversationMessage> messages = List.of(
+                new ConversationMessage("user", "Tool list_requirements returned: " + payload),
+                new ConversationMessage("assistant", "<think>long reasoning</think>{\"tool\":null}"),
+                new ConversationMessage("user", "Tool list_requirements returned: " + payload));
+
+        AIContextWindowManager.ContextWindow window = manager.buildWindow("chat", SYSTEM_PROMPT, messages, null);
+
+        JsonNode array = objectMapper.readTree(window.messagesJson());
+        assertTrue(array.get(1).path("content").asText().contains("chars elided"));
+        assertEquals("Tool list_requirements returned: " + payload, array.get(3).path("content").asText());
+        assertTrue(window.windowTokens() < window.originalTokens());
+    }
+
+    @Test
+    void buildWindow_foldsOldTurnsIntoSummaryWhenOverBudget() throws Exception {
+        List<ConversationMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            messages.add(new ConversationMessage("user", "question " + i + " " + "y".repeat(200)));
+        }
+
+        AIContextWindowManager.ContextWindow window = manager.buildWindow("chat", SYSTEM_PROMPT, messages, "next");
+
+        JsonNode array = objectMapper.readTree(window.messagesJson());
+        assertTrue(window.windowTokens() <= 1000);
+        assertEquals("system", array.get(1).path("role").asText());
+        assertTrue(array.get(1).path("content").asText().startsWith("Summary of earlier conversation"));
+        assertEquals("next", array.get(array.size() - 1).path("content").asText());
+        assertEquals(window.messageCount(), array.size());
+    }
+
+    @Test
+    void buildWindow_reusesPrefixAcrossIterations() {
+        List<ConversationMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(new ConversationMessage("user", "turn " + i));
+        }
+
+        manager.buildWindow("chat", SYSTEM_PROMPT, messages, null);
+        manager.buildWindow("chat", SYSTEM_PROMPT, messages, null);
+        messages.add(new ConversationMessage("assistant", "reply"));
+        manager.buildWindow("chat", SYSTEM_PROMPT, messages, null);
+
+        assertEquals(1.0, meterRegistry.get("lineage.ai.context.prefix.cache").tag("outcome", "rebuild").counter().count());
+        assertEquals(1.0, meterRegistry.get("lineage.ai.context.prefix.cache").tag("outcome", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("lineage.ai.context.prefix.cache").tag("outcome", "append").counter().count());
+        assertEquals(3, meterRegistry.get("lineage.ai.context.compression.ratio").summary().count());
+    }
+
+    @Test
+    void summarize_reportsToolPayloadSizeInsteadOfContent() {
+        String line = manager.summarize(new ConversationMessage("user", "Tool list_projects returned: [1,2,3]"));
+
+        assertEquals("- Tool list_projects returned 7 chars of data", line);
+    }
+
+    @Test
+    void compactOlderMessage_handlesAggregatedToolResults() {
+        String payload = "z".repeat(200);
+        ConversationMessage aggregated = new ConversationMessage("user",
+                "Tool create_requirement returned: " + payload + "\nTool create_link failed: not found");
+
+        String compacted = manager.compactOlderMessage(aggregated);
+        String summary = manager.summarize(aggregated);
+
+        String[] lines = compacted.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].endsWith("call the tool again if needed]"));
+        assertEquals("Tool create_link failed: not found", lines[1]);
+        assertEquals("- Tool create_requirement returned 200 chars of data; Tool create_link failed: not found", summary);
+    }
+}
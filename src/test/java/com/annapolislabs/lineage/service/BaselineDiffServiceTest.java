@@ -0,0 +1,166 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotDiff.FieldChange;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.Link;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.RequirementNode;
+import com.annapolislabs.lineage.entity.Project;
+import com.annapolislabs.lineage.repository.ProjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BaselineDiffServiceTest {
+
+    private static final LocalDateTime RELEASE_1 = LocalDateTime.of(2025, 3, 1, 12, 0);
+    private static final LocalDateTime RELEASE_2 = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Mock
+    private ProjectSnapshotService snapshotService;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BaselineDiffService diffService;
+    private UUID projectId;
+    private UUID rootId;
+    private UUID keptId;
+    private UUID editedId;
+    private UUID droppedId;
+    private UUID newId;
+
+    @BeforeEach
+    void setUp() {
+        diffService = new BaselineDiffService(snapshotService, projectRepository, objectMapper);
+        projectId = UUID.randomUUID();
+        rootId = UUID.randomUUID();
+        keptId = UUID.randomUUID();
+        editedId = UUID.randomUUID();
+        droppedId = UUID.randomUUID();
+        newId = UUID.randomUUID();
+    }
+
+    @Test
+    void diff_SkipsUnchangedAndReportsFieldAndLinkChanges() {
+        ProjectSnapshotResponse before = snapshot(RELEASE_1, "R1",
+                List.of(node(rootId, null, "TEST-001", "Root", "DRAFT", Map.of()),
+                        node(keptId, rootId, "TEST-002", "Kept", "DRAFT", Map.of("owner", "ann")),
+                        node(editedId, rootId, "TEST-003", "Edited", "DRAFT", Map.of("owner", "ann")),
+                        node(droppedId, rootId, "TEST-004", "Dropped", "DRAFT", Map.of())),
+                List.of(link(rootId, "TEST-001", keptId, "TEST-002"), link(rootId, "TEST-001", droppedId, "TEST-004")));
+        ProjectSnapshotResponse after = snapshot(RELEASE_2, "R2",
+                List.of(node(rootId, null, "TEST-001", "Root", "DRAFT", Map.of()),
+                        node(keptId, rootId, "TEST-002", "Kept", "DRAFT", Map.of("owner", "ann")),
+                        node(editedId, null, "TEST-003", "Edited", "APPROVED", Map.of("owner", "bob", "due", "Q3")),
+                        node(newId, rootId, "TEST-005", "New", "DRAFT", Map.of())),
+                List.of(link(rootId, "TEST-001", keptId, "TEST-002"), link(rootId, "TEST-001", newId, "TEST-005")));
+        when(snapshotService.snapshot(projectId, null, "R1")).thenReturn(before);
+        when(snapshotService.snapshot(projectId, null, "R2")).thenReturn(after);
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(new Project("Spec", "", "TEST", null)));
+
+        ProjectSnapshotDiff diff = diffService.diff(projectId, null, "R1", null, "R2");
+
+        assertEquals(2, diff.unchanged());
+        assertEquals(List.of("TEST-005"), diff.added().stream().map(ProjectSnapshotDiff.RequirementChange::reqId).toList());
+        assertEquals(List.of("TEST-004"), diff.removed().stream().map(ProjectSnapshotDiff.RequirementChange::reqId).toList());
+        assertEquals(1, diff.modified().size());
+        assertEquals(List.of(
+                new FieldChange("status", "DRAFT", "APPROVED"),
+                new FieldChange("parentId", rootId, null),
+                new FieldChange("customFields.due", null, "Q3"),
+                new FieldChange("customFields.owner", "ann", "bob")), diff.modified().get(0).changes());
+        assertEquals(List.of(newId), diff.linksAdded().stream().map(Link::toRequirementId).toList());
+        assertEquals(List.of(droppedId), diff.linksRemoved().stream().map(Link::toRequirementId).toList());
+    }
+
+    @Test
+    void diff_RequiresFromSide() {
+        assertThrows(IllegalArgumentException.class, () -> diffService.diff(projectId, null, " ", null, null));
+        verifyNoInteractions(snapshotService);
+    }
+
+    @Test
+    void fingerprint_IgnoresCustomFieldOrder() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("b", 2);
+        fields.put("a", Map.of("x", 1));
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("a", Map.of("x", 1));
+        reordered.put("b", 2);
+
+        assertEquals(ProjectSnapshotService.fingerprint(state("T", fields)),
+                ProjectSnapshotService.fingerprint(state("T", reordered)));
+        assertNotEquals(ProjectSnapshotService.fingerprint(state("T", fields)),
+                ProjectSnapshotService.fingerprint(state("T2", fields)));
+    }
+
+    @Test
+    void writers_EmitSummaryAndChanges() throws Exception {
+        ProjectSnapshotResponse before = snapshot(RELEASE_1, "R1",
+                List.of(node(editedId, null, "TEST-003", "Edited", "DRAFT", Map.of())), List.of());
+        ProjectSnapshotResponse after = snapshot(RELEASE_2, null,
+                List.of(node(editedId, null, "TEST-003", "Edited", "APPROVED", Map.of()),
+                        node(newId, null, "TEST-005", "New | pipe", "DRAFT", Map.of())), List.of());
+        ProjectSnapshotDiff diff = BaselineDiffService.compare("Spec", before, after);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        diffService.writeJson(diff, json);
+        JsonNode document = objectMapper.readTree(json.toByteArray());
+        assertEquals(1, document.path("summary").path("added").asInt());
+        assertEquals("R1", document.path("from").path("baseline").asText());
+        assertEquals("status", document.path("modified").get(0).path("changes").get(0).path("field").asText());
+
+        ByteArrayOutputStream md = new ByteArrayOutputStream();
+        diffService.writeMarkdown(diff, md);
+        String markdown = md.toString(StandardCharsets.UTF_8);
+        assertTrue(markdown.startsWith("# Spec: changes from R1 (2025-03-01T12:00) to 2025-06-01T12:00"));
+        assertTrue(markdown.contains("- TEST-005: New | pipe"));
+        assertTrue(markdown.contains("| status | DRAFT | APPROVED |"));
+    }
+
+    private ProjectSnapshotResponse snapshot(LocalDateTime at, String baseline, List<RequirementNode> requirements,
+                                             List<Link> links) {
+        return new ProjectSnapshotResponse(projectId, at, baseline, requirements.size(), requirements, links);
+    }
+
+    private static RequirementNode node(UUID id, UUID parentId, String reqId, String title, String status,
+                                        Map<String, Object> customFields) {
+        Map<String, Object> state = state(title, customFields);
+        state.put("reqId", reqId);
+        state.put("status", status);
+        state.put("parentId", parentId != null ? parentId.toString() : null);
+        return new RequirementNode(id, parentId, ProjectSnapshotService.fingerprint(state), reqId, title,
+                "Description", status, "MEDIUM", customFields, List.of());
+    }
+
+    private static Map<String, Object> state(String title, Map<String, Object> customFields) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("reqId", "TEST-001");
+        state.put("title", title);
+        state.put("description", "Description");
+        state.put("status", "DRAFT");
+        state.put("priority", "MEDIUM");
+        state.put("parentId", null);
+        state.put("customFields", customFields);
+        return state;
+    }
+
+    private static Link link(UUID from, String fromReqId, UUID to, String toReqId) {
+        return new Link(from, fromReqId, to, toReqId);
+    }
+}
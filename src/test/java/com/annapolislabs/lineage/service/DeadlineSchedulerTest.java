@@ -0,0 +1,209 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.PeerReview;
+import com.annapolislabs.lineage.entity.TaskAssignment;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.repository.PeerReviewRepository;
+import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
+import com.annapolislabs.lineage.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Mock
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Mock
+    private PeerReviewRepository peerReviewRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    private MutableClock clock;
+    private DeadlineScheduler scheduler;
+    private UUID assignee;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        scheduler = new DeadlineScheduler(taskAssignmentRepository, peerReviewRepository, userRepository, emailService, clock);
+        ReflectionTestUtils.setField(scheduler, "reminderLeadHours", 24L);
+        ReflectionTestUtils.setField(scheduler, "maxResults", 100);
+        assignee = UUID.randomUUID();
+    }
+
+    @Test
+    void track_servesOverdueAndDueSoonPerOwner() {
+        TaskAssignment overdue = task(NOW.minusHours(3));
+        TaskAssignment dueTomorrow = task(NOW.plusDays(1));
+        TaskAssignment dueNextMonth = task(NOW.plusDays(30));
+        TaskAssignment otherOwner = task(NOW.minusDays(1));
+        otherOwner.setAssignedTo(UUID.randomUUID());
+        List.of(overdue, dueTomorrow, dueNextMonth, otherOwner).forEach(scheduler::track);
+
+        assertEquals(List.of(overdue.getId()), scheduler.findOverdue(DeadlineScheduler.ItemType.TASK, assignee));
+        assertEquals(List.of(otherOwner.getId(), overdue.getId()), scheduler.findOverdue(DeadlineScheduler.ItemType.TASK, null));
+        assertEquals(List.of(dueTomorrow.getId()),
+                scheduler.findDueWithin(DeadlineScheduler.ItemType.TASK, assignee, Duration.ofDays(7)));
+        assertEquals(2, scheduler.countOverdue(DeadlineScheduler.ItemType.TASK));
+        assertEquals(0, scheduler.countOverdue(DeadlineScheduler.ItemType.PEER_REVIEW));
+    }
+
+    @Test
+    void track_closingOrReassigningMovesTheEntry() {
+        TaskAssignment task = task(NOW.minusHours(1));
+        scheduler.track(task);
+
+        UUID newAssignee = UUID.randomUUID();
+        task.setAssignedTo(newAssignee);
+        scheduler.track(task);
+        assertTrue(scheduler.findOverdue(DeadlineScheduler.ItemType.TASK, assignee).isEmpty());
+        assertEquals(List.of(task.getId()), scheduler.findOverdue(DeadlineScheduler.ItemType.TASK, newAssignee));
+
+        task.setStatus(TaskAssignment.TaskStatus.COMPLETED);
+        scheduler.track(task);
+        assertTrue(scheduler.findOverdue(DeadlineScheduler.ItemType.TASK, null).isEmpty());
+    }
+
+    @Test
+    void fireDueTriggers_sendsReminderThenOverdueNoticeOnce() {
+        TaskAssignment task = task(NOW.plusHours(30));
+        scheduler.track(task);
+        User owner = new User();
+        owner.setEmail("dev@lineage.com");
+        when(taskAssignmentRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        when(userRepository.findById(assignee)).thenReturn(Optional.of(owner));
+        when(taskAssignmentRepository.claimDueSoonNotice(task.getId(), task.getDueDate())).thenReturn(1);
+        when(taskAssignmentRepository.claimOverdueNotice(task.getId(), task.getDueDate())).thenReturn(1);
+
+        scheduler.fireDueTriggers();
+        verifyNoInteractions(emailService);
+
+        clock.set(NOW.plusHours(7));
+        scheduler.fireDueTriggers();
+        scheduler.fireDueTriggers();
+        verify(emailService, times(1)).sendDeadlineNotification(eq("dev@lineage.com"), eq("TASK"), eq("Task"), anyString(), eq(false));
+
+        clock.set(NOW.plusHours(31));
+        scheduler.fireDueTriggers();
+        verify(emailService, times(1)).sendDeadlineNotification(eq("dev@lineage.com"), eq("TASK"), eq("Task"), anyString(), eq(true));
+    }
+
+    @Test
+    void fireDueTriggers_skipsNoticeClaimedByAnotherInstance() {
+        TaskAssignment task = task(NOW.plusHours(1));
+        scheduler.track(task);
+        User owner = new User();
+        owner.setEmail("dev@lineage.com");
+        when(taskAssignmentRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        when(userRepository.findById(assignee)).thenReturn(Optional.of(owner));
+        when(taskAssignmentRepository.claimOverdueNotice(task.getId(), task.getDueDate())).thenReturn(0);
+
+        clock.set(NOW.plusHours(2));
+        scheduler.fireDueTriggers();
+
+        verifyNoInteractions(emailService);
+        verify(taskAssignmentRepository).claimOverdueNotice(task.getId(), task.getDueDate());
+    }
+
+    @Test
+    void fireDueTriggers_ignoresTriggersSupersededByLaterUpdate() {
+        TaskAssignment task = task(NOW.plusHours(1));
+        scheduler.track(task);
+        task.setDueDate(NOW.plusDays(10));
+        scheduler.track(task);
+
+        clock.set(NOW.plusHours(2));
+        scheduler.fireDueTriggers();
+
+        verifyNoInteractions(emailService);
+        assertTrue(scheduler.findOverdue(DeadlineScheduler.ItemType.TASK, null).isEmpty());
+    }
+
+    @Test
+    void rebuild_loadsOpenDeadlinesWithoutRefiringPastTriggers() {
+        UUID reviewId = UUID.randomUUID();
+        UUID reviewer = UUID.randomUUID();
+        TaskAssignment stale = task(NOW.plusDays(3));
+        scheduler.track(stale);
+        when(taskAssignmentRepository.findOpenDeadlines(anyCollection())).thenReturn(List.of());
+        when(peerReviewRepository.findOpenDeadlines(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{reviewId, reviewer, NOW.minusDays(1)}));
+
+        scheduler.rebuild();
+        scheduler.fireDueTriggers();
+
+        assertEquals(List.of(reviewId), scheduler.findOverdue(DeadlineScheduler.ItemType.PEER_REVIEW, reviewer));
+        assertTrue(scheduler.findDueWithin(DeadlineScheduler.ItemType.TASK, null, Duration.ofDays(7)).isEmpty());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void track_reviewLeavesIndexWhenCompleted() {
+        PeerReview review = new PeerReview();
+        review.setId(UUID.randomUUID());
+        review.setReviewerId(assignee);
+        review.setReviewDeadline(NOW.minusHours(2));
+        scheduler.track(review);
+        assertEquals(1, scheduler.countOverdue(DeadlineScheduler.ItemType.PEER_REVIEW));
+
+        review.setStatus(PeerReview.ReviewStatus.APPROVED);
+        scheduler.track(review);
+
+        assertEquals(0, scheduler.countOverdue(DeadlineScheduler.ItemType.PEER_REVIEW));
+    }
+
+    private TaskAssignment task(LocalDateTime dueDate) {
+        TaskAssignment task = new TaskAssignment();
+        task.setId(UUID.randomUUID());
+        task.setTaskTitle("Task");
+        task.setAssignedTo(assignee);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime start) {
+            set(start);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.atZone(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.PeerReview;
+import com.annapolislabs.lineage.entity.TaskAssignment;
+import com.annapolislabs.lineage.entity.TeamMember;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.repository.PeerReviewRepository;
+import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
+import com.annapolislabs.lineage.repository.TeamRepository;
+import com.annapolislabs.lineage.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntityHydratorTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Mock
+    private PeerReviewRepository peerReviewRepository;
+
+    @InjectMocks
+    private EntityHydrator entityHydrator;
+
+    @Test
+    void loadUsers_resolvesDistinctIdsInOneQuery() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(userRepository.findAllById(Set.of(first, second))).thenReturn(List.of(user(first), user(second)));
+
+        Map<UUID, User> users = entityHydrator.loadUsers(Arrays.asList(first, second, first, null));
+
+        assertEquals(Set.of(first, second), users.keySet());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void loadUsers_skipsQueryWithoutIds() {
+        assertTrue(entityHydrator.loadUsers(Collections.singletonList(null)).isEmpty());
+        assertTrue(entityHydrator.loadTeams(List.of()).isEmpty());
+
+        verifyNoInteractions(userRepository, teamRepository);
+    }
+
+    @Test
+    void attachUsers_setsTransientUserOnEveryMembership() {
+        UUID userId = UUID.randomUUID();
+        TeamMember first = new TeamMember(UUID.randomUUID(), userId, TeamMember.TeamRole.MEMBER);
+        TeamMember second = new TeamMember(UUID.randomUUID(), userId, TeamMember.TeamRole.ADMIN);
+        User user = user(userId);
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(user));
+
+        entityHydrator.attachUsers(List.of(first, second));
+
+        assertSame(user, first.getUser());
+        assertSame(user, second.getUser());
+    }
+
+    @Test
+    void initializeTaskCollections_fetchesEachCollectionOnceForThePage() {
+        TaskAssignment first = task();
+        TaskAssignment second = task();
+        TaskAssignment loadedFirst = task(first.getId());
+        loadedFirst.setTags(List.of("backend"));
+        loadedFirst.setBlockers(List.of("waiting on review"));
+        List<UUID> ids = List.of(first.getId(), second.getId());
+        when(taskAssignmentRepository.fetchWithTags(ids)).thenReturn(List.of(loadedFirst, second));
+        when(taskAssignmentRepository.fetchWithBlockers(ids)).thenReturn(List.of(loadedFirst, second));
+
+        entityHydrator.initializeTaskCollections(List.of(first, second));
+
+        assertEquals(List.of("backend"), first.getTags());
+        assertEquals(List.of("waiting on review"), first.getBlockers());
+        verify(taskAssignmentRepository, times(1)).fetchWithTags(any());
+        verify(taskAssignmentRepository, times(1)).fetchWithBlockers(any());
+    }
+
+    @Test
+    void initializeReviewCollections_skipsQueriesForEmptyPage() {
+        entityHydrator.initializeReviewCollections(List.<PeerReview>of());
+
+        verifyNoInteractions(peerReviewRepository);
+    }
+
+    private static User user(UUID id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static TaskAssignment task() {
+        return task(UUID.randomUUID());
+    }
+
+    private static TaskAssignment task(UUID id) {
+        TaskAssignment task = new TaskAssignment();
+        task.setId(id);
+        return task;
+    }
+}
@@ -38,7 +38,7 @@ class HierarchicalNumberingTest {
     private ProjectMemberRepository projectMemberRepository;
 
     @Mock
-    private RequirementHistoryRepository historyRepository;
+    private RequirementHistoryService historyService;
 
     @Mock
     private RequirementLinkRepository linkRepository;
@@ -78,7 +78,6 @@ class HierarchicalNumberingTest {
                 .thenReturn(Optional.of(testMember));
         when(projectRepository.findById(testProject.getId())).thenReturn(Optional.of(testProject));
         when(requirementRepository.findByProjectId(testProject.getId())).thenReturn(new ArrayList<>());
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         Requirement savedReq = new Requirement(testProject, "REQ-L1-001", "First Requirement", "Top level requirement", testUser);
@@ -114,7 +113,6 @@ class HierarchicalNumberingTest {
         when(projectRepository.findById(testProject.getId())).thenReturn(Optional.of(testProject));
         when(requirementRepository.findByProjectId(testProject.getId()))
                 .thenReturn(Arrays.asList(existingReq));
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         Requirement savedReq = new Requirement(testProject, "REQ-L1-002", "Second Requirement", "Another top level", testUser);
@@ -152,7 +150,6 @@ class HierarchicalNumberingTest {
         when(requirementRepository.findByProjectId(testProject.getId()))
                 .thenReturn(Arrays.asList(parentReq));
         when(requirementRepository.findById(parentReq.getId())).thenReturn(Optional.of(parentReq));
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.save(any(RequirementLink.class))).thenReturn(new RequirementLink());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
@@ -198,7 +195,6 @@ class HierarchicalNumberingTest {
         when(requirementRepository.findByProjectId(testProject.getId()))
                 .thenReturn(Arrays.asList(parentReq, firstChild));
         when(requirementRepository.findById(parentReq.getId())).thenReturn(Optional.of(parentReq));
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.save(any(RequirementLink.class))).thenReturn(new RequirementLink());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
@@ -243,7 +239,6 @@ class HierarchicalNumberingTest {
         when(requirementRepository.findByProjectId(testProject.getId()))
                 .thenReturn(Arrays.asList(level1Req, level2Req));
         when(requirementRepository.findById(level2Req.getId())).thenReturn(Optional.of(level2Req));
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.save(any(RequirementLink.class))).thenReturn(new RequirementLink());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
@@ -293,7 +288,6 @@ class HierarchicalNumberingTest {
         when(requirementRepository.findByProjectId(testProject.getId()))
                 .thenReturn(Arrays.asList(level1, level2, level3));
         when(requirementRepository.findById(level3.getId())).thenReturn(Optional.of(level3));
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.save(any(RequirementLink.class))).thenReturn(new RequirementLink());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
@@ -347,7 +341,6 @@ class HierarchicalNumberingTest {
         when(requirementRepository.findByProjectId(testProject.getId()))
                 .thenReturn(Arrays.asList(req1, req11, req12, req2));
         when(requirementRepository.findById(req2.getId())).thenReturn(Optional.of(req2));
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.save(any(RequirementLink.class))).thenReturn(new RequirementLink());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
@@ -0,0 +1,161 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.PermissionChange;
+import com.annapolislabs.lineage.repository.AuditLogRepository;
+import com.annapolislabs.lineage.repository.CsrfUsedTokenRepository;
+import com.annapolislabs.lineage.repository.PermissionChangeRepository;
+import com.annapolislabs.lineage.repository.UserSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 3, 0);
+
+    @Mock
+    private UserSessionRepository userSessionRepository;
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private PermissionChangeRepository permissionChangeRepository;
+
+    @Mock
+    private PermissionSnapshotService permissionSnapshotService;
+
+    @Mock
+    private CsrfUsedTokenRepository csrfUsedTokenRepository;
+
+    @Mock
+    private AdvisoryLockLeader leader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MaintenanceScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(NOW.atZone(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        scheduler = new MaintenanceScheduler(userSessionRepository, auditLogRepository, permissionChangeRepository,
+                permissionSnapshotService, csrfUsedTokenRepository, leader, transactionManager, meterRegistry, clock);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "batchPauseMs", 0L);
+        ReflectionTestUtils.setField(scheduler, "maxRunSeconds", 60L);
+        ReflectionTestUtils.setField(scheduler, "sessionRetentionDays", 7);
+        ReflectionTestUtils.setField(scheduler, "auditInfoRetentionDays", 90);
+        ReflectionTestUtils.setField(scheduler, "auditRetentionMonths", 13);
+        ReflectionTestUtils.setField(scheduler, "auditPartitionsAhead", 3);
+    }
+
+    @Test
+    void runDatabaseTasks_deletesInBatchesUntilAShortBatch() {
+        when(userSessionRepository.deleteOldSessionsBatch(NOW.minusDays(7), 2)).thenReturn(2, 2, 1);
+        when(auditLogRepository.deleteOldInfoLogsBatch(NOW.minusDays(90), 2)).thenReturn(0);
+        when(auditLogRepository.countBySeverityAndCreatedAtBefore(any(), eq(NOW.minusDays(90)))).thenReturn(12L);
+
+        scheduler.runDatabaseTasks();
+
+        verify(userSessionRepository, times(3)).deleteOldSessionsBatch(NOW.minusDays(7), 2);
+        verify(auditLogRepository, times(1)).deleteOldInfoLogsBatch(NOW.minusDays(90), 2);
+        assertEquals(5.0, meterRegistry.get("lineage.maintenance.rows").tag("task", "sessions").counter().count());
+        assertEquals(12.0, meterRegistry.get("lineage.maintenance.backlog").tag("task", "audit_logs").gauge().value());
+        assertEquals(1, meterRegistry.get("lineage.maintenance.duration").tag("task", "sessions").timer().count());
+    }
+
+    @Test
+    void runDatabaseTasks_stopsWhenRunBudgetIsSpent() {
+        ReflectionTestUtils.setField(scheduler, "maxRunSeconds", 0L);
+        when(userSessionRepository.deleteOldSessionsBatch(any(), eq(2))).thenReturn(2);
+        when(userSessionRepository.countOldSessions(any())).thenReturn(40L);
+
+        scheduler.runDatabaseTasks();
+
+        verify(userSessionRepository, times(1)).deleteOldSessionsBatch(any(), eq(2));
+        assertEquals(40.0, meterRegistry.get("lineage.maintenance.backlog").tag("task", "sessions").gauge().value());
+    }
+
+    @Test
+    void runDatabaseTasks_closesExpiredGrantsAndBumpsPermissionEpochs() {
+        UUID userId = UUID.randomUUID();
+        PermissionChange grant = new PermissionChange(userId, UUID.randomUUID(), "project.update",
+                PermissionChange.ChangeType.GRANT);
+        grant.setTemporary(true);
+        grant.setExpiresAt(NOW.minusHours(1));
+        when(permissionChangeRepository.lockExpiredBatch(NOW, 2)).thenReturn(List.of(grant));
+
+        scheduler.runDatabaseTasks();
+
+        assertEquals(NOW.minusHours(1), grant.getEffectiveUntil());
+        verify(permissionChangeRepository).saveAll(List.of(grant));
+        verify(permissionSnapshotService).bumpEpochs(Set.of(userId));
+    }
+
+    @Test
+    void runDatabaseTasks_continuesWithNextTaskWhenOneFails() {
+        when(userSessionRepository.deleteOldSessionsBatch(any(), eq(2))).thenThrow(new IllegalStateException("boom"));
+
+        scheduler.runDatabaseTasks();
+
+        verify(auditLogRepository).deleteOldInfoLogsBatch(any(), eq(2));
+        verify(permissionChangeRepository).lockExpiredBatch(NOW, 2);
+    }
+
+    @Test
+    void runDatabaseTasks_createsUpcomingPartitionsAndDropsMonthsPastRetention() {
+        when(auditLogRepository.ensurePartitions(3)).thenReturn(1);
+        when(auditLogRepository.dropPartitionsBefore(LocalDate.of(2024, 2, 1))).thenReturn(2);
+
+        scheduler.runDatabaseTasks();
+
+        assertEquals(1.0, meterRegistry.get("lineage.maintenance.partitions").tag("action", "created").counter().count());
+        assertEquals(2.0, meterRegistry.get("lineage.maintenance.partitions").tag("action", "dropped").counter().count());
+    }
+
+    @Test
+    void runDatabaseTasks_keepsPartitionsWhenRetentionIsDisabled() {
+        ReflectionTestUtils.setField(scheduler, "auditRetentionMonths", 0);
+
+        scheduler.runDatabaseTasks();
+
+        verify(auditLogRepository).ensurePartitions(3);
+        verify(auditLogRepository, never()).dropPartitionsBefore(any());
+    }
+
+    @Test
+    void runMaintenance_skipsDatabaseTasksWhenAnotherNodeIsLeader() {
+        when(leader.runIfLeader(eq(MaintenanceScheduler.LOCK_NAME), any())).thenReturn(false);
+
+        scheduler.runMaintenance();
+
+        verifyNoInteractions(userSessionRepository, auditLogRepository, permissionChangeRepository,
+                csrfUsedTokenRepository);
+    }
+
+    @Test
+    void runDatabaseTasks_purgesExpiredCsrfTokenIds() {
+        when(csrfUsedTokenRepository.deleteExpiredBatch(NOW, 2)).thenReturn(2, 1);
+
+        scheduler.runDatabaseTasks();
+
+        verify(csrfUsedTokenRepository, times(2)).deleteExpiredBatch(NOW, 2);
+        assertEquals(3.0, meterRegistry.get("lineage.maintenance.rows").tag("task", "csrf_tokens").counter().count());
+    }
+}
@@ -0,0 +1,120 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.NotificationOutbox;
+import com.annapolislabs.lineage.notification.NotificationSender;
+import com.annapolislabs.lineage.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(NOW.atZone(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        dispatcher = new NotificationDispatcher(outboxRepository, notificationSender, transactionManager, meterRegistry, clock);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 5000L);
+    }
+
+    @Test
+    void dispatch_marksDeliveredAndSchedulesRetryWithBackoff() {
+        NotificationOutbox delivered = notification(0);
+        NotificationOutbox bounced = notification(1);
+        when(outboxRepository.lockDueBatch(NOW, 2)).thenReturn(List.of(delivered, bounced), List.of());
+        when(notificationSender.send(anyList())).thenReturn(Map.of(bounced.getId(), "550 mailbox unavailable"));
+
+        dispatcher.dispatch();
+
+        assertEquals(NotificationOutbox.Status.SENT, delivered.getStatus());
+        assertEquals(NOW, delivered.getSentAt());
+        assertEquals(NotificationOutbox.Status.PENDING, bounced.getStatus());
+        assertEquals(2, bounced.getAttempts());
+        assertEquals(NOW.plusSeconds(2), bounced.getNextAttemptAt());
+        assertEquals("550 mailbox unavailable", bounced.getLastError());
+        verify(outboxRepository, times(2)).lockDueBatch(NOW, 2);
+        assertEquals(1.0, meterRegistry.get("lineage.notifications.dispatched").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    void dispatch_givesUpAfterMaxAttempts() {
+        NotificationOutbox notification = notification(2);
+        when(outboxRepository.lockDueBatch(NOW, 2)).thenReturn(List.of(notification));
+        when(notificationSender.send(anyList())).thenReturn(Map.of(notification.getId(), "550"));
+
+        dispatcher.dispatch();
+
+        assertEquals(NotificationOutbox.Status.FAILED, notification.getStatus());
+        assertEquals(3, notification.getAttempts());
+        verify(outboxRepository).saveAll(List.of(notification));
+    }
+
+    @Test
+    void dispatch_treatsSenderExceptionAsFailureOfWholeBatch() {
+        NotificationOutbox first = notification(0);
+        when(outboxRepository.lockDueBatch(NOW, 2)).thenReturn(List.of(first));
+        when(notificationSender.send(anyList())).thenThrow(new IllegalStateException("connection refused"));
+
+        dispatcher.dispatch();
+
+        assertEquals(NotificationOutbox.Status.PENDING, first.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertEquals(NOW.plusSeconds(1), first.getNextAttemptAt());
+        assertEquals("connection refused", first.getLastError());
+    }
+
+    @Test
+    void dispatch_doesNothingWhenOutboxIsEmpty() {
+        when(outboxRepository.lockDueBatch(NOW, 2)).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(notificationSender);
+        verify(outboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void backoff_doublesPerAttemptUpToMaximum() {
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(4), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(5), dispatcher.backoff(4));
+        assertEquals(Duration.ofSeconds(5), dispatcher.backoff(100));
+    }
+
+    private static NotificationOutbox notification(int previousAttempts) {
+        NotificationOutbox notification = new NotificationOutbox("TEST", "user@example.com", "subject", "body", NOW);
+        notification.setId(UUID.randomUUID());
+        notification.setAttempts(previousAttempts);
+        return notification;
+    }
+}
@@ -0,0 +1,117 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.PeerReview;
+import com.annapolislabs.lineage.entity.PeerReviewStatistic;
+import com.annapolislabs.lineage.repository.PeerReviewRepository;
+import com.annapolislabs.lineage.repository.PeerReviewStatisticRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PeerReviewStatisticsServiceTest {
+
+    @Mock
+    private PeerReviewStatisticRepository statisticRepository;
+
+    @Mock
+    private PeerReviewRepository peerReviewRepository;
+
+    @Mock
+    private AdvisoryLockLeader leader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PeerReviewStatisticsService peerReviewStatisticsService;
+
+    private UUID reviewer;
+
+    @BeforeEach
+    void setUp() {
+        reviewer = UUID.randomUUID();
+    }
+
+    @Test
+    void recordTransition_newReviewIncrementsStatusTypeAndPendingReviewer() {
+        PeerReview review = new PeerReview(UUID.randomUUID(), reviewer, UUID.randomUUID(), PeerReview.ReviewType.DESIGN);
+
+        peerReviewStatisticsService.recordTransition(null, PeerReviewStatisticsService.ReviewSnapshot.of(review));
+
+        verify(statisticRepository).lockShared();
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_STATUS, "PENDING", 1L);
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_TYPE, "DESIGN", 1L);
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_PENDING_REVIEWER, reviewer.toString(), 1L);
+    }
+
+    @Test
+    void recordTransition_onlyWritesChangedBuckets() {
+        PeerReviewStatisticsService.ReviewSnapshot before = new PeerReviewStatisticsService.ReviewSnapshot(
+                PeerReview.ReviewStatus.PENDING, PeerReview.ReviewType.CODE, reviewer);
+        PeerReviewStatisticsService.ReviewSnapshot after = new PeerReviewStatisticsService.ReviewSnapshot(
+                PeerReview.ReviewStatus.IN_PROGRESS, PeerReview.ReviewType.CODE, reviewer);
+
+        peerReviewStatisticsService.recordTransition(before, after);
+
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_STATUS, "PENDING", -1L);
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_STATUS, "IN_PROGRESS", 1L);
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_PENDING_REVIEWER, reviewer.toString(), -1L);
+        verify(statisticRepository, never()).increment(eq(PeerReviewStatistic.DIMENSION_TYPE), anyString(), anyLong());
+    }
+
+    @Test
+    void getStatistics_fillsMissingBucketsWithZero() {
+        when(statisticRepository.findAll()).thenReturn(List.of(
+                new PeerReviewStatistic(PeerReviewStatistic.DIMENSION_STATUS, "APPROVED", 4),
+                new PeerReviewStatistic(PeerReviewStatistic.DIMENSION_TYPE, "CODE", 4),
+                new PeerReviewStatistic(PeerReviewStatistic.DIMENSION_PENDING_REVIEWER, reviewer.toString(), 0)));
+
+        Map<String, Object> stats = peerReviewStatisticsService.getStatistics();
+
+        Map<?, ?> byStatus = (Map<?, ?>) stats.get("by_status");
+        assertEquals(4L, byStatus.get("APPROVED"));
+        assertEquals(0L, byStatus.get("PENDING"));
+        assertEquals(0L, ((Map<?, ?>) stats.get("by_type")).get("DESIGN"));
+        assertTrue(((Map<?, ?>) stats.get("pending_by_reviewer")).isEmpty());
+        assertEquals(4L, stats.get("total"));
+    }
+
+    @Test
+    void rebuild_replacesCountersFromReviewRows() {
+        when(peerReviewRepository.getReviewCountByStatus()).thenReturn(
+                List.<Object[]>of(new Object[]{PeerReview.ReviewStatus.PENDING, 2L}));
+        when(peerReviewRepository.getReviewCountByType()).thenReturn(
+                List.<Object[]>of(new Object[]{PeerReview.ReviewType.CODE, 2L}));
+        when(peerReviewRepository.getReviewCountByReviewer(PeerReview.ReviewStatus.PENDING)).thenReturn(
+                List.<Object[]>of(new Object[]{reviewer, 2L}));
+
+        peerReviewStatisticsService.rebuild();
+
+        var inOrder = inOrder(statisticRepository);
+        inOrder.verify(statisticRepository).lockExclusive();
+        inOrder.verify(statisticRepository).deleteAllCounters();
+        inOrder.verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_STATUS, "PENDING", 2L);
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_TYPE, "CODE", 2L);
+        verify(statisticRepository).increment(PeerReviewStatistic.DIMENSION_PENDING_REVIEWER, reviewer.toString(), 2L);
+    }
+
+    @Test
+    void scheduledRebuild_skipsWhenAnotherNodeIsLeader() {
+        when(leader.runIfLeader(eq(PeerReviewStatisticsService.REBUILD_LOCK_NAME), any())).thenReturn(false);
+
+        peerReviewStatisticsService.scheduledRebuild();
+
+        verifyNoInteractions(peerReviewRepository, statisticRepository, transactionManager);
+    }
+}
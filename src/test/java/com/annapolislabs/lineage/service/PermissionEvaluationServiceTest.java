@@ -1,14 +1,12 @@
 package com.annapolislabs.lineage.service;
 
 import com.annapolislabs.lineage.entity.PermissionChange;
-import com.annapolislabs.lineage.entity.Team;
 import com.annapolislabs.lineage.entity.TeamMember;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.entity.UserRole;
 import com.annapolislabs.lineage.entity.UserStatus;
 import com.annapolislabs.lineage.repository.PermissionChangeRepository;
 import com.annapolislabs.lineage.repository.TeamMemberRepository;
-import com.annapolislabs.lineage.repository.TeamRepository;
 import com.annapolislabs.lineage.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,7 +25,9 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -45,9 +45,6 @@ class PermissionEvaluationServiceTest {
     @Mock
     private TeamMemberRepository teamMemberRepository;
 
-    @Mock
-    private TeamRepository teamRepository;
-
     @InjectMocks
     private PermissionEvaluationService permissionEvaluationService;
 
@@ -96,20 +93,29 @@ class PermissionEvaluationServiceTest {
     @Test
     void hasPermission_teamMembershipGrantsResourceScopedAccess() {
         User limitedUser = buildUser(userId, UserRole.USER, UserStatus.ACTIVE);
-        UUID teamId = UUID.randomUUID();
-        TeamMember membership = buildTeamMember(teamId, userId, TeamMember.TeamRole.ADMIN);
-        Team team = buildTeam(teamId, projectId, true);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(limitedUser));
-        when(teamMemberRepository.findByUserIdAndStatus(userId, TeamMember.TeamMemberStatus.ACTIVE))
-                .thenReturn(List.of(membership));
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(teamMemberRepository.findRolesInActiveProjectTeams(userId, projectId, TeamMember.TeamMemberStatus.ACTIVE))
+                .thenReturn(List.of(TeamMember.TeamRole.ADMIN));
 
         boolean allowed = permissionEvaluationService.hasPermission(userId, "task.assign", projectId);
 
         assertTrue(allowed);
     }
 
+    @Test
+    void hasPermission_viewerTeamMembershipDoesNotGrantAccess() {
+        User limitedUser = buildUser(userId, UserRole.USER, UserStatus.ACTIVE);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(limitedUser));
+        when(teamMemberRepository.findRolesInActiveProjectTeams(userId, projectId, TeamMember.TeamMemberStatus.ACTIVE))
+                .thenReturn(List.of(TeamMember.TeamRole.VIEWER));
+
+        boolean allowed = permissionEvaluationService.hasPermission(userId, "task.assign", projectId);
+
+        assertFalse(allowed);
+    }
+
     @Test
     void hasPermission_inactiveUserIsDenied() {
         User inactiveUser = buildUser(userId, UserRole.ADMINISTRATOR, UserStatus.DEACTIVATED);
@@ -137,7 +143,6 @@ class PermissionEvaluationServiceTest {
     @Test
     void getEffectivePermissions_includesRoleExplicitAndTeamDerivedEntries() {
         User baseUser = buildUser(userId, UserRole.USER, UserStatus.ACTIVE);
-        UUID teamId = UUID.randomUUID();
         PermissionChange grantManage = buildPermissionChange(
                 userId,
                 "project.manage",
@@ -145,14 +150,11 @@ class PermissionEvaluationServiceTest {
                 PermissionChange.ChangeType.GRANT,
                 LocalDateTime.now().minusMinutes(10)
         );
-        TeamMember membership = buildTeamMember(teamId, userId, TeamMember.TeamRole.ADMIN);
-        Team team = buildTeam(teamId, projectId, true);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(baseUser));
         when(permissionChangeRepository.findActiveChanges(any(LocalDateTime.class))).thenReturn(List.of(grantManage));
-        when(teamMemberRepository.findByUserIdAndStatus(userId, TeamMember.TeamMemberStatus.ACTIVE))
-                .thenReturn(List.of(membership));
-        when(teamRepository.findById(teamId)).thenReturn(Optional.of(team));
+        when(teamMemberRepository.findRolesInActiveProjectTeams(userId, projectId, TeamMember.TeamMemberStatus.ACTIVE))
+                .thenReturn(List.of(TeamMember.TeamRole.ADMIN));
 
         Set<String> permissions = permissionEvaluationService.getEffectivePermissions(userId, projectId);
 
@@ -226,6 +228,54 @@ class PermissionEvaluationServiceTest {
         verify(userRepository, times(1)).findById(anotherUserId);
     }
 
+    @Test
+    void getPermittedProjects_roleGrantCoversAllProjects() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(activeAdmin));
+
+        PermissionEvaluationService.ProjectScope scope = permissionEvaluationService.getPermittedProjects(userId, "task.read");
+
+        assertTrue(scope.unrestricted());
+        assertTrue(scope.contains(UUID.randomUUID()));
+    }
+
+    @Test
+    void getPermittedProjects_unionOfExplicitGrantsAndEditableTeams() {
+        User limitedUser = buildUser(userId, UserRole.USER, UserStatus.ACTIVE);
+        UUID revokedProject = UUID.randomUUID();
+        UUID teamProject = UUID.randomUUID();
+        UUID viewerProject = UUID.randomUUID();
+        PermissionChange grant = buildPermissionChange(userId, "task.read", projectId,
+                PermissionChange.ChangeType.GRANT, LocalDateTime.now().minusMinutes(5));
+        PermissionChange olderGrant = buildPermissionChange(userId, "task.read", revokedProject,
+                PermissionChange.ChangeType.GRANT, LocalDateTime.now().minusDays(2));
+        PermissionChange revoke = buildPermissionChange(userId, "task.read", revokedProject,
+                PermissionChange.ChangeType.REVOKE, LocalDateTime.now().minusDays(1));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(limitedUser));
+        when(permissionChangeRepository.findActiveResourceChangesForUser(eq(userId), eq("task.read"), any(LocalDateTime.class)))
+                .thenReturn(List.of(grant, olderGrant, revoke));
+        when(teamMemberRepository.findProjectIdsOfActiveTeams(eq(userId), eq(TeamMember.TeamMemberStatus.ACTIVE),
+                argThat(roles -> roles.contains(TeamMember.TeamRole.MEMBER) && !roles.contains(TeamMember.TeamRole.VIEWER))))
+                .thenReturn(List.of(teamProject));
+
+        PermissionEvaluationService.ProjectScope scope = permissionEvaluationService.getPermittedProjects(userId, "task.read");
+
+        assertFalse(scope.unrestricted());
+        assertEquals(Set.of(projectId, teamProject), scope.projectIds());
+        assertFalse(scope.contains(viewerProject));
+    }
+
+    @Test
+    void getPermittedProjects_inactiveUserHasNoProjects() {
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.of(buildUser(userId, UserRole.ADMINISTRATOR, UserStatus.DEACTIVATED)));
+
+        PermissionEvaluationService.ProjectScope scope = permissionEvaluationService.getPermittedProjects(userId, "task.read");
+
+        assertFalse(scope.unrestricted());
+        assertTrue(scope.projectIds().isEmpty());
+    }
+
     private User buildUser(UUID id, UserRole role, UserStatus status) {
         User user = new User();
         user.setId(id);
@@ -250,22 +300,4 @@ class PermissionEvaluationServiceTest {
         change.setEffectiveFrom(effectiveFrom);
         return change;
     }
-
-    private TeamMember buildTeamMember(UUID teamId, UUID memberUserId, TeamMember.TeamRole role) {
-        TeamMember member = new TeamMember();
-        member.setTeamId(teamId);
-        member.setUserId(memberUserId);
-        member.setRole(role);
-        member.setStatus(TeamMember.TeamMemberStatus.ACTIVE);
-        member.setJoinedAt(LocalDateTime.now().minusDays(1));
-        return member;
-    }
-
-    private Team buildTeam(UUID teamId, UUID teamProjectId, boolean active) {
-        Team team = new Team();
-        team.setId(teamId);
-        team.setProjectId(teamProjectId);
-        team.setActive(active);
-        return team;
-    }
 }
@@ -0,0 +1,120 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.repository.PermissionEpochRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionSnapshotServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+
+    @Mock
+    private PermissionEvaluationService permissionEvaluationService;
+
+    @Mock
+    private PermissionEpochRepository epochRepository;
+
+    @Mock
+    private Clock clock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PermissionSnapshotService snapshotService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        snapshotService = new PermissionSnapshotService(permissionEvaluationService, epochRepository, meterRegistry, clock);
+        ReflectionTestUtils.setField(snapshotService, "snapshotTtlSeconds", 300L);
+        ReflectionTestUtils.setField(snapshotService, "maxUsers", 100);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void getSnapshot_reusesEvaluationWhileEpochIsUnchanged() {
+        when(clock.instant()).thenReturn(NOW);
+        when(epochRepository.findEpoch(userId)).thenReturn(null);
+        when(permissionEvaluationService.getEffectivePermissions(userId, null)).thenReturn(Set.of("project.read"));
+
+        PermissionSnapshotService.PermissionSnapshot first = snapshotService.getSnapshot(userId);
+        PermissionSnapshotService.PermissionSnapshot second = snapshotService.getSnapshot(userId);
+
+        assertEquals(0, first.epoch());
+        assertEquals(Set.of("project.read"), second.permissions());
+        verify(permissionEvaluationService, times(1)).getEffectivePermissions(userId, null);
+        assertEquals(1.0, meterRegistry.get("lineage.permissions.snapshot").tag("outcome", "hit").counter().count());
+    }
+
+    @Test
+    void getSnapshot_reevaluatesWhenEpochMoves() {
+        when(clock.instant()).thenReturn(NOW);
+        when(epochRepository.findEpoch(userId)).thenReturn(1L, 2L);
+        when(permissionEvaluationService.getEffectivePermissions(userId, null))
+                .thenReturn(Set.of("project.read"), Set.of("project.read", "project.update"));
+
+        snapshotService.getSnapshot(userId);
+        PermissionSnapshotService.PermissionSnapshot updated = snapshotService.getSnapshot(userId);
+
+        assertEquals(2, updated.epoch());
+        assertEquals(Set.of("project.read", "project.update"), updated.permissions());
+    }
+
+    @Test
+    void getSnapshot_keepsScopesSeparateAndExpiresAfterTtl() {
+        UUID projectId = UUID.randomUUID();
+        when(clock.instant()).thenReturn(NOW, NOW, NOW.plusSeconds(301));
+        when(epochRepository.findEpoch(userId)).thenReturn(5L);
+        when(permissionEvaluationService.getEffectivePermissions(userId, null)).thenReturn(Set.of("project.read"));
+        when(permissionEvaluationService.getEffectivePermissions(userId, projectId)).thenReturn(Set.of("team.participate"));
+
+        assertEquals(Set.of("project.read"), snapshotService.getSnapshot(userId).permissions());
+        assertEquals(Set.of("team.participate"), snapshotService.getSnapshot(userId, projectId).permissions());
+        snapshotService.getSnapshot(userId);
+
+        verify(permissionEvaluationService, times(2)).getEffectivePermissions(userId, null);
+        verify(permissionEvaluationService, times(1)).getEffectivePermissions(userId, projectId);
+    }
+
+    @Test
+    void bumpEpoch_incrementsStoredEpochAndClearsEvaluationCache() {
+        when(epochRepository.findEpoch(userId)).thenReturn(7L);
+
+        assertEquals(7, snapshotService.bumpEpoch(userId));
+
+        verify(epochRepository).increment(userId);
+        verify(permissionEvaluationService).clearUserCache(userId);
+    }
+
+    @Test
+    void bumpEpochs_bumpsEachUserOnce() {
+        UUID otherUserId = UUID.randomUUID();
+
+        snapshotService.bumpEpochs(List.of(userId, otherUserId, userId));
+
+        verify(epochRepository, times(1)).increment(userId);
+        verify(epochRepository, times(1)).increment(otherUserId);
+    }
+
+    @Test
+    void isCurrent_comparesWithStoredEpoch() {
+        when(epochRepository.findEpoch(userId)).thenReturn(4L);
+
+        assertTrue(snapshotService.isCurrent(userId, 4));
+        assertFalse(snapshotService.isCurrent(userId, 3));
+    }
+}
@@ -37,6 +37,9 @@ class ProjectServiceTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
     @InjectMocks
     private ProjectService projectService;
 
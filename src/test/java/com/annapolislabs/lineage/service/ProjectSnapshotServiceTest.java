@@ -0,0 +1,212 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.common.JsonPatch;
+import com.annapolislabs.lineage.dto.request.CreateBaselineRequest;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse;
+import com.annapolislabs.lineage.dto.response.ProjectSnapshotResponse.RequirementNode;
+import com.annapolislabs.lineage.entity.*;
+import com.annapolislabs.lineage.repository.*;
+import com.annapolislabs.lineage.repository.RequirementHistoryRepository.LinkRow;
+import com.annapolislabs.lineage.repository.RequirementHistoryRepository.StateRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectSnapshotServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Mock
+    private ProjectBaselineRepository baselineRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private RequirementRepository requirementRepository;
+
+    @Mock
+    private RequirementLinkRepository linkRepository;
+
+    @Mock
+    private RequirementHistoryRepository historyRepository;
+
+    @Mock
+    private AuthService authService;
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+    private ProjectSnapshotService snapshotService;
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        snapshotService = new ProjectSnapshotService(baselineRepository, projectRepository, projectMemberRepository,
+                requirementRepository, linkRepository, historyRepository, authService, new SimpleMeterRegistry(),
+                clock);
+        user = new User("test@example.com", "hashedPassword", "Test User", UserRole.DEVELOPER);
+        user.setId(UUID.randomUUID());
+        project = new Project("Test Project", "Description", "TEST", user);
+        project.setId(UUID.randomUUID());
+        lenient().when(authService.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void snapshotAt_replaysStatesAndLinksUpToInstant() {
+        LocalDateTime at = NOW.minusDays(10);
+        Requirement root = requirement("TEST-001");
+        Requirement child = requirement("TEST-002");
+        Requirement deleted = requirement("TEST-003");
+        when(projectMemberRepository.existsByProjectIdAndUserId(project.getId(), user.getId())).thenReturn(true);
+        when(requirementRepository.findByProjectId(project.getId())).thenReturn(List.of(root, child, deleted));
+
+        Map<String, Object> rootState = state("TEST-001", "Root", null);
+        when(historyRepository.streamStatesAt(project.getId(), at)).thenReturn(Stream.of(
+                stateRow(root, 1, ChangeType.CREATED, rootState, null),
+                stateRow(root, 2, ChangeType.UPDATED, null, JsonPatch.diff(rootState, state("TEST-001", "Root v2", null))),
+                stateRow(child, 16, ChangeType.UPDATED, state("TEST-002", "Child", root.getId().toString()), null),
+                stateRow(deleted, 1, ChangeType.CREATED, state("TEST-003", "Gone", null), null),
+                stateRow(deleted, 2, ChangeType.DELETED, null, null)));
+        Map<String, Object> legacyLink = Map.of("fromReqId", "TEST-002", "toReqId", "TEST-001");
+        when(historyRepository.streamLinksAt(project.getId(), at)).thenReturn(Stream.of(
+                linkRow(root, child.getId(), ChangeType.LINK_ADDED, Map.of()),
+                linkRow(child, null, ChangeType.LINK_ADDED, legacyLink),
+                linkRow(root, null, ChangeType.LINK_ADDED, legacyLink),
+                linkRow(child, root.getId(), ChangeType.LINK_REMOVED, Map.of()),
+                linkRow(root, deleted.getId(), ChangeType.LINK_ADDED, Map.of())));
+        when(linkRepository.findAllLinksForProject(project.getId())).thenReturn(List.of());
+
+        ProjectSnapshotResponse snapshot = snapshotService.snapshotAt(project.getId(), at);
+
+        assertEquals(2, snapshot.requirementCount());
+        assertEquals(1, snapshot.requirements().size());
+        RequirementNode top = snapshot.requirements().get(0);
+        assertEquals("Root v2", top.title());
+        assertEquals("TEST-002", top.children().get(0).reqId());
+        assertEquals(1, snapshot.links().size(), "removed link and link to deleted requirement are left out");
+        assertEquals(root.getId(), snapshot.links().get(0).fromRequirementId());
+        assertEquals(child.getId(), snapshot.links().get(0).toRequirementId());
+        verify(historyRepository, never()).findFirstStatesAfter(any(), any());
+    }
+
+    @Test
+    void snapshotAt_fallsBackForRequirementsWithoutHistoryUpToInstant() {
+        LocalDateTime at = NOW.minusDays(10);
+        Requirement seeded = requirement("TEST-001");
+        seeded.setTitle("Edited later");
+        Requirement untouched = requirement("TEST-002");
+        Requirement created = requirement("TEST-003");
+        created.setCreatedAt(at.plusDays(1));
+        when(projectMemberRepository.existsByProjectIdAndUserId(project.getId(), user.getId())).thenReturn(true);
+        when(requirementRepository.findByProjectId(project.getId())).thenReturn(List.of(seeded, untouched, created));
+        when(historyRepository.streamStatesAt(project.getId(), at)).thenReturn(Stream.empty());
+        when(historyRepository.streamLinksAt(project.getId(), at)).thenReturn(Stream.empty());
+        RequirementHistory edit = new RequirementHistory(seeded, user, ChangeType.UPDATED,
+                state("TEST-001", "Seeded", null), state("TEST-001", "Edited later", null));
+        edit.setRevision(1);
+        when(historyRepository.findFirstStatesAfter(Set.of(seeded.getId(), untouched.getId()), at))
+                .thenReturn(List.of(edit));
+
+        ProjectSnapshotResponse snapshot = snapshotService.snapshotAt(project.getId(), at);
+
+        assertEquals(List.of("Seeded", "TEST-002"), snapshot.requirements().stream()
+                .map(node -> node.reqId().equals("TEST-001") ? node.title() : node.reqId())
+                .toList());
+    }
+
+    @Test
+    void baselineSnapshot_isRebuiltOnceAfterSettling() {
+        ProjectBaseline baseline = new ProjectBaseline(project, "R1", NOW.minusDays(30), user);
+        baseline.setId(UUID.randomUUID());
+        when(projectMemberRepository.existsByProjectIdAndUserId(project.getId(), user.getId())).thenReturn(true);
+        when(baselineRepository.findByProjectIdAndName(project.getId(), "R1")).thenReturn(Optional.of(baseline));
+        when(requirementRepository.findByProjectId(project.getId())).thenReturn(List.of());
+        when(historyRepository.streamStatesAt(project.getId(), baseline.getCapturedAt())).thenReturn(Stream.empty());
+        when(historyRepository.streamLinksAt(project.getId(), baseline.getCapturedAt())).thenReturn(Stream.empty());
+
+        ProjectSnapshotResponse first = snapshotService.baselineSnapshot(project.getId(), "R1");
+        ProjectSnapshotResponse second = snapshotService.baselineSnapshot(project.getId(), "R1");
+
+        assertSame(first, second);
+        assertEquals("R1", first.baseline());
+        verify(historyRepository, times(1)).streamStatesAt(any(), any());
+        verify(projectMemberRepository, times(2)).existsByProjectIdAndUserId(project.getId(), user.getId());
+    }
+
+    @Test
+    void snapshot_RejectsBothInstantAndBaseline() {
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.snapshot(project.getId(), NOW, "R1"));
+        verifyNoInteractions(historyRepository);
+    }
+
+    @Test
+    void createBaseline_RejectsFutureInstant() {
+        ProjectMember member = new ProjectMember(project, user, ProjectRole.EDITOR);
+        when(projectMemberRepository.findByProjectIdAndUserId(project.getId(), user.getId()))
+                .thenReturn(Optional.of(member));
+
+        assertThrows(IllegalArgumentException.class, () -> snapshotService.createBaseline(project.getId(),
+                new CreateBaselineRequest("R2", NOW.plusMinutes(1))));
+        verify(baselineRepository, never()).save(any());
+    }
+
+    private Requirement requirement(String reqId) {
+        Requirement requirement = new Requirement(project, reqId, "Title " + reqId, "Description", user);
+        requirement.setId(UUID.randomUUID());
+        requirement.setCreatedAt(NOW.minusDays(60));
+        return requirement;
+    }
+
+    private StateRow stateRow(Requirement requirement, int revision, ChangeType changeType,
+                              Map<String, Object> checkpoint, List<Map<String, Object>> patch) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("requirementId", requirement.getId());
+        row.put("revision", revision);
+        row.put("changeType", changeType);
+        row.put("checkpoint", checkpoint != null);
+        row.put("newValue", checkpoint);
+        row.put("patch", patch);
+        return projections.createProjection(StateRow.class, row);
+    }
+
+    private LinkRow linkRow(Requirement requirement, UUID relatedRequirementId, ChangeType changeType,
+                            Map<String, Object> linkData) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("requirementId", requirement.getId());
+        row.put("relatedRequirementId", relatedRequirementId);
+        row.put("changeType", changeType);
+        row.put("newValue", linkData);
+        return projections.createProjection(LinkRow.class, row);
+    }
+
+    private static Map<String, Object> state(String reqId, String title, String parentId) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("reqId", reqId);
+        state.put("title", title);
+        state.put("description", "Description");
+        state.put("status", "DRAFT");
+        state.put("priority", "MEDIUM");
+        state.put("parentId", parentId);
+        state.put("customFields", new HashMap<>());
+        return state;
+    }
+}
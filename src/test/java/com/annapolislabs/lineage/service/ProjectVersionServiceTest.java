@@ -0,0 +1,171 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.ProjectChange;
+import com.annapolislabs.lineage.entity.User;
+import com.annapolislabs.lineage.entity.UserRole;
+import com.annapolislabs.lineage.exception.AccessDeniedException;
+import com.annapolislabs.lineage.exception.ResourceNotFoundException;
+import com.annapolislabs.lineage.realtime.ProjectChangePublisher;
+import com.annapolislabs.lineage.repository.ProjectChangeRepository;
+import com.annapolislabs.lineage.repository.ProjectMemberRepository;
+import com.annapolislabs.lineage.repository.ProjectVersionRepository;
+import com.annapolislabs.lineage.repository.RequirementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectVersionServiceTest {
+
+    @Mock
+    private ProjectVersionRepository versionRepository;
+
+    @Mock
+    private ProjectChangeRepository changeRepository;
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private RequirementRepository requirementRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private ProjectChangePublisher changePublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProjectVersionService versionService;
+    private UUID projectId;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        versionService = new ProjectVersionService(versionRepository, changeRepository, projectMemberRepository,
+                requirementRepository, authService, changePublisher, meterRegistry,
+                Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC));
+        ReflectionTestUtils.setField(versionService, "maxRequirementIndexEntries", 100);
+        ReflectionTestUtils.setField(versionService, "maxExportEntries", 10);
+        ReflectionTestUtils.setField(versionService, "exportCacheMinChars", 10);
+        projectId = UUID.randomUUID();
+        user = new User("test@example.com", "hashedPassword", "Test User", UserRole.DEVELOPER);
+        user.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void etag_changesWhenVersionMoves() {
+        when(versionRepository.findVersion(projectId)).thenReturn(null, 3L);
+
+        String before = versionService.etag(projectId, "requirements");
+        String after = versionService.etag(projectId, "requirements");
+
+        assertEquals("\"" + projectId + "-v0-requirements\"", before);
+        assertEquals("\"" + projectId + "-v3-requirements\"", after);
+    }
+
+    @Test
+    void recordChange_logsChangeAtBumpedVersion() {
+        UUID requirementId = UUID.randomUUID();
+        when(versionRepository.findVersion(projectId)).thenReturn(5L);
+
+        long version = versionService.recordChange(projectId, ProjectChange.EntityType.REQUIREMENT, requirementId,
+                ProjectChange.Operation.DELETE);
+
+        assertEquals(5L, version);
+        verify(versionRepository).increment(projectId);
+        ArgumentCaptor<ProjectChange> change = ArgumentCaptor.forClass(ProjectChange.class);
+        verify(changeRepository).save(change.capture());
+        assertEquals(projectId, change.getValue().getProjectId());
+        assertEquals(5L, change.getValue().getVersion());
+        assertEquals(requirementId, change.getValue().getEntityId());
+        assertEquals(ProjectChange.Operation.DELETE, change.getValue().getOperation());
+        verify(changePublisher).publish(projectId, "REQUIREMENT", requirementId, "DELETE", 5L);
+    }
+
+    @Test
+    void memberEtag_rejectsNonMembers() {
+        when(authService.getCurrentUser()).thenReturn(user);
+        when(projectMemberRepository.existsByProjectIdAndUserId(projectId, user.getId())).thenReturn(false);
+
+        assertThrows(AccessDeniedException.class, () -> versionService.memberEtag(projectId, "project"));
+        verifyNoInteractions(versionRepository);
+    }
+
+    @Test
+    void requirementEtag_resolvesOwningProjectOnce() {
+        UUID requirementId = UUID.randomUUID();
+        when(requirementRepository.findProjectIdById(requirementId)).thenReturn(projectId);
+        when(authService.getCurrentUser()).thenReturn(user);
+        when(projectMemberRepository.existsByProjectIdAndUserId(projectId, user.getId())).thenReturn(true);
+        when(versionRepository.findVersion(projectId)).thenReturn(7L);
+
+        String first = versionService.requirementEtag(requirementId, "history");
+        String second = versionService.requirementEtag(requirementId, "history");
+
+        assertEquals("\"" + projectId + "-v7-history-" + requirementId + "\"", first);
+        assertEquals(first, second);
+        verify(requirementRepository, times(1)).findProjectIdById(requirementId);
+    }
+
+    @Test
+    void requirementEtag_unknownRequirementIsNotFound() {
+        UUID requirementId = UUID.randomUUID();
+        when(requirementRepository.findProjectIdById(requirementId)).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> versionService.requirementEtag(requirementId, "requirement"));
+    }
+
+    @Test
+    void isNotModified_matchesListsWildcardAndWeakValidators() {
+        String etag = "\"p-v1-csv\"";
+
+        assertTrue(versionService.isNotModified(etag, etag));
+        assertTrue(versionService.isNotModified("\"other\", W/" + etag, etag));
+        assertTrue(versionService.isNotModified("*", etag));
+        assertFalse(versionService.isNotModified("\"p-v0-csv\"", etag));
+        assertFalse(versionService.isNotModified(null, etag));
+
+        assertEquals(3.0, meterRegistry.get("lineage.http.conditional").tag("outcome", "not_modified").counter().count());
+        assertEquals(2.0, meterRegistry.get("lineage.http.conditional").tag("outcome", "modified").counter().count());
+    }
+
+    @Test
+    void cachedExport_reusesLargeBodiesUntilEtagChanges() {
+        AtomicInteger builds = new AtomicInteger();
+
+        String first = versionService.cachedExport(projectId, "csv", "\"v1\"", () -> "body-" + builds.incrementAndGet() + "-0123456789");
+        String second = versionService.cachedExport(projectId, "csv", "\"v1\"", () -> "body-" + builds.incrementAndGet() + "-0123456789");
+        String third = versionService.cachedExport(projectId, "csv", "\"v2\"", () -> "body-" + builds.incrementAndGet() + "-0123456789");
+
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+        assertEquals(2, builds.get());
+        assertEquals(1.0, meterRegistry.get("lineage.export.cache").tag("outcome", "hit").counter().count());
+    }
+
+    @Test
+    void cachedExport_doesNotKeepSmallBodies() {
+        AtomicInteger builds = new AtomicInteger();
+
+        versionService.cachedExport(projectId, "csv", "\"v1\"", () -> "small" + builds.incrementAndGet());
+        versionService.cachedExport(projectId, "csv", "\"v1\"", () -> "small" + builds.incrementAndGet());
+
+        assertEquals(2, builds.get());
+    }
+}
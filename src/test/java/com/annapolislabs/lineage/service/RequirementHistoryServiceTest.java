@@ -0,0 +1,157 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.common.JsonPatch;
+import com.annapolislabs.lineage.entity.*;
+import com.annapolislabs.lineage.repository.RequirementHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequirementHistoryServiceTest {
+
+    @Mock
+    private RequirementHistoryRepository historyRepository;
+
+    private RequirementHistoryService historyService;
+    private User user;
+    private Requirement requirement;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new RequirementHistoryService(historyRepository);
+        ReflectionTestUtils.setField(historyService, "checkpointInterval", 4);
+        user = new User("test@example.com", "hashedPassword", "Test User", UserRole.DEVELOPER);
+        user.setId(UUID.randomUUID());
+        Project project = new Project("Test Project", "Description", "TEST", user);
+        project.setId(UUID.randomUUID());
+        requirement = new Requirement(project, "TEST-001", "Title", "Description", user);
+        requirement.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void jsonPatch_roundTripsNestedChanges() {
+        Map<String, Object> before = state("Title", "DRAFT", Map.of("owner", "ann", "risk/level", "low"));
+        Map<String, Object> after = state("New title", "DRAFT", Map.of("owner", "bob", "due", "Q3"));
+        after.remove("priority");
+
+        List<Map<String, Object>> patch = JsonPatch.diff(before, after);
+
+        assertEquals(after, JsonPatch.apply(before, patch));
+        assertTrue(patch.contains(Map.of(JsonPatch.OP, "remove", JsonPatch.PATH, "/customFields/risk~1level")));
+        assertTrue(patch.contains(Map.of(JsonPatch.OP, "replace", JsonPatch.PATH, "/customFields/owner",
+                JsonPatch.VALUE, "bob")));
+        assertEquals(5, patch.size(), "unchanged fields are left out");
+        assertTrue(before.containsKey("priority"), "source is not modified");
+    }
+
+    @Test
+    void recordUpdated_storesPatchBetweenCheckpoints() {
+        Map<String, Object> before = RequirementHistoryService.state(requirement);
+        requirement.setStatus("APPROVED");
+        when(historyRepository.findMaxRevision(requirement.getId())).thenReturn(2, 3);
+
+        historyService.recordUpdated(requirement, user, before);
+        historyService.recordUpdated(requirement, user, before);
+
+        ArgumentCaptor<RequirementHistory> saved = ArgumentCaptor.forClass(RequirementHistory.class);
+        verify(historyRepository, times(2)).save(saved.capture());
+        RequirementHistory patched = saved.getAllValues().get(0);
+        assertEquals(3, patched.getRevision());
+        assertFalse(patched.isCheckpoint());
+        assertNull(patched.getOldValue());
+        assertNull(patched.getNewValue());
+        assertEquals(List.of(Map.of(JsonPatch.OP, "replace", JsonPatch.PATH, "/status", JsonPatch.VALUE, "APPROVED")),
+                patched.getPatch());
+
+        RequirementHistory checkpoint = saved.getAllValues().get(1);
+        assertEquals(4, checkpoint.getRevision());
+        assertTrue(checkpoint.isCheckpoint());
+        assertEquals("APPROVED", checkpoint.getNewValue().get("status"));
+        assertNull(checkpoint.getPatch());
+    }
+
+    @Test
+    void recordLink_writesOneRowVisibleFromBothEnds() {
+        Requirement target = new Requirement(requirement.getProject(), "TEST-002", "Target", "Description", user);
+        target.setId(UUID.randomUUID());
+
+        historyService.recordLink(requirement, target, user, ChangeType.LINK_ADDED);
+
+        ArgumentCaptor<RequirementHistory> saved = ArgumentCaptor.forClass(RequirementHistory.class);
+        verify(historyRepository).save(saved.capture());
+        assertEquals(target.getId(), saved.getValue().getRelatedRequirementId());
+        assertEquals("TEST-002", saved.getValue().getNewValue().get("toReqId"));
+    }
+
+    @Test
+    void getHistory_rebuildsPageStatesFromNearestCheckpoint() {
+        Map<String, Object> s4 = state("Fourth", "REVIEW", Map.of("owner", "ann"));
+        Map<String, Object> s5 = state("Fifth", "REVIEW", Map.of("owner", "bob"));
+        RequirementHistory rev4 = historyService.stateEntry(requirement, user, ChangeType.UPDATED,
+                state("Third", "DRAFT", Map.of()), s4, 4);
+        RequirementHistory rev5 = historyService.stateEntry(requirement, user, ChangeType.UPDATED, s4, s5, 5);
+        RequirementHistory rev6 = new RequirementHistory(requirement, user, ChangeType.DELETED, null,
+                Map.of("deletedBy", "test@example.com"));
+        rev6.setRevision(6);
+        RequirementHistory link = new RequirementHistory(requirement, user, ChangeType.LINK_ADDED, null,
+                Map.of("toReqId", "TEST-002"));
+
+        UUID requirementId = requirement.getId();
+        PageRequest page = PageRequest.of(0, 3);
+        when(historyRepository.findHistory(requirementId, page)).thenReturn(List.of(rev6, link, rev5));
+        when(historyRepository.findCheckpointRevision(requirementId, 4)).thenReturn(4);
+        when(historyRepository.findRevisions(requirementId, 4, 5)).thenReturn(List.of(rev4, rev5));
+
+        List<Map<String, Object>> history = historyService.getHistory(requirementId, page);
+
+        assertEquals(3, history.size());
+        assertEquals(ChangeType.DELETED, history.get(0).get("changeType"));
+        assertEquals(s5, history.get(0).get("oldValue"));
+        assertEquals(Map.of("deletedBy", "test@example.com"), history.get(0).get("newValue"));
+        assertNull(history.get(1).get("oldValue"));
+        assertEquals(Map.of("toReqId", "TEST-002"), history.get(1).get("newValue"));
+        assertEquals(s4, history.get(2).get("oldValue"));
+        assertEquals(s5, history.get(2).get("newValue"));
+        assertEquals("test@example.com", history.get(2).get("changedBy"));
+    }
+
+    @Test
+    void getHistory_returnsLegacySnapshotsWithoutReplay() {
+        Map<String, Object> before = state("Old", "DRAFT", Map.of());
+        Map<String, Object> after = state("New", "DRAFT", Map.of());
+        RequirementHistory legacy = new RequirementHistory(requirement, user, ChangeType.UPDATED, before, after);
+        legacy.setRevision(2);
+        legacy.setCheckpoint(true);
+        PageRequest page = PageRequest.of(0, 10);
+        when(historyRepository.findHistory(requirement.getId(), page)).thenReturn(List.of(legacy));
+
+        List<Map<String, Object>> history = historyService.getHistory(requirement.getId(), page);
+
+        assertEquals(before, history.get(0).get("oldValue"));
+        assertEquals(after, history.get(0).get("newValue"));
+        verify(historyRepository, never()).findRevisions(any(), anyInt(), anyInt());
+    }
+
+    private static Map<String, Object> state(String title, String status, Map<String, Object> customFields) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("reqId", "TEST-001");
+        state.put("title", title);
+        state.put("description", "Description");
+        state.put("status", status);
+        state.put("priority", "MEDIUM");
+        state.put("parentId", null);
+        state.put("customFields", new HashMap<>(customFields));
+        return state;
+    }
+}
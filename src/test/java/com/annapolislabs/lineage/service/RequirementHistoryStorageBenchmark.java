@@ -0,0 +1,155 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Storage benchmark comparing the compact requirement history with the full snapshots it replaced.
+ *
+ * <p>Generates a corpus of requirements with long descriptions and custom fields, applies a random
+ * mix of typical edits (status and priority changes, title tweaks, description paragraph edits,
+ * custom field updates) and link changes, and prints the JSONB bytes each format stores: two full
+ * snapshots per edit and two rows per link change before, one patch or checkpoint per edit and one
+ * row per link change now. It also replays every requirement's compact history and checks that it
+ * ends at the requirement's actual state. Excluded from the regular test task; run with
+ * {@code ./gradlew benchmark --tests '*RequirementHistoryStorageBenchmark'} and tune with
+ * {@code -Dbenchmark.<name>=<value>} where name is {@code requirements}, {@code edits},
+ * {@code links} or {@code checkpointInterval}.</p>
+ */
+@Tag("benchmark")
+class RequirementHistoryStorageBenchmark {
+
+    private static final String[] STATUSES = {"DRAFT", "REVIEW", "APPROVED", "DEPRECATED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random = new Random(42);
+
+    @Test
+    void historyStoragePerCorpus() throws Exception {
+        int requirements = Integer.getInteger("benchmark.requirements", 200);
+        int edits = Integer.getInteger("benchmark.edits", 60);
+        int links = Integer.getInteger("benchmark.links", 4);
+        int checkpointInterval = Integer.getInteger("benchmark.checkpointInterval", 16);
+
+        RequirementHistoryService historyService = new RequirementHistoryService(null);
+        ReflectionTestUtils.setField(historyService, "checkpointInterval", checkpointInterval);
+        User user = new User("bench@example.com", "hash", "Bench User", UserRole.DEVELOPER);
+        Project project = new Project("Benchmark", "Corpus", "BENCH", user);
+
+        long snapshotBytes = 0;
+        long compactBytes = 0;
+        long rows = 0;
+        long replayNanos = 0;
+        for (int i = 0; i < requirements; i++) {
+            Requirement requirement = new Requirement(project, "BENCH-" + i, "Requirement " + i, paragraphs(6), user);
+            requirement.setId(UUID.randomUUID());
+            requirement.setCustomFields(customFields());
+
+            Map<String, Object> created = RequirementHistoryService.state(requirement);
+            snapshotBytes += bytes(created);
+            List<RequirementHistory> chain = new ArrayList<>();
+            RequirementHistory first = historyService.stateEntry(requirement, user, ChangeType.CREATED, null, created, 1);
+            chain.add(first);
+            compactBytes += bytes(first.getNewValue());
+
+            for (int revision = 2; revision <= edits + 1; revision++) {
+                Map<String, Object> before = RequirementHistoryService.state(requirement);
+                edit(requirement);
+                Map<String, Object> after = RequirementHistoryService.state(requirement);
+                snapshotBytes += bytes(before) + bytes(after);
+
+                RequirementHistory entry = historyService.stateEntry(requirement, user, ChangeType.UPDATED,
+                        before, after, revision);
+                chain.add(entry);
+                compactBytes += bytes(entry.getOldValue()) + bytes(entry.getNewValue()) + bytes(entry.getPatch());
+            }
+
+            for (int l = 0; l < links; l++) {
+                Map<String, Object> linkData = Map.of("fromReqId", requirement.getReqId(),
+                        "fromTitle", requirement.getTitle(), "toReqId", "BENCH-" + random.nextInt(requirements),
+                        "toTitle", "Requirement " + random.nextInt(requirements));
+                snapshotBytes += 2L * bytes(linkData);
+                compactBytes += bytes(linkData);
+            }
+            rows += edits + 1 + links;
+
+            long started = System.nanoTime();
+            Map<String, Object> replayed = null;
+            for (RequirementHistory entry : chain) {
+                replayed = RequirementHistoryService.advance(replayed, entry);
+            }
+            replayNanos += System.nanoTime() - started;
+            // Compare through JSON, the form both states take once stored
+            assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(RequirementHistoryService.state(requirement))),
+                    objectMapper.readTree(objectMapper.writeValueAsString(replayed)), "replay diverged");
+        }
+
+        System.out.printf("%-32s %,14d%n", "history rows", rows);
+        System.out.printf("%-32s %,14d bytes%n", "full snapshots", snapshotBytes);
+        System.out.printf("%-32s %,14d bytes%n", "patches + checkpoints", compactBytes);
+        System.out.printf("%-32s %14.1f %%%n", "reduction", 100.0 * (snapshotBytes - compactBytes) / snapshotBytes);
+        System.out.printf("%-32s %14.1f us/requirement%n", "full replay",
+                replayNanos / 1000.0 / Math.max(requirements, 1));
+    }
+
+    private void edit(Requirement requirement) {
+        switch (random.nextInt(5)) {
+            case 0 -> requirement.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            case 1 -> requirement.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            case 2 -> requirement.setTitle(requirement.getTitle() + " (rev " + random.nextInt(100) + ")");
+            case 3 -> {
+                String[] parts = requirement.getDescription().split("\n\n");
+                parts[random.nextInt(parts.length)] = sentence() + " " + sentence();
+                requirement.setDescription(String.join("\n\n", parts));
+            }
+            default -> {
+                Map<String, Object> fields = new HashMap<>(requirement.getCustomFields());
+                fields.put("field" + random.nextInt(8), "value-" + random.nextInt(1000));
+                requirement.setCustomFields(fields);
+            }
+        }
+    }
+
+    private Map<String, Object> customFields() {
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < 8; i++) {
+            fields.put("field" + i, "value-" + random.nextInt(1000));
+        }
+        return fields;
+    }
+
+    private String paragraphs(int count) {
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            paragraphs.add(sentence() + " " + sentence() + " " + sentence());
+        }
+        return String.join("\n\n", paragraphs);
+    }
+
+    private String sentence() {
+        String[] words = {"the", "system", "shall", "record", "each", "sensor", "reading", "within", "tolerance",
+                "operator", "alarm", "interface", "latency", "must", "not", "exceed", "configured", "limit"};
+        StringBuilder sentence = new StringBuilder("The");
+        for (int i = 0; i < 14; i++) {
+            sentence.append(' ').append(words[random.nextInt(words.length)]);
+        }
+        return sentence.append('.').toString();
+    }
+
+    private long bytes(Object value) throws Exception {
+        return value == null ? 0 : objectMapper.writeValueAsBytes(value).length;
+    }
+}
@@ -43,7 +43,7 @@ class RequirementIdValidationTest {
     private ProjectMemberRepository projectMemberRepository;
 
     @Mock
-    private RequirementHistoryRepository historyRepository;
+    private RequirementHistoryService historyService;
 
     @Mock
     private RequirementLinkRepository linkRepository;
@@ -51,6 +51,9 @@ class RequirementIdValidationTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
     @InjectMocks
     private RequirementService requirementService;
 
@@ -505,7 +508,6 @@ class RequirementIdValidationTest {
                 .thenReturn(Optional.of(testMember));
         when(projectRepository.findById(testProject.getId())).thenReturn(Optional.of(testProject));
         when(requirementRepository.findByProjectId(testProject.getId())).thenReturn(new ArrayList<>());
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
     }
 }
\ No newline at end of file
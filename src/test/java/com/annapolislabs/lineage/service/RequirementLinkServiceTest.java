@@ -32,11 +32,14 @@ class RequirementLinkServiceTest {
     private ProjectMemberRepository projectMemberRepository;
 
     @Mock
-    private RequirementHistoryRepository historyRepository;
+    private RequirementHistoryService historyService;
 
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
     @InjectMocks
     private RequirementLinkService requirementLinkService;
 
@@ -88,7 +91,9 @@ class RequirementLinkServiceTest {
         assertNotNull(result);
         assertEquals(savedLink.getId(), result.get("id"));
         verify(linkRepository).save(any(RequirementLink.class));
-        verify(historyRepository, times(2)).save(any(RequirementHistory.class));
+        verify(historyService).recordLink(fromRequirement, toRequirement, testUser, ChangeType.LINK_ADDED);
+        verify(projectVersionService).recordChange(testProject.getId(), ProjectChange.EntityType.LINK,
+                savedLink.getId(), ProjectChange.Operation.UPSERT);
     }
 
     @Test
@@ -279,7 +284,7 @@ class RequirementLinkServiceTest {
 
         // Assert
         verify(linkRepository).delete(link);
-        verify(historyRepository, times(2)).save(any(RequirementHistory.class));
+        verify(historyService).recordLink(fromRequirement, toRequirement, testUser, ChangeType.LINK_REMOVED);
     }
 
     @Test
@@ -1,6 +1,7 @@
 package com.annapolislabs.lineage.service;
 
 import com.annapolislabs.lineage.dto.request.CreateRequirementRequest;
+import com.annapolislabs.lineage.dto.response.RequirementChangesResponse;
 import com.annapolislabs.lineage.dto.response.RequirementResponse;
 import com.annapolislabs.lineage.entity.*;
 import com.annapolislabs.lineage.repository.*;
@@ -10,6 +11,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.*;
 
@@ -30,7 +33,7 @@ class RequirementServiceTest {
     private ProjectMemberRepository projectMemberRepository;
 
     @Mock
-    private RequirementHistoryRepository historyRepository;
+    private RequirementHistoryService historyService;
 
     @Mock
     private RequirementLinkRepository linkRepository;
@@ -38,6 +41,9 @@ class RequirementServiceTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ProjectVersionService projectVersionService;
+
     @InjectMocks
     private RequirementService requirementService;
 
@@ -75,7 +81,6 @@ class RequirementServiceTest {
         when(projectRepository.findById(testProject.getId())).thenReturn(Optional.of(testProject));
         when(requirementRepository.findByProjectId(testProject.getId())).thenReturn(new ArrayList<>());
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         // Act
@@ -84,7 +89,7 @@ class RequirementServiceTest {
         // Assert
         assertNotNull(response);
         verify(requirementRepository).save(any(Requirement.class));
-        verify(historyRepository).save(any(RequirementHistory.class));
+        verify(historyService).recordCreated(testRequirement, testUser);
     }
 
     @Test
@@ -135,12 +140,11 @@ class RequirementServiceTest {
         request.setStatus("APPROVED");
         request.setPriority("HIGH");
 
-        when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
+        when(requirementRepository.findByIdForUpdate(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.findByProjectIdAndUserId(testProject.getId(), testUser.getId()))
                 .thenReturn(Optional.of(testMember));
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         // Act
@@ -149,40 +153,40 @@ class RequirementServiceTest {
         // Assert
         assertNotNull(response);
         verify(requirementRepository).save(any(Requirement.class));
-        verify(historyRepository).save(any(RequirementHistory.class));
+        verify(historyService).recordUpdated(eq(testRequirement), eq(testUser), anyMap());
     }
 
     @Test
     void deleteRequirement_Success() {
         // Arrange
-        when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
+        when(requirementRepository.findByIdForUpdate(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.findByProjectIdAndUserId(testProject.getId(), testUser.getId()))
                 .thenReturn(Optional.of(testMember));
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
 
         // Act
         requirementService.deleteRequirement(testRequirement.getId());
 
         // Assert
         verify(requirementRepository).save(any(Requirement.class));
-        verify(historyRepository).save(any(RequirementHistory.class));
+        verify(historyService).recordDeleted(eq(testRequirement), eq(testUser), anyMap(), anyMap());
+        verify(projectVersionService).recordChange(testProject.getId(), ProjectChange.EntityType.REQUIREMENT,
+                testRequirement.getId(), ProjectChange.Operation.DELETE);
     }
 
     @Test
     void getRequirementHistory_Success() {
         // Arrange
-        RequirementHistory history = new RequirementHistory(
-                testRequirement, testUser, ChangeType.CREATED, null, new HashMap<>()
-        );
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("changeType", ChangeType.CREATED);
 
         when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.existsByProjectIdAndUserId(testProject.getId(), testUser.getId()))
                 .thenReturn(true);
-        when(historyRepository.findByRequirementIdOrderByChangedAtDesc(testRequirement.getId()))
-                .thenReturn(Arrays.asList(history));
+        when(historyService.getHistory(eq(testRequirement.getId()), any(Pageable.class)))
+                .thenReturn(List.of(entry));
 
         // Act
         List<Map<String, Object>> historyList = requirementService.getRequirementHistory(testRequirement.getId());
@@ -190,6 +194,20 @@ class RequirementServiceTest {
         // Assert
         assertNotNull(historyList);
         assertEquals(1, historyList.size());
+        verify(historyService).getHistory(eq(testRequirement.getId()), argThat(Pageable::isUnpaged));
+    }
+
+    @Test
+    void getRequirementHistory_Paged_CapsPageSize() {
+        when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(projectMemberRepository.existsByProjectIdAndUserId(testProject.getId(), testUser.getId()))
+                .thenReturn(true);
+
+        requirementService.getRequirementHistory(testRequirement.getId(), 3, 10_000);
+
+        verify(historyService).getHistory(testRequirement.getId(),
+                PageRequest.of(3, RequirementService.MAX_HISTORY_PAGE));
     }
 
     @Test
@@ -213,7 +231,6 @@ class RequirementServiceTest {
         when(requirementRepository.findByProjectId(testProject.getId())).thenReturn(new ArrayList<>());
         when(requirementRepository.findById(parentReq.getId())).thenReturn(Optional.of(parentReq));
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.save(any(RequirementLink.class))).thenReturn(new RequirementLink());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
@@ -244,7 +261,6 @@ class RequirementServiceTest {
         when(projectRepository.findById(testProject.getId())).thenReturn(Optional.of(testProject));
         when(requirementRepository.findByProjectId(testProject.getId())).thenReturn(new ArrayList<>());
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         // Act
@@ -312,13 +328,12 @@ class RequirementServiceTest {
         request.setPriority("HIGH");
         request.setParentId(parentReq.getId());
 
-        when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
+        when(requirementRepository.findByIdForUpdate(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.findByProjectIdAndUserId(testProject.getId(), testUser.getId()))
                 .thenReturn(Optional.of(testMember));
         when(requirementRepository.findById(parentReq.getId())).thenReturn(Optional.of(parentReq));
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         // Act
@@ -343,12 +358,11 @@ class RequirementServiceTest {
         request.setPriority("HIGH");
         request.setParentId(null);
 
-        when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
+        when(requirementRepository.findByIdForUpdate(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
         when(authService.getCurrentUser()).thenReturn(testUser);
         when(projectMemberRepository.findByProjectIdAndUserId(testProject.getId(), testUser.getId()))
                 .thenReturn(Optional.of(testMember));
         when(requirementRepository.save(any(Requirement.class))).thenReturn(testRequirement);
-        when(historyRepository.save(any(RequirementHistory.class))).thenReturn(new RequirementHistory());
         when(linkRepository.findAllLinksForRequirement(any(UUID.class))).thenReturn(new ArrayList<>());
 
         // Act
@@ -363,7 +377,7 @@ class RequirementServiceTest {
     void deleteRequirement_AlreadyDeleted_ThrowsException() {
         // Arrange
         testRequirement.setDeletedAt(java.time.LocalDateTime.now());
-        when(requirementRepository.findById(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
+        when(requirementRepository.findByIdForUpdate(testRequirement.getId())).thenReturn(Optional.of(testRequirement));
 
         // Act & Assert
         assertThrows(IllegalStateException.class, () -> {
@@ -402,4 +416,75 @@ class RequirementServiceTest {
         assertEquals(1, response.getInLinkCount());  // Link to parent (higher level)
         assertEquals(1, response.getOutLinkCount()); // Link to child (lower level)
     }
+
+    @Test
+    void getChanges_ZeroCursor_ReturnsFullSnapshot() {
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(projectMemberRepository.existsByProjectIdAndUserId(testProject.getId(), testUser.getId())).thenReturn(true);
+        when(projectVersionService.currentVersion(testProject.getId())).thenReturn(12L);
+        when(requirementRepository.findByProjectIdAndDeletedAtIsNull(testProject.getId()))
+                .thenReturn(List.of(testRequirement));
+        when(linkRepository.findAllLinksForRequirement(testRequirement.getId())).thenReturn(List.of());
+        when(linkRepository.findAllLinksForProject(testProject.getId())).thenReturn(List.of());
+
+        RequirementChangesResponse changes = requirementService.getChanges(testProject.getId(), 0, 100);
+
+        assertTrue(changes.isFull());
+        assertEquals(12L, changes.getCursor());
+        assertEquals(1, changes.getRequirements().size());
+        verify(projectVersionService, never()).changesSince(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getChanges_ResolvesChangeLogToCurrentStateAndDeletions() {
+        Requirement deleted = new Requirement(testProject, "TEST-002", "Gone", "Description", testUser);
+        deleted.setId(UUID.randomUUID());
+        deleted.setDeletedAt(java.time.LocalDateTime.now());
+        UUID removedLinkId = UUID.randomUUID();
+
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(projectMemberRepository.existsByProjectIdAndUserId(testProject.getId(), testUser.getId())).thenReturn(true);
+        when(projectVersionService.currentVersion(testProject.getId())).thenReturn(9L);
+        when(projectVersionService.changesSince(testProject.getId(), 5L, 3)).thenReturn(List.of(
+                change(6, ProjectChange.EntityType.REQUIREMENT, testRequirement.getId()),
+                change(7, ProjectChange.EntityType.REQUIREMENT, deleted.getId()),
+                change(8, ProjectChange.EntityType.LINK, removedLinkId)));
+        when(requirementRepository.findAllById(any())).thenReturn(List.of(testRequirement, deleted));
+        when(linkRepository.findAllById(any())).thenReturn(List.of());
+        when(linkRepository.findAllLinksForRequirement(testRequirement.getId())).thenReturn(List.of());
+
+        RequirementChangesResponse changes = requirementService.getChanges(testProject.getId(), 5L, 2);
+
+        assertFalse(changes.isFull());
+        assertTrue(changes.isHasMore());
+        assertEquals(7L, changes.getCursor());
+        assertEquals(List.of(testRequirement.getId()),
+                changes.getRequirements().stream().map(RequirementResponse::getId).toList());
+        assertEquals(List.of(deleted.getId()), changes.getDeletedRequirementIds());
+        assertTrue(changes.getDeletedLinkIds().isEmpty(), "the link change is on the next page");
+    }
+
+    private static ProjectChangeRepository.Entry change(long version, ProjectChange.EntityType type, UUID id) {
+        return new ProjectChangeRepository.Entry() {
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public ProjectChange.EntityType getEntityType() {
+                return type;
+            }
+
+            @Override
+            public UUID getEntityId() {
+                return id;
+            }
+
+            @Override
+            public ProjectChange.Operation getOperation() {
+                return ProjectChange.Operation.UPSERT;
+            }
+        };
+    }
 }
@@ -3,6 +3,8 @@ package com.annapolislabs.lineage.service;
 import com.annapolislabs.lineage.entity.TaskAssignment;
 import com.annapolislabs.lineage.entity.User;
 import com.annapolislabs.lineage.entity.UserStatus;
+import com.annapolislabs.lineage.realtime.ProjectChangeEvent;
+import com.annapolislabs.lineage.realtime.ProjectChangePublisher;
 import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
 import com.annapolislabs.lineage.repository.UserRepository;
 import com.annapolislabs.lineage.security.SecurityAuditService;
@@ -43,6 +45,18 @@ class TaskAssignmentServiceTest {
     @Mock
     private SecurityAuditService securityAuditService;
 
+    @Mock
+    private TaskStatisticsService taskStatisticsService;
+
+    @Mock
+    private DeadlineScheduler deadlineScheduler;
+
+    @Mock
+    private EntityHydrator entityHydrator;
+
+    @Mock
+    private ProjectChangePublisher projectChangePublisher;
+
     @InjectMocks
     private TaskAssignmentService taskAssignmentService;
 
@@ -71,7 +85,9 @@ class TaskAssignmentServiceTest {
         assignment.setProjectId(projectId);
         assignment.setAssignedTo(userId);
 
-        when(taskAssignmentRepository.findWithFilters(any(), any(), any(), any(), any(), eq(pageable)))
+        when(permissionEvaluationService.getPermittedProjects(userId, "task.read"))
+                .thenReturn(PermissionEvaluationService.ProjectScope.of(Set.of(projectId)));
+        when(taskAssignmentRepository.findWithFilters(any(), any(), any(), any(), any(), any(), anyBoolean(), any(), eq(pageable)))
                 .thenReturn(new PageImpl<>(List.of(assignment)));
 
         Page<TaskAssignment> result = taskAssignmentService.searchTasks(
@@ -85,44 +101,96 @@ class TaskAssignmentServiceTest {
 
         assertEquals(1, result.getTotalElements());
         verify(taskAssignmentRepository).findWithFilters(eq(userId), isNull(), eq(projectId),
-                eq(TaskAssignment.TaskStatus.ASSIGNED), eq(TaskAssignment.TaskPriority.MEDIUM), eq(pageable));
+                eq(TaskAssignment.TaskStatus.ASSIGNED), eq(TaskAssignment.TaskPriority.MEDIUM),
+                eq(userId), eq(false), eq(Set.of(projectId)), eq(pageable));
+        verify(entityHydrator).initializeTaskCollections(List.of(assignment));
     }
 
     @Test
-    void getOverdueTasks_delegatesToRepository() {
-        TaskAssignment overdue = new TaskAssignment();
-        overdue.setAssignedTo(userId);
-        when(taskAssignmentRepository.findOverdueTasks(eq(userId), any(LocalDateTime.class)))
-                .thenReturn(List.of(overdue));
+    void searchTasks_textSearchPushesAuthorizationIntoQuery() {
+        Pageable pageable = PageRequest.of(0, 2);
+        Page<TaskAssignment> page = new PageImpl<>(List.of(new TaskAssignment(), new TaskAssignment()), pageable, 5);
+        when(permissionEvaluationService.getPermittedProjects(userId, "task.read"))
+                .thenReturn(PermissionEvaluationService.ProjectScope.none());
+        when(taskAssignmentRepository.findBySearchTerm(eq("login"), eq(userId), eq(false), any(), eq(pageable)))
+                .thenReturn(page);
+
+        Page<TaskAssignment> result = taskAssignmentService.searchTasks(
+                "login", null, null, null, null, pageable, userId);
+
+        assertSame(page, result);
+        assertEquals(5, result.getTotalElements());
+        verify(taskAssignmentRepository).findBySearchTerm(eq("login"), eq(userId), eq(false),
+                argThat(ids -> ids.size() == 1 && !ids.contains(projectId)), eq(pageable));
+        verify(permissionEvaluationService, never()).hasPermission(any(), eq("task.read"), any());
+    }
+
+    @Test
+    void getOverdueTasks_loadsIdsFromDeadlineIndexInDueOrder() {
+        TaskAssignment later = new TaskAssignment();
+        later.setId(UUID.randomUUID());
+        later.setDueDate(LocalDateTime.now().minusHours(1));
+        TaskAssignment earlier = new TaskAssignment();
+        earlier.setId(UUID.randomUUID());
+        earlier.setDueDate(LocalDateTime.now().minusDays(2));
+        List<UUID> ids = List.of(earlier.getId(), later.getId());
+        when(deadlineScheduler.findOverdue(DeadlineScheduler.ItemType.TASK, userId)).thenReturn(ids);
+        when(taskAssignmentRepository.findAllById(ids)).thenReturn(List.of(later, earlier));
 
         List<TaskAssignment> result = taskAssignmentService.getOverdueTasks(userId);
 
-        assertEquals(1, result.size());
-        verify(taskAssignmentRepository).findOverdueTasks(eq(userId), any(LocalDateTime.class));
+        assertEquals(List.of(earlier, later), result);
     }
 
     @Test
-    void getTasksDueSoon_usesWindowBounds() {
-        when(taskAssignmentRepository.findTasksDueSoon(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
+    void getTasksDueSoon_usesWindowAndSkipsQueryWhenNothingIsDue() {
+        when(deadlineScheduler.findDueWithin(DeadlineScheduler.ItemType.TASK, userId, java.time.Duration.ofDays(3)))
+                .thenReturn(List.of());
 
         List<TaskAssignment> result = taskAssignmentService.getTasksDueSoon(userId, 3);
 
-        assertNotNull(result);
-        verify(taskAssignmentRepository).findTasksDueSoon(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class));
+        assertTrue(result.isEmpty());
+        verify(taskAssignmentRepository, never()).findAllById(any());
     }
 
     @Test
-    void getTaskStatistics_requiresPermissionAndReturnsCounts() {
-        when(taskAssignmentRepository.getTaskCountByStatus()).thenReturn(List.of());
-        when(taskAssignmentRepository.getTaskCountByPriority()).thenReturn(List.of());
-        when(taskAssignmentRepository.getActiveTaskCountByUser()).thenReturn(List.of());
+    void getTaskStatistics_requiresPermissionAndReturnsProjectCounters() {
+        when(taskStatisticsService.getStatistics(projectId)).thenReturn(Map.of("by_status", Map.of()));
 
         Map<String, Object> stats = taskAssignmentService.getTaskStatistics(projectId, userId);
 
         assertTrue(stats.containsKey("by_status"));
-        verify(taskAssignmentRepository).getTaskCountByStatus();
-        verify(taskAssignmentRepository).getTaskCountByPriority();
-        verify(taskAssignmentRepository).getActiveTaskCountByUser();
+        verify(permissionEvaluationService).hasPermission(userId, "task.manage", projectId);
+        verify(taskStatisticsService).getStatistics(projectId);
+    }
+
+    @Test
+    void getTaskStatistics_deniedWithoutPermission() {
+        UUID otherUser = UUID.randomUUID();
+        when(permissionEvaluationService.hasPermission(otherUser, "task.manage", projectId)).thenReturn(false);
+
+        assertThrows(SecurityException.class, () -> taskAssignmentService.getTaskStatistics(projectId, otherUser));
+        verifyNoInteractions(taskStatisticsService);
+    }
+
+    @Test
+    void updateTaskStatus_recordsCounterTransition() {
+        TaskAssignment task = new TaskAssignment();
+        task.setId(UUID.randomUUID());
+        task.setProjectId(projectId);
+        task.setAssignedTo(userId);
+        task.setAssignedBy(userId);
+        task.setStatus(TaskAssignment.TaskStatus.IN_PROGRESS);
+        when(taskAssignmentRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        when(taskAssignmentRepository.save(task)).thenReturn(task);
+
+        taskAssignmentService.completeTask(task.getId(), "done", userId);
+
+        verify(taskStatisticsService).recordTransition(
+                new TaskStatisticsService.TaskSnapshot(projectId, TaskAssignment.TaskStatus.IN_PROGRESS,
+                        TaskAssignment.TaskPriority.MEDIUM, userId),
+                new TaskStatisticsService.TaskSnapshot(projectId, TaskAssignment.TaskStatus.COMPLETED,
+                        TaskAssignment.TaskPriority.MEDIUM, userId));
+        verify(projectChangePublisher).publishUpsert(projectId, ProjectChangeEvent.TASK, task.getId());
     }
 }
@@ -0,0 +1,146 @@
+package com.annapolislabs.lineage.service;
+
+import com.annapolislabs.lineage.entity.TaskAssignment;
+import com.annapolislabs.lineage.entity.TaskStatistic;
+import com.annapolislabs.lineage.repository.TaskAssignmentRepository;
+import com.annapolislabs.lineage.repository.TaskStatisticRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatisticsServiceTest {
+
+    @Mock
+    private TaskStatisticRepository statisticRepository;
+
+    @Mock
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Mock
+    private AdvisoryLockLeader leader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TaskStatisticsService taskStatisticsService;
+
+    private UUID projectId;
+    private UUID assignee;
+
+    @BeforeEach
+    void setUp() {
+        projectId = UUID.randomUUID();
+        assignee = UUID.randomUUID();
+    }
+
+    @Test
+    void recordCreated_incrementsStatusPriorityAndActiveAssignee() {
+        TaskAssignment task = new TaskAssignment();
+        task.setProjectId(projectId);
+        task.setAssignedTo(assignee);
+        task.setPriority(TaskAssignment.TaskPriority.HIGH);
+
+        taskStatisticsService.recordCreated(task);
+
+        verify(statisticRepository).lockProjectShared(projectId);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_STATUS, "ASSIGNED", 1L);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_PRIORITY, "HIGH", 1L);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE, assignee.toString(), 1L);
+    }
+
+    @Test
+    void recordTransition_onlyWritesChangedBuckets() {
+        TaskStatisticsService.TaskSnapshot before = new TaskStatisticsService.TaskSnapshot(
+                projectId, TaskAssignment.TaskStatus.IN_PROGRESS, TaskAssignment.TaskPriority.LOW, assignee);
+        TaskStatisticsService.TaskSnapshot after = new TaskStatisticsService.TaskSnapshot(
+                projectId, TaskAssignment.TaskStatus.COMPLETED, TaskAssignment.TaskPriority.LOW, assignee);
+
+        taskStatisticsService.recordTransition(before, after);
+
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_STATUS, "IN_PROGRESS", -1L);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_STATUS, "COMPLETED", 1L);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE, assignee.toString(), -1L);
+        verify(statisticRepository, never()).increment(any(), eq(TaskStatistic.DIMENSION_PRIORITY), anyString(), anyLong());
+    }
+
+    @Test
+    void recordTransition_skipsTasksWithoutProject() {
+        TaskStatisticsService.TaskSnapshot snapshot = new TaskStatisticsService.TaskSnapshot(
+                null, TaskAssignment.TaskStatus.ASSIGNED, TaskAssignment.TaskPriority.LOW, assignee);
+
+        taskStatisticsService.recordTransition(null, snapshot);
+
+        verifyNoInteractions(statisticRepository);
+    }
+
+    @Test
+    void getStatistics_fillsMissingBucketsWithZero() {
+        when(statisticRepository.findByProjectId(projectId)).thenReturn(List.of(
+                new TaskStatistic(projectId, TaskStatistic.DIMENSION_STATUS, "ASSIGNED", 3),
+                new TaskStatistic(projectId, TaskStatistic.DIMENSION_PRIORITY, "HIGH", 3),
+                new TaskStatistic(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE, assignee.toString(), 3),
+                new TaskStatistic(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE, UUID.randomUUID().toString(), 0)));
+
+        Map<String, Object> stats = taskStatisticsService.getStatistics(projectId);
+
+        Map<?, ?> byStatus = (Map<?, ?>) stats.get("by_status");
+        assertEquals(3L, byStatus.get("ASSIGNED"));
+        assertEquals(0L, byStatus.get("COMPLETED"));
+        assertEquals(Map.of(assignee.toString(), 3L), stats.get("active_by_user"));
+        assertEquals(3L, stats.get("total"));
+    }
+
+    @Test
+    void rebuild_replacesCountersFromTaskRows() {
+        when(taskAssignmentRepository.getTaskCountByStatus(projectId)).thenReturn(
+                List.<Object[]>of(new Object[]{TaskAssignment.TaskStatus.ASSIGNED, 2L}));
+        when(taskAssignmentRepository.getTaskCountByPriority(projectId)).thenReturn(
+                List.<Object[]>of(new Object[]{TaskAssignment.TaskPriority.MEDIUM, 2L}));
+        when(taskAssignmentRepository.getActiveTaskCountByUser(projectId)).thenReturn(
+                List.<Object[]>of(new Object[]{assignee, 2L}));
+
+        taskStatisticsService.rebuild(projectId);
+
+        var inOrder = inOrder(statisticRepository);
+        inOrder.verify(statisticRepository).lockProjectExclusive(projectId);
+        inOrder.verify(statisticRepository).deleteByProjectId(projectId);
+        inOrder.verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_STATUS, "ASSIGNED", 2L);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_PRIORITY, "MEDIUM", 2L);
+        verify(statisticRepository).increment(projectId, TaskStatistic.DIMENSION_ACTIVE_ASSIGNEE, assignee.toString(), 2L);
+    }
+
+    @Test
+    void rebuildAll_continuesAfterProjectFailure() {
+        UUID failing = UUID.randomUUID();
+        when(taskAssignmentRepository.findDistinctProjectIds()).thenReturn(List.of(failing, projectId));
+        when(statisticRepository.findProjectIds()).thenReturn(List.of(projectId));
+        when(statisticRepository.lockProjectExclusive(failing)).thenThrow(new IllegalStateException("boom"));
+
+        taskStatisticsService.rebuildAll();
+
+        verify(statisticRepository).deleteByProjectId(projectId);
+        verify(statisticRepository, never()).deleteByProjectId(failing);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void scheduledRebuild_skipsWhenAnotherNodeIsLeader() {
+        when(leader.runIfLeader(eq(TaskStatisticsService.REBUILD_LOCK_NAME), any())).thenReturn(false);
+
+        taskStatisticsService.scheduledRebuild();
+
+        verifyNoInteractions(taskAssignmentRepository, statisticRepository, transactionManager);
+    }
+}